@@ -0,0 +1,158 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.yamass.redg.benchmarks;
+
+import de.yamass.redg.generated.benchmark.GAddress;
+import de.yamass.redg.generated.benchmark.GCustomer;
+import de.yamass.redg.generated.benchmark.GProduct;
+import de.yamass.redg.generated.benchmark.GPurchaseOrder;
+import de.yamass.redg.generated.benchmark.RedG;
+import de.yamass.redg.util.ScriptRunner;
+import org.h2.jdbcx.JdbcDataSource;
+
+import javax.sql.DataSource;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+/**
+ * Builds the datasets for the benchmarks on the schema in {@code benchmark-schema.sql}.
+ */
+final class BenchmarkDataset {
+
+    /**
+     * The number of products shared by all orders
+     */
+    static final int PRODUCT_COUNT = 100;
+
+    private static final Timestamp TIMESTAMP = Timestamp.valueOf("2020-01-01 12:00:00");
+
+    private static final Date DATE = Date.valueOf("1990-01-01");
+
+    private BenchmarkDataset() {
+    }
+
+    /**
+     * Adds {@code entityCount} entities to the RedG instance with all values set explicitly. Every customer gets an address and two orders with two
+     * lines each, the order lines reference a fixed set of {@value #PRODUCT_COUNT} products.
+     *
+     * @param redG        The RedG instance
+     * @param entityCount The number of entities to add, has to be greater than {@value #PRODUCT_COUNT}
+     */
+    static void populate(final RedG redG, final int entityCount) {
+        final GProduct[] products = new GProduct[PRODUCT_COUNT];
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            products[i] = redG.addProduct()
+                    .id(BigDecimal.valueOf(i))
+                    .name("Product " + i)
+                    .price(BigDecimal.valueOf(100 + i, 2))
+                    .description("The description of product " + i);
+        }
+        int count = PRODUCT_COUNT;
+        long id = 0;
+        while (count < entityCount) {
+            final GCustomer customer = redG.addCustomer()
+                    .id(BigDecimal.valueOf(id))
+                    .firstName("First " + id)
+                    .lastName("Last " + id)
+                    .email("customer" + id + "@example.com")
+                    .birthDate(DATE)
+                    .createdAt(TIMESTAMP)
+                    .active(true);
+            final GAddress address = redG.addAddress(customer)
+                    .id(BigDecimal.valueOf(id))
+                    .street("Street " + id)
+                    .city("City")
+                    .zip("12345")
+                    .country("DE");
+            count += 2;
+            for (int order = 0; order < 2 && count < entityCount; order++) {
+                final GPurchaseOrder purchaseOrder = redG.addPurchaseOrder(customer)
+                        .id(BigDecimal.valueOf(2 * id + order))
+                        .shippingAddressIdAddress(address)
+                        .orderedAt(TIMESTAMP)
+                        .status("NEW");
+                count++;
+                for (int line = 0; line < 2 && count < entityCount; line++) {
+                    final GProduct product = products[(int) ((id + line) % PRODUCT_COUNT)];
+                    redG.addOrderLine(purchaseOrder, product)
+                            .lineNumber(BigDecimal.valueOf(line))
+                            .quantity(BigDecimal.ONE)
+                            .unitPrice(product.price());
+                    count++;
+                }
+            }
+            id++;
+        }
+    }
+
+    /**
+     * Adds {@code rowsPerTable} entities for every table to the RedG instance. Every customer gets an address and an order with a single line,
+     * every order line references its own product.
+     *
+     * @param redG         The RedG instance
+     * @param rowsPerTable The number of rows of every table
+     */
+    static void populatePerTable(final RedG redG, final int rowsPerTable) {
+        for (int i = 0; i < rowsPerTable; i++) {
+            final BigDecimal id = BigDecimal.valueOf(i);
+            final GProduct product = redG.addProduct()
+                    .id(id)
+                    .name("Product " + i)
+                    .price(BigDecimal.valueOf(100 + i, 2));
+            final GCustomer customer = redG.addCustomer()
+                    .id(id)
+                    .lastName("Last " + i)
+                    .createdAt(TIMESTAMP)
+                    .active(i % 2 == 0);
+            final GAddress address = redG.addAddress(customer)
+                    .id(id)
+                    .street("Street " + i)
+                    .city("City")
+                    .country("DE");
+            final GPurchaseOrder purchaseOrder = redG.addPurchaseOrder(customer)
+                    .id(id)
+                    .shippingAddressIdAddress(address)
+                    .orderedAt(TIMESTAMP)
+                    .status("NEW");
+            redG.addOrderLine(purchaseOrder, product)
+                    .lineNumber(BigDecimal.ONE)
+                    .quantity(BigDecimal.ONE)
+                    .unitPrice(product.price());
+        }
+    }
+
+    /**
+     * Creates a new in-memory H2 database containing the (empty) benchmark schema.
+     *
+     * @param name The name of the database
+     * @return A data source for the database
+     */
+    static DataSource createDatabase(final String name) throws Exception {
+        final JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        ScriptRunner.executeScript(dataSource, () -> new InputStreamReader(
+                BenchmarkDataset.class.getResourceAsStream("/benchmark-schema.sql"), StandardCharsets.UTF_8));
+        return dataSource;
+    }
+}
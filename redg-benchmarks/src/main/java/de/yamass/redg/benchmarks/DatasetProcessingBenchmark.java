@@ -0,0 +1,68 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.yamass.redg.benchmarks;
+
+import de.yamass.redg.generated.benchmark.RedG;
+import de.yamass.redg.runtime.EntitySorter;
+import de.yamass.redg.runtime.RedGEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the work RedG does on a finished dataset before talking to the database: sorting the entities and rendering the SQL statements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class DatasetProcessingBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int entityCount;
+
+    private RedG redG;
+
+    @Setup(Level.Trial)
+    public void createDataset() {
+        redG = new RedG();
+        BenchmarkDataset.populate(redG, entityCount);
+    }
+
+    @Benchmark
+    public List<RedGEntity> sortEntities() {
+        return EntitySorter.sortEntities(redG.getEntities());
+    }
+
+    @Benchmark
+    public List<String> generateSQLStatements() {
+        return redG.generateSQLStatements();
+    }
+}
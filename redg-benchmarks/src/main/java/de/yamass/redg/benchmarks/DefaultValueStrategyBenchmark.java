@@ -0,0 +1,97 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.yamass.redg.benchmarks;
+
+import de.yamass.redg.generated.benchmark.GCustomer;
+import de.yamass.redg.generated.benchmark.GProduct;
+import de.yamass.redg.generated.benchmark.GPurchaseOrder;
+import de.yamass.redg.generated.benchmark.RedG;
+import de.yamass.redg.runtime.defaultvalues.DefaultDefaultValueStrategy;
+import de.yamass.redg.runtime.defaultvalues.DefaultValueStrategy;
+import de.yamass.redg.runtime.defaultvalues.DefaultValueStrategyBuilder;
+import de.yamass.redg.runtime.defaultvalues.pluggable.ConditionalProvider;
+import de.yamass.redg.runtime.defaultvalues.pluggable.DefaultDefaultValueProvider;
+import de.yamass.redg.runtime.defaultvalues.pluggable.IncrementingNumberProvider;
+import de.yamass.redg.runtime.defaultvalues.pluggable.PluggableDefaultValueStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures building a dataset through the generated API where every value except the foreign keys comes from the default value strategy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class DefaultValueStrategyBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int entityCount;
+
+    /**
+     * DEFAULT: {@link DefaultDefaultValueStrategy}, PLUGGABLE: incrementing IDs through a {@link PluggableDefaultValueStrategy}, BUILDER: incrementing
+     * IDs through a strategy built with the {@link DefaultValueStrategyBuilder}
+     */
+    @Param({"DEFAULT", "PLUGGABLE", "BUILDER"})
+    String strategy;
+
+    @Benchmark
+    public RedG populate() {
+        final RedG redG = new RedG();
+        redG.setDefaultValueStrategy(createStrategy());
+        final GProduct product = redG.addProduct();
+        int count = 1;
+        while (count < entityCount) {
+            final GCustomer customer = redG.addCustomer();
+            redG.addAddress(customer);
+            final GPurchaseOrder order = redG.addPurchaseOrder(customer);
+            redG.addOrderLine(order, product);
+            count += 4;
+        }
+        return redG;
+    }
+
+    private DefaultValueStrategy createStrategy() {
+        switch (strategy) {
+            case "PLUGGABLE":
+                final PluggableDefaultValueStrategy pluggableStrategy = new PluggableDefaultValueStrategy();
+                pluggableStrategy.addProvider(new ConditionalProvider(new IncrementingNumberProvider(), null, null, "ID|LINE_NUMBER"));
+                pluggableStrategy.addProvider(new DefaultDefaultValueProvider());
+                return pluggableStrategy;
+            case "BUILDER":
+                final AtomicLong id = new AtomicLong();
+                final DefaultValueStrategyBuilder builder = new DefaultValueStrategyBuilder();
+                builder.whenColumnNameMatches("ID|LINE_NUMBER").thenCompute((column, type) -> BigDecimal.valueOf(id.incrementAndGet()));
+                return builder.build();
+            default:
+                return new DefaultDefaultValueStrategy();
+        }
+    }
+}
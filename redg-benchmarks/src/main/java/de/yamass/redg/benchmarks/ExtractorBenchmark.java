@@ -0,0 +1,94 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.yamass.redg.benchmarks;
+
+import de.yamass.redg.extractor.CodeGenerator;
+import de.yamass.redg.extractor.DataExtractor;
+import de.yamass.redg.extractor.model.EntityModel;
+import de.yamass.redg.generated.benchmark.GAddress;
+import de.yamass.redg.generated.benchmark.GCustomer;
+import de.yamass.redg.generated.benchmark.GOrderLine;
+import de.yamass.redg.generated.benchmark.GProduct;
+import de.yamass.redg.generated.benchmark.GPurchaseOrder;
+import de.yamass.redg.generated.benchmark.RedG;
+import de.yamass.redg.models.TableModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the extractor on a source database with {@code rowsPerTable} rows in every table of the benchmark schema: {@link
+ * DataExtractor#extractAllData(DataSource, List)} (fetching the rows, resolving the references between them and sorting them) and the
+ * generation of the code for the extracted entities.
+ * <p>
+ * The row counts grow by a factor of four, so the growth of the scores shows the complexity directly. The peak heap usage is reported by the
+ * {@link PeakHeapProfiler} (always enabled by the {@link BenchmarkRunner}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class ExtractorBenchmark {
+
+    @Param({"100", "400", "1600"})
+    int rowsPerTable;
+
+    private DataSource dataSource;
+
+    private List<TableModel> tableModels;
+
+    private List<EntityModel> entityModels;
+
+    @Setup(Level.Trial)
+    public void createSourceDatabase() throws Exception {
+        dataSource = BenchmarkDataset.createDatabase("redg-extractor-benchmark");
+        final RedG redG = new RedG();
+        BenchmarkDataset.populatePerTable(redG, rowsPerTable);
+        try (Connection connection = dataSource.getConnection()) {
+            redG.insertDataIntoDatabase(connection);
+        }
+        tableModels = Arrays.asList(GCustomer.getTableModel(), GAddress.getTableModel(), GProduct.getTableModel(),
+                GPurchaseOrder.getTableModel(), GOrderLine.getTableModel());
+        entityModels = new DataExtractor().extractAllData(dataSource, tableModels);
+    }
+
+    @Benchmark
+    public List<EntityModel> extractAllData() throws Exception {
+        return new DataExtractor().extractAllData(dataSource, tableModels);
+    }
+
+    @Benchmark
+    public String generateCode() {
+        return new CodeGenerator().generateCode("de.yamass.redg.generated.benchmark", "RedG", "ExtractedDataSet", entityModels);
+    }
+}
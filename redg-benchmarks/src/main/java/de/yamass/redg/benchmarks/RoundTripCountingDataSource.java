@@ -0,0 +1,146 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.yamass.redg.benchmarks;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * A data source that counts the database round trips made through its connections: every {@link DatabaseMetaData} call returning a result set
+ * and every executed statement.
+ */
+final class RoundTripCountingDataSource implements DataSource {
+
+    private final DataSource delegate;
+
+    private final AtomicLong metadataCalls = new AtomicLong();
+
+    private final AtomicLong statementExecutions = new AtomicLong();
+
+    RoundTripCountingDataSource(final DataSource delegate) {
+        this.delegate = delegate;
+    }
+
+    long getMetadataCalls() {
+        return metadataCalls.get();
+    }
+
+    long getStatementExecutions() {
+        return statementExecutions.get();
+    }
+
+    void reset() {
+        metadataCalls.set(0);
+        statementExecutions.set(0);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(delegate.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return wrapConnection(delegate.getConnection(username, password));
+    }
+
+    private Connection wrapConnection(final Connection connection) {
+        return proxy(Connection.class, connection, (method, result) -> {
+            if (result instanceof DatabaseMetaData) {
+                return proxy(DatabaseMetaData.class, result, (metadataMethod, metadataResult) -> {
+                    if (metadataResult instanceof ResultSet) {
+                        metadataCalls.incrementAndGet();
+                    }
+                    return metadataResult;
+                });
+            }
+            if (result instanceof Statement) {
+                return proxy(method.getReturnType(), result, (statementMethod, statementResult) -> {
+                    if (statementMethod.getName().startsWith("execute")) {
+                        statementExecutions.incrementAndGet();
+                    }
+                    return statementResult;
+                });
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(final Class<T> type, final Object target, final ResultHandler resultHandler) {
+        final InvocationHandler handler = (proxy, method, args) -> {
+            final Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            return resultHandler.handle(method, result);
+        };
+        return (T) Proxy.newProxyInstance(RoundTripCountingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private interface ResultHandler {
+        Object handle(Method method, Object result);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(final PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(final int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+        return delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+        return delegate.isWrapperFor(iface);
+    }
+}
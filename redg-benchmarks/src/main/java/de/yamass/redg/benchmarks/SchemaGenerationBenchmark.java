@@ -0,0 +1,178 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.yamass.redg.benchmarks;
+
+import de.yamass.redg.generator.CodeGenerator;
+import de.yamass.redg.generator.Constants;
+import de.yamass.redg.generator.RedGGenerator;
+import de.yamass.redg.generator.extractor.conveniencesetterprovider.ConvenienceSetterProvider;
+import de.yamass.redg.generator.extractor.datatypeprovider.DefaultDataTypeProvider;
+import de.yamass.redg.generator.extractor.explicitattributedecider.DefaultExplicitAttributeDecider;
+import de.yamass.redg.generator.extractor.nameprovider.DefaultNameProvider;
+import de.yamass.redg.models.TableModel;
+import de.yamass.redg.schema.model.SchemaInspectionResult;
+import de.yamass.redg.synthetic.SyntheticSchema;
+import de.yamass.redg.synthetic.SyntheticSchemaSpec;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the three steps of the code generation separately on synthetic schemas (see {@link SyntheticSchema}) in an in-memory H2 database:
+ * the schema inspection, the transformation into the generator model and the code generation itself.
+ * <p>
+ * Besides the time, the inspection reports the database round trips ({@code metadataCalls} and {@code statementExecutions}) and the code
+ * generation the number of bytes written ({@code bytesWritten}). JMH sums these counters over all measurement iterations, so they have to be
+ * divided by the iteration count ({@code Cnt}) to get the values of a single run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class SchemaGenerationBenchmark {
+
+    private static final String TARGET_PACKAGE = "de.yamass.redg.generated.synthetic";
+
+    @Param({"100", "1000", "5000"})
+    int tableCount;
+
+    /**
+     * The number of value columns per table, not counting the key and foreign key columns
+     */
+    @Param({"10"})
+    int columnCount;
+
+    /**
+     * The average number of foreign keys per table
+     */
+    @Param({"1.5"})
+    double foreignKeyDensity;
+
+    private RoundTripCountingDataSource dataSource;
+
+    private SchemaInspectionResult inspectionResult;
+
+    private List<TableModel> tableModels;
+
+    private Path tempDirectory;
+
+    private Path targetDirectory;
+
+    @Setup(Level.Trial)
+    public void createSchema() throws Exception {
+        final JdbcDataSource database = new JdbcDataSource();
+        database.setURL("jdbc:h2:mem:redg-schema-benchmark;DB_CLOSE_DELAY=-1");
+        try (Connection connection = database.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        SyntheticSchema.generate(SyntheticSchemaSpec.builder()
+                .tableCount(tableCount)
+                .columnsPerTable(columnCount)
+                .foreignKeyDensity(foreignKeyDensity)
+                .build())
+                .load(database);
+        dataSource = new RoundTripCountingDataSource(database);
+        inspectionResult = RedGGenerator.inspectSchemas(dataSource, List.of("PUBLIC"));
+        tableModels = transform(inspectionResult);
+        tempDirectory = Files.createTempDirectory("redg-benchmark");
+        targetDirectory = RedGGenerator.createPackageFolderStructure(tempDirectory, TARGET_PACKAGE);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteGeneratedCode() throws IOException {
+        try (Stream<Path> files = Files.walk(tempDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public SchemaInspectionResult inspectSchemas(final RoundTrips roundTrips) {
+        dataSource.reset();
+        final SchemaInspectionResult result = RedGGenerator.inspectSchemas(dataSource, List.of("PUBLIC"));
+        roundTrips.metadataCalls += dataSource.getMetadataCalls();
+        roundTrips.statementExecutions += dataSource.getStatementExecutions();
+        return result;
+    }
+
+    @Benchmark
+    public List<TableModel> transformSchemaModel() {
+        return transform(inspectionResult);
+    }
+
+    @Benchmark
+    public void generate(final BytesWritten bytesWritten) throws IOException {
+        new CodeGenerator().generate(tableModels, targetDirectory, false);
+        try (Stream<Path> files = Files.list(targetDirectory)) {
+            bytesWritten.bytesWritten += files.mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+    private static List<TableModel> transform(final SchemaInspectionResult inspectionResult) {
+        return RedGGenerator.transformSchemaModel(inspectionResult, Constants.DEFAULT_CLASS_PREFIX, TARGET_PACKAGE, new DefaultDataTypeProvider(),
+                new DefaultNameProvider(), new DefaultExplicitAttributeDecider(), ConvenienceSetterProvider.NONE);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+
+        public long metadataCalls;
+
+        public long statementExecutions;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            metadataCalls = 0;
+            statementExecutions = 0;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class BytesWritten {
+
+        public long bytesWritten;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytesWritten = 0;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+-- A small web shop schema used by the benchmarks. It mixes the features the generated code has to deal with:
+-- single and composite primary keys, not null and nullable foreign keys and the common column types.
+
+create table CUSTOMER (
+  ID number(19) not null primary key,
+  FIRST_NAME varchar2(50 CHARACTERS),
+  LAST_NAME varchar2(50 CHARACTERS) not null,
+  EMAIL varchar2(100 CHARACTERS),
+  BIRTH_DATE date,
+  CREATED_AT timestamp not null,
+  ACTIVE boolean not null
+);
+
+create table ADDRESS (
+  ID number(19) not null primary key,
+  CUSTOMER_ID number(19) not null,
+  STREET varchar2(100 CHARACTERS) not null,
+  CITY varchar2(50 CHARACTERS) not null,
+  ZIP varchar2(10 CHARACTERS),
+  COUNTRY char(2) not null,
+
+  constraint FK_ADDRESS_CUSTOMER foreign key (CUSTOMER_ID) references CUSTOMER(ID)
+);
+
+create table PRODUCT (
+  ID number(19) not null primary key,
+  NAME varchar2(100 CHARACTERS) not null,
+  PRICE decimal(10, 2) not null,
+  DESCRIPTION varchar2(1000 CHARACTERS)
+);
+
+create table PURCHASE_ORDER (
+  ID number(19) not null primary key,
+  CUSTOMER_ID number(19) not null,
+  SHIPPING_ADDRESS_ID number(19),
+  ORDERED_AT timestamp not null,
+  STATUS varchar2(20 CHARACTERS) not null,
+
+  constraint FK_ORDER_CUSTOMER foreign key (CUSTOMER_ID) references CUSTOMER(ID),
+  constraint FK_ORDER_SHIPPING_ADDRESS foreign key (SHIPPING_ADDRESS_ID) references ADDRESS(ID)
+);
+
+create table ORDER_LINE (
+  ORDER_ID number(19) not null,
+  LINE_NUMBER number(5) not null,
+  PRODUCT_ID number(19) not null,
+  QUANTITY number(5) not null,
+  UNIT_PRICE decimal(10, 2) not null,
+
+  primary key (ORDER_ID, LINE_NUMBER),
+  constraint FK_ORDER_LINE_ORDER foreign key (ORDER_ID) references PURCHASE_ORDER(ID),
+  constraint FK_ORDER_LINE_PRODUCT foreign key (PRODUCT_ID) references PRODUCT(ID)
+);
@@ -86,11 +86,20 @@ public class ScriptRunner {
 		}
 	}
 
+	/**
+	 * Executes a single SQL script like {@link #executeScripts(DataSource, File...)}. The script is read while it gets executed, so it never has to
+	 * be held in memory completely.
+	 *
+	 * @param dataSource The data source providing a JDBC connection to use for script execution
+	 * @param sqlScript  Opens the reader of the script, which gets closed afterwards
+	 * @throws IOException  Gets thrown when reading the script fails
+	 * @throws SQLException Gets thrown when the a part of the SQL could not be executed
+	 */
 	public static void executeScript(DataSource dataSource, Supplier<Reader> sqlScript) throws SQLException, IOException {
-		try (Connection connection = dataSource.getConnection()) {
+		try (Connection connection = dataSource.getConnection(); Reader reader = sqlScript.get()) {
 			final ScriptRunner scriptRunner = new ScriptRunner(connection, true, true);
 			try {
-				scriptRunner.runScript(sqlScript.get());
+				scriptRunner.runScript(reader);
 				LOG.info("Script finished successfully.");
 			} catch (IOException e) {
 				if (e.getCause() instanceof SQLException) {
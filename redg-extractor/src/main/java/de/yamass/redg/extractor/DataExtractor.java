@@ -141,7 +141,12 @@ public class DataExtractor {
                 String fullTableName = getFullTableName(tableModel);
                 LOG.debug("Fetching data from table {}...", fullTableName);
                 // Don't use String.format as it might cause issues with quoted identifiers in some cases
+                final TableQueryEvent queryEvent = new TableQueryEvent();
+                queryEvent.begin();
                 final ResultSet rs = st.executeQuery("SELECT * FROM " + fullTableName);
+                queryEvent.finish(fullTableName);
+                final TableFetchEvent fetchEvent = new TableFetchEvent();
+                fetchEvent.begin();
                 long counter = 0;
                 while (rs.next()) {
                     ++counter;
@@ -189,6 +194,7 @@ public class DataExtractor {
                     entities.add(entityModel);
 
                 }
+                fetchEvent.finish(fullTableName, counter);
                 LOG.debug("Extracted {} entities from table {}", counter, getFullTableName(tableModel));
             }
         }
@@ -0,0 +1,51 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.extractor;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for fetching all rows of a single table and converting them into entity models. Disabled by default.
+ */
+@Name("de.yamass.redg.TableFetch")
+@Label("RedG Table Fetch")
+@Description("Fetching the rows of a table during extraction")
+@Category({"RedG", "Extraction"})
+@Enabled(false)
+@StackTrace(false)
+final class TableFetchEvent extends Event {
+
+    @Label("Table")
+    String table;
+
+    @Label("Rows")
+    long rows;
+
+    void finish(final String table, final long rows) {
+        if (shouldCommit()) {
+            this.table = table;
+            this.rows = rows;
+            commit();
+        }
+    }
+}
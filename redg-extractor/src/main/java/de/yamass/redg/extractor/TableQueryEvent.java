@@ -0,0 +1,47 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.extractor;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for executing the query that selects the data of a single table. Disabled by default.
+ */
+@Name("de.yamass.redg.TableQuery")
+@Label("RedG Table Query")
+@Description("Executing the query for the data of a table during extraction")
+@Category({"RedG", "Extraction"})
+@Enabled(false)
+@StackTrace(false)
+final class TableQueryEvent extends Event {
+
+    @Label("Table")
+    String table;
+
+    void finish(final String table) {
+        if (shouldCommit()) {
+            this.table = table;
+            commit();
+        }
+    }
+}
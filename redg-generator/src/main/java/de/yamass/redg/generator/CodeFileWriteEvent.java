@@ -0,0 +1,53 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.generator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for writing a single generated source file. Includes rendering the template, since the code is rendered
+ * directly into the file. Disabled by default.
+ */
+@Name("de.yamass.redg.CodeFileWrite")
+@Label("RedG Code File Write")
+@Description("Writing a generated source file during code generation")
+@Category({"RedG", "Code Generation"})
+@Enabled(false)
+@StackTrace(false)
+final class CodeFileWriteEvent extends Event {
+
+    @Label("Class Name")
+    String className;
+
+    @Label("Length")
+    @Description("The number of characters written")
+    int length;
+
+    void finish(final String className, final int length) {
+        if (shouldCommit()) {
+            this.className = className;
+            this.length = length;
+            commit();
+        }
+    }
+}
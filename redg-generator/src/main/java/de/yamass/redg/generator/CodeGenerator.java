@@ -23,27 +23,48 @@ import de.yamass.redg.generator.utils.JavaStringEscapeMap;
 import de.yamass.redg.models.TableModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.stringtemplate.v4.AutoIndentWriter;
 import org.stringtemplate.v4.ST;
 import org.stringtemplate.v4.STGroup;
 import org.stringtemplate.v4.STGroupString;
 import org.stringtemplate.v4.StringRenderer;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Collection;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
 
 /**
  * The class that manages the templates and does all the code generation
+ * <p>
+ * The code for the tables is generated in parallel (see {@link #setParallelism(int)}). Since an {@link STGroup} caches lookups in unsynchronized
+ * maps, every thread renders with its own template group, parsed from the same template source.
+ * <p>
+ * The templates are rendered straight into the target files, so the generated code of a class (especially of the main class for large schemas)
+ * never has to be held in memory as a whole.
  */
 public class CodeGenerator {
 
     private static final Logger LOG = LoggerFactory.getLogger(CodeGenerator.class);
 
-    private STGroup stGroup;
+    private final String templateSource;
+
+    private final String sqlEscapeString;
+
+    private final ThreadLocal<STGroup> stGroup = ThreadLocal.withInitial(this::createGroup);
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
 
     /**
      * Creates a new code generator using the default 'templates.stg' template file and escaping of identifiers
@@ -69,14 +90,9 @@ public class CodeGenerator {
         try {
             LOG.info("Loading code templates...");
             final InputStream is = getClass().getClassLoader().getResourceAsStream(templateResource);
-            this.stGroup = new STGroupString(this.getStreamAsString(is));
-            this.stGroup.registerRenderer(String.class, new StringRenderer());
-            this.stGroup.defineDictionary("escape", new JavaStringEscapeMap());
-            if (sqlEscapeString != null) {
-                this.stGroup.defineDictionary("escapeSql", new JavaSqlStringEscapeMap(sqlEscapeString));
-            } else {
-                this.stGroup.defineDictionary("escapeSql", new JavaSqlStringEscapeMap());
-            }
+            this.templateSource = this.getStreamAsString(is);
+            this.sqlEscapeString = sqlEscapeString;
+            this.stGroup.get();
             LOG.info("Loading successful.");
         } catch (IOException e) {
             LOG.error("Loading failed.", e);
@@ -99,6 +115,23 @@ public class CodeGenerator {
         this(templateResource, null);
     }
 
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of threads generating the code for the tables. Defaults to the number of available processors. With {@code 1}, the code is
+     * generated in the calling thread.
+     *
+     * @param parallelism The number of threads
+     */
+    public void setParallelism(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism has to be at least 1");
+        }
+        this.parallelism = parallelism;
+    }
+
     /**
      * Generates the code from the given set of tables and writes the output into the passed folder. Each table results
      * in two files (one for the main entity, one for the existing entity reference) and a "main" manager class is generated as well,
@@ -112,35 +145,205 @@ public class CodeGenerator {
     public void generate(List<TableModel> tables, Path targetWithPkgFolders, final boolean enableVisualizationSupport) {
         LOG.info("Starting code generation...");
         LOG.info("Generation code for tables...");
+        generateTables(tables, targetWithPkgFolders, enableVisualizationSupport);
+        LOG.info("Generating code for main builder class...");
+        writeMainClassFile(tables, targetWithPkgFolders, enableVisualizationSupport);
+        LOG.info("Code generation finished successfully.");
+    }
+
+    /**
+     * Generates the code like {@link #generate(List, Path, boolean)} does, but only for the tables that changed since the last generation into
+     * the same folder.
+     * <p>
+     * Every generated class gets a fingerprint of its table model, the templates and the visualization setting (see
+     * {@link #getFingerprint(TableModel, boolean)}), stored in a {@link GenerationManifest} next to the code. Tables whose fingerprint did not
+     * change and whose files all exist are not written again, so their files keep their modification time and incremental compilers do not
+     * recompile them. The manifest lists every generated class, so the files of tables that are no longer part of the model are deleted. The main
+     * class gets generated again if any table changed.
+     *
+     * @param tables                     The table models that code should be generated for.
+     * @param targetWithPkgFolders       The path pointing to the location the .java files should be places at.
+     * @param enableVisualizationSupport If {@code true}, the RedG visualization features will be enabled for the generated code.
+     */
+    public void generateIncrementally(List<TableModel> tables, Path targetWithPkgFolders, final boolean enableVisualizationSupport) {
+        LOG.info("Starting incremental code generation...");
+        final GenerationManifest previousManifest;
+        try {
+            previousManifest = GenerationManifest.read(targetWithPkgFolders);
+            // a failed generation must not leave a manifest behind that does not match the files
+            GenerationManifest.delete(targetWithPkgFolders);
+        } catch (IOException e) {
+            LOG.error("Failed reading the generation manifest", e);
+            throw new RedGGenerationException("Failed reading the generation manifest", e);
+        }
+        final GenerationManifest manifest = new GenerationManifest();
+        final List<TableModel> changedTables = new ArrayList<>();
+        final MessageDigest mainClassDigest = createDigest();
         for (TableModel table : tables) {
-            LOG.debug("Generating code for table {} ({})", table.getSqlFullName(), table.getName());
-            try {
-                final String result = generateCodeForTable(table, enableVisualizationSupport);
-                FileUtils.writeCodeFile(targetWithPkgFolders, table.getClassName(), result);
+            final String fingerprint = getFingerprint(table, enableVisualizationSupport);
+            boolean filesMissing = false;
+            for (String className : getGeneratedClassNames(table)) {
+                manifest.put(className, fingerprint);
+                filesMissing |= !Files.exists(targetWithPkgFolders.resolve(className + ".java"));
+            }
+            mainClassDigest.update(fingerprint.getBytes(StandardCharsets.UTF_8));
+            if (filesMissing || !fingerprint.equals(previousManifest.getFingerprint(table.getClassName()))) {
+                changedTables.add(table);
+            }
+        }
+        final String mainClassFingerprint = HexFormat.of().formatHex(mainClassDigest.digest());
+        manifest.put("RedG", mainClassFingerprint);
 
-                if (!table.getPrimaryKeyColumns().isEmpty()) {
-                    final String existingResult = generateExistingClassCodeForTable(table);
-                    FileUtils.writeCodeFile(targetWithPkgFolders, "Existing" + table.getClassName(), existingResult);
+        try {
+            for (String className : previousManifest.getClassNames()) {
+                if (manifest.getFingerprint(className) == null) {
+                    LOG.debug("Deleting the code of the removed class {}", className);
+                    Files.deleteIfExists(targetWithPkgFolders.resolve(className + ".java"));
                 }
+            }
+        } catch (IOException e) {
+            LOG.error("Failed deleting stale code files", e);
+            throw new RedGGenerationException("Failed deleting stale code files", e);
+        }
+
+        LOG.info("Generating code for {} of {} tables...", changedTables.size(), tables.size());
+        generateTables(changedTables, targetWithPkgFolders, enableVisualizationSupport);
+        if (!mainClassFingerprint.equals(previousManifest.getFingerprint("RedG")) || !Files.exists(targetWithPkgFolders.resolve("RedG.java"))) {
+            LOG.info("Generating code for main builder class...");
+            writeMainClassFile(tables, targetWithPkgFolders, enableVisualizationSupport);
+        }
+        try {
+            manifest.write(targetWithPkgFolders);
+        } catch (IOException e) {
+            LOG.error("Failed writing the generation manifest", e);
+            throw new RedGGenerationException("Failed writing the generation manifest", e);
+        }
+        LOG.info("Code generation finished successfully.");
+    }
 
-                final String dummyResult = generateDummyClassCodeForTable(table);
-                FileUtils.writeCodeFile(targetWithPkgFolders, "Dummy" + table.getClassName(), dummyResult);
+    /**
+     * Calculates the fingerprint of the code generated for a table. The fingerprint changes whenever the table model, the templates, the SQL
+     * escape string or the visualization setting changes.
+     *
+     * @param table                      The table model
+     * @param enableVisualizationSupport The visualization setting
+     * @return The fingerprint as hex string
+     */
+    public String getFingerprint(final TableModel table, final boolean enableVisualizationSupport) {
+        final MessageDigest digest = createDigest();
+        digest.update(templateSource.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        if (sqlEscapeString != null) {
+            digest.update(sqlEscapeString.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) (enableVisualizationSupport ? 1 : 0));
+        try {
+            digest.update(serialize(table));
+        } catch (IOException e) {
+            throw new RedGGenerationException("Could not serialize table model " + table.getName(), e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * @return The names of the classes generated for a table. The existing entity class is only generated for tables with primary key.
+     */
+    private static List<String> getGeneratedClassNames(final TableModel table) {
+        final List<String> classNames = new ArrayList<>(3);
+        classNames.add(table.getClassName());
+        if (!table.getPrimaryKeyColumns().isEmpty()) {
+            classNames.add("Existing" + table.getClassName());
+        }
+        classNames.add("Dummy" + table.getClassName());
+        return classNames;
+    }
 
-                LOG.debug("Code for table {} ({}) generated successfully.", table.getSqlFullName(), table.getName());
-            } catch (IOException e) {
-                LOG.error("Failed writing code to file", e);
-                throw new RedGGenerationException("Failed writing code to file", e);
+    private void generateTables(final List<TableModel> tables, final Path targetWithPkgFolders, final boolean enableVisualizationSupport) {
+        final List<RuntimeException> failures = new ArrayList<>();
+        if (parallelism == 1 || tables.size() < 2) {
+            for (TableModel table : tables) {
+                final RuntimeException failure = generateTable(table, targetWithPkgFolders, enableVisualizationSupport);
+                if (failure != null) {
+                    failures.add(failure);
+                }
+            }
+        } else {
+            final ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, tables.size()));
+            try {
+                final List<ForkJoinTask<RuntimeException>> tasks = new ArrayList<>(tables.size());
+                for (TableModel table : tables) {
+                    tasks.add(pool.submit(() -> generateTable(table, targetWithPkgFolders, enableVisualizationSupport)));
+                }
+                for (ForkJoinTask<RuntimeException> task : tasks) {
+                    final RuntimeException failure = task.join();
+                    if (failure != null) {
+                        failures.add(failure);
+                    }
+                }
+            } finally {
+                pool.shutdown();
             }
         }
-        LOG.info("Generating code for main builder class...");
-        final String mainCode = generateMainClass(tables, enableVisualizationSupport);
+        if (failures.size() == 1) {
+            throw failures.get(0);
+        }
+        if (!failures.isEmpty()) {
+            final RedGGenerationException exception = new RedGGenerationException("Code generation failed for " + failures.size() + " tables",
+                    failures.get(0));
+            failures.subList(1, failures.size()).forEach(exception::addSuppressed);
+            throw exception;
+        }
+    }
+
+    private void writeMainClassFile(final List<TableModel> tables, final Path targetWithPkgFolders, final boolean enableVisualizationSupport) {
+        final ST template = createMainClassTemplate(tables, enableVisualizationSupport);
         try {
-            FileUtils.writeCodeFile(targetWithPkgFolders, "RedG", mainCode);
+            writeCodeFile(targetWithPkgFolders, "RedG", template);
         } catch (IOException e) {
             LOG.error("Failed writing code to file", e);
             throw new RedGGenerationException("Failed writing code to file", e);
         }
-        LOG.info("Code generation finished successfully.");
+    }
+
+    /**
+     * Generates and writes the classes of one table.
+     *
+     * @return The failure, {@code null} if the generation was successful
+     */
+    private RuntimeException generateTable(final TableModel table, final Path targetWithPkgFolders, final boolean enableVisualizationSupport) {
+        LOG.debug("Generating code for table {} ({})", table.getSqlFullName(), table.getName());
+        try {
+            writeCodeFile(targetWithPkgFolders, table.getClassName(), createTableClassTemplate(table, enableVisualizationSupport));
+
+            if (!table.getPrimaryKeyColumns().isEmpty()) {
+                writeCodeFile(targetWithPkgFolders, "Existing" + table.getClassName(), createExistingClassTemplate(table));
+            } else {
+                Files.deleteIfExists(targetWithPkgFolders.resolve("Existing" + table.getClassName() + ".java"));
+            }
+
+            writeCodeFile(targetWithPkgFolders, "Dummy" + table.getClassName(), createDummyClassTemplate(table));
+
+            LOG.debug("Code for table {} ({}) generated successfully.", table.getSqlFullName(), table.getName());
+            return null;
+        } catch (IOException e) {
+            LOG.error("Failed writing code to file", e);
+            return new RedGGenerationException("Failed writing code to file", e);
+        } catch (RuntimeException e) {
+            LOG.error("Failed generating code for table {}", table.getSqlFullName(), e);
+            return e;
+        }
+    }
+
+    private STGroup createGroup() {
+        final STGroup group = new STGroupString(templateSource);
+        group.registerRenderer(String.class, new StringRenderer());
+        group.defineDictionary("escape", new JavaStringEscapeMap());
+        if (sqlEscapeString != null) {
+            group.defineDictionary("escapeSql", new JavaSqlStringEscapeMap(sqlEscapeString));
+        } else {
+            group.defineDictionary("escapeSql", new JavaSqlStringEscapeMap());
+        }
+        return group;
     }
 
     private String getStreamAsString(final InputStream inputStream) throws IOException {
@@ -165,7 +368,11 @@ public class CodeGenerator {
      * @return The generated source code
      */
     public String generateCodeForTable(final TableModel table, final boolean enableVisualizationSupport) {
-        final ST template = this.stGroup.getInstanceOf("tableClass");
+        return render(createTableClassTemplate(table, enableVisualizationSupport), table.getClassName());
+    }
+
+    private ST createTableClassTemplate(final TableModel table, final boolean enableVisualizationSupport) {
+        final ST template = this.stGroup.get().getInstanceOf("tableClass");
         LOG.debug("Filling template...");
         template.add("table", table);
         LOG.debug("Package is {} | Class name is {}", table.getPackageName(), table.getClassName());
@@ -175,19 +382,13 @@ public class CodeGenerator {
         template.add("secondRowComma", table.hasColumnsAndForeignKeys() && !table.getNullableForeignKeys().isEmpty());
 
         try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ObjectOutputStream oos = new ObjectOutputStream(baos);
-            oos.writeObject(table);
-            oos.close();
-            String serializedData = Base64.getEncoder().encodeToString(baos.toByteArray());
+            String serializedData = Base64.getEncoder().encodeToString(serialize(table));
             template.add("serializedTableModelString", serializedData);
         } catch (IOException e) {
             LOG.error("Could not serialize table model. Model will not be included in the file", e);
         }
         template.add("enableVisualizationSupport", enableVisualizationSupport);
-
-        LOG.debug("Rendering template...");
-        return template.render();
+        return template;
     }
 
     /**
@@ -201,21 +402,25 @@ public class CodeGenerator {
      * @return The generated source code
      */
     public String generateExistingClassCodeForTable(final TableModel table) {
-        final ST template = this.stGroup.getInstanceOf("existingTableClass");
+        return render(createExistingClassTemplate(table), "Existing" + table.getClassName());
+    }
+
+    private ST createExistingClassTemplate(final TableModel table) {
+        final ST template = this.stGroup.get().getInstanceOf("existingTableClass");
         LOG.debug("Filling template...");
         template.add("table", table);
-
-        LOG.debug("Rendering template...");
-        return template.render();
+        return template;
     }
 
     public String generateDummyClassCodeForTable(TableModel table) {
-        final ST template = this.stGroup.getInstanceOf("dummyTableClass");
+        return render(createDummyClassTemplate(table), "Dummy" + table.getClassName());
+    }
+
+    private ST createDummyClassTemplate(final TableModel table) {
+        final ST template = this.stGroup.get().getInstanceOf("dummyTableClass");
         LOG.debug("Filling template...");
         template.add("table", table);
-
-        LOG.debug("Rendering template...");
-        return template.render();
+        return template;
     }
 
     /**
@@ -229,11 +434,15 @@ public class CodeGenerator {
      * @return The generated source code
      */
     public String generateMainClass(final Collection<TableModel> tables, final boolean enableVisualizationSupport) {
+        return render(createMainClassTemplate(tables, enableVisualizationSupport), "RedG");
+    }
+
+    private ST createMainClassTemplate(final Collection<TableModel> tables, final boolean enableVisualizationSupport) {
         Objects.requireNonNull(tables);
 
         //get package from the table models
         final String targetPackage = ((TableModel) tables.toArray()[0]).getPackageName();
-        final ST template = this.stGroup.getInstanceOf("mainClass");
+        final ST template = this.stGroup.get().getInstanceOf("mainClass");
         LOG.debug("Filling main class template containing helpers for {} classes...", tables.size());
         template.add("package", targetPackage);
         // TODO: make prefix usable
@@ -242,7 +451,48 @@ public class CodeGenerator {
         LOG.debug("Package is {} | Prefix is {}", targetPackage, "");
 
         template.add("tables", tables);
+        return template;
+    }
+
+    private static byte[] serialize(final TableModel table) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(table);
+        oos.close();
+        return baos.toByteArray();
+    }
 
-        return template.render();
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    private static String render(final ST template, final String className) {
+        LOG.debug("Rendering template...");
+        final TemplateRenderEvent event = new TemplateRenderEvent();
+        event.begin();
+        final String result = template.render();
+        event.finish(template.getName(), className, result.length());
+        return result;
+    }
+
+    /**
+     * Renders the template directly into the code file of the class. Produces the same code as {@link #render(ST, String)}. The code file is only
+     * replaced once the template was rendered completely.
+     */
+    private static void writeCodeFile(final Path targetWithPkgFolders, final String className, final ST template) throws IOException {
+        final CodeFileWriteEvent event = new CodeFileWriteEvent();
+        event.begin();
+        final int length = FileUtils.writeCodeFile(targetWithPkgFolders, className, writer -> {
+            final TemplateRenderEvent renderEvent = new TemplateRenderEvent();
+            renderEvent.begin();
+            final int renderedLength = template.write(new AutoIndentWriter(writer));
+            renderEvent.finish(template.getName(), className, renderedLength);
+            return renderedLength;
+        });
+        event.finish(className, length);
     }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.yamass.redg.generator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The fingerprints of the classes generated into a package folder, see {@link CodeGenerator#generateIncrementally(List, Path, boolean)}. The
+ * manifest is stored as the file {@value #FILE_NAME} in the package folder, one line per class with the class name and the fingerprint. It lists
+ * every generated class, including the existing and dummy entity classes, which share the fingerprint of their table.
+ */
+public class GenerationManifest {
+
+    public static final String FILE_NAME = ".redg-manifest";
+
+    private static final String HEADER = "# RedG code generation manifest";
+
+    private final Map<String, String> fingerprints = new TreeMap<>();
+
+    /**
+     * Reads the manifest of a package folder.
+     *
+     * @param targetWithPkgFolders The package folder
+     * @return The manifest. Empty if the folder has no manifest.
+     * @throws IOException If the manifest exists but cannot be read
+     */
+    public static GenerationManifest read(final Path targetWithPkgFolders) throws IOException {
+        final GenerationManifest manifest = new GenerationManifest();
+        final Path file = targetWithPkgFolders.resolve(FILE_NAME);
+        if (Files.isRegularFile(file)) {
+            for (final String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                final String[] parts = line.trim().split("\\s+");
+                if (parts.length == 2 && !line.startsWith("#")) {
+                    manifest.put(parts[0], parts[1]);
+                }
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * @param targetWithPkgFolders The package folder
+     * @return {@code true} if code was generated into the folder with a manifest before
+     */
+    public static boolean exists(final Path targetWithPkgFolders) {
+        return Files.isRegularFile(targetWithPkgFolders.resolve(FILE_NAME));
+    }
+
+    /**
+     * Deletes the manifest of a package folder, so that all classes get generated again by the next incremental generation.
+     *
+     * @param targetWithPkgFolders The package folder
+     * @throws IOException If the manifest cannot be deleted
+     */
+    public static void delete(final Path targetWithPkgFolders) throws IOException {
+        Files.deleteIfExists(targetWithPkgFolders.resolve(FILE_NAME));
+    }
+
+    /**
+     * @param className The name of the generated class
+     * @return The fingerprint the class was generated with, {@code null} if the class is not part of the manifest
+     */
+    public String getFingerprint(final String className) {
+        return fingerprints.get(className);
+    }
+
+    public void put(final String className, final String fingerprint) {
+        fingerprints.put(className, fingerprint);
+    }
+
+    public Set<String> getClassNames() {
+        return Collections.unmodifiableSet(fingerprints.keySet());
+    }
+
+    /**
+     * Writes the manifest into a package folder.
+     *
+     * @param targetWithPkgFolders The package folder
+     * @throws IOException If writing fails
+     */
+    public void write(final Path targetWithPkgFolders) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(targetWithPkgFolders.resolve(FILE_NAME), StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (final Map.Entry<String, String> entry : fingerprints.entrySet()) {
+                writer.write(entry.getKey() + " " + entry.getValue());
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -57,7 +57,9 @@ public class RedGGenerator {
 	 * First, this method will use the provided JDBC connection to inspect the database schemas using {@link SchemaInspector}.
 	 * The {@code schemas} parameter specifies which schemas to inspect. If {@code null} or empty, all schemas will be inspected.
 	 * <p>Afterwards the {@link SchemaModelToGeneratorModelTransformer} gets called and transforms the schema model into a list of {@link TableModel}s.
-	 * <p>The third step generates the code and writes it into the source files at the specified location.
+	 * <p>The third step generates the code and writes it into the source files at the specified location. The generation is incremental, only the
+	 * code of tables that changed since the last generation into the same location gets written again (see
+	 * {@link CodeGenerator#generateIncrementally(List, Path, boolean)}).
 	 *
 	 * @param dataSource                 The data source for connecting to the database that will be used as the data source for the analysis
 	 * @param schemas                    The list of schema names to inspect. If {@code null} or empty, all schemas will be inspected.
@@ -104,7 +106,7 @@ public class RedGGenerator {
 		final List<TableModel> tables = transformSchemaModel(schemaResult, classPrefix, targetPackage,
 				effectiveDataTypeProvider, effectiveNameProvider, effectiveExplicitAttributeDecider, effectiveConvenienceSetterProvider);
 		Path targetWithPkgFolders = createPackageFolderStructure(targetDirectory, targetPackage);
-		new CodeGenerator().generate(tables, targetWithPkgFolders, enableVisualizationSupport);
+		new CodeGenerator().generateIncrementally(tables, targetWithPkgFolders, enableVisualizationSupport);
 	}
 
 	/**
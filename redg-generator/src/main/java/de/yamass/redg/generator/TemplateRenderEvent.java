@@ -0,0 +1,56 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.generator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for rendering a single code template. Disabled by default.
+ */
+@Name("de.yamass.redg.TemplateRender")
+@Label("RedG Template Render")
+@Description("Rendering a code template during code generation")
+@Category({"RedG", "Code Generation"})
+@Enabled(false)
+@StackTrace(false)
+final class TemplateRenderEvent extends Event {
+
+    @Label("Template")
+    String template;
+
+    @Label("Class Name")
+    String className;
+
+    @Label("Length")
+    @Description("The number of characters of the generated code")
+    int length;
+
+    void finish(final String template, final String className, final int length) {
+        if (shouldCommit()) {
+            this.template = template;
+            this.className = className;
+            this.length = length;
+            commit();
+        }
+    }
+}
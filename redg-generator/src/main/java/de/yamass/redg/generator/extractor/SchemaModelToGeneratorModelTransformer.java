@@ -191,6 +191,8 @@ public class SchemaModelToGeneratorModelTransformer {
         model.setPartOfForeignKey(isForeignKey);
         model.setExplicitAttribute(explicitAttributeDecider.isExplicitAttribute(column, table));
         model.setUnique(column.unique() || isPrimaryKey);
+        model.setDbDefaultValue(column.defaultValue());
+        model.setAutoIncrement(column.type().isAutoIncrementable());
         model.setConvenienceSetters(convenienceSetterProvider.getConvenienceSetters(column, table, javaTypeName));
         
         return model;
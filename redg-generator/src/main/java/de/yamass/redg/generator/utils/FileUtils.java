@@ -19,9 +19,14 @@ package de.yamass.redg.generator.utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 /**
  * Contains utility methods for file/file-system operations
@@ -45,4 +50,49 @@ public class FileUtils {
         LOG.debug("Writing code to file {}", targetFile.toAbsolutePath().toString());
         Files.write(targetFile, code.getBytes());
     }
+
+    /**
+     * Writes the code file of a class, for rendering the code directly into the file. The file is written with the same encoding as
+     * {@link #writeCodeFile(Path, String, String)} uses. The code is written into a temporary file next to the code file first, which replaces the
+     * code file once it is complete, so a failure while writing never leaves a truncated code file behind.
+     *
+     * @param targetWithPkgFolders The package folder
+     * @param className            The name of the class
+     * @param code                 Writes the code
+     * @return The number of characters written, as returned by the code writer
+     * @throws IOException If the file cannot be written
+     */
+    public static int writeCodeFile(final Path targetWithPkgFolders, final String className, final CodeWriter code) throws IOException {
+        final Path targetFile = targetWithPkgFolders.resolve(className + ".java");
+        final Path tempFile = targetWithPkgFolders.resolve(className + ".java.tmp");
+        LOG.debug("Writing code to file {}", targetFile.toAbsolutePath().toString());
+        try {
+            final int length;
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, Charset.defaultCharset())) {
+                length = code.write(writer);
+            }
+            try {
+                Files.move(tempFile, targetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return length;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Writes the code of a class, see {@link #writeCodeFile(Path, String, CodeWriter)}
+     */
+    @FunctionalInterface
+    public interface CodeWriter {
+
+        /**
+         * @param writer The writer of the code file, closed by the caller
+         * @return The number of characters written
+         * @throws IOException If writing fails
+         */
+        int write(Writer writer) throws IOException;
+    }
 }
@@ -16,6 +16,7 @@
 
 package de.yamass.redg.generator;
 
+import de.yamass.redg.generator.exceptions.RedGGenerationException;
 import de.yamass.redg.generator.extractor.conveniencesetterprovider.ConvenienceSetterProvider;
 import de.yamass.redg.generator.extractor.datatypeprovider.DefaultDataTypeProvider;
 import de.yamass.redg.generator.extractor.explicitattributedecider.ExplicitAttributeDecider;
@@ -23,15 +24,23 @@ import de.yamass.redg.generator.extractor.nameprovider.DefaultNameProvider;
 import de.yamass.redg.models.ConvenienceSetterModel;
 import de.yamass.redg.models.TableModel;
 import de.yamass.redg.util.ScriptRunner;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.h2.jdbcx.JdbcConnectionPool;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import javax.sql.DataSource;
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 
 public class CodeGeneratorTest {
@@ -74,6 +83,125 @@ public class CodeGeneratorTest {
         compareResultWithExpected("codegenerator/tableResultExisting.java", existingClassResult);
     }
 
+    @Test
+    void testGenerate_Parallel() throws Exception {
+        DataSource dataSource = JdbcConnectionPool.create("jdbc:h2:mem:rt-cg-parallel", "", "");
+        File tempFile = Helpers.getResourceAsFile("codegenerator/test.sql");
+        Assertions.assertNotNull(tempFile);
+        ScriptRunner.executeScripts(dataSource, new File[]{tempFile});
+        List<TableModel> models = RedGGenerator.transformSchemaModel(
+                RedGGenerator.inspectSchemas(dataSource, List.of("PUBLIC")),
+                Constants.DEFAULT_CLASS_PREFIX,
+                Constants.DEFAULT_TARGET_PACKAGE,
+                new DefaultDataTypeProvider(),
+                new DefaultNameProvider(),
+                new de.yamass.redg.generator.extractor.explicitattributedecider.DefaultExplicitAttributeDecider(),
+                ConvenienceSetterProvider.NONE);
+        Assertions.assertTrue(models.size() > 1);
+        Path sequentialFolder = Files.createTempDirectory("redg-cg-sequential");
+        Path parallelFolder = Files.createTempDirectory("redg-cg-parallel");
+
+        CodeGenerator sequential = new CodeGenerator();
+        sequential.setParallelism(1);
+        sequential.generate(models, sequentialFolder, false);
+        CodeGenerator parallel = new CodeGenerator();
+        parallel.setParallelism(4);
+        parallel.generate(models, parallelFolder, false);
+
+        List<Path> files;
+        try (java.util.stream.Stream<Path> stream = Files.list(sequentialFolder)) {
+            files = stream.collect(Collectors.toList());
+        }
+        Assertions.assertEquals(files.size(), Files.list(parallelFolder).count());
+        for (Path file : files) {
+            Assertions.assertEquals(Files.readString(file), Files.readString(parallelFolder.resolve(file.getFileName())));
+        }
+    }
+
+    @Test
+    void testGenerate_AggregatesFailures() throws Exception {
+        DataSource dataSource = JdbcConnectionPool.create("jdbc:h2:mem:rt-cg-failures", "", "");
+        File tempFile = Helpers.getResourceAsFile("codegenerator/test.sql");
+        Assertions.assertNotNull(tempFile);
+        ScriptRunner.executeScripts(dataSource, new File[]{tempFile});
+        List<TableModel> models = RedGGenerator.transformSchemaModel(
+                RedGGenerator.inspectSchemas(dataSource, List.of("PUBLIC")),
+                Constants.DEFAULT_CLASS_PREFIX,
+                Constants.DEFAULT_TARGET_PACKAGE,
+                new DefaultDataTypeProvider(),
+                new DefaultNameProvider(),
+                new de.yamass.redg.generator.extractor.explicitattributedecider.DefaultExplicitAttributeDecider(),
+                ConvenienceSetterProvider.NONE);
+        // a folder below a regular file cannot be written to, not even by root
+        Path notAFolder = Files.createTempFile("redg-cg-failures", ".txt").resolve("target");
+
+        CodeGenerator cg = new CodeGenerator();
+        cg.setParallelism(4);
+        RedGGenerationException exception = Assertions.assertThrows(RedGGenerationException.class,
+                () -> cg.generate(models, notAFolder, false));
+        Assertions.assertEquals("Code generation failed for " + models.size() + " tables", exception.getMessage());
+        Assertions.assertEquals(models.size() - 1, exception.getSuppressed().length);
+        Assertions.assertTrue(exception.getCause() instanceof RedGGenerationException);
+    }
+
+    @Test
+    void testGenerateIncrementally() throws Exception {
+        DataSource dataSource = JdbcConnectionPool.create("jdbc:h2:mem:rt-cg-incremental", "", "");
+        File tempFile = Helpers.getResourceAsFile("codegenerator/test-join-table.sql");
+        Assertions.assertNotNull(tempFile);
+        ScriptRunner.executeScripts(dataSource, new File[]{tempFile});
+        List<TableModel> models = RedGGenerator.transformSchemaModel(
+                RedGGenerator.inspectSchemas(dataSource, List.of("PUBLIC")),
+                Constants.DEFAULT_CLASS_PREFIX,
+                Constants.DEFAULT_TARGET_PACKAGE,
+                new DefaultDataTypeProvider(),
+                new DefaultNameProvider(),
+                new de.yamass.redg.generator.extractor.explicitattributedecider.DefaultExplicitAttributeDecider(),
+                ConvenienceSetterProvider.NONE);
+        Assertions.assertTrue(models.size() > 2);
+        Path folder = Files.createTempDirectory("redg-cg-incremental");
+        FileTime unchanged = FileTime.fromMillis(0);
+
+        new CodeGenerator().generateIncrementally(models, folder, false);
+        Assertions.assertTrue(GenerationManifest.exists(folder));
+        List<Path> files;
+        try (java.util.stream.Stream<Path> stream = Files.list(folder)) {
+            files = stream.filter(file -> file.toString().endsWith(".java")).collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            Files.setLastModifiedTime(file, unchanged);
+        }
+
+        // nothing changed, nothing gets written
+        new CodeGenerator().generateIncrementally(models, folder, false);
+        for (Path file : files) {
+            Assertions.assertEquals(unchanged, Files.getLastModifiedTime(file), file.toString());
+        }
+
+        // one table removed, one changed
+        TableModel removed = models.get(0);
+        TableModel changed = models.get(1);
+        TableModel kept = models.get(2);
+        changed.getNonForeignKeyColumns().get(0).setJavaPropertyName("renamedColumn");
+        new CodeGenerator().generateIncrementally(models.subList(1, models.size()), folder, false);
+
+        Assertions.assertFalse(Files.exists(folder.resolve(removed.getClassName() + ".java")));
+        Assertions.assertFalse(Files.exists(folder.resolve("Dummy" + removed.getClassName() + ".java")));
+        Assertions.assertNotEquals(unchanged, Files.getLastModifiedTime(folder.resolve(changed.getClassName() + ".java")));
+        Assertions.assertTrue(Files.readString(folder.resolve(changed.getClassName() + ".java")).contains("renamedColumn"));
+        Assertions.assertEquals(unchanged, Files.getLastModifiedTime(folder.resolve(kept.getClassName() + ".java")));
+        Assertions.assertNotEquals(unchanged, Files.getLastModifiedTime(folder.resolve("RedG.java")));
+        Assertions.assertNull(GenerationManifest.read(folder).getFingerprint(removed.getClassName()));
+        Assertions.assertNull(GenerationManifest.read(folder).getFingerprint("Dummy" + removed.getClassName()));
+
+        // a missing dummy or existing class gets generated again, even though the table did not change
+        Files.delete(folder.resolve("Dummy" + kept.getClassName() + ".java"));
+        Files.delete(folder.resolve("Existing" + changed.getClassName() + ".java"));
+        new CodeGenerator().generateIncrementally(models.subList(1, models.size()), folder, false);
+        Assertions.assertTrue(Files.exists(folder.resolve("Dummy" + kept.getClassName() + ".java")));
+        Assertions.assertTrue(Files.exists(folder.resolve("Existing" + changed.getClassName() + ".java")));
+    }
+
     @Test
     void testGenerateCodeWithMultipartForeignKey() throws Exception {
         DataSource dataSource = JdbcConnectionPool.create("jdbc:h2:mem:rt-cg-mpfk", "", "");
@@ -113,6 +241,99 @@ public class CodeGeneratorTest {
         compareResultWithExpected("codegenerator/table-multipart-Result2-Existing.java", existingClassResult);
     }
 
+    @Test
+    void testGenerateCodeWithDatabaseDefaults() throws Exception {
+        DataSource dataSource = JdbcConnectionPool.create("jdbc:h2:mem:rt-cg-defaults", "", "");
+        Assertions.assertNotNull(dataSource);
+        File tempFile = Helpers.getResourceAsFile("codegenerator/test-defaults.sql");
+        Assertions.assertNotNull(tempFile);
+        ScriptRunner.executeScripts(dataSource, new File[]{tempFile});
+
+        List<TableModel> models = RedGGenerator.transformSchemaModel(
+                RedGGenerator.inspectSchemas(dataSource, null),
+                Constants.DEFAULT_CLASS_PREFIX,
+                Constants.DEFAULT_TARGET_PACKAGE,
+                new DefaultDataTypeProvider(),
+                new DefaultNameProvider(),
+                new de.yamass.redg.generator.extractor.explicitattributedecider.DefaultExplicitAttributeDecider(),
+                ConvenienceSetterProvider.NONE);
+        TableModel demoOrder = models.stream().filter(m -> Objects.equals("DemoOrder", m.getName())).findFirst().orElse(null);
+        Assertions.assertNotNull(demoOrder);
+        Assertions.assertEquals(3, demoOrder.getDatabaseDefaultColumns().size());
+        Assertions.assertEquals(1, demoOrder.getGeneratedKeyColumns().size());
+
+        CodeGenerator cg = new CodeGenerator();
+        String result = cg.generateCodeForTable(demoOrder, false);
+        Assertions.assertNotNull(result);
+        compareResultWithExpected("codegenerator/table-defaults-Result.java", result);
+    }
+
+    @Test
+    void testGenerate_FlightRecorderEvents() throws Exception {
+        DataSource dataSource = JdbcConnectionPool.create("jdbc:h2:mem:rt-cg-jfr", "", "");
+        File tempFile = Helpers.getResourceAsFile("codegenerator/test-defaults.sql");
+        ScriptRunner.executeScripts(dataSource, new File[]{tempFile});
+
+        Path targetFolder = Files.createTempDirectory("redg-jfr");
+        Path recordingFile = targetFolder.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("de.yamass.redg.MetadataCall");
+            recording.enable("de.yamass.redg.TableInspection");
+            recording.enable("de.yamass.redg.TemplateRender");
+            recording.enable("de.yamass.redg.CodeFileWrite");
+            recording.start();
+            List<TableModel> models = RedGGenerator.transformSchemaModel(
+                    RedGGenerator.inspectSchemas(dataSource, null),
+                    Constants.DEFAULT_CLASS_PREFIX,
+                    Constants.DEFAULT_TARGET_PACKAGE,
+                    new DefaultDataTypeProvider(),
+                    new DefaultNameProvider(),
+                    new de.yamass.redg.generator.extractor.explicitattributedecider.DefaultExplicitAttributeDecider(),
+                    ConvenienceSetterProvider.NONE);
+            List<TableModel> demoOrder = models.stream().filter(m -> Objects.equals("DemoOrder", m.getName())).collect(Collectors.toList());
+            new CodeGenerator().generate(demoOrder, targetFolder, false);
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(recordingFile).stream()
+                .collect(Collectors.groupingBy(e -> e.getEventType().getName()));
+        Assertions.assertTrue(events.get("de.yamass.redg.MetadataCall").stream()
+                .anyMatch(e -> "getColumns".equals(e.getString("call")) && "DEMO_ORDER".equals(e.getString("table")) && e.getInt("rows") == 4));
+        Assertions.assertEquals(1, events.get("de.yamass.redg.TableInspection").stream().filter(e -> "DEMO_ORDER".equals(e.getString("table"))).count());
+        // DemoOrder, ExistingDemoOrder, DummyDemoOrder and RedG
+        Assertions.assertEquals(4, events.get("de.yamass.redg.TemplateRender").size());
+        Assertions.assertEquals(4, events.get("de.yamass.redg.CodeFileWrite").size());
+        Assertions.assertTrue(events.get("de.yamass.redg.CodeFileWrite").stream().anyMatch(e -> "RedG".equals(e.getString("className"))));
+    }
+
+    @Test
+    void testGenerate_StreamedCodeMatchesRenderedCode() throws Exception {
+        DataSource dataSource = JdbcConnectionPool.create("jdbc:h2:mem:rt-cg-streamed", "", "");
+        File tempFile = Helpers.getResourceAsFile("codegenerator/test-join-table.sql");
+        ScriptRunner.executeScripts(dataSource, new File[]{tempFile});
+        List<TableModel> models = RedGGenerator.transformSchemaModel(
+                RedGGenerator.inspectSchemas(dataSource, List.of("PUBLIC")),
+                Constants.DEFAULT_CLASS_PREFIX,
+                Constants.DEFAULT_TARGET_PACKAGE,
+                new DefaultDataTypeProvider(),
+                new DefaultNameProvider(),
+                new de.yamass.redg.generator.extractor.explicitattributedecider.DefaultExplicitAttributeDecider(),
+                ConvenienceSetterProvider.NONE);
+        Path folder = Files.createTempDirectory("redg-cg-streamed");
+
+        CodeGenerator cg = new CodeGenerator();
+        cg.generate(models, folder, true);
+
+        for (TableModel model : models) {
+            Assertions.assertEquals(cg.generateCodeForTable(model, true), Files.readString(folder.resolve(model.getClassName() + ".java")));
+            Assertions.assertEquals(cg.generateExistingClassCodeForTable(model),
+                    Files.readString(folder.resolve("Existing" + model.getClassName() + ".java")));
+            Assertions.assertEquals(cg.generateDummyClassCodeForTable(model), Files.readString(folder.resolve("Dummy" + model.getClassName() + ".java")));
+        }
+        Assertions.assertEquals(cg.generateMainClass(models, true), Files.readString(folder.resolve("RedG.java")));
+    }
+
     @Test
     void testGenerateMainClass() throws Exception {
         DataSource dataSource = JdbcConnectionPool.create("jdbc:h2:mem:rt-cg-main", "", "");
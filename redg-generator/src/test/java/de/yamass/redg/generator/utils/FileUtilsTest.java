@@ -0,0 +1,54 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.generator.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+
+class FileUtilsTest {
+
+    @Test
+    void testWriteCodeFile() throws Exception {
+        Path folder = Files.createTempDirectory("redg-file-utils");
+        Assertions.assertEquals(11, FileUtils.writeCodeFile(folder, "GTest", writer -> {
+            writer.write("class GTest");
+            return 11;
+        }));
+        Assertions.assertEquals("class GTest", Files.readString(folder.resolve("GTest.java")));
+    }
+
+    @Test
+    void testWriteCodeFile_FailureKeepsPreviousFile() throws Exception {
+        Path folder = Files.createTempDirectory("redg-file-utils");
+        Files.writeString(folder.resolve("GTest.java"), "class GTest {}");
+
+        Assertions.assertThrows(IllegalStateException.class, () -> FileUtils.writeCodeFile(folder, "GTest", writer -> {
+            writer.write("class GTe");
+            throw new IllegalStateException("Rendering failed");
+        }));
+
+        Assertions.assertEquals("class GTest {}", Files.readString(folder.resolve("GTest.java")));
+        try (Stream<Path> files = Files.list(folder)) {
+            Assertions.assertEquals(1, files.count());
+        }
+    }
+}
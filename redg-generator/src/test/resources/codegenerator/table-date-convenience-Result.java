@@ -34,7 +34,7 @@ import de.yamass.redg.models.*;
  *     </tr>
  * </table>
  */
-public class GDatesTable implements RedGEntity {
+public class GDatesTable implements RedGEntity, Cloneable {
 
     protected AbstractRedG redG;
 
@@ -916,6 +916,23 @@ public class GDatesTable implements RedGEntity {
         };
     }
 
+    @Override
+    public GDatesTable getCopyFor(AbstractRedG redG) {
+        try {
+            GDatesTable copy = (GDatesTable) super.clone();
+            copy.redG = redG;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public GDatesTable getCopyWithNewKeys(java.util.Map<RedGEntity, RedGEntity> replacements) {
+        GDatesTable copy = getCopyFor(this.redG);
+        return copy;
+    }
+
     private static String serializedTableModel = "rO0ABXNyACBkZS55YW1hc3MucmVkZy5tb2RlbHMuVGFibGVNb2RlbDbHSQJAzJJ4AgAKWgAYaGFzQ29sdW1uc0FuZEZvcmVpZ25LZXlzTAAJY2xhc3NOYW1ldAASTGphdmEvbGFuZy9TdHJpbmc7TAAHY29sdW1uc3QAEExqYXZhL3V0aWwvTGlzdDtMAAtmb3JlaWduS2V5c3EAfgACTAATaW5jb21pbmdGb3JlaWduS2V5c3EAfgACTAAXam9pblRhYmxlU2ltcGxpZmllckRhdGF0AA9MamF2YS91dGlsL01hcDtMAARuYW1lcQB+AAFMAAtwYWNrYWdlTmFtZXEAfgABTAALc3FsRnVsbE5hbWVxAH4AAUwAB3NxbE5hbWVxAH4AAXhwAHQAC0dEYXRlc1RhYmxlc3IAE2phdmEudXRpbC5BcnJheUxpc3R4gdIdmcdhnQMAAUkABHNpemV4cAAAAAh3BAAAAAhzcgAhZGUueWFtYXNzLnJlZGcubW9kZWxzLkNvbHVtbk1vZGVs+H3/+koHylACAAxaABFleHBsaWNpdEF0dHJpYnV0ZVoAB25vdE51bGxaABBwYXJ0T2ZGb3JlaWduS2V5WgAQcGFydE9mUHJpbWFyeUtleVoABnVuaXF1ZUwAEmNvbnZlbmllbmNlU2V0dGVyc3EAfgACTAAIZGF0YVR5cGV0ACVMZGUveWFtYXNzL3JlZGcvbW9kZWxzL0RhdGFUeXBlTW9kZWw7TAAPZGJGdWxsVGFibGVOYW1lcQB+AAFMAAZkYk5hbWVxAH4AAUwAC2RiVGFibGVOYW1lcQB+AAFMABBqYXZhUHJvcGVydHlOYW1lcQB+AAFMAAxqYXZhVHlwZU5hbWVxAH4AAXhwAAAAAABzcgAfamF2YS51dGlsLkNvbGxlY3Rpb25zJEVtcHR5TGlzdHq4F7Q8p57eAgAAeHBzcgAjZGUueWFtYXNzLnJlZGcubW9kZWxzLkRhdGFUeXBlTW9kZWz5rSactbFrOQIAA1oACG51bGxhYmxlTAAEbmFtZXEAfgABTAAQdmVuZG9yVHlwZU51bWJlcnQAE0xqYXZhL2xhbmcvSW50ZWdlcjt4cAF0AAREQVRFc3IAEWphdmEubGFuZy5JbnRlZ2VyEuKgpPeBhzgCAAFJAAV2YWx1ZXhyABBqYXZhLmxhbmcuTnVtYmVyhqyVHQuU4IsCAAB4cAAAAFt0ABJQVUJMSUMuREFURVNfVEFCTEV0AAZBX0RBVEV0AAtEQVRFU19UQUJMRXQABWFEYXRldAANamF2YS5zcWwuRGF0ZXNxAH4ACAAAAAAAcQB+AAxzcQB+AA0BdAAEVElNRXNxAH4AEQAAAFx0ABJQVUJMSUMuREFURVNfVEFCTEV0AAZBX1RJTUVxAH4AFnQABWFUaW1ldAANamF2YS5zcWwuVGltZXNxAH4ACAABAAAAc3IAI2phdmEudXRpbC5Db2xsZWN0aW9ucyRTaW5nbGV0b25MaXN0Ku8pEDynm5cCAAFMAAdlbGVtZW50dAASTGphdmEvbGFuZy9PYmplY3Q7eHBzcgAsZGUueWFtYXNzLnJlZGcubW9kZWxzLkNvbnZlbmllbmNlU2V0dGVyTW9kZWwZd1JSNLGFcQIAAkwAIWZ1bGx5UXVhbGlmaWVkQ29udmVydGVyTWV0aG9kTmFtZXEAfgABTAASc2V0dGVySmF2YVR5cGVOYW1lcQB+AAF4cHQANWRlLnlhbWFzcy5yZWRnLnJ1bnRpbWUudXRpbC5EYXRlQ29udmVydGVyLmNvbnZlcnREYXRldAAQamF2YS51dGlsLlN0cmluZ3NxAH4ADQF0AAlUSU1FU1RBTVBzcQB+ABEAAABddAASUFVCTElDLkRBVEVTX1RBQkxFdAALQV9USU1FU1RBTVBxAH4AFnQACmFUaW1lc3RhbXB0ABJqYXZhLnNxbC5UaW1lc3RhbXBzcQB+AAgAAAAAAHEAfgAMc3EAfgANAXQAGFRJTUVTVEFNUCBXSVRIIFRJTUUgWk9ORXNxAH4AEQAAB950ABJQVUJMSUMuREFURVNfVEFCTEV0AA9BX1RJTUVTVEFNUF9XVFpxAH4AFnQADWFUaW1lc3RhbXBXdHp0ABhqYXZhLnRpbWUuT2Zmc2V0RGF0ZVRpbWVzcQB+AAgAAAAAAHEAfgAMcQB+AA90ABJQVUJMSUMuREFURVNfVEFCTEV0AAZCX0RBVEVxAH4AFnQABWJEYXRlcQB+ABhzcQB+AAgAAAAAAHEAfgAMcQB+ABp0ABJQVUJMSUMuREFURVNfVEFCTEV0AAZCX1RJTUVxAH4AFnQABWJUaW1lcQB+ACBzcQB+AAgAAQAAAHNxAH4AInNxAH4AJXEAfgAncQB+AChxAH4AKXQAElBVQkxJQy5EQVRFU19UQUJMRXQAC0JfVElNRVNUQU1QcQB+ABZ0AApiVGltZXN0YW1wcQB+AC9zcQB+AAgAAAAAAHEAfgAMcQB+ADF0ABJQVUJMSUMuREFURVNfVEFCTEV0AA9CX1RJTUVTVEFNUF9XVFpxAH4AFnQADWJUaW1lc3RhbXBXdHpxAH4AN3hzcQB+AAYAAAAAdwQAAAAAeHNxAH4ABgAAAAB3BAAAAAB4c3IAEWphdmEudXRpbC5IYXNoTWFwBQfawcMWYNEDAAJGAApsb2FkRmFjdG9ySQAJdGhyZXNob2xkeHA/QAAAAAAAAHcIAAAAEAAAAAB4dAAKRGF0ZXNUYWJsZXQAGGRlLnlhbWFzcy5yZWRnLmdlbmVyYXRlZHQAElBVQkxJQy5EQVRFU19UQUJMRXEAfgAW";
     private static TableModel tableModel;
 
@@ -935,4 +952,9 @@ public class GDatesTable implements RedGEntity {
         }
         return tableModel;
     }
+
+    @Override
+    public TableModel getEntityTableModel() {
+        return getTableModel();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,590 @@
+/*
+ * This file was generated by RedG.
+ * https://yamass.github.io/redg
+ *       ____           ________
+ *      / __ \___  ____/ / ____/
+ *     / /_/ / _ \/ __  / / __
+ *    / _, _/  __/ /_/ / /_/ /
+ *   /_/ |_|\___/\__,_/\____/
+ *
+ * DO NOT EDIT MANUALLY!
+ * Re-run the code generation to reflect database changes.
+ */
+package de.yamass.redg.generated;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.yamass.redg.runtime.*;
+import de.yamass.redg.models.*;
+
+/**
+ * <table summary="The table model attributes and their values">
+ *     <tr>
+ *         <td><strong>Attribute</strong></td>
+ *         <td><strong>Value</strong></td>
+ *     </tr>
+ *     <tr>
+ *         <td>Table name</td>
+ *         <td>DEMO_ORDER</td>
+ *     </tr>
+ *     <tr>
+ *         <td>Full table name</td>
+ *         <td>PUBLIC.DEMO_ORDER</td>
+ *     </tr>
+ * </table>
+ */
+public class GDemoOrder implements RedGEntity, Cloneable {
+
+    protected AbstractRedG redG;
+
+    // do not manually make this public and instantiate it directly. Use the RedG Main class
+    GDemoOrder(AbstractRedG redG) {
+        this.redG = redG;
+        try {
+            this.note = redG.getDefaultValueStrategy().getDefaultValue(getTableModel().getColumnBySQLName("NOTE"), java.lang.String.class);
+
+        } catch (Exception e) {
+            throw new RuntimeException("Could not get default value", e);
+        }
+    }
+
+    GDemoOrder(boolean generateDefaultValues, AbstractRedG redG) {
+        // First parameter exists simply because this constructor needs a different signature from the constructor above if the tables have no NOT NULL FK
+        // Only for ExistingGDemoOrder and usage with Supplier-Functions , otherwise NOT NULL constraints cannot be checked and no default values are generated.
+        this.redG = redG;
+        if (generateDefaultValues) {
+            try {
+                this.note = redG.getDefaultValueStrategy().getDefaultValue(getTableModel().getColumnBySQLName("NOTE"), java.lang.String.class);
+
+            } catch (Exception e) {
+                throw new RuntimeException("Could not get default value", e);
+            }
+        }
+    }
+
+    private java.lang.Long id;
+    private boolean idSet;
+
+    /**
+     * <table summary="The column model attributes and their values">
+     *     <tr>
+     *         <td><strong>Attribute</strong></td>
+     *         <td><strong>Value</strong></td>
+     *     </tr>
+     *     <tr>
+     *         <td>Table name</td>
+     *         <td>DEMO_ORDER</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Full table name</td>
+     *         <td>PUBLIC.DEMO_ORDER</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Column name</td>
+     *         <td>ID</td>
+     *     </tr>
+     *     <tr>
+     *         <td>SQL type</td>
+     *         <td>BIGINT</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Not nullable?</td>
+     *         <td>true</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Part of Primary key?</td>
+     *         <td>true</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Unique?</td>
+     *         <td>true</td>
+     *     </tr>
+     * </table>
+     */
+    public GDemoOrder id(java.lang.Long value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Setting id to null violates a NOT NULL constraint!");
+        }
+        this.id = value;
+        this.idSet = true;
+        return this;
+    }
+
+    /**
+     * <table summary="The column model attributes and their values">
+     *     <tr>
+     *         <td><strong>Attribute</strong></td>
+     *         <td><strong>Value</strong></td>
+     *     </tr>
+     *     <tr>
+     *         <td>Table name</td>
+     *         <td>DEMO_ORDER</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Full table name</td>
+     *         <td>PUBLIC.DEMO_ORDER</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Column name</td>
+     *         <td>ID</td>
+     *     </tr>
+     *     <tr>
+     *         <td>SQL type</td>
+     *         <td>BIGINT</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Not nullable?</td>
+     *         <td>true</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Part of Primary key?</td>
+     *         <td>true</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Unique?</td>
+     *         <td>true</td>
+     *     </tr>
+     * </table>
+     */
+    public java.lang.Long id() {
+        return this.id;
+    }
+
+    private java.lang.String code;
+    private boolean codeSet;
+
+    /**
+     * <table summary="The column model attributes and their values">
+     *     <tr>
+     *         <td><strong>Attribute</strong></td>
+     *         <td><strong>Value</strong></td>
+     *     </tr>
+     *     <tr>
+     *         <td>Table name</td>
+     *         <td>DEMO_ORDER</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Full table name</td>
+     *         <td>PUBLIC.DEMO_ORDER</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Column name</td>
+     *         <td>CODE</td>
+     *     </tr>
+     *     <tr>
+     *         <td>SQL type</td>
+     *         <td>CHARACTER VARYING</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Not nullable?</td>
+     *         <td>true</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Part of Primary key?</td>
+     *         <td>false</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Unique?</td>
+     *         <td>false</td>
+     *     </tr>
+     * </table>
+     */
+    public GDemoOrder code(java.lang.String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Setting code to null violates a NOT NULL constraint!");
+        }
+        this.code = value;
+        this.codeSet = true;
+        return this;
+    }
+
+    /**
+     * <table summary="The column model attributes and their values">
+     *     <tr>
+     *         <td><strong>Attribute</strong></td>
+     *         <td><strong>Value</strong></td>
+     *     </tr>
+     *     <tr>
+     *         <td>Table name</td>
+     *         <td>DEMO_ORDER</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Full table name</td>
+     *         <td>PUBLIC.DEMO_ORDER</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Column name</td>
+     *         <td>CODE</td>
+     *     </tr>
+     *     <tr>
+     *         <td>SQL type</td>
+     *         <td>CHARACTER VARYING</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Not nullable?</td>
+     *         <td>true</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Part of Primary key?</td>
+     *         <td>false</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Unique?</td>
+     *         <td>false</td>
+     *     </tr>
+     * </table>
+     */
+    public java.lang.String code() {
+        return this.code;
+    }
+
+    private java.sql.Timestamp createdAt;
+    private boolean createdAtSet;
+
+    /**
+     * <table summary="The column model attributes and their values">
+     *     <tr>
+     *         <td><strong>Attribute</strong></td>
+     *         <td><strong>Value</strong></td>
+     *     </tr>
+     *     <tr>
+     *         <td>Table name</td>
+     *         <td>DEMO_ORDER</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Full table name</td>
+     *         <td>PUBLIC.DEMO_ORDER</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Column name</td>
+     *         <td>CREATED_AT</td>
+     *     </tr>
+     *     <tr>
+     *         <td>SQL type</td>
+     *         <td>TIMESTAMP</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Not nullable?</td>
+     *         <td>true</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Part of Primary key?</td>
+     *         <td>false</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Unique?</td>
+     *         <td>false</td>
+     *     </tr>
+     * </table>
+     */
+    public GDemoOrder createdAt(java.sql.Timestamp value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Setting createdAt to null violates a NOT NULL constraint!");
+        }
+        this.createdAt = value;
+        this.createdAtSet = true;
+        return this;
+    }
+
+    /**
+     * <table summary="The column model attributes and their values">
+     *     <tr>
+     *         <td><strong>Attribute</strong></td>
+     *         <td><strong>Value</strong></td>
+     *     </tr>
+     *     <tr>
+     *         <td>Table name</td>
+     *         <td>DEMO_ORDER</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Full table name</td>
+     *         <td>PUBLIC.DEMO_ORDER</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Column name</td>
+     *         <td>CREATED_AT</td>
+     *     </tr>
+     *     <tr>
+     *         <td>SQL type</td>
+     *         <td>TIMESTAMP</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Not nullable?</td>
+     *         <td>true</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Part of Primary key?</td>
+     *         <td>false</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Unique?</td>
+     *         <td>false</td>
+     *     </tr>
+     * </table>
+     */
+    public java.sql.Timestamp createdAt() {
+        return this.createdAt;
+    }
+
+    private java.lang.String note;
+
+    /**
+     * <table summary="The column model attributes and their values">
+     *     <tr>
+     *         <td><strong>Attribute</strong></td>
+     *         <td><strong>Value</strong></td>
+     *     </tr>
+     *     <tr>
+     *         <td>Table name</td>
+     *         <td>DEMO_ORDER</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Full table name</td>
+     *         <td>PUBLIC.DEMO_ORDER</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Column name</td>
+     *         <td>NOTE</td>
+     *     </tr>
+     *     <tr>
+     *         <td>SQL type</td>
+     *         <td>CHARACTER VARYING</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Not nullable?</td>
+     *         <td>false</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Part of Primary key?</td>
+     *         <td>false</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Unique?</td>
+     *         <td>false</td>
+     *     </tr>
+     * </table>
+     */
+    public GDemoOrder note(java.lang.String value) {
+        this.note = value;
+        return this;
+    }
+
+    /**
+     * <table summary="The column model attributes and their values">
+     *     <tr>
+     *         <td><strong>Attribute</strong></td>
+     *         <td><strong>Value</strong></td>
+     *     </tr>
+     *     <tr>
+     *         <td>Table name</td>
+     *         <td>DEMO_ORDER</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Full table name</td>
+     *         <td>PUBLIC.DEMO_ORDER</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Column name</td>
+     *         <td>NOTE</td>
+     *     </tr>
+     *     <tr>
+     *         <td>SQL type</td>
+     *         <td>CHARACTER VARYING</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Not nullable?</td>
+     *         <td>false</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Part of Primary key?</td>
+     *         <td>false</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Unique?</td>
+     *         <td>false</td>
+     *     </tr>
+     * </table>
+     */
+    public java.lang.String note() {
+        return this.note;
+    }
+
+
+    public List<RedGEntity> getDependencies() {
+        List<RedGEntity> dependencies = new ArrayList<>();
+        return dependencies;
+    }
+
+
+    public String getSQLString() {
+        List<String> columns = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        if (this.idSet) {
+            columns.add("\"ID\"");
+            values.add(this.redG.getSqlValuesFormatter().formatValue(this.id(),
+                    "BIGINT", "PUBLIC.DEMO_ORDER",
+                    "DEMO_ORDER", "ID"));
+        }
+
+
+        if (this.codeSet) {
+            columns.add("\"CODE\"");
+            values.add(this.redG.getSqlValuesFormatter().formatValue(this.code(),
+                    "CHARACTER VARYING", "PUBLIC.DEMO_ORDER",
+                    "DEMO_ORDER", "CODE"));
+        }
+
+
+        if (this.createdAtSet) {
+            columns.add("\"CREATED_AT\"");
+            values.add(this.redG.getSqlValuesFormatter().formatValue(this.createdAt(),
+                    "TIMESTAMP", "PUBLIC.DEMO_ORDER",
+                    "DEMO_ORDER", "CREATED_AT"));
+        }
+
+
+        columns.add("\"NOTE\"");
+        values.add(this.redG.getSqlValuesFormatter().formatValue(this.note(),
+                "CHARACTER VARYING", "PUBLIC.DEMO_ORDER",
+                "DEMO_ORDER", "NOTE"));
+
+        return "INSERT INTO \"DEMO_ORDER\" (" + String.join(", ", columns) + ") VALUES (" + String.join(", ", values) + ")";
+    }
+
+    public String getPreparedStatementString() {
+        List<String> columns = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        if (this.idSet) {
+            columns.add("\"ID\"");
+            placeholders.add("?");
+        }
+
+
+        if (this.codeSet) {
+            columns.add("\"CODE\"");
+            placeholders.add("?");
+        }
+
+
+        if (this.createdAtSet) {
+            columns.add("\"CREATED_AT\"");
+            placeholders.add("?");
+        }
+
+
+        columns.add("\"NOTE\"");
+        placeholders.add("?");
+
+        return "INSERT INTO \"DEMO_ORDER\" (" + String.join(", ", columns) + ") VALUES (" + String.join(", ", placeholders) + ")";
+    }
+
+    public Object[] getPreparedStatementValues() {
+        List<Object> values = new ArrayList<>();
+        if (this.idSet) {
+            values.add(this.id());
+        }
+
+
+        if (this.codeSet) {
+            values.add(this.code());
+        }
+
+
+        if (this.createdAtSet) {
+            values.add(this.createdAt());
+        }
+
+
+        values.add(this.note());
+
+        return values.toArray();
+    }
+
+    public AttributeMetaInfo[] getPreparedStatementValuesMetaInfos() {
+        List<AttributeMetaInfo> metaInfos = new ArrayList<>();
+        if (this.idSet) {
+            metaInfos.add(new AttributeMetaInfo("ID", "DEMO_ORDER", "PUBLIC.DEMO_ORDER", "BIGINT", -5, java.lang.Long.class, true));
+        }
+
+
+        if (this.codeSet) {
+            metaInfos.add(new AttributeMetaInfo("CODE", "DEMO_ORDER", "PUBLIC.DEMO_ORDER", "CHARACTER VARYING", 12, java.lang.String.class, true));
+        }
+
+
+        if (this.createdAtSet) {
+            metaInfos.add(new AttributeMetaInfo("CREATED_AT", "DEMO_ORDER", "PUBLIC.DEMO_ORDER", "TIMESTAMP", 93, java.sql.Timestamp.class, true));
+        }
+
+
+        metaInfos.add(new AttributeMetaInfo("NOTE", "DEMO_ORDER", "PUBLIC.DEMO_ORDER", "CHARACTER VARYING", 12, java.lang.String.class, false));
+
+        return metaInfos.toArray(new AttributeMetaInfo[0]);
+    }
+
+    @Override
+    public GDemoOrder getCopyFor(AbstractRedG redG) {
+        try {
+            GDemoOrder copy = (GDemoOrder) super.clone();
+            copy.redG = redG;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public GDemoOrder getCopyWithNewKeys(java.util.Map<RedGEntity, RedGEntity> replacements) {
+        GDemoOrder copy = getCopyFor(this.redG);
+        try {
+            copy.id = null;
+            copy.idSet = false;
+        } catch (Exception e) {
+            throw new RuntimeException("Could not get default value", e);
+        }
+        return copy;
+    }
+
+    @Override
+    public String[] getGeneratedKeyColumns() {
+        List<String> columns = new ArrayList<>();
+        if (!this.idSet) {
+            columns.add("ID");
+        }
+        return columns.toArray(new String[0]);
+    }
+
+    @Override
+    public void readGeneratedKeys(java.sql.ResultSet generatedKeys) throws java.sql.SQLException {
+        int index = 1;
+        if (!this.idSet) {
+            this.id = generatedKeys.getObject(index++, java.lang.Long.class);
+        }
+    }
+
+    private static String serializedTableModel = "rO0ABXNyACBkZS55YW1hc3MucmVkZy5tb2RlbHMuVGFibGVNb2RlbB5na774tnJiAgAKWgAYaGFzQ29sdW1uc0FuZEZvcmVpZ25LZXlzTAAJY2xhc3NOYW1ldAASTGphdmEvbGFuZy9TdHJpbmc7TAAHY29sdW1uc3QAEExqYXZhL3V0aWwvTGlzdDtMAAtmb3JlaWduS2V5c3EAfgACTAATaW5jb21pbmdGb3JlaWduS2V5c3EAfgACTAAXam9pblRhYmxlU2ltcGxpZmllckRhdGF0AA9MamF2YS91dGlsL01hcDtMAARuYW1lcQB+AAFMAAtwYWNrYWdlTmFtZXEAfgABTAALc3FsRnVsbE5hbWVxAH4AAUwAB3NxbE5hbWVxAH4AAXhwAHQACkdEZW1vT3JkZXJzcgATamF2YS51dGlsLkFycmF5TGlzdHiB0h2Zx2GdAwABSQAEc2l6ZXhwAAAABHcEAAAABHNyACFkZS55YW1hc3MucmVkZy5tb2RlbHMuQ29sdW1uTW9kZWx+0Oz50zG2sQIADloADWF1dG9JbmNyZW1lbnRaABFleHBsaWNpdEF0dHJpYnV0ZVoAB25vdE51bGxaABBwYXJ0T2ZGb3JlaWduS2V5WgAQcGFydE9mUHJpbWFyeUtleVoABnVuaXF1ZUwAEmNvbnZlbmllbmNlU2V0dGVyc3EAfgACTAAIZGF0YVR5cGV0ACVMZGUveWFtYXNzL3JlZGcvbW9kZWxzL0RhdGFUeXBlTW9kZWw7TAAOZGJEZWZhdWx0VmFsdWVxAH4AAUwAD2RiRnVsbFRhYmxlTmFtZXEAfgABTAAGZGJOYW1lcQB+AAFMAAtkYlRhYmxlTmFtZXEAfgABTAAQamF2YVByb3BlcnR5TmFtZXEAfgABTAAMamF2YVR5cGVOYW1lcQB+AAF4cAEAAQABAXNyABFqYXZhLnV0aWwuQ29sbFNlcleOq7Y6G6gRAwABSQADdGFneHAAAAABdwQAAAAAeHNyACNkZS55YW1hc3MucmVkZy5tb2RlbHMuRGF0YVR5cGVNb2RlbPmtJpy1sWs5AgADWgAIbnVsbGFibGVMAARuYW1lcQB+AAFMABB2ZW5kb3JUeXBlTnVtYmVydAATTGphdmEvbGFuZy9JbnRlZ2VyO3hwAXQABkJJR0lOVHNyABFqYXZhLmxhbmcuSW50ZWdlchLioKT3gYc4AgABSQAFdmFsdWV4cgAQamF2YS5sYW5nLk51bWJlcoaslR0LlOCLAgAAeHD////7cHQAEVBVQkxJQy5ERU1PX09SREVSdAACSUR0AApERU1PX09SREVSdAACaWR0AA5qYXZhLmxhbmcuTG9uZ3NxAH4ACAAAAQAAAHEAfgAMc3EAfgANAXQAEUNIQVJBQ1RFUiBWQVJZSU5Hc3EAfgARAAAADHQABSdORVcndAARUFVCTElDLkRFTU9fT1JERVJ0AARDT0RFcQB+ABZ0AARjb2RldAAQamF2YS5sYW5nLlN0cmluZ3NxAH4ACAAAAQAAAHEAfgAMc3EAfgANAXQACVRJTUVTVEFNUHNxAH4AEQAAAF10ABFDVVJSRU5UX1RJTUVTVEFNUHQAEVBVQkxJQy5ERU1PX09SREVSdAAKQ1JFQVRFRF9BVHEAfgAWdAAJY3JlYXRlZEF0dAASamF2YS5zcWwuVGltZXN0YW1wc3EAfgAIAAAAAAAAcQB+AAxxAH4AGnB0ABFQVUJMSUMuREVNT19PUkRFUnQABE5PVEVxAH4AFnQABG5vdGVxAH4AIXhzcQB+AAYAAAAAdwQAAAAAeHNxAH4ABgAAAAB3BAAAAAB4c3IAEWphdmEudXRpbC5IYXNoTWFwBQfawcMWYNEDAAJGAApsb2FkRmFjdG9ySQAJdGhyZXNob2xkeHA/QAAAAAAAAHcIAAAAEAAAAAB4dAAJRGVtb09yZGVydAAYZGUueWFtYXNzLnJlZGcuZ2VuZXJhdGVkdAARUFVCTElDLkRFTU9fT1JERVJxAH4AFg==";
+    private static TableModel tableModel;
+
+    public static String getSerializedTableModel() {
+        return serializedTableModel;
+    }
+
+    public static TableModel getTableModel() {
+        if (tableModel == null) {
+            byte[] data = java.util.Base64.getDecoder().decode(serializedTableModel);
+            try {
+                java.io.ObjectInputStream ois = new java.io.ObjectInputStream(new java.io.ByteArrayInputStream(data));
+                tableModel = (TableModel) ois.readObject();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return tableModel;
+    }
+
+    @Override
+    public TableModel getEntityTableModel() {
+        return getTableModel();
+    }
+}
\ No newline at end of file
@@ -34,7 +34,7 @@ import de.yamass.redg.models.*;
  *     </tr>
  * </table>
  */
-public class GGroup implements RedGEntity {
+public class GGroup implements RedGEntity, Cloneable {
 
     protected AbstractRedG redG;
 
@@ -259,6 +259,17 @@ public class GGroup implements RedGEntity {
         };
     }
 
+    @Override
+    public GGroup getCopyFor(AbstractRedG redG) {
+        try {
+            GGroup copy = (GGroup) super.clone();
+            copy.redG = redG;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private static String serializedTableModel = "rO0ABXNyACBkZS55YW1hc3MucmVkZy5tb2RlbHMuVGFibGVNb2RlbL+0Cs2MvQwOAgAKWgAYaGFzQ29sdW1uc0FuZEZvcmVpZ25LZXlzTAAJY2xhc3NOYW1ldAASTGphdmEvbGFuZy9TdHJpbmc7TAAHY29sdW1uc3QAEExqYXZhL3V0aWwvTGlzdDtMAAtmb3JlaWduS2V5c3EAfgACTAATaW5jb21pbmdGb3JlaWduS2V5c3EAfgACTAAXam9pblRhYmxlU2ltcGxpZmllckRhdGF0AA9MamF2YS91dGlsL01hcDtMAARuYW1lcQB+AAFMAAtwYWNrYWdlTmFtZXEAfgABTAALc3FsRnVsbE5hbWVxAH4AAUwAB3NxbE5hbWVxAH4AAXhwAXQABkdHcm91cHNyABNqYXZhLnV0aWwuQXJyYXlMaXN0eIHSHZnHYZ0DAAFJAARzaXpleHAAAAACdwQAAAACc3IAIWRlLnlhbWFzcy5yZWRnLm1vZGVscy5Db2x1bW5Nb2RlbIDpepgPjS7uAgANWgARZXhwbGljaXRBdHRyaWJ1dGVaAAdub3ROdWxsWgAQcGFydE9mRm9yZWlnbktleVoAEHBhcnRPZlByaW1hcnlLZXlJAApzcWxUeXBlSW50WgAGdW5pcXVlTAASY29udmVuaWVuY2VTZXR0ZXJzcQB+AAJMAA9kYkZ1bGxUYWJsZU5hbWVxAH4AAUwABmRiTmFtZXEAfgABTAALZGJUYWJsZU5hbWVxAH4AAUwADGphdmFUeXBlTmFtZXEAfgABTAAEbmFtZXEAfgABTAAHc3FsVHlwZXEAfgABeHAAAQABAAAAAwFzcgAfamF2YS51dGlsLkNvbGxlY3Rpb25zJEVtcHR5TGlzdHq4F7Q8p57eAgAAeHB0ABkiUlQtQ0ctVEUiLlBVQkxJQy4iR1JPVVAidAACSUR0AAVHUk9VUHQAFGphdmEubWF0aC5CaWdEZWNpbWFsdAACaWR0AAdERUNJTUFMc3EAfgAIAAEBAAAAAAMAcQB+AAtxAH4ADHQABVRBQkxFcQB+AA5xAH4AD3QABXRhYmxlcQB+ABF4c3EAfgAGAAAAAXcEAAAAAXNyACVkZS55YW1hc3MucmVkZy5tb2RlbHMuRm9yZWlnbktleU1vZGVs6Bfc9m+MvB8CAARaAAdub3ROdWxsTAAMamF2YVR5cGVOYW1lcQB+AAFMAARuYW1lcQB+AAFMAApyZWZlcmVuY2VzcQB+AAN4cAF0AAZHVGFibGV0AAp0YWJsZVRhYmxlc3IAEWphdmEudXRpbC5IYXNoTWFwBQfawcMWYNEDAAJGAApsb2FkRmFjdG9ySQAJdGhyZXNob2xkeHA/QAAAAAAADHcIAAAAEAAAAAFxAH4AE3NyACtkZS55YW1hc3MucmVkZy5tb2RlbHMuRm9yZWlnbktleUNvbHVtbk1vZGVsRvVCQiJKJosCAAhJAApzcWxUeXBlSW50TAAPZGJGdWxsVGFibGVOYW1lcQB+AAFMAAZkYk5hbWVxAH4AAUwAC2RiVGFibGVOYW1lcQB+AAFMAAlsb2NhbE5hbWVxAH4AAUwACWxvY2FsVHlwZXEAfgABTAAXcHJpbWFyeUtleUF0dHJpYnV0ZU5hbWVxAH4AAUwAB3NxbFR5cGVxAH4AAXhwAAAAA3EAfgAMcQB+ABNxAH4ADnQABXRhYmxlcQB+AA90AAJpZHEAfgAReHhzcQB+AAYAAAAAdwQAAAAAeHNxAH4AGj9AAAAAAAAAdwgAAAAQAAAAAHh0AAVHcm91cHQAGGRlLnlhbWFzcy5yZWRnLmdlbmVyYXRlZHEAfgAMcQB+AA4=";
     private static TableModel tableModel;
 
@@ -278,4 +289,9 @@ public class GGroup implements RedGEntity {
         }
         return tableModel;
     }
+
+    @Override
+    public TableModel getEntityTableModel() {
+        return getTableModel();
+    }
 }
\ No newline at end of file
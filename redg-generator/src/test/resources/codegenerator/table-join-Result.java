@@ -34,7 +34,7 @@ import de.yamass.redg.models.*;
  *     </tr>
  * </table>
  */
-public class GDemoUser implements RedGEntity {
+public class GDemoUser implements RedGEntity, Cloneable {
 
     protected AbstractRedG redG;
 
@@ -476,6 +476,28 @@ public class GDemoUser implements RedGEntity {
         };
     }
 
+    @Override
+    public GDemoUser getCopyFor(AbstractRedG redG) {
+        try {
+            GDemoUser copy = (GDemoUser) super.clone();
+            copy.redG = redG;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public GDemoUser getCopyWithNewKeys(java.util.Map<RedGEntity, RedGEntity> replacements) {
+        GDemoUser copy = getCopyFor(this.redG);
+        try {
+            copy.id = redG.getDefaultValueStrategy().getDefaultValue(getTableModel().getColumnBySQLName("ID"), java.math.BigDecimal.class);
+        } catch (Exception e) {
+            throw new RuntimeException("Could not get default value", e);
+        }
+        return copy;
+    }
+
     private static String serializedTableModel = "rO0ABXNyACBkZS55YW1hc3MucmVkZy5tb2RlbHMuVGFibGVNb2RlbDbHSQJAzJJ4AgAKWgAYaGFzQ29sdW1uc0FuZEZvcmVpZ25LZXlzTAAJY2xhc3NOYW1ldAASTGphdmEvbGFuZy9TdHJpbmc7TAAHY29sdW1uc3QAEExqYXZhL3V0aWwvTGlzdDtMAAtmb3JlaWduS2V5c3EAfgACTAATaW5jb21pbmdGb3JlaWduS2V5c3EAfgACTAAXam9pblRhYmxlU2ltcGxpZmllckRhdGF0AA9MamF2YS91dGlsL01hcDtMAARuYW1lcQB+AAFMAAtwYWNrYWdlTmFtZXEAfgABTAALc3FsRnVsbE5hbWVxAH4AAUwAB3NxbE5hbWVxAH4AAXhwAHQACUdEZW1vVXNlcnNyABNqYXZhLnV0aWwuQXJyYXlMaXN0eIHSHZnHYZ0DAAFJAARzaXpleHAAAAAEdwQAAAAEc3IAIWRlLnlhbWFzcy5yZWRnLm1vZGVscy5Db2x1bW5Nb2RlbPh9//pKB8pQAgAMWgARZXhwbGljaXRBdHRyaWJ1dGVaAAdub3ROdWxsWgAQcGFydE9mRm9yZWlnbktleVoAEHBhcnRPZlByaW1hcnlLZXlaAAZ1bmlxdWVMABJjb252ZW5pZW5jZVNldHRlcnNxAH4AAkwACGRhdGFUeXBldAAlTGRlL3lhbWFzcy9yZWRnL21vZGVscy9EYXRhVHlwZU1vZGVsO0wAD2RiRnVsbFRhYmxlTmFtZXEAfgABTAAGZGJOYW1lcQB+AAFMAAtkYlRhYmxlTmFtZXEAfgABTAAQamF2YVByb3BlcnR5TmFtZXEAfgABTAAMamF2YVR5cGVOYW1lcQB+AAF4cAABAAEBc3IAEWphdmEudXRpbC5Db2xsU2VyV46rtjobqBEDAAFJAAN0YWd4cAAAAAF3BAAAAAB4c3IAI2RlLnlhbWFzcy5yZWRnLm1vZGVscy5EYXRhVHlwZU1vZGVs+a0mnLWxazkCAANaAAhudWxsYWJsZUwABG5hbWVxAH4AAUwAEHZlbmRvclR5cGVOdW1iZXJ0ABNMamF2YS9sYW5nL0ludGVnZXI7eHABdAAHTlVNRVJJQ3NyABFqYXZhLmxhbmcuSW50ZWdlchLioKT3gYc4AgABSQAFdmFsdWV4cgAQamF2YS5sYW5nLk51bWJlcoaslR0LlOCLAgAAeHAAAAACdAAQUFVCTElDLkRFTU9fVVNFUnQAAklEdAAJREVNT19VU0VSdAACaWR0ABRqYXZhLm1hdGguQmlnRGVjaW1hbHNxAH4ACAABAAAAcQB+AAxzcQB+AA0BdAARQ0hBUkFDVEVSIFZBUllJTkdzcQB+ABEAAAAMdAAQUFVCTElDLkRFTU9fVVNFUnQACFVTRVJOQU1FcQB+ABZ0AAh1c2VybmFtZXQAEGphdmEubGFuZy5TdHJpbmdzcQB+AAgAAAAAAHEAfgAMcQB+ABp0ABBQVUJMSUMuREVNT19VU0VSdAAKRklSU1RfTkFNRXEAfgAWdAAJZmlyc3ROYW1lcQB+ACBzcQB+AAgAAAAAAHEAfgAMcQB+ABp0ABBQVUJMSUMuREVNT19VU0VSdAAJTEFTVF9OQU1FcQB+ABZ0AAhsYXN0TmFtZXEAfgAgeHNxAH4ABgAAAAB3BAAAAAB4c3EAfgAGAAAAAXcEAAAAAXNyAC1kZS55YW1hc3MucmVkZy5tb2RlbHMuSW5jb21pbmdGb3JlaWduS2V5TW9kZWzshuDJA0NEvQIABFoAB25vdE51bGxMAA1hdHRyaWJ1dGVOYW1lcQB+AAFMABhyZWZlcmVuY2luZ0F0dHJpYnV0ZU5hbWVxAH4AAUwAF3JlZmVyZW5jaW5nSmF2YVR5cGVOYW1lcQB+AAF4cAF0ACZ1c2VyV29ya3NBdENvbXBhbmllc3NGb3JVc2VySWREZW1vVXNlcnQADnVzZXJJZERlbW9Vc2VydAAVR1VzZXJXb3Jrc0F0Q29tcGFuaWVzeHNyABFqYXZhLnV0aWwuSGFzaE1hcAUH2sHDFmDRAwACRgAKbG9hZEZhY3RvckkACXRocmVzaG9sZHhwP0AAAAAAAAx3CAAAABAAAAABdAAVR1VzZXJXb3Jrc0F0Q29tcGFuaWVzc3IALmRlLnlhbWFzcy5yZWRnLm1vZGVscy5Kb2luVGFibGVTaW1wbGlmaWVyTW9kZWxD63PkU0saQgIAA0wAEWNvbnN0cnVjdG9yUGFyYW1zcQB+AAJMAAxtZXRob2RQYXJhbXNxAH4AA0wABG5hbWVxAH4AAXhwc3EAfgAGAAAAAncEAAAAAnQABHRoaXN0ABRjb21wYW55SWREZW1vQ29tcGFueXhzcQB+ADA/QAAAAAAADHcIAAAAEAAAAAF0AAxHRGVtb0NvbXBhbnlxAH4AN3h0ABRVc2VyV29ya3NBdENvbXBhbmllc3h0AAhEZW1vVXNlcnQAGGRlLnlhbWFzcy5yZWRnLmdlbmVyYXRlZHQAEFBVQkxJQy5ERU1PX1VTRVJxAH4AFg==";
     private static TableModel tableModel;
 
@@ -495,4 +517,9 @@ public class GDemoUser implements RedGEntity {
         }
         return tableModel;
     }
+
+    @Override
+    public TableModel getEntityTableModel() {
+        return getTableModel();
+    }
 }
\ No newline at end of file
@@ -34,7 +34,7 @@ import de.yamass.redg.models.*;
  *     </tr>
  * </table>
  */
-public class GDemoUser implements RedGEntity {
+public class GDemoUser implements RedGEntity, Cloneable {
 
     protected AbstractRedG redG;
 
@@ -610,6 +610,34 @@ public class GDemoUser implements RedGEntity {
         };
     }
 
+    @Override
+    public GDemoUser getCopyFor(AbstractRedG redG) {
+        try {
+            GDemoUser copy = (GDemoUser) super.clone();
+            copy.redG = redG;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public GDemoUser getCopyWithNewKeys(java.util.Map<RedGEntity, RedGEntity> replacements) {
+        GDemoUser copy = getCopyFor(this.redG);
+        if (replacements.containsKey(this.demoUserCompany)) {
+            copy.demoUserCompany = (GDemoCompany) replacements.get(this.demoUserCompany);
+        }
+        if (replacements.containsKey(this.demoUserBankAcc)) {
+            copy.demoUserBankAcc = (GDemoBankAccount) replacements.get(this.demoUserBankAcc);
+        }
+        try {
+            copy.id = redG.getDefaultValueStrategy().getDefaultValue(getTableModel().getColumnBySQLName("ID"), java.math.BigDecimal.class);
+        } catch (Exception e) {
+            throw new RuntimeException("Could not get default value", e);
+        }
+        return copy;
+    }
+
     private static String serializedTableModel = "rO0ABXNyACBkZS55YW1hc3MucmVkZy5tb2RlbHMuVGFibGVNb2RlbDbHSQJAzJJ4AgAKWgAYaGFzQ29sdW1uc0FuZEZvcmVpZ25LZXlzTAAJY2xhc3NOYW1ldAASTGphdmEvbGFuZy9TdHJpbmc7TAAHY29sdW1uc3QAEExqYXZhL3V0aWwvTGlzdDtMAAtmb3JlaWduS2V5c3EAfgACTAATaW5jb21pbmdGb3JlaWduS2V5c3EAfgACTAAXam9pblRhYmxlU2ltcGxpZmllckRhdGF0AA9MamF2YS91dGlsL01hcDtMAARuYW1lcQB+AAFMAAtwYWNrYWdlTmFtZXEAfgABTAALc3FsRnVsbE5hbWVxAH4AAUwAB3NxbE5hbWVxAH4AAXhwAXQACUdEZW1vVXNlcnNyABNqYXZhLnV0aWwuQXJyYXlMaXN0eIHSHZnHYZ0DAAFJAARzaXpleHAAAAAIdwQAAAAIc3IAIWRlLnlhbWFzcy5yZWRnLm1vZGVscy5Db2x1bW5Nb2RlbPh9//pKB8pQAgAMWgARZXhwbGljaXRBdHRyaWJ1dGVaAAdub3ROdWxsWgAQcGFydE9mRm9yZWlnbktleVoAEHBhcnRPZlByaW1hcnlLZXlaAAZ1bmlxdWVMABJjb252ZW5pZW5jZVNldHRlcnNxAH4AAkwACGRhdGFUeXBldAAlTGRlL3lhbWFzcy9yZWRnL21vZGVscy9EYXRhVHlwZU1vZGVsO0wAD2RiRnVsbFRhYmxlTmFtZXEAfgABTAAGZGJOYW1lcQB+AAFMAAtkYlRhYmxlTmFtZXEAfgABTAAQamF2YVByb3BlcnR5TmFtZXEAfgABTAAMamF2YVR5cGVOYW1lcQB+AAF4cAABAAEBc3IAEWphdmEudXRpbC5Db2xsU2VyV46rtjobqBEDAAFJAAN0YWd4cAAAAAF3BAAAAAB4c3IAI2RlLnlhbWFzcy5yZWRnLm1vZGVscy5EYXRhVHlwZU1vZGVs+a0mnLWxazkCAANaAAhudWxsYWJsZUwABG5hbWVxAH4AAUwAEHZlbmRvclR5cGVOdW1iZXJ0ABNMamF2YS9sYW5nL0ludGVnZXI7eHABdAAHTlVNRVJJQ3NyABFqYXZhLmxhbmcuSW50ZWdlchLioKT3gYc4AgABSQAFdmFsdWV4cgAQamF2YS5sYW5nLk51bWJlcoaslR0LlOCLAgAAeHAAAAACdAAQUFVCTElDLkRFTU9fVVNFUnQAAklEdAAJREVNT19VU0VSdAACaWR0ABRqYXZhLm1hdGguQmlnRGVjaW1hbHNxAH4ACAABAAAAcQB+AAxzcQB+AA0BdAARQ0hBUkFDVEVSIFZBUllJTkdzcQB+ABEAAAAMdAAQUFVCTElDLkRFTU9fVVNFUnQACFVTRVJOQU1FcQB+ABZ0AAh1c2VybmFtZXQAEGphdmEubGFuZy5TdHJpbmdzcQB+AAgAAAAAAHEAfgAMcQB+ABp0ABBQVUJMSUMuREVNT19VU0VSdAAKRklSU1RfTkFNRXEAfgAWdAAJZmlyc3ROYW1lcQB+ACBzcQB+AAgAAAAAAHEAfgAMcQB+ABp0ABBQVUJMSUMuREVNT19VU0VSdAAJTEFTVF9OQU1FcQB+ABZ0AAhsYXN0TmFtZXEAfgAgc3EAfgAIAAABAABxAH4ADHEAfgAadAAQUFVCTElDLkRFTU9fVVNFUnQAC1dPUktTX0FUX0NDcQB+ABZ0AAl3b3Jrc0F0Q2NxAH4AIHNxAH4ACAAAAQAAcQB+AAxxAH4AGnQAEFBVQkxJQy5ERU1PX1VTRVJ0AA1XT1JLU19BVF9OQU1FcQB+ABZ0AAt3b3Jrc0F0TmFtZXEAfgAgc3EAfgAIAAEBAABxAH4ADHEAfgAadAAQUFVCTElDLkRFTU9fVVNFUnQAB0FDQ19CSUNxAH4AFnQABmFjY0JpY3EAfgAgc3EAfgAIAAEBAABxAH4ADHEAfgAadAAQUFVCTElDLkRFTU9fVVNFUnQACEFDQ19JQkFOcQB+ABZ0AAdhY2NJYmFucQB+ACB4c3EAfgAGAAAAAncEAAAAAnNyACVkZS55YW1hc3MucmVkZy5tb2RlbHMuRm9yZWlnbktleU1vZGVsi3oIWIjQbD8CAARaAAdub3ROdWxsTAAQamF2YVByb3BlcnR5TmFtZXEAfgABTAAMamF2YVR5cGVOYW1lcQB+AAFMAApyZWZlcmVuY2VzcQB+AAN4cAB0AA9kZW1vVXNlckNvbXBhbnl0AAxHRGVtb0NvbXBhbnlzcgARamF2YS51dGlsLkhhc2hNYXAFB9rBwxZg0QMAAkYACmxvYWRGYWN0b3JJAAl0aHJlc2hvbGR4cD9AAAAAAAADdwgAAAAEAAAAAnEAfgArc3IAK2RlLnlhbWFzcy5yZWRnLm1vZGVscy5Gb3JlaWduS2V5Q29sdW1uTW9kZWz3Zv5Z6aU85AIACEkACnNxbFR5cGVJbnRMAA9kYkZ1bGxUYWJsZU5hbWVxAH4AAUwABmRiTmFtZXEAfgABTAALZGJUYWJsZU5hbWVxAH4AAUwACmRiVHlwZU5hbWVxAH4AAUwACWxvY2FsTmFtZXEAfgABTAAJbG9jYWxUeXBlcQB+AAFMABdwcmltYXJ5S2V5QXR0cmlidXRlTmFtZXEAfgABeHAAAAAMdAAQUFVCTElDLkRFTU9fVVNFUnEAfgArcQB+ABZxAH4AG3QACXdvcmtzQXRDY3EAfgAgdAALY291bnRyeUNvZGVxAH4AL3NxAH4AQAAAAAx0ABBQVUJMSUMuREVNT19VU0VScQB+AC9xAH4AFnEAfgAbdAALd29ya3NBdE5hbWVxAH4AIHQABG5hbWV4c3EAfgA6AXQAD2RlbW9Vc2VyQmFua0FjY3QAEEdEZW1vQmFua0FjY291bnRzcQB+AD4/QAAAAAAAA3cIAAAABAAAAAJxAH4AM3NxAH4AQAAAAAx0ABBQVUJMSUMuREVNT19VU0VScQB+ADNxAH4AFnEAfgAbdAAGYWNjQmljcQB+ACB0AANiaWNxAH4AN3NxAH4AQAAAAAx0ABBQVUJMSUMuREVNT19VU0VScQB+ADdxAH4AFnEAfgAbdAAHYWNjSWJhbnEAfgAgdAAEaWJhbnh4c3EAfgAGAAAAAHcEAAAAAHhzcQB+AD4/QAAAAAAAAHcIAAAAEAAAAAB4dAAIRGVtb1VzZXJ0ABhkZS55YW1hc3MucmVkZy5nZW5lcmF0ZWR0ABBQVUJMSUMuREVNT19VU0VScQB+ABY=";
     private static TableModel tableModel;
 
@@ -629,4 +657,9 @@ public class GDemoUser implements RedGEntity {
         }
         return tableModel;
     }
+
+    @Override
+    public TableModel getEntityTableModel() {
+        return getTableModel();
+    }
 }
\ No newline at end of file
@@ -34,7 +34,7 @@ import de.yamass.redg.models.*;
  *     </tr>
  * </table>
  */
-public class GDemoCompany implements RedGEntity {
+public class GDemoCompany implements RedGEntity, Cloneable {
 
     protected AbstractRedG redG;
 
@@ -298,6 +298,29 @@ public class GDemoCompany implements RedGEntity {
         };
     }
 
+    @Override
+    public GDemoCompany getCopyFor(AbstractRedG redG) {
+        try {
+            GDemoCompany copy = (GDemoCompany) super.clone();
+            copy.redG = redG;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public GDemoCompany getCopyWithNewKeys(java.util.Map<RedGEntity, RedGEntity> replacements) {
+        GDemoCompany copy = getCopyFor(this.redG);
+        try {
+            copy.countryCode = redG.getDefaultValueStrategy().getDefaultValue(getTableModel().getColumnBySQLName("COUNTRY_CODE"), java.lang.String.class);
+            copy.name = redG.getDefaultValueStrategy().getDefaultValue(getTableModel().getColumnBySQLName("NAME"), java.lang.String.class);
+        } catch (Exception e) {
+            throw new RuntimeException("Could not get default value", e);
+        }
+        return copy;
+    }
+
     private static String serializedTableModel = "rO0ABXNyACBkZS55YW1hc3MucmVkZy5tb2RlbHMuVGFibGVNb2RlbDbHSQJAzJJ4AgAKWgAYaGFzQ29sdW1uc0FuZEZvcmVpZ25LZXlzTAAJY2xhc3NOYW1ldAASTGphdmEvbGFuZy9TdHJpbmc7TAAHY29sdW1uc3QAEExqYXZhL3V0aWwvTGlzdDtMAAtmb3JlaWduS2V5c3EAfgACTAATaW5jb21pbmdGb3JlaWduS2V5c3EAfgACTAAXam9pblRhYmxlU2ltcGxpZmllckRhdGF0AA9MamF2YS91dGlsL01hcDtMAARuYW1lcQB+AAFMAAtwYWNrYWdlTmFtZXEAfgABTAALc3FsRnVsbE5hbWVxAH4AAUwAB3NxbE5hbWVxAH4AAXhwAHQADEdEZW1vQ29tcGFueXNyABNqYXZhLnV0aWwuQXJyYXlMaXN0eIHSHZnHYZ0DAAFJAARzaXpleHAAAAACdwQAAAACc3IAIWRlLnlhbWFzcy5yZWRnLm1vZGVscy5Db2x1bW5Nb2RlbPh9//pKB8pQAgAMWgARZXhwbGljaXRBdHRyaWJ1dGVaAAdub3ROdWxsWgAQcGFydE9mRm9yZWlnbktleVoAEHBhcnRPZlByaW1hcnlLZXlaAAZ1bmlxdWVMABJjb252ZW5pZW5jZVNldHRlcnNxAH4AAkwACGRhdGFUeXBldAAlTGRlL3lhbWFzcy9yZWRnL21vZGVscy9EYXRhVHlwZU1vZGVsO0wAD2RiRnVsbFRhYmxlTmFtZXEAfgABTAAGZGJOYW1lcQB+AAFMAAtkYlRhYmxlTmFtZXEAfgABTAAQamF2YVByb3BlcnR5TmFtZXEAfgABTAAMamF2YVR5cGVOYW1lcQB+AAF4cAABAAEBc3IAEWphdmEudXRpbC5Db2xsU2VyV46rtjobqBEDAAFJAAN0YWd4cAAAAAF3BAAAAAB4c3IAI2RlLnlhbWFzcy5yZWRnLm1vZGVscy5EYXRhVHlwZU1vZGVs+a0mnLWxazkCAANaAAhudWxsYWJsZUwABG5hbWVxAH4AAUwAEHZlbmRvclR5cGVOdW1iZXJ0ABNMamF2YS9sYW5nL0ludGVnZXI7eHABdAARQ0hBUkFDVEVSIFZBUllJTkdzcgARamF2YS5sYW5nLkludGVnZXIS4qCk94GHOAIAAUkABXZhbHVleHIAEGphdmEubGFuZy5OdW1iZXKGrJUdC5TgiwIAAHhwAAAADHQAE1BVQkxJQy5ERU1PX0NPTVBBTll0AAxDT1VOVFJZX0NPREV0AAxERU1PX0NPTVBBTll0AAtjb3VudHJ5Q29kZXQAEGphdmEubGFuZy5TdHJpbmdzcQB+AAgAAQABAXEAfgAMcQB+AA90ABNQVUJMSUMuREVNT19DT01QQU5ZdAAETkFNRXEAfgAWdAAEbmFtZXEAfgAYeHNxAH4ABgAAAAB3BAAAAAB4c3EAfgAGAAAAAXcEAAAAAXNyAC1kZS55YW1hc3MucmVkZy5tb2RlbHMuSW5jb21pbmdGb3JlaWduS2V5TW9kZWzshuDJA0NEvQIABFoAB25vdE51bGxMAA1hdHRyaWJ1dGVOYW1lcQB+AAFMABhyZWZlcmVuY2luZ0F0dHJpYnV0ZU5hbWVxAH4AAUwAF3JlZmVyZW5jaW5nSmF2YVR5cGVOYW1lcQB+AAF4cAB0ABtkZW1vVXNlcnNGb3JEZW1vVXNlckNvbXBhbnl0AA9kZW1vVXNlckNvbXBhbnl0AAlHRGVtb1VzZXJ4c3IAEWphdmEudXRpbC5IYXNoTWFwBQfawcMWYNEDAAJGAApsb2FkRmFjdG9ySQAJdGhyZXNob2xkeHA/QAAAAAAAAHcIAAAAEAAAAAB4dAALRGVtb0NvbXBhbnl0ABhkZS55YW1hc3MucmVkZy5nZW5lcmF0ZWR0ABNQVUJMSUMuREVNT19DT01QQU5ZcQB+ABY=";
     private static TableModel tableModel;
 
@@ -317,4 +340,9 @@ public class GDemoCompany implements RedGEntity {
         }
         return tableModel;
     }
+
+    @Override
+    public TableModel getEntityTableModel() {
+        return getTableModel();
+    }
 }
\ No newline at end of file
@@ -34,7 +34,7 @@ import de.yamass.redg.models.*;
  *     </tr>
  * </table>
  */
-public class GDemoUser implements RedGEntity {
+public class GDemoUser implements RedGEntity, Cloneable {
 
     protected AbstractRedG redG;
 
@@ -723,6 +723,31 @@ public class GDemoUser implements RedGEntity {
         };
     }
 
+    @Override
+    public GDemoUser getCopyFor(AbstractRedG redG) {
+        try {
+            GDemoUser copy = (GDemoUser) super.clone();
+            copy.redG = redG;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public GDemoUser getCopyWithNewKeys(java.util.Map<RedGEntity, RedGEntity> replacements) {
+        GDemoUser copy = getCopyFor(this.redG);
+        if (replacements.containsKey(this.worksAtDemoCompany)) {
+            copy.worksAtDemoCompany = (GDemoCompany) replacements.get(this.worksAtDemoCompany);
+        }
+        try {
+            copy.id = redG.getDefaultValueStrategy().getDefaultValue(getTableModel().getColumnBySQLName("ID"), java.math.BigDecimal.class);
+        } catch (Exception e) {
+            throw new RuntimeException("Could not get default value", e);
+        }
+        return copy;
+    }
+
     private static String serializedTableModel = "rO0ABXNyACBkZS55YW1hc3MucmVkZy5tb2RlbHMuVGFibGVNb2RlbDbHSQJAzJJ4AgAKWgAYaGFzQ29sdW1uc0FuZEZvcmVpZ25LZXlzTAAJY2xhc3NOYW1ldAASTGphdmEvbGFuZy9TdHJpbmc7TAAHY29sdW1uc3QAEExqYXZhL3V0aWwvTGlzdDtMAAtmb3JlaWduS2V5c3EAfgACTAATaW5jb21pbmdGb3JlaWduS2V5c3EAfgACTAAXam9pblRhYmxlU2ltcGxpZmllckRhdGF0AA9MamF2YS91dGlsL01hcDtMAARuYW1lcQB+AAFMAAtwYWNrYWdlTmFtZXEAfgABTAALc3FsRnVsbE5hbWVxAH4AAUwAB3NxbE5hbWVxAH4AAXhwAXQACUdEZW1vVXNlcnNyABNqYXZhLnV0aWwuQXJyYXlMaXN0eIHSHZnHYZ0DAAFJAARzaXpleHAAAAAHdwQAAAAHc3IAIWRlLnlhbWFzcy5yZWRnLm1vZGVscy5Db2x1bW5Nb2RlbPh9//pKB8pQAgAMWgARZXhwbGljaXRBdHRyaWJ1dGVaAAdub3ROdWxsWgAQcGFydE9mRm9yZWlnbktleVoAEHBhcnRPZlByaW1hcnlLZXlaAAZ1bmlxdWVMABJjb252ZW5pZW5jZVNldHRlcnNxAH4AAkwACGRhdGFUeXBldAAlTGRlL3lhbWFzcy9yZWRnL21vZGVscy9EYXRhVHlwZU1vZGVsO0wAD2RiRnVsbFRhYmxlTmFtZXEAfgABTAAGZGJOYW1lcQB+AAFMAAtkYlRhYmxlTmFtZXEAfgABTAAQamF2YVByb3BlcnR5TmFtZXEAfgABTAAMamF2YVR5cGVOYW1lcQB+AAF4cAEBAAAAc3IAEWphdmEudXRpbC5Db2xsU2VyV46rtjobqBEDAAFJAAN0YWd4cAAAAAF3BAAAAAB4c3IAI2RlLnlhbWFzcy5yZWRnLm1vZGVscy5EYXRhVHlwZU1vZGVs+a0mnLWxazkCAANaAAhudWxsYWJsZUwABG5hbWVxAH4AAUwAEHZlbmRvclR5cGVOdW1iZXJ0ABNMamF2YS9sYW5nL0ludGVnZXI7eHABdAARQ0hBUkFDVEVSIFZBUllJTkdzcgARamF2YS5sYW5nLkludGVnZXIS4qCk94GHOAIAAUkABXZhbHVleHIAEGphdmEubGFuZy5OdW1iZXKGrJUdC5TgiwIAAHhwAAAADHQAEFBVQkxJQy5ERU1PX1VTRVJ0AAVEVFlQRXQACURFTU9fVVNFUnQABWR0eXBldAAQamF2YS5sYW5nLlN0cmluZ3NxAH4ACAABAAEBcQB+AAxzcQB+AA0BdAAHTlVNRVJJQ3NxAH4AEQAAAAJ0ABBQVUJMSUMuREVNT19VU0VSdAACSURxAH4AFnQAAmlkdAAUamF2YS5tYXRoLkJpZ0RlY2ltYWxzcQB+AAgAAQAAAHEAfgAMcQB+AA90ABBQVUJMSUMuREVNT19VU0VSdAAIVVNFUk5BTUVxAH4AFnQACHVzZXJuYW1lcQB+ABhzcQB+AAgAAAAAAHEAfgAMcQB+AA90ABBQVUJMSUMuREVNT19VU0VSdAAKRklSU1RfTkFNRXEAfgAWdAAJZmlyc3ROYW1lcQB+ABhzcQB+AAgAAAAAAHEAfgAMcQB+AA90ABBQVUJMSUMuREVNT19VU0VSdAAJTEFTVF9OQU1FcQB+ABZ0AAhsYXN0TmFtZXEAfgAYc3EAfgAIAAEBAABxAH4ADHEAfgAadAAQUFVCTElDLkRFTU9fVVNFUnQACFdPUktTX0FUcQB+ABZ0AAd3b3Jrc0F0cQB+ACBzcQB+AAgAAAAAAHEAfgAMc3EAfgANAXQACVRJTUVTVEFNUHNxAH4AEQAAAF10ABBQVUJMSUMuREVNT19VU0VSdAAGREFZX1RTcQB+ABZ0AAVkYXlUc3QAEmphdmEuc3FsLlRpbWVzdGFtcHhzcQB+AAYAAAABdwQAAAABc3IAJWRlLnlhbWFzcy5yZWRnLm1vZGVscy5Gb3JlaWduS2V5TW9kZWyLeghYiNBsPwIABFoAB25vdE51bGxMABBqYXZhUHJvcGVydHlOYW1lcQB+AAFMAAxqYXZhVHlwZU5hbWVxAH4AAUwACnJlZmVyZW5jZXNxAH4AA3hwAXQAEndvcmtzQXREZW1vQ29tcGFueXQADEdEZW1vQ29tcGFueXNyABFqYXZhLnV0aWwuSGFzaE1hcAUH2sHDFmDRAwACRgAKbG9hZEZhY3RvckkACXRocmVzaG9sZHhwP0AAAAAAAAF3CAAAAAIAAAABcQB+AC9zcgArZGUueWFtYXNzLnJlZGcubW9kZWxzLkZvcmVpZ25LZXlDb2x1bW5Nb2RlbPdm/lnppTzkAgAISQAKc3FsVHlwZUludEwAD2RiRnVsbFRhYmxlTmFtZXEAfgABTAAGZGJOYW1lcQB+AAFMAAtkYlRhYmxlTmFtZXEAfgABTAAKZGJUeXBlTmFtZXEAfgABTAAJbG9jYWxOYW1lcQB+AAFMAAlsb2NhbFR5cGVxAH4AAUwAF3ByaW1hcnlLZXlBdHRyaWJ1dGVOYW1lcQB+AAF4cAAAAAJ0ABBQVUJMSUMuREVNT19VU0VScQB+AC9xAH4AFnEAfgAbdAAHd29ya3NBdHEAfgAgdAACaWR4eHNxAH4ABgAAAAB3BAAAAAB4c3EAfgA+P0AAAAAAAAB3CAAAABAAAAAAeHQACERlbW9Vc2VydAAYZGUueWFtYXNzLnJlZGcuZ2VuZXJhdGVkdAAQUFVCTElDLkRFTU9fVVNFUnEAfgAW";
     private static TableModel tableModel;
 
@@ -742,4 +767,9 @@ public class GDemoUser implements RedGEntity {
         }
         return tableModel;
     }
+
+    @Override
+    public TableModel getEntityTableModel() {
+        return getTableModel();
+    }
 }
\ No newline at end of file
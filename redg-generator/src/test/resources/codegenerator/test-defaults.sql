@@ -0,0 +1,11 @@
+-- Test
+
+CREATE TABLE DEMO_ORDER (
+  ID         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  CODE       VARCHAR2(20 CHARACTERS) DEFAULT 'NEW' NOT NULL,
+  CREATED_AT TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+  NOTE       VARCHAR2(50 CHARACTERS),
+
+  CONSTRAINT pk_DEMO_ORDER PRIMARY KEY (ID)
+);
+
@@ -19,6 +19,7 @@ package de.yamass.redg.plugin;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import de.yamass.redg.generator.Constants;
+import de.yamass.redg.generator.GenerationManifest;
 import de.yamass.redg.generator.RedGGenerator;
 import de.yamass.redg.generator.exceptions.RedGGenerationException;
 import de.yamass.redg.generator.extractor.conveniencesetterprovider.ConvenienceSetterProvider;
@@ -35,6 +36,7 @@ import de.yamass.redg.generator.extractor.nameprovider.json.JsonFileNameProvider
 import de.yamass.redg.jpa.JpaMetamodelRedGProvider;
 import de.yamass.redg.plugin.config.ConvenienceSetterConfig;
 import de.yamass.redg.plugin.config.MojoConvenienceSetterProvider;
+import de.yamass.redg.plugin.util.InputFingerprint;
 import de.yamass.redg.util.ScriptRunner;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -48,6 +50,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -62,6 +65,8 @@ import java.util.stream.Collectors;
 @Mojo(name = "redg", defaultPhase = LifecyclePhase.GENERATE_TEST_SOURCES)
 public class RedGGeneratorMojo extends AbstractMojo {
 
+    private static final String INPUTS_FILE_NAME = ".redg-inputs";
+
     @Parameter(property = "redg.connectionString", required = true)
     private String connectionString;
 
@@ -119,8 +124,40 @@ public class RedGGeneratorMojo extends AbstractMojo {
     @Parameter
     private String classPrefix = Constants.DEFAULT_CLASS_PREFIX;
 
+    /**
+     * Set to {@code true} to run the code generation even if none of the inputs changed since the last successful run. The database schema is
+     * only covered by the checked inputs through the {@code sqlScripts}, so without scripts (generating from an existing database) the code
+     * generation always runs. With a JPA persistence unit configured, it always runs as well, as the persistence unit and its entity classes are
+     * not part of the checked inputs.
+     */
+    @Parameter(property = "redg.force")
+    private boolean force = false;
+
+    @Parameter(defaultValue = "${plugin.version}", readonly = true)
+    private String pluginVersion;
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
+        String[] packageParts = this.targetPackage.split("\\.");
+        Path packageFolder = Paths.get(this.outputDirectory.getAbsolutePath(), packageParts);
+        Path inputsFile = packageFolder.resolve(INPUTS_FILE_NAME);
+        String inputsFingerprint;
+        try {
+            inputsFingerprint = getInputsFingerprint();
+            if (usesJpaProvider()) {
+                getLog().debug("A JPA persistence unit is configured, the generated code is not checked for being up to date");
+            } else if (!hasSqlScripts()) {
+                getLog().debug("No SQL scripts are configured, the generated code is not checked for being up to date");
+            } else if (!force && isUpToDate(packageFolder, inputsFile, inputsFingerprint)) {
+                getLog().info("Generated code is up to date, skipping the code generation");
+                addGeneratedSources();
+                return;
+            }
+            Files.deleteIfExists(inputsFile);
+        } catch (IOException e) {
+            throw new MojoFailureException("Could not check whether the generated code is up to date", e);
+        }
+
         HikariConfig config = new HikariConfig();
         config.setJdbcUrl( connectionString );
         config.setUsername( username );
@@ -132,15 +169,13 @@ public class RedGGeneratorMojo extends AbstractMojo {
         } catch (IOException | SQLException e) {
             throw new MojoFailureException("Could not execute SQL scripts: " + e, e);
         }
-        // Clean-up old code files
-        String[] packageParts = this.targetPackage.split("\\.");
-        Path packageFolder = Paths.get(this.outputDirectory.getAbsolutePath(), packageParts);
-        if (Files.exists(packageFolder)) {
+        // Clean-up old code files. Code generated with a manifest gets updated incrementally instead
+        if (Files.exists(packageFolder) && !GenerationManifest.exists(packageFolder)) {
             cleanFolder(packageFolder.toFile());
         }
 
         JpaMetamodelRedGProvider jpaProvider = null;
-        if (jpaProviderConfig != null && jpaProviderConfig.getPersistenceUnitName() != null) {
+        if (usesJpaProvider()) {
             jpaProvider = JpaMetamodelRedGProvider.fromPersistenceUnit(jpaProviderConfig.getPersistenceUnitName(), jpaProviderConfig.getHibernateDialect());
         }
 
@@ -242,11 +277,82 @@ public class RedGGeneratorMojo extends AbstractMojo {
                     convenienceSetterProvider);
             
             Path targetWithPkgFolders = RedGGenerator.createPackageFolderStructure(outputDirectory.toPath(), targetPackage);
-            new de.yamass.redg.generator.CodeGenerator().generate(tables, targetWithPkgFolders, this.enableVisualizationSupport);
+            new de.yamass.redg.generator.CodeGenerator().generateIncrementally(tables, targetWithPkgFolders, this.enableVisualizationSupport);
+            Files.writeString(inputsFile, inputsFingerprint, StandardCharsets.UTF_8);
         } catch (RedGGenerationException e) {
             throw new MojoFailureException("Code generation failed", e);
+        } catch (IOException e) {
+            throw new MojoFailureException("Could not write the fingerprint of the inputs", e);
         }
         getLog().info("Code generation successful. Adding code to compilation");
+        addGeneratedSources();
+    }
+
+    private boolean usesJpaProvider() {
+        return jpaProviderConfig != null && jpaProviderConfig.getPersistenceUnitName() != null;
+    }
+
+    private boolean hasSqlScripts() {
+        return sqlScripts != null && sqlScripts.length > 0;
+    }
+
+    /**
+     * The code is up to date if the inputs did not change since the last successful run and all generated classes (entity, existing, dummy and
+     * main classes, as listed in the manifest) still exist.
+     */
+    private boolean isUpToDate(final Path packageFolder, final Path inputsFile, final String inputsFingerprint) throws IOException {
+        if (!Files.isRegularFile(inputsFile) || !GenerationManifest.exists(packageFolder)) {
+            return false;
+        }
+        if (!inputsFingerprint.equals(Files.readString(inputsFile, StandardCharsets.UTF_8).trim())) {
+            return false;
+        }
+        for (String className : GenerationManifest.read(packageFolder).getClassNames()) {
+            if (!Files.isRegularFile(packageFolder.resolve(className + ".java"))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hashes everything the generated code depends on. The database schema is only covered through the SQL scripts, so the check assumes that
+     * the scripts create the schema the code is generated from and is skipped without scripts. The JPA configuration is left out, as the check is
+     * skipped when it is used.
+     */
+    private String getInputsFingerprint() throws IOException {
+        InputFingerprint fingerprint = new InputFingerprint()
+                .add(pluginVersion)
+                .add(connectionString)
+                .add(username)
+                .add(jdbcDriver)
+                .add(enableVisualizationSupport)
+                .add(tablesRegex)
+                .add(schemaRegex)
+                .add(schemas != null ? String.join(",", schemas) : null)
+                .add(outputDirectory.getAbsolutePath())
+                .add(customTypeMappings)
+                .add(explicitAttributesConfig)
+                .add(customNameMappings)
+                .add(allowPrimitiveTypes)
+                .add(targetPackage)
+                .add(classPrefix);
+        if (sqlScripts != null) {
+            for (File sqlScript : sqlScripts) {
+                fingerprint.add(sqlScript);
+            }
+        }
+        if (convenienceSetters != null) {
+            for (ConvenienceSetterConfig convenienceSetter : convenienceSetters) {
+                fingerprint.add(convenienceSetter.getOriginalType())
+                        .add(convenienceSetter.getConvenienceType())
+                        .add(convenienceSetter.getConverterMethod());
+            }
+        }
+        return fingerprint.toHexString();
+    }
+
+    private void addGeneratedSources() {
         if (outputDirectory.toString().contains("generated-test-sources")) {
             project.addTestCompileSourceRoot(outputDirectory.getPath());
         } else if (outputDirectory.toString().contains("generated-sources")) {
@@ -254,8 +360,6 @@ public class RedGGeneratorMojo extends AbstractMojo {
         } else {
             getLog().warn("Code was neither placed in generated-sources or generated-test-sources folder and was not added to the sources. Use the build-helper-maven-plugin to do this manually!");
         }
-
-
     }
 
     private void cleanFolder(final File folder) {
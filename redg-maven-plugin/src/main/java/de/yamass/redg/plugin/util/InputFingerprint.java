@@ -0,0 +1,96 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.plugin.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * A SHA-256 hash over the inputs of a plugin execution, used to decide whether the execution is up to date.
+ * <p>
+ * Every value is hashed together with its length, so that the boundaries between the values are part of the fingerprint.
+ */
+public class InputFingerprint {
+
+    private final MessageDigest digest;
+
+    public InputFingerprint() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public InputFingerprint add(final String value) {
+        if (value == null) {
+            addBytes(new byte[0], (byte) 0);
+        } else {
+            addBytes(value.getBytes(StandardCharsets.UTF_8), (byte) 1);
+        }
+        return this;
+    }
+
+    public InputFingerprint add(final boolean value) {
+        return add(Boolean.toString(value));
+    }
+
+    /**
+     * Adds the path and the content of a file. A missing file is hashed as such, so it changes the fingerprint once it gets created.
+     *
+     * @param file The file, may be {@code null}
+     * @return This fingerprint
+     * @throws IOException If the file exists but cannot be read
+     */
+    public InputFingerprint add(final File file) throws IOException {
+        if (file == null) {
+            return add((String) null);
+        }
+        add(file.getAbsolutePath());
+        final Path path = file.toPath();
+        if (Files.isRegularFile(path)) {
+            addBytes(Files.readAllBytes(path), (byte) 1);
+        } else {
+            addBytes(new byte[0], (byte) 0);
+        }
+        return this;
+    }
+
+    /**
+     * @return The hex encoded hash over all values added so far
+     */
+    public String toHexString() {
+        try {
+            return HexFormat.of().formatHex(((MessageDigest) digest.clone()).digest());
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 digest cannot be cloned", e);
+        }
+    }
+
+    private void addBytes(final byte[] bytes, final byte marker) {
+        digest.update(marker);
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+}
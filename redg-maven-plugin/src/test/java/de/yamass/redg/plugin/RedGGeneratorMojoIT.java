@@ -18,12 +18,17 @@ package de.yamass.redg.plugin;
 
 import io.takari.maven.testing.TestMavenRuntime;
 import io.takari.maven.testing.TestResources;
+import org.apache.maven.project.MavenProject;
 import org.junit.Rule;
 import org.junit.Test;
 
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -222,5 +227,77 @@ public class RedGGeneratorMojoIT {
 		String redgCode = Files.readString(generatedDir.resolve("RedG.java"));
 		assertThat(redgCode).contains("package de.yamass.redg.generated;");
 	}
-}
 
+	@Test
+	public void skipsGenerationWhenInputsAreUnchanged() throws Exception {
+		File basedir = resources.getBasedir("basic-test");
+		Path generatedDir = generateRepeatableBasicTestCode(basedir);
+		FileTime unchanged = FileTime.fromMillis(0);
+		Files.setLastModifiedTime(generatedDir.resolve("GUser.java"), unchanged);
+		Files.setLastModifiedTime(generatedDir.resolve(".redg-manifest"), unchanged);
+
+		MavenProject project = maven.readMavenProject(basedir);
+		maven.executeMojo(project, "redg");
+
+		// Nothing changed, so the generated code is not touched but still added to the test sources
+		assertThat(Files.getLastModifiedTime(generatedDir.resolve("GUser.java"))).isEqualTo(unchanged);
+		assertThat(Files.getLastModifiedTime(generatedDir.resolve(".redg-manifest"))).isEqualTo(unchanged);
+		assertThat(project.getTestCompileSourceRoots()).contains(basedir.toPath().resolve("target/generated-test-sources/redg").toString());
+	}
+
+	@Test
+	public void alwaysGeneratesCodeWithoutSqlScripts() throws Exception {
+		File basedir = resources.getBasedir("no-scripts-test");
+		maven.executeMojo(basedir, "redg");
+
+		Path generatedDir = basedir.toPath().resolve("target/generated-test-sources/redg/de/yamass/redg/generated");
+		assertThat(Files.readString(generatedDir.resolve("GUser.java"))).doesNotContain("email");
+
+		// the schema of the database changes, while none of the checked inputs do
+		try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:no_scripts_test", "sa", "sa");
+			 Statement statement = connection.createStatement()) {
+			statement.execute("ALTER TABLE \"user\" ADD COLUMN email VARCHAR(255)");
+		}
+		maven.executeMojo(basedir, "redg");
+
+		assertThat(Files.readString(generatedDir.resolve("GUser.java"))).contains("email");
+	}
+
+	@Test
+	public void regeneratesCodeWhenDummyClassIsMissing() throws Exception {
+		File basedir = resources.getBasedir("basic-test");
+		Path generatedDir = generateRepeatableBasicTestCode(basedir);
+		Files.delete(generatedDir.resolve("DummyGUser.java"));
+
+		maven.executeMojo(basedir, "redg");
+
+		assertThat(generatedDir.resolve("DummyGUser.java")).exists();
+	}
+
+	@Test
+	public void regeneratesCodeWhenSqlScriptChanged() throws Exception {
+		File basedir = resources.getBasedir("basic-test");
+		Path generatedDir = generateRepeatableBasicTestCode(basedir);
+		assertThat(generatedDir.resolve("GProduct.java")).doesNotExist();
+
+		Path script = basedir.toPath().resolve("src/main/resources/schema.sql");
+		Files.writeString(script, Files.readString(script) + "\nCREATE TABLE product (id BIGINT PRIMARY KEY, name VARCHAR(100));\n");
+		maven.executeMojo(basedir, "redg");
+
+		assertThat(generatedDir.resolve("GProduct.java")).exists();
+		assertThat(Files.readString(generatedDir.resolve("RedG.java"))).contains("GProduct");
+	}
+
+	/**
+	 * Generates the code of the basic test project with a schema script that can be executed repeatedly, as the in-memory database lives as
+	 * long as the JVM.
+	 *
+	 * @return The directory of the generated code
+	 */
+	private Path generateRepeatableBasicTestCode(File basedir) throws Exception {
+		Path script = basedir.toPath().resolve("src/main/resources/schema.sql");
+		Files.writeString(script, "DROP ALL OBJECTS;\n" + Files.readString(script));
+		maven.executeMojo(basedir, "redg");
+		return basedir.toPath().resolve("target/generated-test-sources/redg/de/yamass/redg/generated");
+	}
+}
@@ -51,6 +51,12 @@ public class ColumnModel implements Serializable{
     private boolean unique;
     private List<ConvenienceSetterModel> convenienceSetters;
 
+    /**
+     * The default value expression of the column as reported by the database, {@code null} if the column has no default value.
+     */
+    private String dbDefaultValue;
+    private boolean autoIncrement;
+
     private static final Map<String, Class<?>> primitiveMap = new HashMap<>();
 
     static {
@@ -181,6 +187,32 @@ public class ColumnModel implements Serializable{
         this.unique = unique;
     }
 
+    public String getDbDefaultValue() {
+        return dbDefaultValue;
+    }
+
+    public void setDbDefaultValue(final String dbDefaultValue) {
+        this.dbDefaultValue = dbDefaultValue;
+    }
+
+    public boolean isAutoIncrement() {
+        return autoIncrement;
+    }
+
+    public void setAutoIncrement(final boolean autoIncrement) {
+        this.autoIncrement = autoIncrement;
+    }
+
+    /**
+     * Columns with a database default are left out of the insert statements as long as they were not set explicitly, so the database fills them.
+     * This only applies to columns that are neither explicit attributes nor part of a foreign key and have no primitive java type.
+     *
+     * @return {@code true} if the column has a default value or is an identity / auto increment column in the database
+     */
+    public boolean isDatabaseDefault() {
+        return (dbDefaultValue != null || autoIncrement) && !explicitAttribute && !partOfForeignKey && !isPrimitiveType();
+    }
+
     public Class<?> getJavaTypeAsClass() {
         try {
             return primitiveMap.getOrDefault(this.javaTypeName, Class.forName(this.javaTypeName));
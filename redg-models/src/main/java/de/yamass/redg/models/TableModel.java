@@ -171,12 +171,47 @@ public class TableModel implements Serializable {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * @return The columns that get new values when an entity is copied with new keys: the generated columns and the unique columns that are not part
+     * of a foreign key, plus the primary key columns if the primary key does not contain a foreign key. The other parts of a primary key that
+     * contains a foreign key are kept, as the replaced reference already makes the key unique.
+     */
+    public List<ColumnModel> getColumnsRenewedOnCopy() {
+        final boolean primaryKeyContainsForeignKey = columns.stream()
+                .anyMatch(c -> c.isPartOfPrimaryKey() && c.isPartOfForeignKey());
+        return columns.stream()
+                .filter(c -> !c.isPartOfForeignKey())
+                .filter(c -> (c.isPartOfPrimaryKey() && (c.isDatabaseDefault() || !primaryKeyContainsForeignKey))
+                        || (c.isUnique() && !c.isPartOfPrimaryKey()))
+                .collect(Collectors.toList());
+    }
+
     public List<ColumnModel> getNonForeignKeyColumns() {
         return columns.stream()
                 .filter(c -> !c.isPartOfForeignKey())
                 .collect(Collectors.toList());
     }
 
+    /**
+     * @return All columns the database fills if they are left out of the insert statement, see {@link ColumnModel#isDatabaseDefault()}
+     */
+    public List<ColumnModel> getDatabaseDefaultColumns() {
+        return columns.stream()
+                .filter(ColumnModel::isDatabaseDefault)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return All columns with a database default that are identity / auto increment columns or may be referenced by foreign keys (primary key and
+     * unique columns, e.g. filled by a sequence default), their generated values get read back after the insert
+     */
+    public List<ColumnModel> getGeneratedKeyColumns() {
+        return columns.stream()
+                .filter(ColumnModel::isDatabaseDefault)
+                .filter(c -> c.isAutoIncrement() || c.isPartOfPrimaryKey() || c.isUnique())
+                .collect(Collectors.toList());
+    }
+
     public List<ColumnModel> getExplicitAttributes() {
         return columns.stream()
                 .filter(ColumnModel::isExplicitAttribute)
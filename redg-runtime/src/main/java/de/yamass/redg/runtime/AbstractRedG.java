@@ -16,22 +16,41 @@
 
 package de.yamass.redg.runtime;
 
+import javax.sql.DataSource;
+import java.lang.reflect.Constructor;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import de.yamass.redg.DatabaseType;
 import de.yamass.redg.runtime.defaultvalues.DefaultDefaultValueStrategy;
 import de.yamass.redg.runtime.defaultvalues.DefaultValueStrategy;
 import de.yamass.redg.runtime.dummy.DefaultDummyFactory;
 import de.yamass.redg.runtime.dummy.DummyFactory;
 import de.yamass.redg.runtime.insertvalues.DefaultSQLValuesFormatter;
 import de.yamass.redg.runtime.insertvalues.SQLValuesFormatter;
+import de.yamass.redg.runtime.jdbc.DatabaseSnapshot;
+import de.yamass.redg.runtime.jdbc.DatasetFingerprint;
+import de.yamass.redg.runtime.jdbc.InsertionListener;
+import de.yamass.redg.runtime.jdbc.InsertionStatisticsCollector;
+import de.yamass.redg.runtime.jdbc.PreparedStatementCache;
 import de.yamass.redg.runtime.jdbc.RedGDatabaseUtil;
+import de.yamass.redg.runtime.jdbc.TableDifference;
+import de.yamass.redg.runtime.jdbc.TableInsertionTiming;
 import de.yamass.redg.runtime.transformer.DefaultPreparedStatementParameterSetter;
 import de.yamass.redg.runtime.transformer.PreparedStatementParameterSetter;
 
@@ -48,8 +67,17 @@ public abstract class AbstractRedG {
 
     private DummyFactory dummyFactory = new DefaultDummyFactory();
 
+    private InsertionListener insertionListener = InsertionListener.NONE;
+
     private List<RedGEntity> entities = new LinkedList<>();
 
+    private final Deque<DatasetScope> openScopes = new ArrayDeque<>();
+
+    // entities shared with the RedG instance this one was forked from, and the copies made of them on the first edit
+    private final Set<RedGEntity> inheritedEntities = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final Map<RedGEntity, RedGEntity> forkCopies = new IdentityHashMap<>();
+
     public void addEntity(final RedGEntity entity) {
         this.entities.add(entity);
     }
@@ -158,6 +186,21 @@ public abstract class AbstractRedG {
         }
     }
 
+    public InsertionListener getInsertionListener() {
+        return insertionListener;
+    }
+
+    /**
+     * Sets the listener that gets notified about every statement executed by {@link #insertDataIntoDatabase(Connection)}, e.g. an
+     * {@link InsertionStatisticsCollector} to find out which tables take the most time. Unlike the other strategies, the listener can be changed
+     * at any time.
+     *
+     * @param insertionListener The new listener. If {@code null}, no listener gets notified.
+     */
+    public void setInsertionListener(final InsertionListener insertionListener) {
+        this.insertionListener = insertionListener == null ? InsertionListener.NONE : insertionListener;
+    }
+
     /**
      * Returns a list of insert statements, one for each added entity in the respective order they were added.
      *
@@ -183,7 +226,335 @@ public abstract class AbstractRedG {
      *                                       {@link PreparedStatementParameterSetter}
      */
     public void insertDataIntoDatabase(final Connection connection) {
-        RedGDatabaseUtil.insertDataIntoDatabase(getEntitiesSortedForInsert(), connection, preparedStatementParameterSetter);
+        RedGDatabaseUtil.insertDataIntoDatabase(getEntitiesSortedForInsert(), connection, preparedStatementParameterSetter, insertionListener);
+    }
+
+    /**
+     * Inserts all data like {@link #insertDataIntoDatabase(Connection)} does, but supports datasets where entities reference each other in a cycle
+     * through nullable foreign keys. These foreign keys are inserted as {@code NULL} first and set with batched updates afterwards.
+     *
+     * @param connection The database connection
+     * @throws ExistingEntryMissingException When an entry defined as "existing" (via redG.existingX()) cannot be found in the database
+     * @throws InsertionFailedException      When problems with the prepared statements occur or the foreign keys cannot be deferred
+     * @see RedGDatabaseUtil#insertDataIntoDatabaseDeferringForeignKeys(List, Connection, PreparedStatementParameterSetter)
+     */
+    public void insertDataIntoDatabaseDeferringForeignKeys(final Connection connection) {
+        RedGDatabaseUtil.insertDataIntoDatabaseDeferringForeignKeys(entities, connection, preparedStatementParameterSetter);
+    }
+
+    /**
+     * Inserts all data while the foreign key checks of the database are relaxed, so the entities can be inserted in any order and as large batches.
+     * The checks are enabled again and the foreign keys of the touched tables are validated afterwards.
+     *
+     * @param connection   The database connection
+     * @param databaseType The type of the database
+     * @throws ExistingEntryMissingException When an entry defined as "existing" (via redG.existingX()) cannot be found in the database
+     * @throws InsertionFailedException      When problems with the prepared statements occur or a foreign key is violated after the insertion
+     * @see RedGDatabaseUtil#insertDataIntoDatabaseWithoutConstraintChecks(List, Connection, DatabaseType, boolean, PreparedStatementParameterSetter)
+     */
+    public void insertDataIntoDatabaseWithoutConstraintChecks(final Connection connection, final DatabaseType databaseType) {
+        insertDataIntoDatabaseWithoutConstraintChecks(connection, databaseType, true);
+    }
+
+    /**
+     * Inserts all data while the foreign key checks of the database are relaxed, like {@link #insertDataIntoDatabaseWithoutConstraintChecks(Connection,
+     * DatabaseType)} does.
+     *
+     * @param connection   The database connection
+     * @param databaseType The type of the database
+     * @param validate     Whether to validate the foreign keys of the touched tables afterwards. Skipping this is faster for very large datasets
+     *                     that are known to be consistent (PostgreSQL always checks the deferred constraints)
+     * @throws ExistingEntryMissingException When an entry defined as "existing" (via redG.existingX()) cannot be found in the database
+     * @throws InsertionFailedException      When problems with the prepared statements occur or a foreign key is violated after the insertion
+     * @see RedGDatabaseUtil#insertDataIntoDatabaseWithoutConstraintChecks(List, Connection, DatabaseType, boolean, PreparedStatementParameterSetter)
+     */
+    public void insertDataIntoDatabaseWithoutConstraintChecks(final Connection connection, final DatabaseType databaseType, final boolean validate) {
+        RedGDatabaseUtil.insertDataIntoDatabaseWithoutConstraintChecks(entities, connection, databaseType, validate, preparedStatementParameterSetter);
+    }
+
+    /**
+     * Inserts all data or updates the rows that already exist (matched by primary key). Use this to seed a long-lived database again after the
+     * dataset changed, without deleting the data first.
+     *
+     * @param connection   The database connection
+     * @param databaseType The type of the database
+     * @throws ExistingEntryMissingException When an entry defined as "existing" (via redG.existingX()) cannot be found in the database
+     * @throws InsertionFailedException      When problems with the prepared statements occur
+     * @see RedGDatabaseUtil#upsertDataIntoDatabase(List, Connection, DatabaseType, PreparedStatementParameterSetter)
+     */
+    public void upsertDataIntoDatabase(final Connection connection, final DatabaseType databaseType) {
+        RedGDatabaseUtil.upsertDataIntoDatabase(entities, connection, databaseType, preparedStatementParameterSetter);
+    }
+
+    /**
+     * Compares the data of this RedG instance with the current contents of its tables and inserts, updates and deletes only the rows that differ.
+     * Use this to re-seed a long-lived database after a small change of a large dataset.
+     *
+     * @param connection The database connection
+     * @return The number of inserted, updated and deleted rows per table
+     * @throws ExistingEntryMissingException When an entry defined as "existing" (via redG.existingX()) cannot be found in the database
+     * @throws InsertionFailedException      When problems with the statements occur
+     * @see RedGDatabaseUtil#synchronizeDataWithDatabase(List, Connection, PreparedStatementParameterSetter)
+     */
+    public List<TableDifference> synchronizeDataWithDatabase(final Connection connection) {
+        return RedGDatabaseUtil.synchronizeDataWithDatabase(entities, connection, preparedStatementParameterSetter);
+    }
+
+    /**
+     * Deletes all data previously inserted by RedG from the database the {@link Connection} connects to. This is a fast alternative to rebuilding
+     * the schema after a test. Entities defined as "existing" are not deleted.
+     *
+     * @param connection The database connection
+     * @throws InsertionFailedException When the rows cannot be deleted
+     * @see RedGDatabaseUtil#deleteDataFromDatabase(List, Connection, PreparedStatementParameterSetter)
+     */
+    public void deleteDataFromDatabase(final Connection connection) {
+        RedGDatabaseUtil.deleteDataFromDatabase(entities, connection, preparedStatementParameterSetter);
+    }
+
+    /**
+     * Deletes all data previously inserted by RedG from the database. If {@code truncateOwnedTables} is set and the connection is in auto commit
+     * mode, tables that only contain the rows of this RedG instance are truncated instead.
+     *
+     * @param connection          The database connection
+     * @param truncateOwnedTables Whether the tables only contain rows inserted by RedG and may be truncated
+     * @throws InsertionFailedException When the rows cannot be deleted
+     * @see RedGDatabaseUtil#deleteDataFromDatabase(List, Connection, PreparedStatementParameterSetter, boolean)
+     */
+    public void deleteDataFromDatabase(final Connection connection, final boolean truncateOwnedTables) {
+        RedGDatabaseUtil.deleteDataFromDatabase(entities, connection, preparedStatementParameterSetter, truncateOwnedTables);
+    }
+
+    /**
+     * Inserts all data previously prepared by RedG into the database, reusing the prepared statements of the passed cache. Use this if you insert
+     * data multiple times over the same connection. The statements stay open after the insertion, close the cache once you are done.
+     *
+     * @param statementCache The statement cache of the database connection
+     * @throws ExistingEntryMissingException When an entry defined as "existing" (via redG.existingX()) cannot be found in the database
+     * @throws InsertionFailedException      When problems with the prepared statement occur. This is often the result of a faulty data type mapping or
+     *                                       {@link PreparedStatementParameterSetter}
+     * @see #insertDataIntoDatabase(Connection)
+     */
+    public void insertDataIntoDatabase(final PreparedStatementCache statementCache) {
+        RedGDatabaseUtil.insertDataIntoDatabase(getEntitiesSortedForInsert(), statementCache, preparedStatementParameterSetter);
+    }
+
+    /**
+     * Returns a stable fingerprint of the current dataset (tables, values and relations of all entities).
+     *
+     * @return The fingerprint as hex string
+     * @see DatasetFingerprint#calculate(List)
+     */
+    public String getFingerprint() {
+        return DatasetFingerprint.calculate(getEntitiesSortedForInsert());
+    }
+
+    /**
+     * Inserts all data like {@link #insertDataIntoDatabase(Connection)} does, unless exactly the same dataset was inserted into this database before.
+     * After a successful insert, the fingerprint of the dataset gets recorded in the marker table {@value DatasetFingerprint#MARKER_TABLE_NAME}, which is
+     * created if necessary. Use this with persistent test databases to avoid re-seeding identical data on every test run. Deleting, upserting or
+     * synchronizing the data and restoring a {@link DatabaseSnapshot} clear the recorded fingerprints, so the data gets inserted again afterwards.
+     *
+     * @param connection The database connection
+     * @return {@code true} if the data was inserted, {@code false} if the insertion was skipped
+     * @throws ExistingEntryMissingException When an entry defined as "existing" (via redG.existingX()) cannot be found in the database
+     * @throws InsertionFailedException      When problems with the prepared statement occur
+     */
+    public boolean insertDataIntoDatabaseIfChanged(final Connection connection) {
+        final List<RedGEntity> sortedEntities = getEntitiesSortedForInsert();
+        final String fingerprint = DatasetFingerprint.calculate(sortedEntities);
+        if (DatasetFingerprint.isRecorded(connection, fingerprint)) {
+            return false;
+        }
+        RedGDatabaseUtil.insertDataIntoDatabase(sortedEntities, connection, preparedStatementParameterSetter, insertionListener);
+        DatasetFingerprint.record(connection, fingerprint);
+        return true;
+    }
+
+    /**
+     * Captures the current contents of all tables this RedG instance inserts into (tables of entities defined as "existing" are not captured).
+     * Call this right after inserting the data and use {@link DatabaseSnapshot#restore(Connection)} to reset these tables to the captured state
+     * later, which is much cheaper than dropping the schema and inserting everything again.
+     *
+     * @param connection The database connection
+     * @return The snapshot
+     */
+    public DatabaseSnapshot captureSnapshot(final Connection connection) {
+        return DatabaseSnapshot.capture(connection, DatabaseSnapshot.getTouchedTables(getEntitiesSortedForInsert()));
+    }
+
+    /**
+     * Opens a new {@link DatasetScope} on the connection. All entities added to this RedG instance from now on belong to the scope and can be
+     * inserted with {@link DatasetScope#insertDataIntoDatabase()}. Closing the scope rolls their insertion back (via a savepoint) and removes them
+     * from this instance again. Use this to insert a large base dataset only once and to add small per-test datasets on top of it.
+     *
+     * @param connection The database connection. It has to stay open until the scope is closed
+     * @return The new scope
+     * @throws InsertionFailedException When no savepoint can be set on the connection
+     */
+    public DatasetScope openScope(final Connection connection) {
+        final DatasetScope scope = new DatasetScope(this, connection);
+        openScopes.push(scope);
+        return scope;
+    }
+
+    void closeScope(final DatasetScope scope, final int firstEntityIndex) {
+        if (openScopes.peek() != scope) {
+            throw new IllegalStateException("A nested dataset scope is still open and has to be closed first");
+        }
+        openScopes.pop();
+        final List<RedGEntity> scopeEntities = entities.subList(firstEntityIndex, entities.size());
+        dummyFactory.discardDummies(new ArrayList<>(scopeEntities));
+        scopeEntities.clear();
+    }
+
+    /**
+     * Creates a fork of this RedG instance. The fork starts with all entities of this instance and uses the same default value strategy, values
+     * formatter and parameter setter. The entities themselves are not copied but shared, so forking is cheap even for large graphs. Before changing
+     * a shared entity in the fork, get the fork's own copy via {@link #edit(RedGEntity)}; the entity of this instance stays unchanged. Entities
+     * added to the fork only belong to the fork, and the fork can be inserted independently of this instance.
+     * <p>
+     * This instance should not be changed while forks of it are in use, as the changes would show up in the forks as well.
+     *
+     * @param <T> The type of the RedG main class
+     * @return The fork
+     * @throws IllegalStateException         If the RedG main class cannot be instantiated
+     * @throws UnsupportedOperationException If the dummy factory does not support forking, see {@link DummyFactory#fork()}
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends AbstractRedG> T fork() {
+        final AbstractRedG fork;
+        try {
+            final Constructor<? extends AbstractRedG> constructor = getClass().getDeclaredConstructor();
+            constructor.setAccessible(true);
+            fork = constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create a new instance of " + getClass().getName(), e);
+        }
+        fork.defaultValueStrategy = defaultValueStrategy;
+        fork.sqlValuesFormatter = sqlValuesFormatter;
+        fork.preparedStatementParameterSetter = preparedStatementParameterSetter;
+        fork.dummyFactory = dummyFactory.fork();
+        fork.insertionListener = insertionListener;
+        fork.entities = new LinkedList<>(entities);
+        fork.inheritedEntities.addAll(entities);
+        return (T) fork;
+    }
+
+    /**
+     * Returns the version of the entity that may be changed in this RedG instance. For entities that this fork shares with the RedG instance it was
+     * forked from (see {@link #fork()}), a copy is made on the first call and replaces the shared entity in this instance. All other entities are
+     * returned as they are.
+     * <p>
+     * The copy keeps the references to other entities, but entities referencing the shared entity keep referencing it. As foreign key values are
+     * read from the referenced entity, changing primary key attributes of a copy therefore requires editing the referencing entities as well.
+     *
+     * @param entity The entity to change
+     * @param <T>    The entity type
+     * @return The entity that belongs to this instance
+     * @throws UnsupportedOperationException If the entity is shared and its class does not support copying. This instance is left unchanged.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends RedGEntity> T edit(final T entity) {
+        final RedGEntity existingCopy = forkCopies.get(entity);
+        if (existingCopy != null) {
+            return (T) existingCopy;
+        }
+        if (!inheritedEntities.contains(entity)) {
+            return entity;
+        }
+        final T copy = (T) entity.getCopyFor(this);
+        inheritedEntities.remove(entity);
+        final ListIterator<RedGEntity> iterator = entities.listIterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() == entity) {
+                iterator.set(copy);
+                break;
+            }
+        }
+        forkCopies.put(entity, copy);
+        return copy;
+    }
+
+    /**
+     * Clones the root entity and every entity that (directly or indirectly) references it, and adds the clones to this RedG instance. Every copy of
+     * the subgraph gets new values for its primary key and unique columns from the {@link DefaultValueStrategy}, and references inside the
+     * subgraph point to the entities of the same copy. References to entities outside of the subgraph (e.g. shared reference data) and entities
+     * defined as "existing" are not cloned.
+     * <p>
+     * Use this to multiply a hand-written, realistic dataset (e.g. a tenant) for load tests.
+     *
+     * @param root  The root of the subgraph
+     * @param times The number of copies
+     * @param <T>   The type of the root entity
+     * @return The copies of the root entity
+     * @throws IllegalArgumentException      If the root entity was not added to this RedG instance
+     * @throws UnsupportedOperationException If the class of an entity of the subgraph does not support copying. No copies are added in that case.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends RedGEntity> List<T> cloneSubgraph(final T root, final int times) {
+        if (!entities.contains(root)) {
+            throw new IllegalArgumentException("The root entity does not belong to this RedG instance");
+        }
+        final Map<RedGEntity, List<RedGEntity>> dependents = new IdentityHashMap<>();
+        for (final RedGEntity entity : entities) {
+            for (final RedGEntity dependency : entity.getDependencies()) {
+                dependents.computeIfAbsent(dependency, d -> new ArrayList<>()).add(entity);
+            }
+        }
+        final Set<RedGEntity> subgraph = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Deque<RedGEntity> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            final RedGEntity entity = queue.poll();
+            if (!EntitySorter.isExisting(entity) && subgraph.add(entity)) {
+                queue.addAll(dependents.getOrDefault(entity, Collections.emptyList()));
+            }
+        }
+        // referenced entities have to be copied before the entities referencing them
+        final List<RedGEntity> sortedSubgraph = EntitySorter.sortEntities(entities.stream()
+                .filter(subgraph::contains)
+                .collect(Collectors.toList()));
+
+        // all copies are made before the first one gets added, so a failing copy does not leave a partial clone behind
+        final List<T> copies = new ArrayList<>(times);
+        final List<RedGEntity> copiedEntities = new ArrayList<>(times * sortedSubgraph.size());
+        for (int i = 0; i < times; i++) {
+            final Map<RedGEntity, RedGEntity> replacements = new IdentityHashMap<>();
+            for (final RedGEntity entity : sortedSubgraph) {
+                final RedGEntity copy = entity.getCopyWithNewKeys(replacements);
+                replacements.put(entity, copy);
+                copiedEntities.add(copy);
+            }
+            copies.add((T) replacements.get(root));
+        }
+        copiedEntities.forEach(this::addEntity);
+        return copies;
+    }
+
+    /**
+     * Inserts all data previously prepared by RedG asynchronously into the database. Extracting the values of the next chunk of entities and writing
+     * the current chunk to the database run in parallel on the passed executor. All data gets inserted in a single transaction on a connection taken
+     * from the data source. Cancelling the returned future stops the insertion and rolls back the transaction.
+     *
+     * @param dataSource The data source to get the connection from
+     * @param executor   The executor to run the insertion on
+     * @return A future that completes with the time spent on every table once all data is committed
+     * @see RedGDatabaseUtil#insertDataIntoDatabaseAsync(List, DataSource, Executor, PreparedStatementParameterSetter)
+     */
+    public CompletableFuture<List<TableInsertionTiming>> insertDataIntoDatabaseAsync(final DataSource dataSource, final Executor executor) {
+        return RedGDatabaseUtil.insertDataIntoDatabaseAsync(entities, dataSource, executor, preparedStatementParameterSetter);
+    }
+
+    /**
+     * Compiles the current entities into an immutable {@link InsertPlan}. The plan holds the sorted entities grouped by statement and all statement
+     * parameters, so it can be executed many times (e.g. against several connections or schemas) without sorting the entities or calling their
+     * getters again. Entities added or changed after compiling are not part of the plan.
+     *
+     * @return The compiled insert plan
+     */
+    public InsertPlan compile() {
+        return InsertPlan.compile(entities, preparedStatementParameterSetter);
     }
 
     /**
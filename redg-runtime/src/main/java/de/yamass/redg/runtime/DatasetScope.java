@@ -0,0 +1,122 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime;
+
+import de.yamass.redg.runtime.jdbc.RedGDatabaseUtil;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.List;
+
+/**
+ * An overlay dataset on top of the entities a RedG instance already inserted, see {@link AbstractRedG#openScope(Connection)}.
+ * <p>
+ * Entities added to the RedG instance while the scope is open belong to the scope. They can reference all entities added before (the base
+ * dataset) through the normal generated API. {@link #insertDataIntoDatabase()} inserts only the entities of the scope, inside a savepoint. Closing
+ * the scope rolls the database back to that savepoint and removes the entities of the scope from the RedG instance again, so the next scope starts
+ * from the base dataset. Scopes can be nested and have to be closed in reverse order.
+ */
+public class DatasetScope implements AutoCloseable {
+
+    private final AbstractRedG redG;
+
+    private final Connection connection;
+
+    private final int firstEntityIndex;
+
+    private final boolean originalAutoCommit;
+
+    private final Savepoint savepoint;
+
+    private int insertedEntityCount;
+
+    private boolean closed;
+
+    DatasetScope(final AbstractRedG redG, final Connection connection) {
+        this.redG = redG;
+        this.connection = connection;
+        this.firstEntityIndex = redG.getEntities().size();
+        this.insertedEntityCount = firstEntityIndex;
+        try {
+            this.originalAutoCommit = connection.getAutoCommit();
+            if (originalAutoCommit) {
+                connection.setAutoCommit(false);
+            }
+            this.savepoint = connection.setSavepoint();
+        } catch (SQLException e) {
+            throw new InsertionFailedException("Could not set a savepoint for the dataset scope", e);
+        }
+    }
+
+    /**
+     * Inserts the entities added to the RedG instance since the scope was opened (or since the last call of this method).
+     *
+     * @throws ExistingEntryMissingException When an entry defined as "existing" (via redG.existingX()) cannot be found in the database
+     * @throws InsertionFailedException      When problems with the prepared statement occur
+     */
+    public void insertDataIntoDatabase() {
+        checkOpen();
+        final List<RedGEntity> entities = redG.getEntities();
+        final List<RedGEntity> newEntities = entities.subList(insertedEntityCount, entities.size());
+        RedGDatabaseUtil.insertDataIntoDatabase(EntitySorter.sortEntities(newEntities), connection, redG.getPreparedStatementParameterSetter(),
+                redG.getInsertionListener());
+        insertedEntityCount = entities.size();
+    }
+
+    /**
+     * @return The entities added to the RedG instance since the scope was opened
+     */
+    public List<RedGEntity> getEntities() {
+        final List<RedGEntity> entities = redG.getEntities();
+        return entities.subList(firstEntityIndex, entities.size());
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Rolls the database back to the state before the scope was opened and removes the entities of the scope from the RedG instance.
+     *
+     * @throws IllegalStateException    If a nested scope is still open
+     * @throws InsertionFailedException If the rollback fails
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        redG.closeScope(this, firstEntityIndex);
+        closed = true;
+        try {
+            connection.rollback(savepoint);
+            if (originalAutoCommit) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new InsertionFailedException("Could not roll back the dataset scope", e);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("The dataset scope is already closed");
+        }
+    }
+}
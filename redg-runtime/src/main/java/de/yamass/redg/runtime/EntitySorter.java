@@ -16,10 +16,13 @@
 
 package de.yamass.redg.runtime;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 public class EntitySorter {
@@ -31,7 +34,34 @@ public class EntitySorter {
                 .collect(Collectors.toList());
     }
 
-    private static boolean isExisting(RedGEntity entity) {
+    /**
+     * Sorts the entities like {@link #sortEntities(List)} does and then groups them, so that every group only contains entities that use the same
+     * prepared statement and do not depend on each other. Inserting the groups in the returned order (each one e.g. as a JDBC batch) satisfies all
+     * foreign key dependencies.
+     *
+     * @param entities The entities to group
+     * @return The groups in insertion order. Inside a group, the entities keep their relative order
+     */
+    public static List<List<RedGEntity>> groupEntitiesForInsert(List<RedGEntity> entities) {
+        Map<RedGEntity, Integer> depths = new DepthCalculator().calculateDepths(entities);
+        // all existing entities form the first level, all others are leveled by their depth
+        Map<Integer, Map<String, List<RedGEntity>>> levels = new TreeMap<>();
+        for (RedGEntity entity : entities) {
+            int level = isExisting(entity) ? -1 : depths.get(entity);
+            levels.computeIfAbsent(level, l -> new LinkedHashMap<>())
+                    .computeIfAbsent(entity.getPreparedStatementString(), s -> new ArrayList<>())
+                    .add(entity);
+        }
+        return levels.values().stream()
+                .flatMap(statementGroups -> statementGroups.values().stream())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param entity The entity
+     * @return {@code true} if the entity was defined as "existing" (via redG.existingX()), so it only gets checked instead of inserted
+     */
+    public static boolean isExisting(RedGEntity entity) {
         return entity.getClass().getSimpleName().startsWith("Existing");
     }
 
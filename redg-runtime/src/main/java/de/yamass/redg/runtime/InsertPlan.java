@@ -0,0 +1,234 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime;
+
+import de.yamass.redg.runtime.jdbc.PreparedStatementCache;
+import de.yamass.redg.runtime.jdbc.RedGDatabaseUtil;
+import de.yamass.redg.runtime.transformer.PreparedStatementParameterSetter;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable, precompiled snapshot of all data of a RedG instance, created by {@link AbstractRedG#compile()}.
+ * <p>
+ * The entities are already sorted and grouped by their prepared statement and all statement parameters are materialized, so executing the plan
+ * neither calls the entities nor the default value strategy again. Later changes to the RedG instance or its entities are not reflected in the plan.
+ * A plan can be executed any number of times, against any number of connections.
+ * <p>
+ * Since the parameters are materialized, keys generated by the database (see {@link RedGEntity#getGeneratedKeyColumns()}) are not read back
+ * into the entities, so entities with generated keys should not be referenced by foreign keys within a plan.
+ */
+public final class InsertPlan {
+
+    private final List<StatementGroup> statementGroups;
+
+    private final PreparedStatementParameterSetter preparedStatementParameterSetter;
+
+    private final int entityCount;
+
+    private InsertPlan(final List<StatementGroup> statementGroups, final PreparedStatementParameterSetter preparedStatementParameterSetter) {
+        this.statementGroups = Collections.unmodifiableList(statementGroups);
+        this.preparedStatementParameterSetter = preparedStatementParameterSetter;
+        this.entityCount = statementGroups.stream().mapToInt(StatementGroup::getRowCount).sum();
+    }
+
+    /**
+     * Compiles the entities into a new plan.
+     *
+     * @param entities                         The entities to insert
+     * @param preparedStatementParameterSetter The setter used to set the values on the prepared statements when the plan gets executed
+     * @return The compiled plan
+     */
+    public static InsertPlan compile(final List<RedGEntity> entities, final PreparedStatementParameterSetter preparedStatementParameterSetter) {
+        final List<StatementGroup> groups = new ArrayList<>();
+        for (final List<RedGEntity> group : EntitySorter.groupEntitiesForInsert(entities)) {
+            groups.add(StatementGroup.of(group));
+        }
+        return new InsertPlan(groups, preparedStatementParameterSetter);
+    }
+
+    /**
+     * @return The statement groups in the order they have to be executed
+     */
+    public List<StatementGroup> getStatementGroups() {
+        return statementGroups;
+    }
+
+    public PreparedStatementParameterSetter getPreparedStatementParameterSetter() {
+        return preparedStatementParameterSetter;
+    }
+
+    /**
+     * @return The total number of entities in this plan
+     */
+    public int getEntityCount() {
+        return entityCount;
+    }
+
+    /**
+     * Executes the plan on the passed connection. All used statements get closed afterwards.
+     *
+     * @param connection The database connection
+     * @throws ExistingEntryMissingException When an entry defined as "existing" (via redG.existingX()) cannot be found in the database
+     * @throws InsertionFailedException      When problems with the prepared statement occur
+     */
+    public void execute(final Connection connection) {
+        try (PreparedStatementCache statementCache = new PreparedStatementCache(connection)) {
+            execute(statementCache);
+        }
+    }
+
+    /**
+     * Executes the plan using the statements of the passed cache. The statements stay open afterwards.
+     *
+     * @param statementCache The statement cache of the database connection
+     * @throws ExistingEntryMissingException When an entry defined as "existing" (via redG.existingX()) cannot be found in the database
+     * @throws InsertionFailedException      When problems with the prepared statement occur
+     */
+    public void execute(final PreparedStatementCache statementCache) {
+        RedGDatabaseUtil.insertDataIntoDatabase(this, statementCache);
+    }
+
+    /**
+     * A group of entities of the same type that share one prepared statement and can be executed as one batch.
+     */
+    public static final class StatementGroup {
+
+        private final String statement;
+
+        private final Class<? extends RedGEntity> entityType;
+
+        private final boolean existenceCheck;
+
+        private final AttributeMetaInfo[] metaInfos;
+
+        private final List<Object[]> values;
+
+        private StatementGroup(final String statement, final Class<? extends RedGEntity> entityType, final boolean existenceCheck,
+                               final AttributeMetaInfo[] metaInfos, final List<Object[]> values) {
+            this.statement = statement;
+            this.entityType = entityType;
+            this.existenceCheck = existenceCheck;
+            this.metaInfos = metaInfos;
+            this.values = values;
+        }
+
+        /**
+         * Extracts the statement parameters of the entities into a new group. All entities have to use the same prepared statement (see
+         * {@link EntitySorter#groupEntitiesForInsert(List)}).
+         *
+         * @param entities The entities of the group, must not be empty
+         * @return The new statement group
+         */
+        public static StatementGroup of(final List<? extends RedGEntity> entities) {
+            final RedGEntity first = entities.get(0);
+            final List<Object[]> values = new ArrayList<>(entities.size());
+            for (final RedGEntity entity : entities) {
+                values.add(entity.getPreparedStatementValues().clone());
+            }
+            return new StatementGroup(first.getPreparedStatementString(), first.getClass(), EntitySorter.isExisting(first),
+                    first.getPreparedStatementValuesMetaInfos().clone(), values);
+        }
+
+        /**
+         * Returns a copy of this group where the passed statement parameters are {@code NULL} in every row.
+         *
+         * @param indices The parameter indices (starting at 0)
+         * @return The new statement group
+         */
+        public StatementGroup withNullValues(final int[] indices) {
+            final List<Object[]> nulledValues = new ArrayList<>(values.size());
+            for (final Object[] row : values) {
+                final Object[] nulledRow = row.clone();
+                for (final int index : indices) {
+                    nulledRow[index] = null;
+                }
+                nulledValues.add(nulledRow);
+            }
+            return new StatementGroup(statement, entityType, existenceCheck, metaInfos, nulledValues);
+        }
+
+        /**
+         * @return The prepared statement string shared by all entities of this group
+         */
+        public String getStatement() {
+            return statement;
+        }
+
+        /**
+         * @return The type of the first entity of this group
+         */
+        public Class<? extends RedGEntity> getEntityType() {
+            return entityType;
+        }
+
+        /**
+         * @return {@code true} if this group checks for entities declared as existing instead of inserting them
+         */
+        public boolean isExistenceCheck() {
+            return existenceCheck;
+        }
+
+        /**
+         * @return The full name of the table of this group, or the simple name of the entity type if the statement has no parameters to take it from
+         */
+        public String getTableName() {
+            if (metaInfos.length > 0 && metaInfos[0].getDbFullTableName() != null && !metaInfos[0].getDbFullTableName().isEmpty()) {
+                return metaInfos[0].getDbFullTableName();
+            }
+            return entityType.getSimpleName();
+        }
+
+        public int getRowCount() {
+            return values.size();
+        }
+
+        /**
+         * @param index The parameter index (starting at 0)
+         * @return The meta info for the statement parameter
+         */
+        public AttributeMetaInfo getMetaInfo(final int index) {
+            return metaInfos[index];
+        }
+
+        public int getParameterCount() {
+            return metaInfos.length;
+        }
+
+        /**
+         * @param row The row of the group (starting at 0)
+         * @return A copy of the statement parameters of the row
+         */
+        public Object[] getValues(final int row) {
+            return values.get(row).clone();
+        }
+
+        /**
+         * Returns the statement parameter of a row without copying the whole row. Used during execution.
+         *
+         * @param row   The row of the group (starting at 0)
+         * @param index The parameter index (starting at 0)
+         * @return The statement parameter
+         */
+        public Object getValue(final int row, final int index) {
+            return values.get(row)[index];
+        }
+    }
+}
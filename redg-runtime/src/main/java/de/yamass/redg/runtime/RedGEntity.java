@@ -16,7 +16,12 @@
 
 package de.yamass.redg.runtime;
 
+import de.yamass.redg.models.TableModel;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This is the interface for every entity that can be inserted into a database by RedG. Every generated entity class implements this interface
@@ -56,4 +61,54 @@ public interface RedGEntity {
      * @return A {@link List} of {@link RedGEntity}s this entity depends on
      */
     List<RedGEntity> getDependencies();
+
+    /**
+     * Returns the model of the table this entity gets inserted into. Generated entities return the table model they were generated from.
+     * @return The table model or {@code null} if it is not known
+     */
+    default TableModel getEntityTableModel() {
+        return null;
+    }
+
+    /**
+     * Returns a shallow copy of this entity that belongs to the passed RedG instance. References to other entities are not copied.
+     * Used by {@link AbstractRedG#edit(RedGEntity)} to copy shared entities of a forked RedG instance.
+     * @param redG The RedG instance the copy belongs to
+     * @return The copy
+     * @throws UnsupportedOperationException If the entity class was not generated with copying support (the default implementation)
+     */
+    default RedGEntity getCopyFor(AbstractRedG redG) {
+        throw new UnsupportedOperationException(getClass().getName() + " does not support copying. Re-run the code generation.");
+    }
+
+    /**
+     * Returns a copy of this entity like {@link #getCopyFor(AbstractRedG)} (for the same RedG instance), but with new values for all primary key and
+     * unique columns (taken from the default value strategy) and with the referenced entities found in the replacements map replaced.
+     * Used by {@link AbstractRedG#cloneSubgraph(RedGEntity, int)}.
+     * @param replacements The replacements of referenced entities, looked up by identity
+     * @return The copy
+     * @throws UnsupportedOperationException If the entity class was not generated with copying support (the default implementation)
+     */
+    default RedGEntity getCopyWithNewKeys(Map<RedGEntity, RedGEntity> replacements) {
+        throw new UnsupportedOperationException(getClass().getName() + " does not support copying. Re-run the code generation.");
+    }
+
+    /**
+     * Returns the names of the columns the database generates a value for when this entity gets inserted (identity / auto increment columns that
+     * were not set and are therefore left out of {@link #getPreparedStatementString()}).
+     * @return The column names, in the order {@link #readGeneratedKeys(ResultSet)} expects them
+     */
+    default String[] getGeneratedKeyColumns() {
+        return new String[0];
+    }
+
+    /**
+     * Reads the values the database generated for the columns of {@link #getGeneratedKeyColumns()} from the current row of the result set, so
+     * they can be used by entities referencing this one.
+     * @param generatedKeys The generated keys, positioned on the row of this entity
+     * @throws SQLException If a value cannot be read
+     * @see java.sql.Statement#getGeneratedKeys()
+     */
+    default void readGeneratedKeys(ResultSet generatedKeys) throws SQLException {
+    }
 }
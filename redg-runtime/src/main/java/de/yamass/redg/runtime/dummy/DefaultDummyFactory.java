@@ -19,9 +19,12 @@ package de.yamass.redg.runtime.dummy;
 import de.yamass.redg.runtime.AbstractRedG;
 import de.yamass.redg.runtime.RedGEntity;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * RedG's default dummy factory. It should be able to provide a dummy for the most common scenarios. Special use cases
@@ -29,7 +32,20 @@ import java.util.*;
  */
 public class DefaultDummyFactory implements DummyFactory {
 
-    private final Map<Class<? extends RedGEntity>, RedGEntity> dummyCache = new HashMap<>();
+    /**
+     * The constructor plans only depend on the dummy class, so they can be shared between all factory instances. They are stored with the class
+     * itself, so they do not keep generated classes (and their class loaders) reachable once these are unloaded.
+     */
+    private static final ClassValue<DummyConstructor> constructorCache = new ClassValue<>() {
+        @Override
+        protected DummyConstructor computeValue(final Class<?> dummyClass) {
+            return findDummyConstructor(dummyClass);
+        }
+    };
+
+    private final Map<Class<? extends RedGEntity>, RedGEntity> dummyCache = new ConcurrentHashMap<>();
+
+    private final Set<RedGEntity> dummies = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
 
     /**
      * Returns a dummy entity for the requested type.
@@ -47,22 +63,60 @@ public class DefaultDummyFactory implements DummyFactory {
     @Override
     public <T extends RedGEntity> T getDummy(final AbstractRedG redG, final Class<T> dummyClass) {
         // check if a dummy for this type already exists in cache
-        if (this.dummyCache.containsKey(dummyClass)) {
-            return dummyClass.cast(this.dummyCache.get(dummyClass));
+        final RedGEntity cached = this.dummyCache.get(dummyClass);
+        if (cached != null) {
+            return dummyClass.cast(cached);
+        }
+        // creation recurses into getDummy() for the dependencies, so computeIfAbsent() cannot be used here
+        synchronized (this) {
+            final RedGEntity existing = this.dummyCache.get(dummyClass);
+            if (existing != null) {
+                return dummyClass.cast(existing);
+            }
+            final T obj = createNewDummy(redG, dummyClass); // if no one is found, create new
+            this.dummies.add(obj);
+            this.dummyCache.put(dummyClass, obj);
+            return obj;
         }
-        final T obj = createNewDummy(redG, dummyClass); // if no one is found, create new
-        this.dummyCache.put(dummyClass, obj);
-        return obj;
     }
 
     /**
-     * Checks whether an entity is a dummy generated by this dummy factory by comparing it against the internal dummy cache.
+     * Checks whether an entity is a dummy generated by this dummy factory by looking it up (by identity) in the set of created dummies.
      * @param entity The entity to check
      * @return {@code true} if the entity is a dummy entity, {@code false} otherwise
      */
     @Override
     public boolean isDummy(final RedGEntity entity) {
-        return dummyCache.containsValue(entity);
+        return dummies.contains(entity);
+    }
+
+    /**
+     * Returns a new factory that knows all dummies of this factory.
+     *
+     * @return The dummy factory of the fork
+     */
+    @Override
+    public synchronized DummyFactory fork() {
+        final DefaultDummyFactory fork = new DefaultDummyFactory();
+        fork.dummyCache.putAll(dummyCache);
+        fork.dummies.addAll(dummies);
+        return fork;
+    }
+
+    /**
+     * Forgets the passed dummies, so new ones get created the next time a dummy of their type is requested.
+     *
+     * @param entities The entities removed from the RedG instance
+     */
+    @Override
+    public void discardDummies(final Collection<? extends RedGEntity> entities) {
+        synchronized (this) {
+            for (final RedGEntity entity : entities) {
+                if (dummies.remove(entity)) {
+                    dummyCache.remove(entity.getClass(), entity);
+                }
+            }
+        }
     }
 
     /**
@@ -76,21 +130,43 @@ public class DefaultDummyFactory implements DummyFactory {
      * @throws DummyCreationException If no fitting constructor is found or instantiation fails
      */
     private <T extends RedGEntity> T createNewDummy(AbstractRedG redG, Class<T> dummyClass) {
-        Constructor constructor = Arrays.stream(dummyClass.getDeclaredConstructors())
-                .filter(this::isDummyRedGEntityConstructor)
-                .findFirst().orElseThrow(() -> new DummyCreationException("Could not find a fitting constructor"));
-        Object[] parameter = new Object[constructor.getParameterCount()];
+        final DummyConstructor constructor = constructorCache.get(dummyClass);
+        final Class<?>[] parameterTypes = constructor.parameterTypes;
+        Object[] parameter = new Object[parameterTypes.length];
         parameter[0] = redG;
-        for (int i = 1; i < constructor.getParameterCount(); i++) {
-            parameter[i] = getDummy(redG, constructor.getParameterTypes()[i]);
+        for (int i = 1; i < parameterTypes.length; i++) {
+            parameter[i] = getDummy(redG, parameterTypes[i].asSubclass(RedGEntity.class));
         }
 
+        final Object instance;
+        try {
+            instance = constructor.handle.invokeExact(parameter);
+        } catch (Throwable e) {
+            throw new DummyCreationException("Instantiation of the dummy failed", e);
+        }
+        T obj = dummyClass.cast(instance);
+        redG.addEntity(obj);
+        return obj;
+    }
+
+    /**
+     * Looks up the dummy constructor of a class and turns it into a {@link MethodHandle} that takes all arguments as a single {@code Object[]}.
+     *
+     * @param dummyClass The class specifying the wanted entity type
+     * @return The cached constructor plan
+     * @throws DummyCreationException If no fitting constructor is found or it cannot be accessed
+     */
+    private static DummyConstructor findDummyConstructor(Class<?> dummyClass) {
+        Constructor<?> constructor = Arrays.stream(dummyClass.getDeclaredConstructors())
+                .filter(DefaultDummyFactory::isDummyRedGEntityConstructor)
+                .findFirst().orElseThrow(() -> new DummyCreationException("Could not find a fitting constructor"));
         try {
             constructor.setAccessible(true);
-            T obj = dummyClass.cast(constructor.newInstance(parameter));
-            redG.addEntity(obj);
-            return obj;
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, constructor.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            return new DummyConstructor(handle, constructor.getParameterTypes());
+        } catch (IllegalAccessException | RuntimeException e) {
             throw new DummyCreationException("Instantiation of the dummy failed", e);
         }
     }
@@ -101,7 +177,7 @@ public class DefaultDummyFactory implements DummyFactory {
      * @param constructor The constructor to check
      * @return {@code true} if the constructor matches the standard redG constructor, {@code false} otherwise
      */
-    private boolean isDummyRedGEntityConstructor(Constructor constructor) {
+    private static boolean isDummyRedGEntityConstructor(Constructor constructor) {
         if (constructor.getParameterCount() < 1) {
             return false;
         }
@@ -115,4 +191,16 @@ public class DefaultDummyFactory implements DummyFactory {
         }
         return true;
     }
+
+    private static final class DummyConstructor {
+
+        private final MethodHandle handle;
+
+        private final Class<?>[] parameterTypes;
+
+        private DummyConstructor(final MethodHandle handle, final Class<?>[] parameterTypes) {
+            this.handle = handle;
+            this.parameterTypes = parameterTypes;
+        }
+    }
 }
@@ -19,6 +19,8 @@ package de.yamass.redg.runtime.dummy;
 import de.yamass.redg.runtime.AbstractRedG;
 import de.yamass.redg.runtime.RedGEntity;
 
+import java.util.Collection;
+
 /**
  * The interface for RedG's dummy mechanism.
  *
@@ -31,4 +33,24 @@ public interface DummyFactory {
     <T extends RedGEntity> T getDummy(AbstractRedG redG, Class<T> dummyClass);
 
     boolean isDummy(RedGEntity entity);
+
+    /**
+     * Called when entities are removed from the RedG instance again (see {@link de.yamass.redg.runtime.DatasetScope}). Dummies among them must not
+     * be returned by {@link #getDummy(AbstractRedG, Class)} anymore.
+     *
+     * @param entities The removed entities
+     */
+    default void discardDummies(Collection<? extends RedGEntity> entities) {
+    }
+
+    /**
+     * Returns the dummy factory for a fork of the RedG instance (see {@link AbstractRedG#fork()}). The fork starts with the same dummies, but dummies
+     * created by the fork must not show up in the original RedG instance and vice versa.
+     *
+     * @return The dummy factory of the fork
+     * @throws UnsupportedOperationException If the dummy factory cannot be forked (the default implementation)
+     */
+    default DummyFactory fork() {
+        throw new UnsupportedOperationException(getClass().getName() + " does not support forking. Implement DummyFactory#fork().");
+    }
 }
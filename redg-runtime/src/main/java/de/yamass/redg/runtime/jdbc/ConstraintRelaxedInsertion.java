@@ -0,0 +1,256 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+import de.yamass.redg.DatabaseType;
+import de.yamass.redg.models.TableModel;
+import de.yamass.redg.runtime.EntitySorter;
+import de.yamass.redg.runtime.InsertPlan;
+import de.yamass.redg.runtime.InsertionFailedException;
+import de.yamass.redg.runtime.RedGEntity;
+import de.yamass.redg.runtime.transformer.PreparedStatementParameterSetter;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Inserts a dataset while the foreign key checks of the database are relaxed, see {@link RedGDatabaseUtil#insertDataIntoDatabaseWithoutConstraintChecks(List,
+ * Connection, DatabaseType, boolean, PreparedStatementParameterSetter)}.
+ * <p>
+ * As the insertion order does not matter then, all rows inserted with the same statement are executed as one statement group, no matter how the
+ * entities depend on each other.
+ */
+class ConstraintRelaxedInsertion {
+
+    private final List<RedGEntity> entities;
+
+    private final Connection connection;
+
+    private final DatabaseType databaseType;
+
+    private final boolean validate;
+
+    private final PreparedStatementParameterSetter preparedStatementParameterSetter;
+
+    ConstraintRelaxedInsertion(final List<? extends RedGEntity> entities, final Connection connection, final DatabaseType databaseType,
+                               final boolean validate, final PreparedStatementParameterSetter preparedStatementParameterSetter) {
+        if (databaseType == DatabaseType.GENERIC) {
+            throw new IllegalArgumentException("Constraint checks can only be relaxed on " + DatabaseType.H2 + ", " + DatabaseType.POSTGRES
+                    + " and " + DatabaseType.MARIADB);
+        }
+        this.entities = new ArrayList<>(entities);
+        this.connection = connection;
+        this.databaseType = databaseType;
+        this.validate = validate;
+        this.preparedStatementParameterSetter = preparedStatementParameterSetter;
+    }
+
+    void run() {
+        final List<RedGEntity> existingEntities = new ArrayList<>();
+        final Map<String, List<RedGEntity>> rowsByInsertStatement = new LinkedHashMap<>();
+        final Set<String> tables = new LinkedHashSet<>();
+        for (final RedGEntity entity : entities) {
+            if (EntitySorter.isExisting(entity)) {
+                existingEntities.add(entity);
+                continue;
+            }
+            rowsByInsertStatement.computeIfAbsent(entity.getPreparedStatementString(), s -> new ArrayList<>()).add(entity);
+            final TableModel tableModel = entity.getEntityTableModel();
+            if (tableModel != null) {
+                tables.add(tableModel.getSqlFullName());
+            }
+        }
+
+        try (PreparedStatementCache statementCache = new PreparedStatementCache(connection)) {
+            for (final List<RedGEntity> group : EntitySorter.groupEntitiesForInsert(existingEntities)) {
+                RedGDatabaseUtil.executeStatementGroup(InsertPlan.StatementGroup.of(group), statementCache, preparedStatementParameterSetter);
+            }
+            runWithRelaxedChecks(connection, databaseType, () -> {
+                for (final List<RedGEntity> rows : rowsByInsertStatement.values()) {
+                    RedGDatabaseUtil.executeStatementGroup(rows, InsertPlan.StatementGroup.of(rows), statementCache, preparedStatementParameterSetter);
+                }
+                if (validate && databaseType != DatabaseType.POSTGRES) {
+                    // validated before the commit, so a violation rolls back the inserted rows
+                    validateForeignKeys(tables);
+                }
+            });
+        } catch (SQLException e) {
+            throw new InsertionFailedException("Could not relax the constraint checks", e);
+        }
+    }
+
+    /**
+     * Runs the action while the foreign key checks are relaxed and enables them again afterwards, also if the action fails. A connection in auto
+     * commit mode runs the action in one transaction: it is committed once the checks are enabled again (on PostgreSQL this checks the deferred
+     * constraints) and rolled back if the action fails or a constraint is violated. The rollback happens before the checks are enabled again, as
+     * {@code SET REFERENTIAL_INTEGRITY} commits the current transaction on H2. Without auto commit, the caller's transaction is left open.
+     *
+     * @param connection   The database connection
+     * @param databaseType The type of the database, not {@link DatabaseType#GENERIC}
+     * @param action       The statements to run without checks
+     */
+    static void runWithRelaxedChecks(final Connection connection, final DatabaseType databaseType, final RelaxedChecksAction action)
+            throws SQLException {
+        final boolean originalAutoCommit = connection.getAutoCommit();
+        if (originalAutoCommit) {
+            connection.setAutoCommit(false);
+        }
+        boolean completed = false;
+        try {
+            execute(connection, databaseType == DatabaseType.H2 ? "SET REFERENTIAL_INTEGRITY FALSE"
+                    : databaseType == DatabaseType.POSTGRES ? "SET CONSTRAINTS ALL DEFERRED"
+                    : "SET FOREIGN_KEY_CHECKS = 0");
+            action.run();
+            completed = true;
+        } finally {
+            restoreChecks(connection, databaseType, originalAutoCommit, completed);
+        }
+    }
+
+    /**
+     * Enables the checks again. On PostgreSQL this checks all constraints deferred so far, so the transaction is committed only afterwards (if
+     * the connection was in auto commit mode before) and rolled back if a constraint is violated.
+     */
+    private static void restoreChecks(final Connection connection, final DatabaseType databaseType, final boolean originalAutoCommit,
+                                      final boolean completed) throws SQLException {
+        try {
+            if (originalAutoCommit && !completed) {
+                connection.rollback();
+            }
+            if (databaseType == DatabaseType.H2) {
+                execute(connection, "SET REFERENTIAL_INTEGRITY TRUE");
+            } else if (databaseType == DatabaseType.MARIADB) {
+                execute(connection, "SET FOREIGN_KEY_CHECKS = 1");
+            } else if (completed) {
+                execute(connection, "SET CONSTRAINTS ALL IMMEDIATE");
+            }
+            if (originalAutoCommit && completed) {
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            if (originalAutoCommit) {
+                connection.rollback();
+            }
+            throw e;
+        } finally {
+            if (originalAutoCommit) {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Checks the existing rows of the tables against all of their foreign keys, as the checks were skipped while inserting. Rows with a
+     * {@code NULL} value in a foreign key column are not checked (like {@code MATCH SIMPLE} does).
+     */
+    private void validateForeignKeys(final Set<String> tables) {
+        try {
+            final String quote = SqlIdentifiers.getQuote(connection);
+            final DatabaseMetaData metaData = connection.getMetaData();
+            for (final String table : tables) {
+                final int separator = table.lastIndexOf('.');
+                final String schema = separator < 0 ? null : table.substring(0, separator);
+                final String tableName = table.substring(separator + 1);
+                for (final ForeignKey foreignKey : getForeignKeys(metaData, schema, tableName)) {
+                    final int violations = countViolations(foreignKey, SqlIdentifiers.quoteQualifiedName(table, quote), quote);
+                    if (violations > 0) {
+                        throw new InsertionFailedException(violations + " rows of table " + table + " violate the foreign key "
+                                + foreignKey.name + " referencing " + foreignKey.referencedTable);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new InsertionFailedException("Could not validate the foreign keys", e);
+        }
+    }
+
+    private List<ForeignKey> getForeignKeys(final DatabaseMetaData metaData, final String schema, final String table) throws SQLException {
+        // MariaDB reports its databases as catalogs
+        final boolean catalogs = databaseType == DatabaseType.MARIADB;
+        final Map<String, ForeignKey> foreignKeys = new LinkedHashMap<>();
+        try (ResultSet rs = catalogs ? metaData.getImportedKeys(schema, null, table) : metaData.getImportedKeys(null, schema, table)) {
+            while (rs.next()) {
+                final String referencedSchema = rs.getString(catalogs ? "PKTABLE_CAT" : "PKTABLE_SCHEM");
+                final String referencedTable = referencedSchema == null
+                        ? rs.getString("PKTABLE_NAME")
+                        : referencedSchema + "." + rs.getString("PKTABLE_NAME");
+                final String name = rs.getString("FK_NAME") != null ? rs.getString("FK_NAME") : referencedTable;
+                foreignKeys.computeIfAbsent(name, n -> new ForeignKey(n, referencedTable))
+                        .columns.put(rs.getInt("KEY_SEQ"), new String[]{rs.getString("FKCOLUMN_NAME"), rs.getString("PKCOLUMN_NAME")});
+            }
+        }
+        return new ArrayList<>(foreignKeys.values());
+    }
+
+    private int countViolations(final ForeignKey foreignKey, final String table, final String quote) throws SQLException {
+        final List<String> notNullConditions = new ArrayList<>();
+        final List<String> joinConditions = new ArrayList<>();
+        for (final String[] columns : foreignKey.columns.values()) {
+            final String column = "c." + SqlIdentifiers.quoteName(columns[0], quote);
+            notNullConditions.add(column + " IS NOT NULL");
+            joinConditions.add("p." + SqlIdentifiers.quoteName(columns[1], quote) + " = " + column);
+        }
+        final String sql = "SELECT COUNT(*) FROM " + table + " c WHERE " + String.join(" AND ", notNullConditions)
+                + " AND NOT EXISTS (SELECT 1 FROM " + SqlIdentifiers.quoteQualifiedName(foreignKey.referencedTable, quote) + " p WHERE "
+                + String.join(" AND ", joinConditions) + ")";
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static void execute(final Connection connection, final String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * The statements run by {@link #runWithRelaxedChecks(Connection, DatabaseType, RelaxedChecksAction)}.
+     */
+    interface RelaxedChecksAction {
+
+        void run() throws SQLException;
+    }
+
+    private static class ForeignKey {
+
+        private final String name;
+
+        private final String referencedTable;
+
+        /**
+         * The pairs of foreign key column and referenced column, by their position in the key
+         */
+        private final Map<Integer, String[]> columns = new TreeMap<>();
+
+        private ForeignKey(final String name, final String referencedTable) {
+            this.name = name;
+            this.referencedTable = referencedTable;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+import de.yamass.redg.DatabaseType;
+import de.yamass.redg.runtime.EntitySorter;
+import de.yamass.redg.runtime.InsertionFailedException;
+import de.yamass.redg.runtime.RedGEntity;
+import de.yamass.redg.runtime.transformer.PreparedStatementParameterSetter;
+
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * An in-memory copy of the contents of some tables, used to quickly reset a database to the state right after a RedG dataset was inserted.
+ * <p>
+ * Capture the snapshot once after inserting the data (e.g. via {@link de.yamass.redg.runtime.AbstractRedG#captureSnapshot(Connection)}) and call
+ * {@link #restore(Connection)} before each test instead of inserting the data again. Restoring deletes all rows of the captured tables and
+ * re-inserts the captured rows as JDBC batches, so its cost depends on the size of the captured tables, not on the number of RedG entities or the rest
+ * of the schema. Tables that were not captured are not touched; rows in them must not reference the captured tables.
+ * <p>
+ * The foreign key checks are relaxed while restoring on H2, PostgreSQL and MariaDB (like
+ * {@link RedGDatabaseUtil#insertDataIntoDatabaseWithoutConstraintChecks(List, Connection, DatabaseType, boolean, PreparedStatementParameterSetter)}
+ * does), so rows referencing each other in cycles or rows of the same table in any order can be restored. On PostgreSQL this only covers foreign
+ * keys declared as {@code DEFERRABLE}. On other databases the tables are restored with the checks enabled, in capture order.
+ * <p>
+ * The captured rows are inserted with their original values, including the values of identity (auto increment) columns. Afterwards the identity
+ * columns are set to continue after the highest restored value on H2 and PostgreSQL (MariaDB does so by itself), so rows inserted after the
+ * restore do not collide with the restored ones. On other databases the identity columns are not reset.
+ */
+public class DatabaseSnapshot {
+
+    private final List<TableContent> tables;
+
+    private DatabaseSnapshot(final List<TableContent> tables) {
+        this.tables = Collections.unmodifiableList(tables);
+    }
+
+    /**
+     * Captures the current contents of the passed tables.
+     *
+     * @param connection The database connection
+     * @param tableNames The (optionally schema qualified) names of the tables to capture, ordered so that referenced tables come first
+     * @return The snapshot
+     */
+    public static DatabaseSnapshot capture(final Connection connection, final List<String> tableNames) {
+        try {
+            final String quote = SqlIdentifiers.getQuote(connection);
+            final List<TableContent> tables = new ArrayList<>();
+            for (final String tableName : tableNames) {
+                tables.add(captureTable(connection, SqlIdentifiers.quoteQualifiedName(tableName, quote), quote));
+            }
+            return new DatabaseSnapshot(tables);
+        } catch (SQLException e) {
+            throw new InsertionFailedException("Could not capture the database snapshot", e);
+        }
+    }
+
+    /**
+     * Returns the tables the entities get inserted into (entities declared as existing are ignored), in insertion order.
+     *
+     * @param gObjects The entities, sorted for insertion
+     * @return The full table names
+     */
+    public static List<String> getTouchedTables(final List<? extends RedGEntity> gObjects) {
+        final Set<String> tableNames = new LinkedHashSet<>();
+        for (final RedGEntity entity : gObjects) {
+            if (EntitySorter.isExisting(entity) || entity.getPreparedStatementValuesMetaInfos().length == 0) {
+                continue;
+            }
+            final String tableName = entity.getPreparedStatementValuesMetaInfos()[0].getDbFullTableName();
+            if (tableName != null && !tableName.isEmpty()) {
+                tableNames.add(tableName);
+            }
+        }
+        return new ArrayList<>(tableNames);
+    }
+
+    /**
+     * @return The (quoted) names of the captured tables
+     */
+    public List<String> getTableNames() {
+        return tables.stream().map(t -> t.quotedName).collect(Collectors.toList());
+    }
+
+    /**
+     * @return The number of captured rows of all tables
+     */
+    public int getRowCount() {
+        return tables.stream().mapToInt(t -> t.rows.size()).sum();
+    }
+
+    /**
+     * Resets the captured tables to the captured state. Deletes all rows from the captured tables (in reverse order) and inserts the captured rows
+     * (in capture order), with relaxed foreign key checks if the database supports it. The recorded dataset fingerprints (see
+     * {@link DatasetFingerprint}) get cleared.
+     *
+     * @param connection The database connection
+     */
+    public void restore(final Connection connection) {
+        DatasetFingerprint.clear(connection);
+        final DatabaseType databaseType;
+        try {
+            databaseType = getDatabaseType(connection);
+            if (databaseType == DatabaseType.GENERIC) {
+                restoreTables(connection);
+            } else {
+                ConstraintRelaxedInsertion.runWithRelaxedChecks(connection, databaseType, () -> restoreTables(connection));
+            }
+        } catch (SQLException e) {
+            throw new InsertionFailedException("Could not relax the constraint checks to restore the snapshot", e);
+        }
+        try {
+            for (final TableContent table : tables) {
+                resetIdentityColumns(connection, databaseType, table);
+            }
+        } catch (SQLException e) {
+            throw new InsertionFailedException("Could not reset the identity columns of the snapshot", e);
+        }
+    }
+
+    private void restoreTables(final Connection connection) {
+        try (Statement statement = connection.createStatement()) {
+            for (int i = tables.size() - 1; i >= 0; i--) {
+                statement.executeUpdate("DELETE FROM " + tables.get(i).quotedName);
+            }
+        } catch (SQLException e) {
+            throw new InsertionFailedException("Could not clear the tables of the snapshot", e);
+        }
+        for (final TableContent table : tables) {
+            if (!table.rows.isEmpty()) {
+                restoreTable(connection, table);
+            }
+        }
+    }
+
+    private static DatabaseType getDatabaseType(final Connection connection) throws SQLException {
+        final String databaseProductName = connection.getMetaData().getDatabaseProductName();
+        if ("H2".equalsIgnoreCase(databaseProductName)) {
+            return DatabaseType.H2;
+        } else if ("PostgreSQL".equalsIgnoreCase(databaseProductName)) {
+            return DatabaseType.POSTGRES;
+        } else if ("MariaDB".equalsIgnoreCase(databaseProductName) || "MySQL".equalsIgnoreCase(databaseProductName)) {
+            return DatabaseType.MARIADB;
+        }
+        return DatabaseType.GENERIC;
+    }
+
+    private static TableContent captureTable(final Connection connection, final String quotedName, final String quote) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT * FROM " + quotedName)) {
+            final ResultSetMetaData metaData = rs.getMetaData();
+            final int columnCount = metaData.getColumnCount();
+            final String[] columns = new String[columnCount];
+            final int[] types = new int[columnCount];
+            final List<IdentityColumn> identityColumns = new ArrayList<>();
+            for (int i = 0; i < columnCount; i++) {
+                columns[i] = SqlIdentifiers.quoteName(metaData.getColumnName(i + 1), quote);
+                types[i] = metaData.getColumnType(i + 1);
+                if (metaData.isAutoIncrement(i + 1)) {
+                    identityColumns.add(new IdentityColumn(i, metaData.getColumnName(i + 1)));
+                }
+            }
+            final List<Object[]> rows = new ArrayList<>();
+            while (rs.next()) {
+                final Object[] row = new Object[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    row[i] = detach(rs.getObject(i + 1));
+                }
+                rows.add(row);
+            }
+            return new TableContent(quotedName, columns, types, identityColumns, rows);
+        }
+    }
+
+    /**
+     * LOBs are only valid as long as the result set is open, so their content gets copied.
+     */
+    private static Object detach(final Object value) throws SQLException {
+        if (value instanceof Blob) {
+            return ((Blob) value).getBytes(1, (int) ((Blob) value).length());
+        }
+        if (value instanceof Clob) {
+            return ((Clob) value).getSubString(1, (int) ((Clob) value).length());
+        }
+        return value;
+    }
+
+    private static void restoreTable(final Connection connection, final TableContent table) {
+        final String sql = "INSERT INTO " + table.quotedName + " (" + String.join(", ", table.columns) + ") VALUES ("
+                + Arrays.stream(table.columns).map(c -> "?").collect(Collectors.joining(", ")) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int batchSize = 0;
+            for (final Object[] row : table.rows) {
+                for (int i = 0; i < row.length; i++) {
+                    if (row[i] == null) {
+                        statement.setNull(i + 1, table.types[i]);
+                    } else {
+                        statement.setObject(i + 1, row[i]);
+                    }
+                }
+                statement.addBatch();
+                if (++batchSize == RedGDatabaseUtil.MAX_BATCH_SIZE) {
+                    statement.executeBatch();
+                    batchSize = 0;
+                }
+            }
+            if (batchSize > 0) {
+                statement.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw new InsertionFailedException("Could not restore the table " + table.quotedName, e);
+        }
+    }
+
+    /**
+     * Lets the identity columns of the table continue after the highest restored value.
+     */
+    private static void resetIdentityColumns(final Connection connection, final DatabaseType databaseType, final TableContent table)
+            throws SQLException {
+        for (final IdentityColumn column : table.identityColumns) {
+            long next = 1;
+            for (final Object[] row : table.rows) {
+                if (row[column.index] instanceof Number) {
+                    next = Math.max(next, ((Number) row[column.index]).longValue() + 1);
+                }
+            }
+            if (databaseType == DatabaseType.H2) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate("ALTER TABLE " + table.quotedName + " ALTER COLUMN " + table.columns[column.index]
+                            + " RESTART WITH " + next);
+                }
+            } else if (databaseType == DatabaseType.POSTGRES) {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT setval(pg_get_serial_sequence(?, ?), ?, false)")) {
+                    statement.setString(1, table.quotedName);
+                    statement.setString(2, column.name);
+                    statement.setLong(3, next);
+                    statement.execute();
+                }
+            }
+        }
+    }
+
+    private static final class IdentityColumn {
+
+        private final int index;
+
+        private final String name;
+
+        private IdentityColumn(final int index, final String name) {
+            this.index = index;
+            this.name = name;
+        }
+    }
+
+    private static final class TableContent {
+
+        private final String quotedName;
+
+        private final String[] columns;
+
+        private final int[] types;
+
+        private final List<IdentityColumn> identityColumns;
+
+        private final List<Object[]> rows;
+
+        private TableContent(final String quotedName, final String[] columns, final int[] types, final List<IdentityColumn> identityColumns,
+                             final List<Object[]> rows) {
+            this.quotedName = quotedName;
+            this.columns = columns;
+            this.types = types;
+            this.identityColumns = identityColumns;
+            this.rows = rows;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+import de.yamass.redg.models.ColumnModel;
+import de.yamass.redg.models.TableModel;
+import de.yamass.redg.runtime.AttributeMetaInfo;
+import de.yamass.redg.runtime.EntitySorter;
+import de.yamass.redg.runtime.InsertionFailedException;
+import de.yamass.redg.runtime.RedGEntity;
+import de.yamass.redg.runtime.transformer.PreparedStatementParameterSetter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Deletes the rows of a dataset, see {@link RedGDatabaseUtil#deleteDataFromDatabase(List, Connection, PreparedStatementParameterSetter)}.
+ * <p>
+ * The entities are grouped like for the insertion and the groups are processed in reverse order, so rows always get deleted before the rows they
+ * reference. Rows are identified by their primary key. For tables without a primary key, all inserted column values are used instead.
+ * <p>
+ * {@code TRUNCATE} commits the current transaction on H2 and MariaDB, so owned tables are only truncated if the caller asked for it and the
+ * connection is in auto commit mode.
+ */
+class DatasetCleanup {
+
+    private final List<RedGEntity> entities;
+
+    private final Connection connection;
+
+    private final PreparedStatementParameterSetter preparedStatementParameterSetter;
+
+    private final boolean truncateOwnedTables;
+
+    private String quote;
+
+    DatasetCleanup(final List<? extends RedGEntity> entities, final Connection connection,
+                   final PreparedStatementParameterSetter preparedStatementParameterSetter, final boolean truncateOwnedTables) {
+        this.entities = new ArrayList<>(entities);
+        this.connection = connection;
+        this.preparedStatementParameterSetter = preparedStatementParameterSetter;
+        this.truncateOwnedTables = truncateOwnedTables;
+    }
+
+    void run() {
+        final List<List<RedGEntity>> groups = EntitySorter.groupEntitiesForInsert(entities).stream()
+                .filter(group -> !EntitySorter.isExisting(group.get(0)))
+                .collect(Collectors.toList());
+        try (PreparedStatementCache statementCache = new PreparedStatementCache(connection)) {
+            quote = SqlIdentifiers.getQuote(connection);
+            final Set<String> truncatedTables = new HashSet<>();
+            final Set<String> ownedTables = truncateOwnedTables && connection.getAutoCommit()
+                    ? findOwnedTables(groups)
+                    : Collections.emptySet();
+            for (int i = groups.size() - 1; i >= 0; i--) {
+                final List<RedGEntity> group = groups.get(i);
+                final String tableName = getTableName(group.get(0));
+                if (ownedTables.contains(tableName)) {
+                    if (truncatedTables.add(tableName)) {
+                        try (Statement statement = connection.createStatement()) {
+                            statement.executeUpdate("TRUNCATE TABLE " + tableName);
+                        }
+                    }
+                } else {
+                    deleteGroup(statementCache, tableName, group);
+                }
+            }
+        } catch (SQLException e) {
+            throw new InsertionFailedException("Could not delete the data from the database", e);
+        }
+    }
+
+    /**
+     * Returns the tables the caller declared as owned that can be truncated: no other table references them and they still contain as many rows
+     * as were inserted. The row count does not prove that these are the inserted rows, it only rules out tables that obviously contain others.
+     */
+    private Set<String> findOwnedTables(final List<List<RedGEntity>> groups) throws SQLException {
+        final Map<String, Integer> rowCounts = new LinkedHashMap<>();
+        for (final List<RedGEntity> group : groups) {
+            final TableModel tableModel = group.get(0).getEntityTableModel();
+            if (tableModel != null && tableModel.getIncomingForeignKeys().isEmpty()) {
+                rowCounts.merge(getTableName(group.get(0)), group.size(), Integer::sum);
+            }
+        }
+        final Set<String> ownedTables = new HashSet<>();
+        try (Statement statement = connection.createStatement()) {
+            for (final Map.Entry<String, Integer> entry : rowCounts.entrySet()) {
+                try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + entry.getKey())) {
+                    rs.next();
+                    if (rs.getLong(1) == entry.getValue()) {
+                        ownedTables.add(entry.getKey());
+                    }
+                }
+            }
+        }
+        return ownedTables;
+    }
+
+    private void deleteGroup(final PreparedStatementCache statementCache, final String tableName, final List<RedGEntity> group) throws SQLException {
+        final AttributeMetaInfo[] metaInfos = group.get(0).getPreparedStatementValuesMetaInfos();
+        final int[] keyIndices = getKeyIndices(group.get(0).getEntityTableModel(), metaInfos);
+        if (keyIndices.length == 1) {
+            deleteByKeyList(statementCache, tableName, group, metaInfos[keyIndices[0]], keyIndices[0]);
+        } else {
+            deleteRowByRow(statementCache, tableName, group, metaInfos, keyIndices);
+        }
+    }
+
+    /**
+     * Deletes the rows of a table with a single column primary key with {@code DELETE ... WHERE pk IN (...)}.
+     */
+    private void deleteByKeyList(final PreparedStatementCache statementCache, final String tableName, final List<RedGEntity> group,
+                                 final AttributeMetaInfo keyMetaInfo, final int keyIndex) throws SQLException {
+        final String keyColumn = SqlIdentifiers.quoteName(keyMetaInfo.getDbColumnName(), quote);
+        for (int start = 0; start < group.size(); start += RedGDatabaseUtil.MAX_BATCH_SIZE) {
+            final List<RedGEntity> chunk = group.subList(start, Math.min(start + RedGDatabaseUtil.MAX_BATCH_SIZE, group.size()));
+            final String sql = "DELETE FROM " + tableName + " WHERE " + keyColumn + " IN ("
+                    + chunk.stream().map(e -> "?").collect(Collectors.joining(", ")) + ")";
+            final PreparedStatement statement = statementCache.getStatement(sql);
+            for (int i = 0; i < chunk.size(); i++) {
+                preparedStatementParameterSetter.setParameter(statement, i + 1, chunk.get(i).getPreparedStatementValues()[keyIndex], keyMetaInfo,
+                        connection);
+            }
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Deletes the rows of a table with a composite or without a primary key with one batched {@code DELETE} per row. Columns that are {@code NULL}
+     * have to be compared with {@code IS NULL}, so rows with different {@code NULL} columns need different statements.
+     */
+    private void deleteRowByRow(final PreparedStatementCache statementCache, final String tableName, final List<RedGEntity> group,
+                                final AttributeMetaInfo[] metaInfos, final int[] keyIndices) throws SQLException {
+        final Map<String, List<Object[]>> rowsByStatement = new LinkedHashMap<>();
+        for (final RedGEntity entity : group) {
+            final Object[] values = entity.getPreparedStatementValues();
+            final List<String> conditions = new ArrayList<>();
+            for (final int index : keyIndices) {
+                conditions.add(SqlIdentifiers.quoteName(metaInfos[index].getDbColumnName(), quote) + (values[index] == null ? " IS NULL" : " = ?"));
+            }
+            rowsByStatement.computeIfAbsent("DELETE FROM " + tableName + " WHERE " + String.join(" AND ", conditions), s -> new ArrayList<>())
+                    .add(values);
+        }
+        for (final Map.Entry<String, List<Object[]>> entry : rowsByStatement.entrySet()) {
+            final PreparedStatement statement = statementCache.getStatement(entry.getKey());
+            int batchSize = 0;
+            for (final Object[] values : entry.getValue()) {
+                int parameterIndex = 1;
+                for (final int index : keyIndices) {
+                    if (values[index] != null) {
+                        preparedStatementParameterSetter.setParameter(statement, parameterIndex++, values[index], metaInfos[index], connection);
+                    }
+                }
+                statement.addBatch();
+                if (++batchSize == RedGDatabaseUtil.MAX_BATCH_SIZE) {
+                    statement.executeBatch();
+                    batchSize = 0;
+                }
+            }
+            if (batchSize > 0) {
+                statement.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Returns the indices of the primary key columns in the statement values, or the indices of all values if the primary key is unknown.
+     */
+    static int[] getKeyIndices(final TableModel tableModel, final AttributeMetaInfo[] metaInfos) {
+        if (tableModel != null && !tableModel.getPrimaryKeyColumns().isEmpty()) {
+            final List<ColumnModel> keyColumns = tableModel.getPrimaryKeyColumns();
+            final int[] indices = new int[keyColumns.size()];
+            int found = 0;
+            for (final ColumnModel keyColumn : keyColumns) {
+                for (int i = 0; i < metaInfos.length; i++) {
+                    if (metaInfos[i].getDbColumnName().equals(keyColumn.getDbName())) {
+                        indices[found++] = i;
+                        break;
+                    }
+                }
+            }
+            if (found == indices.length) {
+                return indices;
+            }
+        }
+        final int[] indices = new int[metaInfos.length];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+
+    private String getTableName(final RedGEntity entity) {
+        final AttributeMetaInfo[] metaInfos = entity.getPreparedStatementValuesMetaInfos();
+        if (metaInfos.length == 0 || metaInfos[0].getDbFullTableName() == null || metaInfos[0].getDbFullTableName().isEmpty()) {
+            throw new InsertionFailedException("The table of " + entity.getClass().getName() + " is unknown, its rows cannot be deleted");
+        }
+        return SqlIdentifiers.quoteQualifiedName(metaInfos[0].getDbFullTableName(), quote);
+    }
+}
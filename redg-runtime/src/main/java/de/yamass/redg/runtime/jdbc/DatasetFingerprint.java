@@ -0,0 +1,185 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+import de.yamass.redg.runtime.InsertionFailedException;
+import de.yamass.redg.runtime.RedGEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Calculates stable fingerprints of RedG datasets and records them in a marker table, so that inserting the same dataset into a persistent database
+ * a second time can be skipped.
+ * <p>
+ * The fingerprint is a SHA-256 hash over the prepared statements and statement parameters of all entities in insertion order. As foreign keys are
+ * statement parameters as well, it covers tables, values and relations.
+ */
+public class DatasetFingerprint {
+
+    /**
+     * The name of the marker table holding the fingerprints of all datasets inserted into the database
+     */
+    public static final String MARKER_TABLE_NAME = "REDG_DATASET_FINGERPRINT";
+
+    private DatasetFingerprint() {
+
+    }
+
+    /**
+     * Calculates the fingerprint of the entities. Equal datasets (same entities, values and relations added in the same order) always result in
+     * the same fingerprint.
+     *
+     * @param gObjects The entities, sorted for insertion
+     * @return The fingerprint as lower case hex string
+     */
+    public static String calculate(final List<? extends RedGEntity> gObjects) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+        }
+        for (final RedGEntity entity : gObjects) {
+            update(digest, entity.getPreparedStatementString());
+            for (final Object value : entity.getPreparedStatementValues()) {
+                update(digest, canonicalValue(value));
+            }
+        }
+        final StringBuilder hex = new StringBuilder();
+        for (final byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        // the length prefix keeps ("ab", "c") and ("a", "bc") apart
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+
+    private static String canonicalValue(final Object value) {
+        if (value == null) {
+            return "null";
+        }
+        final String type = value.getClass().getName() + "=";
+        if (value instanceof Timestamp) {
+            // Date.toString() depends on the default time zone
+            return type + ((Timestamp) value).getTime() + "." + ((Timestamp) value).getNanos();
+        }
+        if (value instanceof Date) {
+            return type + ((Date) value).getTime();
+        }
+        if (value instanceof byte[]) {
+            return type + Arrays.toString((byte[]) value);
+        }
+        if (value instanceof Object[]) {
+            return type + Arrays.deepToString((Object[]) value);
+        }
+        return type + value;
+    }
+
+    /**
+     * Checks whether the fingerprint was recorded in the database before. Returns {@code false} if the marker table does not exist.
+     *
+     * @param connection  The database connection
+     * @param fingerprint The fingerprint to look for
+     * @return {@code true} if a dataset with this fingerprint was already inserted into the database
+     */
+    public static boolean isRecorded(final Connection connection, final String fingerprint) {
+        try {
+            if (!markerTableExists(connection)) {
+                return false;
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT COUNT(*) FROM " + MARKER_TABLE_NAME + " WHERE FINGERPRINT = ?")) {
+                statement.setString(1, fingerprint);
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    return rs.getInt(1) > 0;
+                }
+            }
+        } catch (SQLException e) {
+            throw new InsertionFailedException("Could not read the dataset fingerprints", e);
+        }
+    }
+
+    /**
+     * Records the fingerprint in the marker table. The marker table gets created if it does not exist yet.
+     *
+     * @param connection  The database connection
+     * @param fingerprint The fingerprint of the inserted dataset
+     */
+    public static void record(final Connection connection, final String fingerprint) {
+        try {
+            if (!markerTableExists(connection)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("CREATE TABLE " + MARKER_TABLE_NAME
+                            + " (FINGERPRINT VARCHAR(64) NOT NULL PRIMARY KEY, INSERTED_AT TIMESTAMP NOT NULL)");
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO " + MARKER_TABLE_NAME + " (FINGERPRINT, INSERTED_AT) VALUES (?, ?)")) {
+                statement.setString(1, fingerprint);
+                statement.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+                statement.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new InsertionFailedException("Could not record the dataset fingerprint", e);
+        }
+    }
+
+    /**
+     * Deletes all recorded fingerprints, since the data in the database no longer matches them. Called by every operation that deletes or rewrites
+     * rows of a dataset. Does nothing if the marker table does not exist.
+     *
+     * @param connection The database connection
+     */
+    public static void clear(final Connection connection) {
+        try {
+            if (markerTableExists(connection)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate("DELETE FROM " + MARKER_TABLE_NAME);
+                }
+            }
+        } catch (SQLException e) {
+            throw new InsertionFailedException("Could not clear the dataset fingerprints", e);
+        }
+    }
+
+    private static boolean markerTableExists(final Connection connection) throws SQLException {
+        final DatabaseMetaData metaData = connection.getMetaData();
+        final String tableName = metaData.storesLowerCaseIdentifiers() ? MARKER_TABLE_NAME.toLowerCase() : MARKER_TABLE_NAME;
+        try (ResultSet rs = metaData.getTables(connection.getCatalog(), connection.getSchema(), tableName, new String[]{"TABLE"})) {
+            return rs.next();
+        }
+    }
+}
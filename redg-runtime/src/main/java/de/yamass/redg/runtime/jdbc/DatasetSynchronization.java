@@ -0,0 +1,431 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+import de.yamass.redg.models.ColumnModel;
+import de.yamass.redg.models.ForeignKeyColumnModel;
+import de.yamass.redg.models.ForeignKeyModel;
+import de.yamass.redg.models.TableModel;
+import de.yamass.redg.runtime.AttributeMetaInfo;
+import de.yamass.redg.runtime.EntitySorter;
+import de.yamass.redg.runtime.InsertPlan;
+import de.yamass.redg.runtime.InsertionFailedException;
+import de.yamass.redg.runtime.RedGEntity;
+import de.yamass.redg.runtime.transformer.PreparedStatementParameterSetter;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies the difference between a dataset and the current database contents, see {@link RedGDatabaseUtil#synchronizeDataWithDatabase(List,
+ * Connection, PreparedStatementParameterSetter)}.
+ * <p>
+ * The rows of every table of the dataset are read ordered by primary key, in pages of {@value #PAGE_SIZE} rows that continue after the last key of
+ * the previous page. Each row is matched with the entity with the same key: rows without entity get deleted, rows whose values differ from the
+ * entity get updated and entities without row get inserted.
+ * <p>
+ * The rows are deleted before the inserts, in reverse insertion order of the tables, so they do not block the inserted rows (e.g. with the same
+ * unique values). Updated rows can still reference rows that get deleted, so their changed foreign keys into tables with deleted rows are detached
+ * first: nullable foreign keys are set to {@code NULL}, not nullable ones to their new value right away (this fails if they move to a row that is
+ * only inserted later). The updates are executed after the inserts, so they can reference inserted rows. Tables without primary key cannot be
+ * paged, so they are read into memory at once and matched by all columns.
+ */
+class DatasetSynchronization {
+
+    static final int PAGE_SIZE = 1000;
+
+    private final List<RedGEntity> entities;
+
+    private final Connection connection;
+
+    private final PreparedStatementParameterSetter preparedStatementParameterSetter;
+
+    private String quote;
+
+    DatasetSynchronization(final List<? extends RedGEntity> entities, final Connection connection,
+                           final PreparedStatementParameterSetter preparedStatementParameterSetter) {
+        this.entities = new ArrayList<>(entities);
+        this.connection = connection;
+        this.preparedStatementParameterSetter = preparedStatementParameterSetter;
+    }
+
+    List<TableDifference> run() {
+        final List<RedGEntity> existingEntities = new ArrayList<>();
+        final Map<String, TableRows> tables = new LinkedHashMap<>();
+        for (final RedGEntity entity : EntitySorter.sortEntities(entities)) {
+            if (EntitySorter.isExisting(entity)) {
+                existingEntities.add(entity);
+                continue;
+            }
+            final TableModel tableModel = entity.getEntityTableModel();
+            if (tableModel == null) {
+                throw new InsertionFailedException("The table model of " + entity.getClass().getName()
+                        + " is unknown, its rows cannot be compared. Re-run the code generation.");
+            }
+            tables.computeIfAbsent(tableModel.getClassName(), t -> new TableRows(tableModel)).entities.add(entity);
+        }
+        for (final RedGEntity entity : existingEntities) {
+            // rows defined as existing are neither updated nor deleted
+            final TableModel tableModel = entity.getEntityTableModel();
+            final TableRows table = tableModel == null ? null : tables.get(tableModel.getClassName());
+            if (table != null) {
+                final List<Object> key = table.getKey(getValues(entity));
+                if (key != null) {
+                    table.keptKeys.add(key);
+                }
+            }
+        }
+
+        try (PreparedStatementCache statementCache = new PreparedStatementCache(connection)) {
+            quote = SqlIdentifiers.getQuote(connection);
+            for (final List<RedGEntity> group : EntitySorter.groupEntitiesForInsert(existingEntities)) {
+                RedGDatabaseUtil.executeStatementGroup(InsertPlan.StatementGroup.of(group), statementCache, preparedStatementParameterSetter);
+            }
+            final List<RedGEntity> insertedEntities = new ArrayList<>();
+            for (final TableRows table : tables.values()) {
+                compare(table);
+                insertedEntities.addAll(table.insertedEntities);
+            }
+            for (final TableRows table : tables.values()) {
+                detach(statementCache, table, tables);
+            }
+            final List<TableRows> reversedTables = new ArrayList<>(tables.values());
+            Collections.reverse(reversedTables);
+            for (final TableRows table : reversedTables) {
+                delete(statementCache, table);
+            }
+            for (final List<RedGEntity> group : EntitySorter.groupEntitiesForInsert(insertedEntities)) {
+                RedGDatabaseUtil.executeStatementGroup(group, InsertPlan.StatementGroup.of(group), statementCache, preparedStatementParameterSetter);
+            }
+            for (final TableRows table : tables.values()) {
+                final Map<RedGEntity, Map<String, Object>> assignments = new LinkedHashMap<>();
+                for (final RedGEntity entity : table.updatedEntities) {
+                    final Map<String, Object> values = new LinkedHashMap<>(getValues(entity));
+                    values.keySet().removeAll(table.keyColumns);
+                    assignments.put(entity, values);
+                }
+                update(statementCache, table, assignments);
+            }
+        } catch (SQLException e) {
+            throw new InsertionFailedException("Could not synchronize the dataset with the database", e);
+        }
+        return tables.values().stream()
+                .map(table -> new TableDifference(table.tableModel.getSqlFullName(), table.insertedEntities.size(), table.updatedEntities.size(),
+                        table.deletedKeys.size()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Reads the current rows of the table and decides which entities have to be inserted or updated and which rows have to be deleted.
+     */
+    private void compare(final TableRows table) throws SQLException {
+        final Map<List<Object>, RedGEntity> unmatchedEntities = new LinkedHashMap<>();
+        final Map<String, Class<?>> javaTypes = new HashMap<>();
+        for (final RedGEntity entity : table.entities) {
+            for (final AttributeMetaInfo metaInfo : entity.getPreparedStatementValuesMetaInfos()) {
+                javaTypes.putIfAbsent(metaInfo.getDbColumnName(), metaInfo.getJavaType());
+            }
+            final List<Object> key = table.getKey(getValues(entity));
+            if (key == null || unmatchedEntities.putIfAbsent(key, entity) != null) {
+                // the database generates the key or the key is used twice, both can only be inserted
+                table.insertedEntities.add(entity);
+            }
+        }
+
+        final String tableName = SqlIdentifiers.quoteQualifiedName(table.tableModel.getSqlFullName(), quote);
+        final String columns = table.columns.stream().map(column -> SqlIdentifiers.quoteName(column, quote)).collect(Collectors.joining(", "));
+        final List<String> keyColumns = table.keyColumns.stream().map(column -> SqlIdentifiers.quoteName(column, quote)).collect(Collectors.toList());
+        final Set<List<Object>> matchedKeys = new HashSet<>();
+        List<Object> lastKey = null;
+        boolean morePages = true;
+        while (morePages) {
+            String sql = "SELECT " + columns + " FROM " + tableName;
+            if (table.hasPrimaryKey) {
+                if (lastKey != null) {
+                    sql += " WHERE " + (keyColumns.size() == 1
+                            ? keyColumns.get(0) + " > ?"
+                            : "(" + String.join(", ", keyColumns) + ") > (" + keyColumns.stream().map(c -> "?").collect(Collectors.joining(", ")) + ")");
+                }
+                sql += " ORDER BY " + String.join(", ", keyColumns);
+            }
+            final PreparedStatement statement = connection.prepareStatement(sql);
+            try {
+                if (table.hasPrimaryKey) {
+                    statement.setMaxRows(PAGE_SIZE);
+                    for (int i = 0; lastKey != null && i < lastKey.size(); i++) {
+                        statement.setObject(i + 1, lastKey.get(i));
+                    }
+                }
+                int rowCount = 0;
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        rowCount++;
+                        final Map<String, Object> row = new HashMap<>();
+                        for (int i = 0; i < table.columns.size(); i++) {
+                            row.put(table.columns.get(i), readValue(rs, i + 1, javaTypes.get(table.columns.get(i))));
+                        }
+                        final List<Object> key = table.getKey(row);
+                        lastKey = table.keyColumns.stream().map(row::get).collect(Collectors.toList());
+                        if (table.keptKeys.contains(key)) {
+                            continue;
+                        }
+                        final RedGEntity entity = unmatchedEntities.remove(key);
+                        if (entity != null) {
+                            matchedKeys.add(key);
+                            if (isChanged(entity, row)) {
+                                table.updatedEntities.add(entity);
+                                table.currentRows.put(entity, row);
+                            }
+                        } else if (table.hasPrimaryKey || !matchedKeys.contains(key)) {
+                            // duplicates of a matched row in a table without primary key stay, deleting them would delete the matched row too
+                            table.deletedKeys.add(lastKey);
+                        }
+                    }
+                }
+                morePages = table.hasPrimaryKey && rowCount == PAGE_SIZE;
+            } finally {
+                statement.close();
+            }
+        }
+        table.insertedEntities.addAll(unmatchedEntities.values());
+    }
+
+    /**
+     * Detaches the updated rows of the table from rows that get deleted: their foreign keys into tables with deleted rows are set before the rows
+     * are deleted, if they change. Nullable foreign keys are set to {@code NULL}, they get their new value with the other updates.
+     */
+    private void detach(final PreparedStatementCache statementCache, final TableRows table, final Map<String, TableRows> tables)
+            throws SQLException {
+        final Map<RedGEntity, Map<String, Object>> assignments = new LinkedHashMap<>();
+        for (final RedGEntity entity : table.updatedEntities) {
+            final Map<String, Object> values = getValues(entity);
+            final Map<String, Object> currentRow = table.currentRows.get(entity);
+            for (final ForeignKeyModel foreignKey : table.tableModel.getForeignKeys()) {
+                final TableRows referencedTable = tables.get(foreignKey.getJavaTypeName());
+                if (referencedTable == null || referencedTable.deletedKeys.isEmpty()) {
+                    continue;
+                }
+                final List<String> columns = foreignKey.getReferences().values().stream()
+                        .map(ForeignKeyColumnModel::getDbName)
+                        .filter(values::containsKey)
+                        .collect(Collectors.toList());
+                if (columns.stream().anyMatch(column -> !isEqual(values.get(column), currentRow.get(column)))) {
+                    for (final String column : columns) {
+                        assignments.computeIfAbsent(entity, e -> new LinkedHashMap<>()).put(column, foreignKey.isNotNull() ? values.get(column) : null);
+                    }
+                }
+            }
+        }
+        update(statementCache, table, assignments);
+    }
+
+    /**
+     * Sets the assigned column values of the rows, identified by their primary key. Rows setting the same columns are batched.
+     */
+    private void update(final PreparedStatementCache statementCache, final TableRows table,
+                        final Map<RedGEntity, Map<String, Object>> assignments) throws SQLException {
+        final String tableName = SqlIdentifiers.quoteQualifiedName(table.tableModel.getSqlFullName(), quote);
+        final String condition = table.keyColumns.stream()
+                .map(column -> SqlIdentifiers.quoteName(column, quote) + " = ?")
+                .collect(Collectors.joining(" AND "));
+        final Map<String, List<RedGEntity>> entitiesByStatement = new LinkedHashMap<>();
+        for (final Map.Entry<RedGEntity, Map<String, Object>> entry : assignments.entrySet()) {
+            final String columns = entry.getValue().keySet().stream()
+                    .map(column -> SqlIdentifiers.quoteName(column, quote) + " = ?")
+                    .collect(Collectors.joining(", "));
+            entitiesByStatement.computeIfAbsent("UPDATE " + tableName + " SET " + columns + " WHERE " + condition, s -> new ArrayList<>())
+                    .add(entry.getKey());
+        }
+        for (final Map.Entry<String, List<RedGEntity>> entry : entitiesByStatement.entrySet()) {
+            final PreparedStatement statement = statementCache.getStatement(entry.getKey());
+            int batchSize = 0;
+            for (final RedGEntity entity : entry.getValue()) {
+                final Map<String, AttributeMetaInfo> metaInfos = Arrays.stream(entity.getPreparedStatementValuesMetaInfos())
+                        .collect(Collectors.toMap(AttributeMetaInfo::getDbColumnName, metaInfo -> metaInfo));
+                final Map<String, Object> values = getValues(entity);
+                int parameterIndex = 1;
+                for (final Map.Entry<String, Object> assignment : assignments.get(entity).entrySet()) {
+                    preparedStatementParameterSetter.setParameter(statement, parameterIndex++, assignment.getValue(),
+                            metaInfos.get(assignment.getKey()), connection);
+                }
+                for (final String keyColumn : table.keyColumns) {
+                    preparedStatementParameterSetter.setParameter(statement, parameterIndex++, values.get(keyColumn), metaInfos.get(keyColumn),
+                            connection);
+                }
+                statement.addBatch();
+                if (++batchSize == RedGDatabaseUtil.MAX_BATCH_SIZE) {
+                    statement.executeBatch();
+                    batchSize = 0;
+                }
+            }
+            if (batchSize > 0) {
+                statement.executeBatch();
+            }
+        }
+    }
+
+    private void delete(final PreparedStatementCache statementCache, final TableRows table) throws SQLException {
+        final String tableName = SqlIdentifiers.quoteQualifiedName(table.tableModel.getSqlFullName(), quote);
+        final Map<String, List<List<Object>>> keysByStatement = new LinkedHashMap<>();
+        for (final List<Object> key : table.deletedKeys) {
+            final List<String> conditions = new ArrayList<>();
+            for (int i = 0; i < key.size(); i++) {
+                conditions.add(SqlIdentifiers.quoteName(table.keyColumns.get(i), quote) + (key.get(i) == null ? " IS NULL" : " = ?"));
+            }
+            keysByStatement.computeIfAbsent("DELETE FROM " + tableName + " WHERE " + String.join(" AND ", conditions), s -> new ArrayList<>())
+                    .add(key);
+        }
+        for (final Map.Entry<String, List<List<Object>>> entry : keysByStatement.entrySet()) {
+            final PreparedStatement statement = statementCache.getStatement(entry.getKey());
+            int batchSize = 0;
+            for (final List<Object> key : entry.getValue()) {
+                int parameterIndex = 1;
+                for (final Object value : key) {
+                    if (value != null) {
+                        statement.setObject(parameterIndex++, value);
+                    }
+                }
+                statement.addBatch();
+                if (++batchSize == RedGDatabaseUtil.MAX_BATCH_SIZE) {
+                    statement.executeBatch();
+                    batchSize = 0;
+                }
+            }
+            if (batchSize > 0) {
+                statement.executeBatch();
+            }
+        }
+    }
+
+    private static boolean isChanged(final RedGEntity entity, final Map<String, Object> row) {
+        final Object[] values = entity.getPreparedStatementValues();
+        final AttributeMetaInfo[] metaInfos = entity.getPreparedStatementValuesMetaInfos();
+        for (int i = 0; i < values.length; i++) {
+            if (!isEqual(values[i], row.get(metaInfos[i].getDbColumnName()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compares an entity value with a value read from the database. Numbers are compared by value, other values that are stored as text (see
+     * {@link de.yamass.redg.runtime.transformer.DefaultPreparedStatementParameterSetter}) by their string representation.
+     */
+    private static boolean isEqual(final Object value, final Object databaseValue) {
+        if (value == null || databaseValue == null) {
+            return value == databaseValue;
+        }
+        if (value instanceof Number && databaseValue instanceof Number) {
+            return new BigDecimal(value.toString()).compareTo(new BigDecimal(databaseValue.toString())) == 0;
+        }
+        if (value instanceof byte[] && databaseValue instanceof byte[]) {
+            return Arrays.equals((byte[]) value, (byte[]) databaseValue);
+        }
+        if (!(value instanceof String) && databaseValue instanceof String) {
+            return value.toString().equals(databaseValue);
+        }
+        return Objects.equals(value, databaseValue);
+    }
+
+    /**
+     * Reads the value as the Java type of the entity attribute, so it can be compared with the entity value.
+     */
+    private static Object readValue(final ResultSet rs, final int index, final Class<?> javaType) throws SQLException {
+        if (javaType != null) {
+            try {
+                return rs.getObject(index, javaType);
+            } catch (SQLException e) {
+                // the driver cannot convert the value, it gets compared as is
+            }
+        }
+        return rs.getObject(index);
+    }
+
+    private static Map<String, Object> getValues(final RedGEntity entity) {
+        final Object[] values = entity.getPreparedStatementValues();
+        final AttributeMetaInfo[] metaInfos = entity.getPreparedStatementValuesMetaInfos();
+        final Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            row.put(metaInfos[i].getDbColumnName(), values[i]);
+        }
+        return row;
+    }
+
+    private static class TableRows {
+
+        private final TableModel tableModel;
+
+        private final List<String> columns;
+
+        private final List<String> keyColumns;
+
+        private final boolean hasPrimaryKey;
+
+        private final List<RedGEntity> entities = new ArrayList<>();
+
+        private final Set<List<Object>> keptKeys = new HashSet<>();
+
+        private final List<RedGEntity> insertedEntities = new ArrayList<>();
+
+        private final List<RedGEntity> updatedEntities = new ArrayList<>();
+
+        private final Map<RedGEntity, Map<String, Object>> currentRows = new IdentityHashMap<>();
+
+        private final List<List<Object>> deletedKeys = new ArrayList<>();
+
+        private TableRows(final TableModel tableModel) {
+            this.tableModel = tableModel;
+            this.columns = tableModel.getColumns().stream().map(ColumnModel::getDbName).collect(Collectors.toList());
+            this.hasPrimaryKey = !tableModel.getPrimaryKeyColumns().isEmpty();
+            this.keyColumns = hasPrimaryKey
+                    ? tableModel.getPrimaryKeyColumns().stream().map(ColumnModel::getDbName).collect(Collectors.toList())
+                    : columns;
+        }
+
+        /**
+         * @return The normalized key of the row, or {@code null} if the row does not contain all key columns
+         */
+        private List<Object> getKey(final Map<String, Object> row) {
+            final List<Object> key = new ArrayList<>(keyColumns.size());
+            for (final String keyColumn : keyColumns) {
+                if (!row.containsKey(keyColumn)) {
+                    return null;
+                }
+                final Object value = row.get(keyColumn);
+                key.add(value instanceof Number ? new BigDecimal(value.toString()).stripTrailingZeros()
+                        : value instanceof byte[] ? Arrays.toString((byte[]) value) : value);
+            }
+            return key;
+        }
+    }
+}
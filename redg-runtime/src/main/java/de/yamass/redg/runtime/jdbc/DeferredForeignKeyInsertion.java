@@ -0,0 +1,304 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+import de.yamass.redg.models.ForeignKeyColumnModel;
+import de.yamass.redg.models.ForeignKeyModel;
+import de.yamass.redg.models.TableModel;
+import de.yamass.redg.runtime.AttributeMetaInfo;
+import de.yamass.redg.runtime.EntitySorter;
+import de.yamass.redg.runtime.InsertPlan;
+import de.yamass.redg.runtime.InsertionFailedException;
+import de.yamass.redg.runtime.RedGEntity;
+import de.yamass.redg.runtime.transformer.PreparedStatementParameterSetter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Inserts a dataset in two phases, see {@link RedGDatabaseUtil#insertDataIntoDatabaseDeferringForeignKeys(List, Connection,
+ * PreparedStatementParameterSetter)}.
+ * <p>
+ * Nullable foreign keys that are part of a cycle between tables (including self references) are deferred: all rows are inserted table by table
+ * with these columns set to {@code NULL}, then the deferred columns are set with one batched {@code UPDATE} per table. Without the deferred foreign
+ * keys the tables can always be ordered, so every table gets inserted with JDBC batches.
+ */
+class DeferredForeignKeyInsertion {
+
+    private final List<RedGEntity> entities;
+
+    private final Connection connection;
+
+    private final PreparedStatementParameterSetter preparedStatementParameterSetter;
+
+    private String quote;
+
+    DeferredForeignKeyInsertion(final List<? extends RedGEntity> entities, final Connection connection,
+                                final PreparedStatementParameterSetter preparedStatementParameterSetter) {
+        this.entities = new ArrayList<>(entities);
+        this.connection = connection;
+        this.preparedStatementParameterSetter = preparedStatementParameterSetter;
+    }
+
+    void run() {
+        final List<RedGEntity> existingEntities = new ArrayList<>();
+        final Map<String, TableModel> tableModels = new LinkedHashMap<>();
+        final Map<String, List<RedGEntity>> entitiesByTable = new LinkedHashMap<>();
+        for (final RedGEntity entity : entities) {
+            if (EntitySorter.isExisting(entity)) {
+                existingEntities.add(entity);
+                continue;
+            }
+            final TableModel tableModel = entity.getEntityTableModel();
+            if (tableModel == null) {
+                throw new InsertionFailedException("The table model of " + entity.getClass().getName()
+                        + " is unknown, its foreign keys cannot be deferred. Re-run the code generation.");
+            }
+            tableModels.putIfAbsent(tableModel.getClassName(), tableModel);
+            entitiesByTable.computeIfAbsent(tableModel.getClassName(), t -> new ArrayList<>()).add(entity);
+        }
+        final Set<ForeignKeyModel> deferredForeignKeys = findDeferredForeignKeys(tableModels);
+        final List<String> tableOrder = sortTables(tableModels, deferredForeignKeys);
+
+        try (PreparedStatementCache statementCache = new PreparedStatementCache(connection)) {
+            quote = SqlIdentifiers.getQuote(connection);
+            for (final List<RedGEntity> group : EntitySorter.groupEntitiesForInsert(existingEntities)) {
+                RedGDatabaseUtil.executeStatementGroup(InsertPlan.StatementGroup.of(group), statementCache, preparedStatementParameterSetter);
+            }
+            for (final String table : tableOrder) {
+                final TableModel tableModel = tableModels.get(table);
+                for (final List<RedGEntity> group : groupRows(tableModel, entitiesByTable.get(table), deferredForeignKeys)) {
+                    final int[] deferredIndices = getDeferredIndices(tableModel, group.get(0).getPreparedStatementValuesMetaInfos(),
+                            deferredForeignKeys);
+                    RedGDatabaseUtil.executeStatementGroup(group, InsertPlan.StatementGroup.of(group).withNullValues(deferredIndices),
+                            statementCache, preparedStatementParameterSetter);
+                }
+            }
+            for (final String table : tableOrder) {
+                final Map<String, List<RedGEntity>> rowsByInsertStatement = entitiesByTable.get(table).stream()
+                        .collect(Collectors.groupingBy(RedGEntity::getPreparedStatementString, LinkedHashMap::new, Collectors.toList()));
+                for (final List<RedGEntity> rows : rowsByInsertStatement.values()) {
+                    updateDeferredForeignKeys(statementCache, tableModels.get(table), rows, deferredForeignKeys);
+                }
+            }
+        } catch (SQLException e) {
+            throw new InsertionFailedException("Could not set the deferred foreign keys", e);
+        }
+    }
+
+    /**
+     * A nullable foreign key gets deferred if it is part of a cycle, i.e. if its own table can be reached again from the referenced table.
+     */
+    private static Set<ForeignKeyModel> findDeferredForeignKeys(final Map<String, TableModel> tableModels) {
+        final Set<ForeignKeyModel> deferredForeignKeys = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final TableModel tableModel : tableModels.values()) {
+            for (final ForeignKeyModel foreignKey : tableModel.getForeignKeys()) {
+                if (!foreignKey.isNotNull() && isReachable(tableModels, foreignKey.getJavaTypeName(), tableModel.getClassName())) {
+                    deferredForeignKeys.add(foreignKey);
+                }
+            }
+        }
+        return deferredForeignKeys;
+    }
+
+    private static boolean isReachable(final Map<String, TableModel> tableModels, final String from, final String to) {
+        final Set<String> visited = new HashSet<>();
+        final Deque<String> queue = new ArrayDeque<>();
+        queue.add(from);
+        while (!queue.isEmpty()) {
+            final String table = queue.poll();
+            if (table.equals(to)) {
+                return true;
+            }
+            if (tableModels.containsKey(table) && visited.add(table)) {
+                tableModels.get(table).getForeignKeys().forEach(fk -> queue.add(fk.getJavaTypeName()));
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Orders the tables so that every table comes after the tables it references through foreign keys that are not deferred.
+     *
+     * @throws InsertionFailedException If foreign keys that cannot be deferred form a cycle
+     */
+    private static List<String> sortTables(final Map<String, TableModel> tableModels, final Set<ForeignKeyModel> deferredForeignKeys) {
+        final List<String> order = new ArrayList<>();
+        final Set<String> visiting = new HashSet<>();
+        for (final String table : tableModels.keySet()) {
+            visitTable(table, tableModels, deferredForeignKeys, visiting, order);
+        }
+        return order;
+    }
+
+    private static void visitTable(final String table, final Map<String, TableModel> tableModels, final Set<ForeignKeyModel> deferredForeignKeys,
+                                   final Set<String> visiting, final List<String> order) {
+        if (order.contains(table)) {
+            return;
+        }
+        if (!visiting.add(table)) {
+            throw new InsertionFailedException("The not nullable foreign keys of table " + tableModels.get(table).getSqlFullName()
+                    + " are part of a cycle, the data cannot be inserted");
+        }
+        for (final ForeignKeyModel foreignKey : tableModels.get(table).getForeignKeys()) {
+            final String referencedTable = foreignKey.getJavaTypeName();
+            if (!deferredForeignKeys.contains(foreignKey) && !referencedTable.equals(table) && tableModels.containsKey(referencedTable)) {
+                visitTable(referencedTable, tableModels, deferredForeignKeys, visiting, order);
+            }
+        }
+        visiting.remove(table);
+        order.add(table);
+    }
+
+    /**
+     * Groups the rows of a table by their prepared statement. If rows can reference other rows of the same table through a foreign key that is not
+     * deferred, the rows are leveled first, so the referenced rows get inserted before.
+     */
+    private static List<List<RedGEntity>> groupRows(final TableModel tableModel, final List<RedGEntity> rows,
+                                                    final Set<ForeignKeyModel> deferredForeignKeys) {
+        final Map<RedGEntity, Integer> depths = new IdentityHashMap<>();
+        final boolean selfReferencing = tableModel.getForeignKeys().stream()
+                .anyMatch(fk -> !deferredForeignKeys.contains(fk) && fk.getJavaTypeName().equals(tableModel.getClassName()));
+        if (selfReferencing) {
+            final Set<RedGEntity> rowSet = Collections.newSetFromMap(new IdentityHashMap<>());
+            rowSet.addAll(rows);
+            final Set<RedGEntity> visiting = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (final RedGEntity row : rows) {
+                calculateDepth(row, rowSet, depths, visiting);
+            }
+        }
+        final Map<Integer, Map<String, List<RedGEntity>>> levels = new TreeMap<>();
+        for (final RedGEntity row : rows) {
+            levels.computeIfAbsent(depths.getOrDefault(row, 0), l -> new LinkedHashMap<>())
+                    .computeIfAbsent(row.getPreparedStatementString(), s -> new ArrayList<>())
+                    .add(row);
+        }
+        return levels.values().stream()
+                .flatMap(statementGroups -> statementGroups.values().stream())
+                .collect(Collectors.toList());
+    }
+
+    private static int calculateDepth(final RedGEntity row, final Set<RedGEntity> rows, final Map<RedGEntity, Integer> depths,
+                                      final Set<RedGEntity> visiting) {
+        final Integer knownDepth = depths.get(row);
+        if (knownDepth != null) {
+            return knownDepth;
+        }
+        if (!visiting.add(row)) {
+            throw new InsertionFailedException("The rows of table " + row.getEntityTableModel().getSqlFullName()
+                    + " reference each other in a cycle that cannot be deferred");
+        }
+        int depth = 0;
+        for (final RedGEntity dependency : row.getDependencies()) {
+            if (dependency != row && rows.contains(dependency)) {
+                depth = Math.max(depth, calculateDepth(dependency, rows, depths, visiting) + 1);
+            }
+        }
+        visiting.remove(row);
+        depths.put(row, depth);
+        return depth;
+    }
+
+    /**
+     * Sets the deferred foreign key columns of rows of a table that were inserted with the same statement. Rows are identified like in
+     * {@link DatasetCleanup} and rows with different {@code NULL} columns need different statements, so the rows are batched per statement.
+     */
+    private void updateDeferredForeignKeys(final PreparedStatementCache statementCache, final TableModel tableModel, final List<RedGEntity> rows,
+                                           final Set<ForeignKeyModel> deferredForeignKeys) throws SQLException {
+        final AttributeMetaInfo[] metaInfos = rows.get(0).getPreparedStatementValuesMetaInfos();
+        final int[] deferredIndices = getDeferredIndices(tableModel, metaInfos, deferredForeignKeys);
+        if (deferredIndices.length == 0) {
+            return;
+        }
+        final int[] keyIndices = Arrays.stream(DatasetCleanup.getKeyIndices(tableModel, metaInfos))
+                .filter(index -> Arrays.stream(deferredIndices).noneMatch(deferredIndex -> deferredIndex == index))
+                .toArray();
+        final String tableName = SqlIdentifiers.quoteQualifiedName(metaInfos[0].getDbFullTableName(), quote);
+
+        final Map<String, List<Object[]>> rowsByStatement = new LinkedHashMap<>();
+        for (final RedGEntity row : rows) {
+            final Object[] values = row.getPreparedStatementValues();
+            final List<String> assignments = new ArrayList<>();
+            for (final int index : deferredIndices) {
+                if (values[index] != null) {
+                    assignments.add(SqlIdentifiers.quoteName(metaInfos[index].getDbColumnName(), quote) + " = ?");
+                }
+            }
+            if (assignments.isEmpty()) {
+                continue;
+            }
+            final List<String> conditions = new ArrayList<>();
+            for (final int index : keyIndices) {
+                conditions.add(SqlIdentifiers.quoteName(metaInfos[index].getDbColumnName(), quote) + (values[index] == null ? " IS NULL" : " = ?"));
+            }
+            rowsByStatement.computeIfAbsent("UPDATE " + tableName + " SET " + String.join(", ", assignments)
+                    + " WHERE " + String.join(" AND ", conditions), s -> new ArrayList<>()).add(values);
+        }
+
+        final int[] parameterIndices = IntStream.concat(Arrays.stream(deferredIndices), Arrays.stream(keyIndices)).toArray();
+        for (final Map.Entry<String, List<Object[]>> entry : rowsByStatement.entrySet()) {
+            final PreparedStatement statement = statementCache.getStatement(entry.getKey());
+            int batchSize = 0;
+            for (final Object[] values : entry.getValue()) {
+                int parameterIndex = 1;
+                for (final int index : parameterIndices) {
+                    if (values[index] != null) {
+                        preparedStatementParameterSetter.setParameter(statement, parameterIndex++, values[index], metaInfos[index], connection);
+                    }
+                }
+                statement.addBatch();
+                if (++batchSize == RedGDatabaseUtil.MAX_BATCH_SIZE) {
+                    statement.executeBatch();
+                    batchSize = 0;
+                }
+            }
+            if (batchSize > 0) {
+                statement.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Returns the indices of the columns of deferred foreign keys in the statement values.
+     */
+    private static int[] getDeferredIndices(final TableModel tableModel, final AttributeMetaInfo[] metaInfos,
+                                            final Set<ForeignKeyModel> deferredForeignKeys) {
+        final Set<String> deferredColumns = tableModel.getForeignKeys().stream()
+                .filter(deferredForeignKeys::contains)
+                .flatMap(fk -> fk.getReferences().values().stream())
+                .map(ForeignKeyColumnModel::getDbName)
+                .collect(Collectors.toSet());
+        return IntStream.range(0, metaInfos.length)
+                .filter(i -> deferredColumns.contains(metaInfos[i].getDbColumnName()))
+                .toArray();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for a single executed batch (or a single row or existence check outside of batches) during insertion.
+ * <p>
+ * The event is disabled by default and has to be enabled in the recording settings (a custom {@code .jfc} file or
+ * {@code Recording.enable("de.yamass.redg.InsertBatch")}). While it is disabled, {@link #begin()} and {@link #finish} do nothing.
+ */
+@Name("de.yamass.redg.InsertBatch")
+@Label("RedG Insert Batch")
+@Description("A batch of rows inserted (or checked for existence) by RedG")
+@Category({"RedG", "Insertion"})
+@Enabled(false)
+@StackTrace(false)
+final class InsertBatchEvent extends Event {
+
+    @Label("Table")
+    String table;
+
+    @Label("Statement")
+    String statement;
+
+    @Label("Existence Check")
+    boolean existenceCheck;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Update Count")
+    @Description("The number of rows the database reported as inserted, or -1 if unknown")
+    int updateCount;
+
+    void finish(final String table, final String statement, final boolean existenceCheck, final int rows, final int updateCount) {
+        if (shouldCommit()) {
+            this.table = table;
+            this.statement = statement;
+            this.existenceCheck = existenceCheck;
+            this.rows = rows;
+            this.updateCount = updateCount;
+            commit();
+        }
+    }
+}
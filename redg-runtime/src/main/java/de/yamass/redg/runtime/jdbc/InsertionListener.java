@@ -0,0 +1,54 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+/**
+ * Receives events about the statements RedG executes while inserting data, e.g. to find out which tables dominate the insertion time. Pass a
+ * listener to {@link de.yamass.redg.runtime.AbstractRedG#setInsertionListener(InsertionListener)} or to the {@link PreparedStatementCache} used
+ * for the insertion.
+ * <p>
+ * The listener is called on the inserting thread, so implementations should be fast. Listeners used for asynchronous insertions have to be
+ * thread-safe.
+ *
+ * @see InsertionStatisticsCollector
+ */
+public interface InsertionListener {
+
+    /**
+     * A listener that ignores all events. The insertion recognizes it and does not create the events at all.
+     */
+    InsertionListener NONE = new InsertionListener() {
+    };
+
+    /**
+     * Called after a statement was executed, either a single row, a JDBC batch or an existence check of an entity defined as "existing".
+     *
+     * @param execution The statement execution
+     */
+    default void statementExecuted(StatementExecution execution) {
+
+    }
+
+    /**
+     * Called after a group of rows of the same table was inserted. Consecutive groups can belong to the same table.
+     *
+     * @param timing The rows and time of the group
+     */
+    default void tableInserted(TableInsertionTiming timing) {
+
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An {@link InsertionListener} that sums up the statement executions per table. Use {@link #getSummary()} to get a text table of all tables,
+ * ordered by the time spent on them, or {@link #toJson()} to export the statistics (requires Jackson on the classpath).
+ * <p>
+ * Instances are thread-safe and can be reused for multiple insertions, the statistics accumulate until {@link #reset()} is called.
+ */
+public class InsertionStatisticsCollector implements InsertionListener {
+
+    private final Map<String, TableStatistics> tables = new LinkedHashMap<>();
+
+    @Override
+    public synchronized void statementExecuted(final StatementExecution execution) {
+        tables.computeIfAbsent(execution.getTableName(), TableStatistics::new).add(execution);
+    }
+
+    @Override
+    public synchronized void tableInserted(final TableInsertionTiming timing) {
+        tables.computeIfAbsent(timing.getTableName(), TableStatistics::new).add(timing);
+    }
+
+    /**
+     * @return A copy of the statistics of every table, in the order the tables were first inserted into
+     */
+    public synchronized List<TableStatistics> getTableStatistics() {
+        final List<TableStatistics> statistics = new ArrayList<>();
+        for (final TableStatistics table : tables.values()) {
+            statistics.add(table.copy());
+        }
+        return statistics;
+    }
+
+    public synchronized void reset() {
+        tables.clear();
+    }
+
+    /**
+     * @return A text table with one line per table, the tables that took the longest first
+     */
+    public String getSummary() {
+        final List<TableStatistics> statistics = getTableStatistics();
+        statistics.sort(Comparator.comparing(TableStatistics::getTotalTime).reversed());
+        final int nameWidth = Math.max("Table".length(), statistics.stream().mapToInt(t -> t.getTableName().length()).max().orElse(0));
+        final String format = "%-" + nameWidth + "s %10s %10s %10s %10s %10s %12s %12s %12s %12s %12s%n";
+        final StringBuilder summary = new StringBuilder();
+        summary.append(String.format(Locale.ROOT, format, "Table", "Rows", "Updated", "Batches", "Max batch", "Checks", "Extract ms", "Bind ms",
+                "Execute ms", "Checks ms", "Insert ms"));
+        for (final TableStatistics table : statistics) {
+            summary.append(String.format(Locale.ROOT, format, table.getTableName(), table.getRowCount(), table.getUpdateCount(),
+                    table.getBatchCount(), table.getMaxBatchSize(), table.getExistenceCheckCount(), toMillis(table.getExtractionTime()),
+                    toMillis(table.getBindTime()), toMillis(table.getExecutionTime()), toMillis(table.getExistenceCheckTime()),
+                    toMillis(table.getInsertionTime())));
+        }
+        return summary.toString();
+    }
+
+    public void printSummary(final PrintStream out) {
+        out.print(getSummary());
+    }
+
+    /**
+     * @return The statistics of all tables as JSON array, times in nanoseconds
+     */
+    public String toJson() {
+        final ObjectMapper mapper = new ObjectMapper();
+        final ArrayNode array = mapper.createArrayNode();
+        for (final TableStatistics table : getTableStatistics()) {
+            final ObjectNode node = array.addObject();
+            node.put("table", table.getTableName());
+            node.put("rows", table.getRowCount());
+            node.put("batches", table.getBatchCount());
+            node.put("maxBatchSize", table.getMaxBatchSize());
+            node.put("updateCount", table.getUpdateCount());
+            node.put("existenceChecks", table.getExistenceCheckCount());
+            node.put("bindNanos", table.getBindTime().toNanos());
+            node.put("executionNanos", table.getExecutionTime().toNanos());
+            node.put("existenceCheckNanos", table.getExistenceCheckTime().toNanos());
+            node.put("extractionNanos", table.getExtractionTime().toNanos());
+            node.put("insertionNanos", table.getInsertionTime().toNanos());
+        }
+        try {
+            return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(array);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the insertion statistics", e);
+        }
+    }
+
+    private static String toMillis(final Duration duration) {
+        return String.format(Locale.ROOT, "%.1f", duration.toNanos() / 1_000_000.0);
+    }
+
+    /**
+     * The summed up statement executions of a single table.
+     */
+    public static class TableStatistics {
+
+        private final String tableName;
+
+        private int rowCount;
+
+        private int batchCount;
+
+        private int maxBatchSize;
+
+        private int updateCount;
+
+        private int existenceCheckCount;
+
+        private long bindNanos;
+
+        private long executionNanos;
+
+        private long existenceCheckNanos;
+
+        private long extractionNanos;
+
+        private long insertionNanos;
+
+        private TableStatistics(final String tableName) {
+            this.tableName = tableName;
+        }
+
+        private void add(final StatementExecution execution) {
+            if (execution.isExistenceCheck()) {
+                existenceCheckCount++;
+                existenceCheckNanos += execution.getBindTime().toNanos() + execution.getExecutionTime().toNanos();
+                return;
+            }
+            rowCount += execution.getRowCount();
+            batchCount++;
+            maxBatchSize = Math.max(maxBatchSize, execution.getRowCount());
+            if (execution.getUpdateCount() > 0) {
+                updateCount += execution.getUpdateCount();
+            }
+            bindNanos += execution.getBindTime().toNanos();
+            executionNanos += execution.getExecutionTime().toNanos();
+        }
+
+        private void add(final TableInsertionTiming timing) {
+            extractionNanos += timing.getExtractionTime().toNanos();
+            insertionNanos += timing.getExecutionTime().toNanos();
+        }
+
+        private TableStatistics copy() {
+            final TableStatistics copy = new TableStatistics(tableName);
+            copy.rowCount = rowCount;
+            copy.batchCount = batchCount;
+            copy.maxBatchSize = maxBatchSize;
+            copy.updateCount = updateCount;
+            copy.existenceCheckCount = existenceCheckCount;
+            copy.bindNanos = bindNanos;
+            copy.executionNanos = executionNanos;
+            copy.existenceCheckNanos = existenceCheckNanos;
+            copy.extractionNanos = extractionNanos;
+            copy.insertionNanos = insertionNanos;
+            return copy;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+
+        /**
+         * @return The number of inserted rows (existence checks are not counted)
+         */
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * @return The number of executed insert statements, every JDBC batch counts as one
+         */
+        public int getBatchCount() {
+            return batchCount;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        /**
+         * @return The number of rows the database reported as inserted. Drivers that do not report update counts for batches are not counted
+         */
+        public int getUpdateCount() {
+            return updateCount;
+        }
+
+        public int getExistenceCheckCount() {
+            return existenceCheckCount;
+        }
+
+        public Duration getBindTime() {
+            return Duration.ofNanos(bindNanos);
+        }
+
+        public Duration getExecutionTime() {
+            return Duration.ofNanos(executionNanos);
+        }
+
+        public Duration getExistenceCheckTime() {
+            return Duration.ofNanos(existenceCheckNanos);
+        }
+
+        /**
+         * @return The time spent reading the statement parameters from the entities, as reported per inserted table. Statement groups executed as
+         * JDBC batches do not report it, see {@link TableInsertionTiming#getExtractionTime()}
+         */
+        public Duration getExtractionTime() {
+            return Duration.ofNanos(extractionNanos);
+        }
+
+        /**
+         * @return The wall clock time of the insertion of the table as reported per inserted table, including everything around binding and
+         * executing the statements
+         */
+        public Duration getInsertionTime() {
+            return Duration.ofNanos(insertionNanos);
+        }
+
+        /**
+         * @return The time spent binding, executing and checking existing entries
+         */
+        public Duration getTotalTime() {
+            return Duration.ofNanos(bindNanos + executionNanos + existenceCheckNanos);
+        }
+
+        @Override
+        public String toString() {
+            return "TableStatistics{" +
+                    "tableName='" + tableName + '\'' +
+                    ", rowCount=" + rowCount +
+                    ", batchCount=" + batchCount +
+                    ", maxBatchSize=" + maxBatchSize +
+                    ", updateCount=" + updateCount +
+                    ", existenceCheckCount=" + existenceCheckCount +
+                    ", bindTime=" + getBindTime() +
+                    ", executionTime=" + getExecutionTime() +
+                    ", existenceCheckTime=" + getExistenceCheckTime() +
+                    ", extractionTime=" + getExtractionTime() +
+                    ", insertionTime=" + getInsertionTime() +
+                    '}';
+        }
+    }
+}
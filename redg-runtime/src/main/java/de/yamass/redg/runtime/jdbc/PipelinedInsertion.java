@@ -0,0 +1,226 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+import de.yamass.redg.runtime.EntitySorter;
+import de.yamass.redg.runtime.InsertPlan;
+import de.yamass.redg.runtime.InsertionFailedException;
+import de.yamass.redg.runtime.RedGEntity;
+import de.yamass.redg.runtime.transformer.PreparedStatementParameterSetter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Runs one asynchronous insertion, see {@link RedGDatabaseUtil#insertDataIntoDatabaseAsync(List, DataSource, Executor, PreparedStatementParameterSetter)}.
+ * <p>
+ * The entities are split into chunks of at most {@link RedGDatabaseUtil#MAX_BATCH_SIZE} entities that share a prepared statement. Chunk {@code n + 1}
+ * gets extracted while chunk {@code n} is executed, so at most two chunks are materialized at the same time. The execution steps are chained and never
+ * overlap, so the connection is only ever used by one thread at a time.
+ * <p>
+ * If the database generates keys for some of the entities (see {@link RedGEntity#getGeneratedKeyColumns()}), the keys are read back after every
+ * chunk. Entities of later chunks may reference them, so in this case a chunk only gets extracted once the previous chunk is executed.
+ */
+class PipelinedInsertion {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PipelinedInsertion.class);
+
+    private final List<RedGEntity> entities;
+
+    private final DataSource dataSource;
+
+    private final Executor executor;
+
+    private final PreparedStatementParameterSetter preparedStatementParameterSetter;
+
+    private final CompletableFuture<List<TableInsertionTiming>> result = new CompletableFuture<>();
+
+    // only accessed by the sequential execution steps
+    private final Map<String, TimingAccumulator> timings = new LinkedHashMap<>();
+
+    private List<List<RedGEntity>> chunks;
+
+    private boolean overlapExtraction;
+
+    private Connection connection;
+
+    private boolean originalAutoCommit;
+
+    private PreparedStatementCache statementCache;
+
+    PipelinedInsertion(final List<RedGEntity> entities, final DataSource dataSource, final Executor executor,
+                       final PreparedStatementParameterSetter preparedStatementParameterSetter) {
+        this.entities = new ArrayList<>(entities);
+        this.dataSource = dataSource;
+        this.executor = executor;
+        this.preparedStatementParameterSetter = preparedStatementParameterSetter;
+    }
+
+    CompletableFuture<List<TableInsertionTiming>> start() {
+        CompletableFuture.runAsync(this::open, executor)
+                .thenCompose(v -> runFrom(0, CompletableFuture.completedFuture(null)))
+                .whenComplete((v, e) -> finish(e));
+        return result;
+    }
+
+    private void open() {
+        chunks = new ArrayList<>();
+        overlapExtraction = entities.stream().noneMatch(entity -> entity.getGeneratedKeyColumns().length > 0);
+        for (final List<RedGEntity> group : EntitySorter.groupEntitiesForInsert(entities)) {
+            for (int start = 0; start < group.size(); start += RedGDatabaseUtil.MAX_BATCH_SIZE) {
+                chunks.add(group.subList(start, Math.min(start + RedGDatabaseUtil.MAX_BATCH_SIZE, group.size())));
+            }
+        }
+        try {
+            connection = dataSource.getConnection();
+            originalAutoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            throw new InsertionFailedException("Could not get a database connection", e);
+        }
+        statementCache = new PreparedStatementCache(connection);
+    }
+
+    /**
+     * Starts the extraction of the chunk at the index and chains its execution after the execution of the previous chunk.
+     */
+    private CompletableFuture<Void> runFrom(final int index, final CompletableFuture<Void> previousExecution) {
+        if (index >= chunks.size()) {
+            return previousExecution;
+        }
+        final List<RedGEntity> chunkEntities = chunks.get(index);
+        final CompletableFuture<ExtractedChunk> extraction;
+        if (overlapExtraction) {
+            extraction = CompletableFuture.supplyAsync(() -> extract(chunkEntities), executor)
+                    .thenCombine(previousExecution, (chunk, ignored) -> chunk);
+        } else {
+            // the parameters can reference keys the database generates for the previous chunks
+            extraction = previousExecution.thenApplyAsync(ignored -> extract(chunkEntities), executor);
+        }
+        return extraction.thenCompose(chunk -> {
+            checkNotCancelled();
+            final CompletableFuture<Void> execution = CompletableFuture.runAsync(() -> execute(chunk), executor);
+            return runFrom(index + 1, execution);
+        });
+    }
+
+    private ExtractedChunk extract(final List<RedGEntity> chunk) {
+        checkNotCancelled();
+        final long start = System.nanoTime();
+        final InsertPlan.StatementGroup group = InsertPlan.StatementGroup.of(chunk);
+        return new ExtractedChunk(chunk, group, System.nanoTime() - start);
+    }
+
+    private void execute(final ExtractedChunk chunk) {
+        checkNotCancelled();
+        final long start = System.nanoTime();
+        RedGDatabaseUtil.executeStatementGroup(chunk.entities, chunk.group, statementCache, preparedStatementParameterSetter);
+        final TimingAccumulator timing = timings.computeIfAbsent(chunk.group.getTableName(), TimingAccumulator::new);
+        timing.rows += chunk.group.getRowCount();
+        timing.extractionNanos += chunk.extractionNanos;
+        timing.executionNanos += System.nanoTime() - start;
+    }
+
+    private void checkNotCancelled() {
+        if (result.isCancelled()) {
+            throw new CancellationException("The insertion was cancelled");
+        }
+    }
+
+    private void finish(final Throwable error) {
+        Throwable failure = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (connection != null) {
+            try {
+                if (failure == null && !result.isCancelled()) {
+                    connection.commit();
+                } else {
+                    connection.rollback();
+                }
+            } catch (SQLException e) {
+                if (failure == null) {
+                    failure = new InsertionFailedException("Could not commit the inserted data", e);
+                } else {
+                    LOG.warn("Could not roll back the insertion", e);
+                }
+            } finally {
+                if (statementCache != null) {
+                    statementCache.close();
+                }
+                try {
+                    connection.setAutoCommit(originalAutoCommit);
+                    connection.close();
+                } catch (SQLException e) {
+                    LOG.warn("Could not close the database connection", e);
+                }
+            }
+        }
+        if (failure != null) {
+            result.completeExceptionally(failure);
+        } else {
+            result.complete(timings.values().stream()
+                    .map(TimingAccumulator::toTiming)
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    private static final class ExtractedChunk {
+
+        private final List<RedGEntity> entities;
+
+        private final InsertPlan.StatementGroup group;
+
+        private final long extractionNanos;
+
+        private ExtractedChunk(final List<RedGEntity> entities, final InsertPlan.StatementGroup group, final long extractionNanos) {
+            this.entities = entities;
+            this.group = group;
+            this.extractionNanos = extractionNanos;
+        }
+    }
+
+    private static final class TimingAccumulator {
+
+        private final String tableName;
+
+        private int rows;
+
+        private long extractionNanos;
+
+        private long executionNanos;
+
+        private TimingAccumulator(final String tableName) {
+            this.tableName = tableName;
+        }
+
+        private TableInsertionTiming toTiming() {
+            return new TableInsertionTiming(tableName, rows, Duration.ofNanos(extractionNanos), Duration.ofNanos(executionNanos));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caches {@link PreparedStatement}s of a single {@link Connection}, keyed by their SQL string.
+ * <p>
+ * {@link RedGDatabaseUtil} uses a short-lived cache for every insertion call and closes it afterwards. To keep statements warm across many
+ * {@code insertDataIntoDatabase} calls, create a cache yourself, pass it to every call and close it when you are done. Like the connection itself,
+ * instances of this class are not thread-safe.
+ */
+public class PreparedStatementCache implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PreparedStatementCache.class);
+
+    private final Connection connection;
+
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+    private final InsertionListener insertionListener;
+
+    /**
+     * Creates a new, empty cache for the given connection. The cache does not take ownership of the connection, closing the cache only closes
+     * the cached statements.
+     *
+     * @param connection The connection to prepare the statements on
+     */
+    public PreparedStatementCache(final Connection connection) {
+        this(connection, InsertionListener.NONE);
+    }
+
+    /**
+     * Creates a new, empty cache for the given connection. Insertions using this cache report the executed statements to the listener.
+     *
+     * @param connection        The connection to prepare the statements on
+     * @param insertionListener The listener to notify about executed statements
+     */
+    public PreparedStatementCache(final Connection connection, final InsertionListener insertionListener) {
+        this.connection = connection;
+        this.insertionListener = insertionListener;
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public InsertionListener getInsertionListener() {
+        return insertionListener;
+    }
+
+    /**
+     * Returns the cached statement for the SQL string or prepares and caches a new one.
+     *
+     * @param sql The SQL string of the statement
+     * @return The prepared statement
+     * @throws SQLException If the statement could not be prepared
+     */
+    public PreparedStatement getStatement(final String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    /**
+     * Returns the cached statement for the SQL string or prepares and caches a new one that returns the values of the passed columns as generated
+     * keys. The statement is cached by its SQL string only, so the same SQL string must always be requested with the same columns.
+     *
+     * @param sql                 The SQL string of the statement
+     * @param generatedKeyColumns The names of the columns whose generated values should be returned
+     * @return The prepared statement
+     * @throws SQLException If the statement could not be prepared
+     * @see Connection#prepareStatement(String, String[])
+     */
+    public PreparedStatement getStatement(final String sql, final String[] generatedKeyColumns) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql, generatedKeyColumns);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    /**
+     * @return The number of currently cached statements
+     */
+    public int size() {
+        return statements.size();
+    }
+
+    /**
+     * Closes all cached statements and empties the cache. The cache can be used again afterwards.
+     */
+    @Override
+    public void close() {
+        for (final PreparedStatement statement : statements.values()) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                LOG.warn("Could not close prepared statement", e);
+            }
+        }
+        statements.clear();
+    }
+}
@@ -16,8 +16,10 @@
 
 package de.yamass.redg.runtime.jdbc;
 
+import de.yamass.redg.DatabaseType;
 import de.yamass.redg.runtime.AttributeMetaInfo;
 import de.yamass.redg.runtime.ExistingEntryMissingException;
+import de.yamass.redg.runtime.InsertPlan;
 import de.yamass.redg.runtime.InsertionFailedException;
 import de.yamass.redg.runtime.RedGEntity;
 import de.yamass.redg.runtime.transformer.DefaultPreparedStatementParameterSetter;
@@ -25,15 +27,20 @@ import de.yamass.redg.runtime.transformer.PreparedStatementParameterSetter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -41,6 +48,11 @@ public class RedGDatabaseUtil {
 
     private static final Logger LOG = LoggerFactory.getLogger(RedGDatabaseUtil.class);
 
+    /**
+     * The maximum number of rows sent to the database in one JDBC batch
+     */
+    static final int MAX_BATCH_SIZE = 1000;
+
     private RedGDatabaseUtil() {
 
     }
@@ -71,18 +83,61 @@ public class RedGDatabaseUtil {
      */
     public static void insertDataIntoDatabase(List<? extends RedGEntity> gObjects, final Connection connection,
                                               PreparedStatementParameterSetter preparedStatementParameterSetter) {
-        final Map<Class<? extends RedGEntity>, PreparedStatement> statementMap = gObjects.stream()
-                .filter(distinctByKey(RedGEntity::getClass))
-                .collect(HashMap::new, (m, obj) -> m.put(obj.getClass(), prepareStatement(connection).apply(obj)), HashMap::putAll);
+        insertDataIntoDatabase(gObjects, connection, preparedStatementParameterSetter, InsertionListener.NONE);
+    }
+
+    /**
+     * Inserts all data like {@link #insertDataIntoDatabase(List, Connection, PreparedStatementParameterSetter)} does and reports every executed
+     * statement and every inserted table to the listener.
+     *
+     * @param connection                       The database connection
+     * @param gObjects                         The entities that should be inserted into the database
+     * @param preparedStatementParameterSetter The prepared statement parameter setter that should be used to set the values on the prepared statements
+     * @param insertionListener                The listener to notify, e.g. an {@link InsertionStatisticsCollector}
+     * @throws ExistingEntryMissingException When an entry defined as "existing" (via redG.existingX()) cannot be found in the database
+     * @throws InsertionFailedException      When problems with the prepared statement occur
+     */
+    public static void insertDataIntoDatabase(List<? extends RedGEntity> gObjects, final Connection connection,
+                                              PreparedStatementParameterSetter preparedStatementParameterSetter,
+                                              final InsertionListener insertionListener) {
+        try (PreparedStatementCache statementCache = new PreparedStatementCache(connection, insertionListener)) {
+            insertDataIntoDatabase(gObjects, statementCache, preparedStatementParameterSetter);
+        }
+    }
+
+    /**
+     * Inserts all data previously prepared by RedG into the database, using (and filling) the passed statement cache. The statements are not
+     * closed after the insertion, so the same cache can be passed to further calls to reuse them. The caller is responsible for closing the cache.
+     * The executed statements are reported to the {@link PreparedStatementCache#getInsertionListener() listener of the cache}.
+     *
+     * @param gObjects                         The entities that should be inserted into the database
+     * @param statementCache                   The statement cache of the database connection
+     * @param preparedStatementParameterSetter The prepared statement parameter setter that should be used to set the values on the prepared statements
+     * @throws ExistingEntryMissingException When an entry defined as "existing" (via redG.existingX()) cannot be found in the database
+     * @throws InsertionFailedException      When problems with the prepared statement occur. This is often the result of a faulty data type mapping or
+     *                                       {@link PreparedStatementParameterSetter}
+     * @see RedGDatabaseUtil#insertDataIntoDatabase(List, Connection, PreparedStatementParameterSetter)
+     */
+    public static void insertDataIntoDatabase(List<? extends RedGEntity> gObjects, final PreparedStatementCache statementCache,
+                                              PreparedStatementParameterSetter preparedStatementParameterSetter) {
+        final Connection connection = statementCache.getConnection();
+        final InsertionListener listener = statementCache.getInsertionListener();
+        final boolean notifyListener = listener != InsertionListener.NONE;
+        String currentTable = null;
+        int tableRows = 0;
+        long tableExtractionNanos = 0;
+        long tableExecutionNanos = 0;
         for (final RedGEntity obj : gObjects) {
-            final PreparedStatement statement = statementMap.get(obj.getClass());
-            if (statement == null) {
-                throw new InsertionFailedException("Could not get prepared statement for class " + obj.getClass().getName());
-            }
+            final InsertBatchEvent event = new InsertBatchEvent();
+            event.begin();
+            final long start = System.nanoTime();
+            final String sql = obj.getPreparedStatementString();
+            final PreparedStatement statement = getStatement(statementCache, sql, obj);
             final Object[] values = obj.getPreparedStatementValues();
+            final AttributeMetaInfo[] preparedStatementValueMetaInfo = obj.getPreparedStatementValuesMetaInfos();
+            final long bindStart = System.nanoTime();
             for (int i = 0; i < values.length; i++) {
                 try {
-                    AttributeMetaInfo[] preparedStatementValueMetaInfo = obj.getPreparedStatementValuesMetaInfos();
                     preparedStatementParameterSetter.setParameter(
                             statement, i + 1, values[i], preparedStatementValueMetaInfo[i], connection);
                 } catch (SQLException e) {
@@ -90,28 +145,29 @@ public class RedGDatabaseUtil {
                 }
 
             }
+            final long executionStart = System.nanoTime();
+            final boolean resultType;
+            int updateCount = -1;
             try {
-                final boolean resultType = statement.execute();
+                resultType = statement.execute();
                 if (resultType) {
                     // resultType == true means that a ResultSet was returned that can be obtained by calling getResultSet()
                     // as an INSERT does not return a ResultSet, this means that this statement was used to check if a entry specified as already existing
                     // does really exist.
-                    final ResultSet rs = statement.getResultSet();
-                    rs.next();
-                    if (rs.getInt(1) != 1) {
-                        LOG.error(
-                                "The entry of type {} was specified as existing (PKs: {}) but could not be found/identified in the database."
-                                        + " The test query found {} matches. "
-                                        + " If you modelled the searched entity via RedG, you should call findSingleEntity() instead.",
-                                obj.getClass(), obj.getPreparedStatementValues(), rs.getInt(1));
-                        throw new ExistingEntryMissingException("The entry of type " + obj.getClass()
-                                + ", identified by " + Arrays.toString(obj.getPreparedStatementValues()) + " was not found!");
+                    try (ResultSet rs = statement.getResultSet()) {
+                        checkExistingEntry(rs, obj.getClass(), values);
                     }
 
                 } else {
                     // resultType == false means that no ResultSet was returned. Thus the executed statement was a regular insert.
-                    if (statement.getUpdateCount() != 1) {
-                        LOG.warn("Insert statement updated more that one database entry. {} entries were updated", statement.getUpdateCount());
+                    updateCount = statement.getUpdateCount();
+                    if (updateCount != 1) {
+                        LOG.warn("Insert statement updated more that one database entry. {} entries were updated", updateCount);
+                    }
+                    if (obj.getGeneratedKeyColumns().length > 0) {
+                        try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                            readGeneratedKeys(generatedKeys, Collections.singletonList(obj));
+                        }
                     }
                 }
                 statement.clearParameters();
@@ -119,18 +175,404 @@ public class RedGDatabaseUtil {
             } catch (SQLException e) {
                 throw new InsertionFailedException("SQL execution failed", e);
             }
+            final long end = System.nanoTime();
+            if (event.shouldCommit()) {
+                event.finish(getTableName(preparedStatementValueMetaInfo, obj.getClass()), sql, resultType, 1, updateCount);
+            }
+            if (!notifyListener) {
+                continue;
+            }
+            final String tableName = getTableName(preparedStatementValueMetaInfo, obj.getClass());
+            if (!tableName.equals(currentTable)) {
+                if (currentTable != null) {
+                    listener.tableInserted(new TableInsertionTiming(currentTable, tableRows, Duration.ofNanos(tableExtractionNanos),
+                            Duration.ofNanos(tableExecutionNanos)));
+                }
+                currentTable = tableName;
+                tableRows = 0;
+                tableExtractionNanos = 0;
+                tableExecutionNanos = 0;
+            }
+            tableRows++;
+            tableExtractionNanos += bindStart - start;
+            tableExecutionNanos += end - bindStart;
+            listener.statementExecuted(new StatementExecution(tableName, sql, resultType, 1, updateCount,
+                    Duration.ofNanos(executionStart - bindStart), Duration.ofNanos(end - executionStart)));
+        }
+        if (currentTable != null) {
+            listener.tableInserted(new TableInsertionTiming(currentTable, tableRows, Duration.ofNanos(tableExtractionNanos),
+                    Duration.ofNanos(tableExecutionNanos)));
+        }
+    }
+
+    /**
+     * Executes a precompiled {@link InsertPlan}. Every statement group of the plan is executed as JDBC batch (existence checks are executed one by
+     * one). The statements are taken from the passed cache and are not closed afterwards.
+     *
+     * @param plan           The plan to execute
+     * @param statementCache The statement cache of the database connection
+     * @throws ExistingEntryMissingException When an entry defined as "existing" (via redG.existingX()) cannot be found in the database
+     * @throws InsertionFailedException      When problems with the prepared statement occur. This is often the result of a faulty data type mapping or
+     *                                       {@link PreparedStatementParameterSetter}
+     */
+    public static void insertDataIntoDatabase(final InsertPlan plan, final PreparedStatementCache statementCache) {
+        for (final InsertPlan.StatementGroup group : plan.getStatementGroups()) {
+            executeStatementGroup(group, statementCache, plan.getPreparedStatementParameterSetter());
+        }
+    }
+
+    /**
+     * Inserts the entities asynchronously. The work is pipelined: while one chunk of entities is written to the database (bound and executed as
+     * JDBC batch), the statement parameters of the next chunk are extracted from the entities on another thread of the executor.
+     * Keys generated by the database (see {@link RedGEntity#getGeneratedKeyColumns()}) are read back into the entities. If there are any, the
+     * chunks are extracted one after another, since the next chunk can reference the keys of the current one.
+     * <p>
+     * A connection is taken from the data source for the whole insertion and all data is inserted in one transaction. It gets committed once all
+     * chunks are executed and rolled back if the insertion fails or the returned future is cancelled. Cancelling stops the insertion after the chunk
+     * that is currently executed.
+     *
+     * @param gObjects                         The entities to insert, in any order. They are sorted like {@link InsertPlan}s are
+     * @param dataSource                       The data source to get the connection from
+     * @param executor                         The executor running the extraction and execution steps. A single threaded executor works, but
+     *                                         disables the pipelining
+     * @param preparedStatementParameterSetter The prepared statement parameter setter that should be used to set the values on the prepared statements
+     * @return A future that completes with the timings of every table once all data is committed. If the insertion fails, it completes
+     * exceptionally with an {@link InsertionFailedException} or {@link ExistingEntryMissingException}
+     */
+    public static CompletableFuture<List<TableInsertionTiming>> insertDataIntoDatabaseAsync(final List<RedGEntity> gObjects, final DataSource dataSource,
+                                                                                           final Executor executor,
+                                                                                           final PreparedStatementParameterSetter preparedStatementParameterSetter) {
+        return new PipelinedInsertion(gObjects, dataSource, executor, preparedStatementParameterSetter).start();
+    }
+
+    /**
+     * Deletes the rows of the entities from the database, so the database is in the state it was in before the entities were inserted. Rows get
+     * deleted in reverse dependency order: per table and level of the insertion order, with one {@code DELETE ... WHERE pk IN (...)} for tables
+     * with a single column primary key and batched per-row deletes otherwise. Entities defined as "existing" are left alone. Only the inserted rows
+     * are deleted, so this can be used inside an open transaction or savepoint.
+     * <p>
+     * The recorded dataset fingerprints (see {@link DatasetFingerprint}) get cleared, so the next {@code insertDataIntoDatabaseIfChanged} inserts
+     * the data again.
+     *
+     * @param gObjects                         The inserted entities
+     * @param connection                       The JDBC connection
+     * @param preparedStatementParameterSetter The prepared statement parameter setter that should be used to set the key values on the statements
+     * @throws InsertionFailedException When the rows cannot be deleted
+     */
+    public static void deleteDataFromDatabase(final List<? extends RedGEntity> gObjects, final Connection connection,
+                                              final PreparedStatementParameterSetter preparedStatementParameterSetter) {
+        deleteDataFromDatabase(gObjects, connection, preparedStatementParameterSetter, false);
+    }
+
+    /**
+     * Deletes the rows of the entities from the database like {@link #deleteDataFromDatabase(List, Connection, PreparedStatementParameterSetter)}.
+     * If {@code truncateOwnedTables} is set, the caller guarantees that the tables of the entities contain no rows but the ones inserted by RedG.
+     * Tables that are not referenced by other tables and still contain as many rows as were inserted are truncated instead then.
+     * <p>
+     * {@code TRUNCATE} commits the current transaction on H2 and MariaDB, so the tables are only truncated if the connection is in auto commit
+     * mode. Otherwise the rows are deleted one by one as without the flag.
+     *
+     * @param gObjects                         The inserted entities
+     * @param connection                       The JDBC connection
+     * @param preparedStatementParameterSetter The prepared statement parameter setter that should be used to set the key values on the statements
+     * @param truncateOwnedTables              Whether the tables only contain rows inserted by RedG and may be truncated
+     * @throws InsertionFailedException When the rows cannot be deleted
+     */
+    public static void deleteDataFromDatabase(final List<? extends RedGEntity> gObjects, final Connection connection,
+                                              final PreparedStatementParameterSetter preparedStatementParameterSetter,
+                                              final boolean truncateOwnedTables) {
+        DatasetFingerprint.clear(connection);
+        new DatasetCleanup(gObjects, connection, preparedStatementParameterSetter, truncateOwnedTables).run();
+    }
+
+    /**
+     * Inserts the entities in two phases, for datasets whose foreign keys form cycles (e.g. a self referencing {@code MANAGER} column or two
+     * tables referencing each other). Nullable foreign keys that are part of a cycle between tables are inserted as {@code NULL} first, table by
+     * table as JDBC batches. Afterwards they are set with batched {@code UPDATE} statements per table, identifying the rows by their primary key.
+     * Cycles that only consist of not nullable foreign keys cannot be inserted this way either.
+     *
+     * @param gObjects                         The entities to insert, in any order
+     * @param connection                       The database connection
+     * @param preparedStatementParameterSetter The prepared statement parameter setter that should be used to set the values on the prepared statements
+     * @throws ExistingEntryMissingException When an entry defined as "existing" (via redG.existingX()) cannot be found in the database
+     * @throws InsertionFailedException      When problems with the prepared statements occur or the foreign keys cannot be deferred
+     */
+    public static void insertDataIntoDatabaseDeferringForeignKeys(final List<? extends RedGEntity> gObjects, final Connection connection,
+                                                                  final PreparedStatementParameterSetter preparedStatementParameterSetter) {
+        new DeferredForeignKeyInsertion(gObjects, connection, preparedStatementParameterSetter).run();
+    }
+
+    /**
+     * Inserts the entities while the foreign key checks of the database are relaxed: {@code SET REFERENTIAL_INTEGRITY FALSE} on H2 (for the whole
+     * database), {@code SET CONSTRAINTS ALL DEFERRED} on PostgreSQL and {@code SET FOREIGN_KEY_CHECKS = 0} on MariaDB (both for the session). The
+     * entities are inserted in any order, all rows sharing a prepared statement as one JDBC batch group, even if their foreign keys form cycles.
+     * The checks are enabled again afterwards, also if the insertion fails.
+     * <p>
+     * If the connection is in auto commit mode, everything is inserted in one transaction that is rolled back if the insertion fails or a foreign
+     * key is violated. PostgreSQL only defers constraints declared as {@code DEFERRABLE} and checks them when they are set back to
+     * {@code IMMEDIATE} at the end. H2 and MariaDB do not check the inserted rows when the checks are enabled again, so they get validated with one
+     * query per foreign key of the touched tables before the commit if {@code validate} is set. Note that {@code SET REFERENTIAL_INTEGRITY} commits
+     * an open transaction on H2.
+     * <p>
+     * Keys generated by the database (see {@link RedGEntity#getGeneratedKeyColumns()}) are only known once their row is inserted, so entities
+     * with generated keys should not be referenced by foreign keys in this mode.
+     *
+     * @param gObjects                         The entities to insert, in any order
+     * @param connection                       The database connection
+     * @param databaseType                     The type of the database, decides how the checks are relaxed. {@link DatabaseType#GENERIC} is not
+     *                                         supported
+     * @param validate                         Whether to check the foreign keys of the touched tables after the insertion
+     * @param preparedStatementParameterSetter The prepared statement parameter setter that should be used to set the values on the prepared statements
+     * @throws ExistingEntryMissingException When an entry defined as "existing" (via redG.existingX()) cannot be found in the database
+     * @throws InsertionFailedException      When problems with the prepared statements occur or a foreign key is violated after the insertion
+     * @throws IllegalArgumentException      When the database type is {@link DatabaseType#GENERIC}
+     */
+    public static void insertDataIntoDatabaseWithoutConstraintChecks(final List<? extends RedGEntity> gObjects, final Connection connection,
+                                                                     final DatabaseType databaseType, final boolean validate,
+                                                                     final PreparedStatementParameterSetter preparedStatementParameterSetter) {
+        new ConstraintRelaxedInsertion(gObjects, connection, databaseType, validate, preparedStatementParameterSetter).run();
+    }
+
+    /**
+     * Inserts the entities or updates their rows if they already exist, so a dataset can be inserted again into a database that still contains an
+     * older version of it. The rows are matched by their primary key and written as batched {@code MERGE INTO ... KEY} statements on H2,
+     * {@code INSERT ... ON CONFLICT DO UPDATE} on PostgreSQL and {@code INSERT ... ON DUPLICATE KEY UPDATE} on MariaDB.
+     * <p>
+     * Rows of tables without primary key are only inserted if no row with the same values exists. Rows whose primary key is generated by the
+     * database (see {@link RedGEntity#getGeneratedKeyColumns()}) cannot be matched and are always inserted. Rows that exist in the database but
+     * not in the dataset are left alone. The recorded dataset fingerprints (see {@link DatasetFingerprint}) get cleared.
+     *
+     * @param gObjects                         The entities to insert or update, in any order
+     * @param connection                       The database connection
+     * @param databaseType                     The type of the database, decides on the statements. {@link DatabaseType#GENERIC} is not supported
+     * @param preparedStatementParameterSetter The prepared statement parameter setter that should be used to set the values on the prepared statements
+     * @throws ExistingEntryMissingException When an entry defined as "existing" (via redG.existingX()) cannot be found in the database
+     * @throws InsertionFailedException      When problems with the prepared statements occur
+     * @throws IllegalArgumentException      When the database type is {@link DatabaseType#GENERIC}
+     */
+    public static void upsertDataIntoDatabase(final List<? extends RedGEntity> gObjects, final Connection connection, final DatabaseType databaseType,
+                                              final PreparedStatementParameterSetter preparedStatementParameterSetter) {
+        DatasetFingerprint.clear(connection);
+        new UpsertInsertion(gObjects, connection, databaseType, preparedStatementParameterSetter).run();
+    }
+
+    /**
+     * Brings the tables of the dataset to the state described by the entities, applying only the difference to their current contents. The rows
+     * of every table are read in pages ordered by primary key and compared with the entities: entities without row are inserted, rows with
+     * different values are updated and rows without entity are deleted, all as JDBC batches. Changed foreign keys of updated rows that may still
+     * reference deleted rows are detached first (set to {@code NULL} if nullable), then the deletes run (in reverse dependency order), followed by
+     * the inserts and updates. After a small change of a large dataset, this is much faster than deleting and inserting everything again.
+     * <p>
+     * Only tables that contain entities are synchronized and rows of entities defined as "existing" are left alone. Rows of tables without primary
+     * key are matched by all their columns; as they cannot be read in pages, these tables are loaded into memory completely. Values are compared
+     * after reading them as the Java type of the entity attribute, so a custom {@link PreparedStatementParameterSetter} that converts values may
+     * cause rows to be updated on every run. Rows whose key is generated by the database cannot be matched and are inserted again, while their old
+     * rows get deleted. The recorded dataset fingerprints (see {@link DatasetFingerprint}) get cleared.
+     *
+     * @param gObjects                         The entities describing the desired contents, in any order
+     * @param connection                       The database connection
+     * @param preparedStatementParameterSetter The prepared statement parameter setter that should be used to set the values on the prepared statements
+     * @return The number of inserted, updated and deleted rows per table, in insertion order of the tables
+     * @throws ExistingEntryMissingException When an entry defined as "existing" (via redG.existingX()) cannot be found in the database
+     * @throws InsertionFailedException      When problems with the statements occur, e.g. when a row that should be deleted is still referenced
+     */
+    public static List<TableDifference> synchronizeDataWithDatabase(final List<? extends RedGEntity> gObjects, final Connection connection,
+                                                                    final PreparedStatementParameterSetter preparedStatementParameterSetter) {
+        DatasetFingerprint.clear(connection);
+        return new DatasetSynchronization(gObjects, connection, preparedStatementParameterSetter).run();
+    }
+
+    /**
+     * Executes a single statement group, as batches of at most {@value #MAX_BATCH_SIZE} rows. Existence checks are executed one by one.
+     */
+    static void executeStatementGroup(final InsertPlan.StatementGroup group, final PreparedStatementCache statementCache,
+                                      final PreparedStatementParameterSetter preparedStatementParameterSetter) {
+        executeStatementGroup(group, statementCache, preparedStatementParameterSetter, Collections.emptyList());
+    }
+
+    /**
+     * Executes the statement group of the entities like {@link #executeStatementGroup(InsertPlan.StatementGroup, PreparedStatementCache,
+     * PreparedStatementParameterSetter)}. If the database generates values for columns of the entities (see {@link
+     * RedGEntity#getGeneratedKeyColumns()}), they are fetched after every batch and passed back to the entities, so entities inserted later can
+     * reference them.
+     *
+     * @param entities The entities the group was created from, in the same order
+     */
+    static void executeStatementGroup(final List<RedGEntity> entities, final InsertPlan.StatementGroup group, final PreparedStatementCache statementCache,
+                                      final PreparedStatementParameterSetter preparedStatementParameterSetter) {
+        final boolean readsGeneratedKeys = !group.isExistenceCheck() && entities.get(0).getGeneratedKeyColumns().length > 0;
+        executeStatementGroup(group, statementCache, preparedStatementParameterSetter, readsGeneratedKeys ? entities : Collections.emptyList());
+    }
+
+    /**
+     * Executes the statement group and reads the generated keys back into the passed entities after every batch, unless there are none.
+     * <p>
+     * The parameters of a statement group are extracted from the entities when the group is created, so the reported
+     * {@link TableInsertionTiming} has no extraction time, only the time spent binding and executing.
+     */
+    private static void executeStatementGroup(final InsertPlan.StatementGroup group, final PreparedStatementCache statementCache,
+                                              final PreparedStatementParameterSetter preparedStatementParameterSetter,
+                                              final List<RedGEntity> generatedKeyEntities) {
+        final PreparedStatement statement;
+        if (generatedKeyEntities.isEmpty()) {
+            statement = getStatement(statementCache, group.getStatement(), group.getEntityType());
+        } else {
+            try {
+                statement = statementCache.getStatement(group.getStatement(), generatedKeyEntities.get(0).getGeneratedKeyColumns());
+            } catch (SQLException e) {
+                throw new InsertionFailedException("Could not get prepared statement for class " + group.getEntityType().getName(), e);
+            }
+        }
+        final InsertionListener listener = statementCache.getInsertionListener();
+        final long groupStart = System.nanoTime();
+        if (group.isExistenceCheck()) {
+            for (int row = 0; row < group.getRowCount(); row++) {
+                final InsertBatchEvent event = new InsertBatchEvent();
+                event.begin();
+                final long bindStart = System.nanoTime();
+                setParameters(statement, group, row, preparedStatementParameterSetter, statementCache.getConnection());
+                final long executionStart = System.nanoTime();
+                try (ResultSet rs = statement.executeQuery()) {
+                    checkExistingEntry(rs, group.getEntityType(), group.getValues(row));
+                } catch (SQLException e) {
+                    throw new InsertionFailedException("SQL execution failed", e);
+                }
+                reportExecution(listener, event, group, 1, -1, bindStart, executionStart);
+            }
+        } else {
+            for (int start = 0; start < group.getRowCount(); start += MAX_BATCH_SIZE) {
+                final int end = Math.min(start + MAX_BATCH_SIZE, group.getRowCount());
+                final InsertBatchEvent event = new InsertBatchEvent();
+                event.begin();
+                final long bindStart = System.nanoTime();
+                addBatch(statement, group, start, end, preparedStatementParameterSetter, statementCache.getConnection());
+                final long executionStart = System.nanoTime();
+                final int updateCount = executeBatch(statement);
+                if (!generatedKeyEntities.isEmpty()) {
+                    try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                        readGeneratedKeys(generatedKeys, generatedKeyEntities.subList(start, end));
+                    } catch (SQLException e) {
+                        throw new InsertionFailedException("Could not read the generated keys", e);
+                    }
+                }
+                reportExecution(listener, event, group, end - start, updateCount, bindStart, executionStart);
+            }
+        }
+        if (listener != InsertionListener.NONE) {
+            listener.tableInserted(new TableInsertionTiming(group.getTableName(), group.getRowCount(), Duration.ZERO,
+                    Duration.ofNanos(System.nanoTime() - groupStart)));
         }
     }
 
-    private static Function<RedGEntity, PreparedStatement> prepareStatement(final Connection connection) {
-        return (gis) -> {
+    private static void reportExecution(final InsertionListener listener, final InsertBatchEvent event, final InsertPlan.StatementGroup group,
+                                        final int rowCount, final int updateCount, final long bindStart, final long executionStart) {
+        event.finish(group.getTableName(), group.getStatement(), group.isExistenceCheck(), rowCount, updateCount);
+        if (listener != InsertionListener.NONE) {
+            listener.statementExecuted(new StatementExecution(group.getTableName(), group.getStatement(), group.isExistenceCheck(), rowCount,
+                    updateCount, Duration.ofNanos(executionStart - bindStart), Duration.ofNanos(System.nanoTime() - executionStart)));
+        }
+    }
+
+    private static void readGeneratedKeys(final ResultSet generatedKeys, final List<RedGEntity> entities) throws SQLException {
+        for (final RedGEntity entity : entities) {
+            if (!generatedKeys.next()) {
+                throw new InsertionFailedException("The database returned fewer generated keys than rows were inserted into "
+                        + entity.getClass().getName());
+            }
+            entity.readGeneratedKeys(generatedKeys);
+        }
+    }
+
+    private static void setParameters(final PreparedStatement statement, final InsertPlan.StatementGroup group, final int row,
+                              final PreparedStatementParameterSetter preparedStatementParameterSetter, final Connection connection) {
+        for (int i = 0; i < group.getParameterCount(); i++) {
             try {
-                return connection.prepareStatement(gis.getPreparedStatementString());
+                preparedStatementParameterSetter.setParameter(statement, i + 1, group.getValue(row, i), group.getMetaInfo(i), connection);
             } catch (SQLException e) {
-                LOG.error("Could not create prepared statement", e);
-                return null;
+                throw new InsertionFailedException("Setting value for statement failed", e);
+            }
+        }
+    }
+
+    private static void addBatch(final PreparedStatement statement, final InsertPlan.StatementGroup group, final int start, final int end,
+                                 final PreparedStatementParameterSetter preparedStatementParameterSetter, final Connection connection) {
+        for (int row = start; row < end; row++) {
+            setParameters(statement, group, row, preparedStatementParameterSetter, connection);
+            try {
+                statement.addBatch();
+            } catch (SQLException e) {
+                throw new InsertionFailedException("Setting value for statement failed", e);
+            }
+        }
+    }
+
+    /**
+     * @return The total number of inserted rows, or -1 if the driver did not report it
+     */
+    private static int executeBatch(final PreparedStatement statement) {
+        try {
+            int totalUpdateCount = 0;
+            for (final int updateCount : statement.executeBatch()) {
+                if (updateCount == Statement.SUCCESS_NO_INFO) {
+                    totalUpdateCount = -1;
+                } else {
+                    if (updateCount != 1) {
+                        LOG.warn("Insert statement updated more that one database entry. {} entries were updated", updateCount);
+                    }
+                    if (totalUpdateCount >= 0) {
+                        totalUpdateCount += updateCount;
+                    }
+                }
             }
-        };
+            return totalUpdateCount;
+        } catch (SQLException e) {
+            throw new InsertionFailedException("SQL execution failed", e);
+        }
+    }
+
+    private static void checkExistingEntry(final ResultSet rs, final Class<?> type, final Object[] values) throws SQLException {
+        rs.next();
+        if (rs.getInt(1) != 1) {
+            LOG.error(
+                    "The entry of type {} was specified as existing (PKs: {}) but could not be found/identified in the database."
+                            + " The test query found {} matches. "
+                            + " If you modelled the searched entity via RedG, you should call findSingleEntity() instead.",
+                    type, values, rs.getInt(1));
+            throw new ExistingEntryMissingException("The entry of type " + type
+                    + ", identified by " + Arrays.toString(values) + " was not found!");
+        }
+    }
+
+    private static PreparedStatement getStatement(final PreparedStatementCache statementCache, final String sql, final RedGEntity entity) {
+        final String[] generatedKeyColumns = entity.getGeneratedKeyColumns();
+        if (generatedKeyColumns.length == 0) {
+            return getStatement(statementCache, sql, entity.getClass());
+        }
+        try {
+            return statementCache.getStatement(sql, generatedKeyColumns);
+        } catch (SQLException e) {
+            LOG.error("Could not create prepared statement", e);
+            throw new InsertionFailedException("Could not get prepared statement for class " + entity.getClass().getName(), e);
+        }
+    }
+
+    private static PreparedStatement getStatement(final PreparedStatementCache statementCache, final String sql, final Class<?> entityType) {
+        try {
+            return statementCache.getStatement(sql);
+        } catch (SQLException e) {
+            LOG.error("Could not create prepared statement", e);
+            throw new InsertionFailedException("Could not get prepared statement for class " + entityType.getName(), e);
+        }
+    }
+
+    /**
+     * Returns the table name like {@link InsertPlan.StatementGroup#getTableName()} does.
+     */
+    private static String getTableName(final AttributeMetaInfo[] metaInfos, final Class<?> entityType) {
+        if (metaInfos.length > 0 && metaInfos[0].getDbFullTableName() != null && !metaInfos[0].getDbFullTableName().isEmpty()) {
+            return metaInfos[0].getDbFullTableName();
+        }
+        return entityType.getSimpleName();
     }
 
     /**
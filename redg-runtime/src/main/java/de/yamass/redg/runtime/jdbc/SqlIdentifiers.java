@@ -0,0 +1,63 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Quoting of table and column names for statements RedG builds at runtime (the generated insert statements are quoted by the generator).
+ */
+final class SqlIdentifiers {
+
+    private SqlIdentifiers() {
+
+    }
+
+    /**
+     * @param connection The database connection
+     * @return The identifier quote string of the database or an empty string if the database does not support quoting
+     */
+    static String getQuote(final Connection connection) throws SQLException {
+        final String quote = connection.getMetaData().getIdentifierQuoteString();
+        return quote == null || quote.trim().isEmpty() ? "" : quote.trim();
+    }
+
+    /**
+     * Quotes a single (unqualified) name like a column name.
+     */
+    static String quoteName(final String name, final String quote) {
+        if (quote.isEmpty() || name.startsWith(quote)) {
+            return name;
+        }
+        return quote + name.replace(quote, quote + quote) + quote;
+    }
+
+    /**
+     * Quotes every part of a (optionally schema qualified) name. Names that are already quoted are left alone.
+     */
+    static String quoteQualifiedName(final String name, final String quote) {
+        if (quote.isEmpty() || name.startsWith(quote)) {
+            return name;
+        }
+        return Arrays.stream(name.split("\\."))
+                .map(part -> quote + part + quote)
+                .collect(Collectors.joining("."));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+import java.time.Duration;
+
+/**
+ * A single execution of a prepared statement during an insertion.
+ *
+ * @see InsertionListener#statementExecuted(StatementExecution)
+ */
+public class StatementExecution {
+
+    private final String tableName;
+
+    private final String statement;
+
+    private final boolean existenceCheck;
+
+    private final int rowCount;
+
+    private final int updateCount;
+
+    private final Duration bindTime;
+
+    private final Duration executionTime;
+
+    public StatementExecution(final String tableName, final String statement, final boolean existenceCheck, final int rowCount,
+                              final int updateCount, final Duration bindTime, final Duration executionTime) {
+        this.tableName = tableName;
+        this.statement = statement;
+        this.existenceCheck = existenceCheck;
+        this.rowCount = rowCount;
+        this.updateCount = updateCount;
+        this.bindTime = bindTime;
+        this.executionTime = executionTime;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getStatement() {
+        return statement;
+    }
+
+    /**
+     * @return {@code true} if the statement checked that an entity defined as "existing" is present instead of inserting it
+     */
+    public boolean isExistenceCheck() {
+        return existenceCheck;
+    }
+
+    /**
+     * @return The number of rows bound to the statement, i.e. the batch size
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return The number of rows the database reported as inserted, or -1 if it is unknown (e.g. for existence checks)
+     */
+    public int getUpdateCount() {
+        return updateCount;
+    }
+
+    /**
+     * @return The time spent setting the statement parameters
+     */
+    public Duration getBindTime() {
+        return bindTime;
+    }
+
+    /**
+     * @return The time spent executing the statement
+     */
+    public Duration getExecutionTime() {
+        return executionTime;
+    }
+
+    @Override
+    public String toString() {
+        return "StatementExecution{" +
+                "tableName='" + tableName + '\'' +
+                ", existenceCheck=" + existenceCheck +
+                ", rowCount=" + rowCount +
+                ", updateCount=" + updateCount +
+                ", bindTime=" + bindTime +
+                ", executionTime=" + executionTime +
+                '}';
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+/**
+ * The changes a synchronization applied to a single table.
+ *
+ * @see RedGDatabaseUtil#synchronizeDataWithDatabase(java.util.List, java.sql.Connection,
+ * de.yamass.redg.runtime.transformer.PreparedStatementParameterSetter)
+ */
+public class TableDifference {
+
+    private final String tableName;
+
+    private final int insertedRows;
+
+    private final int updatedRows;
+
+    private final int deletedRows;
+
+    public TableDifference(final String tableName, final int insertedRows, final int updatedRows, final int deletedRows) {
+        this.tableName = tableName;
+        this.insertedRows = insertedRows;
+        this.updatedRows = updatedRows;
+        this.deletedRows = deletedRows;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public int getInsertedRows() {
+        return insertedRows;
+    }
+
+    public int getUpdatedRows() {
+        return updatedRows;
+    }
+
+    public int getDeletedRows() {
+        return deletedRows;
+    }
+
+    /**
+     * @return {@code true} if the table already contained exactly the rows of the dataset
+     */
+    public boolean isUnchanged() {
+        return insertedRows == 0 && updatedRows == 0 && deletedRows == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "TableDifference{" +
+                "tableName='" + tableName + '\'' +
+                ", insertedRows=" + insertedRows +
+                ", updatedRows=" + updatedRows +
+                ", deletedRows=" + deletedRows +
+                '}';
+    }
+}
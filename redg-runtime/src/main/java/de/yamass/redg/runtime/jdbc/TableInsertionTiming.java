@@ -0,0 +1,76 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+import java.time.Duration;
+
+/**
+ * The time an asynchronous insertion spent on a single table.
+ *
+ * @see RedGDatabaseUtil#insertDataIntoDatabaseAsync(java.util.List, javax.sql.DataSource, java.util.concurrent.Executor,
+ * de.yamass.redg.runtime.transformer.PreparedStatementParameterSetter)
+ */
+public class TableInsertionTiming {
+
+    private final String tableName;
+
+    private final int rowCount;
+
+    private final Duration extractionTime;
+
+    private final Duration executionTime;
+
+    public TableInsertionTiming(final String tableName, final int rowCount, final Duration extractionTime, final Duration executionTime) {
+        this.tableName = tableName;
+        this.rowCount = rowCount;
+        this.extractionTime = extractionTime;
+        this.executionTime = executionTime;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return The time spent reading the statement parameters from the entities. Zero for statement groups executed as JDBC batches (e.g. of an
+     * {@link de.yamass.redg.runtime.InsertPlan}), as their parameters are extracted when the group is created, before the insertion starts
+     */
+    public Duration getExtractionTime() {
+        return extractionTime;
+    }
+
+    /**
+     * @return The time spent binding the parameters and executing the statements
+     */
+    public Duration getExecutionTime() {
+        return executionTime;
+    }
+
+    @Override
+    public String toString() {
+        return "TableInsertionTiming{" +
+                "tableName='" + tableName + '\'' +
+                ", rowCount=" + rowCount +
+                ", extractionTime=" + extractionTime +
+                ", executionTime=" + executionTime +
+                '}';
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+import de.yamass.redg.DatabaseType;
+import de.yamass.redg.models.ColumnModel;
+import de.yamass.redg.models.TableModel;
+import de.yamass.redg.runtime.AttributeMetaInfo;
+import de.yamass.redg.runtime.EntitySorter;
+import de.yamass.redg.runtime.InsertPlan;
+import de.yamass.redg.runtime.InsertionFailedException;
+import de.yamass.redg.runtime.RedGEntity;
+import de.yamass.redg.runtime.transformer.PreparedStatementParameterSetter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Inserts or updates a dataset, see {@link RedGDatabaseUtil#upsertDataIntoDatabase(List, Connection, DatabaseType, PreparedStatementParameterSetter)}.
+ * <p>
+ * Every statement group gets executed as batched {@code MERGE} (H2), {@code INSERT ... ON CONFLICT} (PostgreSQL) or {@code INSERT ... ON
+ * DUPLICATE KEY UPDATE} (MariaDB) statement, keyed on the primary key of the table. The entities need their table model for this, so entities
+ * generated by an older RedG version are rejected.
+ */
+class UpsertInsertion {
+
+    private final List<RedGEntity> entities;
+
+    private final Connection connection;
+
+    private final DatabaseType databaseType;
+
+    private final PreparedStatementParameterSetter preparedStatementParameterSetter;
+
+    private String quote;
+
+    UpsertInsertion(final List<? extends RedGEntity> entities, final Connection connection, final DatabaseType databaseType,
+                    final PreparedStatementParameterSetter preparedStatementParameterSetter) {
+        if (databaseType == DatabaseType.GENERIC) {
+            throw new IllegalArgumentException("Rows can only be merged on " + DatabaseType.H2 + ", " + DatabaseType.POSTGRES
+                    + " and " + DatabaseType.MARIADB);
+        }
+        this.entities = new ArrayList<>(entities);
+        this.connection = connection;
+        this.databaseType = databaseType;
+        this.preparedStatementParameterSetter = preparedStatementParameterSetter;
+    }
+
+    void run() {
+        try (PreparedStatementCache statementCache = new PreparedStatementCache(connection)) {
+            quote = SqlIdentifiers.getQuote(connection);
+            for (final List<RedGEntity> group : EntitySorter.groupEntitiesForInsert(entities)) {
+                final InsertPlan.StatementGroup statementGroup = InsertPlan.StatementGroup.of(group);
+                final TableModel tableModel = group.get(0).getEntityTableModel();
+                if (statementGroup.isExistenceCheck()) {
+                    RedGDatabaseUtil.executeStatementGroup(statementGroup, statementCache, preparedStatementParameterSetter);
+                } else if (tableModel == null) {
+                    throw new InsertionFailedException("The table model of " + group.get(0).getClass().getName()
+                            + " is unknown, its rows cannot be matched by primary key. Re-run the code generation.");
+                } else if (tableModel.getPrimaryKeyColumns().isEmpty()) {
+                    insertMissingRows(statementCache, group, statementGroup);
+                } else {
+                    final int[] keyIndices = getPrimaryKeyIndices(tableModel, group.get(0).getPreparedStatementValuesMetaInfos());
+                    if (keyIndices.length < tableModel.getPrimaryKeyColumns().size()) {
+                        // the database generates the key, so the rows cannot match existing rows
+                        RedGDatabaseUtil.executeStatementGroup(group, statementGroup, statementCache, preparedStatementParameterSetter);
+                    } else {
+                        executeBatched(statementCache.getStatement(getUpsertStatement(statementGroup, keyIndices)), statementGroup);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new InsertionFailedException("Could not merge the rows into the database", e);
+        }
+    }
+
+    private String getUpsertStatement(final InsertPlan.StatementGroup group, final int[] keyIndices) {
+        final List<String> columns = new ArrayList<>();
+        for (int i = 0; i < group.getParameterCount(); i++) {
+            columns.add(SqlIdentifiers.quoteName(group.getMetaInfo(i).getDbColumnName(), quote));
+        }
+        final List<String> keyColumns = IntStream.of(keyIndices).mapToObj(columns::get).collect(Collectors.toList());
+        final String table = SqlIdentifiers.quoteQualifiedName(group.getMetaInfo(0).getDbFullTableName(), quote);
+        return getUpsertStatement(databaseType, table, columns, keyColumns);
+    }
+
+    /**
+     * @param databaseType The type of the database, not {@link DatabaseType#GENERIC}
+     * @param table        The quoted table name
+     * @param columns      The quoted names of all columns of the statement
+     * @param keyColumns   The quoted names of the primary key columns, a subset of the columns
+     * @return The statement that inserts the row or updates the row with the same key
+     */
+    static String getUpsertStatement(final DatabaseType databaseType, final String table, final List<String> columns,
+                                     final List<String> keyColumns) {
+        final List<String> otherColumns = columns.stream().filter(column -> !keyColumns.contains(column)).collect(Collectors.toList());
+        final String values = columns.stream().map(column -> "?").collect(Collectors.joining(", "));
+
+        if (databaseType == DatabaseType.H2) {
+            return "MERGE INTO " + table + " (" + String.join(", ", columns) + ") KEY (" + String.join(", ", keyColumns) + ") VALUES (" + values + ")";
+        }
+        final String insert = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + values + ")";
+        if (databaseType == DatabaseType.POSTGRES) {
+            return insert + " ON CONFLICT (" + String.join(", ", keyColumns) + ") DO " + (otherColumns.isEmpty()
+                    ? "NOTHING"
+                    : "UPDATE SET " + otherColumns.stream().map(column -> column + " = EXCLUDED." + column).collect(Collectors.joining(", ")));
+        }
+        // a key column is assigned to itself if there is nothing else to update
+        return insert + " ON DUPLICATE KEY UPDATE " + (otherColumns.isEmpty() ? keyColumns.subList(0, 1) : otherColumns).stream()
+                .map(column -> column + " = VALUES(" + column + ")")
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Tables without primary key cannot be merged, so their rows are only inserted if no row with exactly the same values exists yet.
+     */
+    private void insertMissingRows(final PreparedStatementCache statementCache, final List<RedGEntity> rows,
+                                   final InsertPlan.StatementGroup group) throws SQLException {
+        final String table = SqlIdentifiers.quoteQualifiedName(group.getMetaInfo(0).getDbFullTableName(), quote);
+        final List<RedGEntity> missingRows = new ArrayList<>();
+        for (int row = 0; row < group.getRowCount(); row++) {
+            final List<String> conditions = new ArrayList<>();
+            for (int i = 0; i < group.getParameterCount(); i++) {
+                conditions.add(SqlIdentifiers.quoteName(group.getMetaInfo(i).getDbColumnName(), quote)
+                        + (group.getValue(row, i) == null ? " IS NULL" : " = ?"));
+            }
+            final PreparedStatement statement = statementCache.getStatement("SELECT COUNT(*) FROM " + table + " WHERE "
+                    + String.join(" AND ", conditions));
+            int parameterIndex = 1;
+            for (int i = 0; i < group.getParameterCount(); i++) {
+                if (group.getValue(row, i) != null) {
+                    preparedStatementParameterSetter.setParameter(statement, parameterIndex++, group.getValue(row, i), group.getMetaInfo(i), connection);
+                }
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                if (rs.getInt(1) == 0) {
+                    missingRows.add(rows.get(row));
+                }
+            }
+        }
+        if (!missingRows.isEmpty()) {
+            RedGDatabaseUtil.executeStatementGroup(missingRows, InsertPlan.StatementGroup.of(missingRows), statementCache,
+                    preparedStatementParameterSetter);
+        }
+    }
+
+    private void executeBatched(final PreparedStatement statement, final InsertPlan.StatementGroup group) throws SQLException {
+        int batchSize = 0;
+        for (int row = 0; row < group.getRowCount(); row++) {
+            for (int i = 0; i < group.getParameterCount(); i++) {
+                preparedStatementParameterSetter.setParameter(statement, i + 1, group.getValue(row, i), group.getMetaInfo(i), connection);
+            }
+            statement.addBatch();
+            if (++batchSize == RedGDatabaseUtil.MAX_BATCH_SIZE) {
+                statement.executeBatch();
+                batchSize = 0;
+            }
+        }
+        if (batchSize > 0) {
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * Returns the indices of the primary key columns in the statement values. Key columns that are missing in the statement (because the database
+     * generates them) are left out.
+     */
+    private static int[] getPrimaryKeyIndices(final TableModel tableModel, final AttributeMetaInfo[] metaInfos) {
+        final List<String> keyColumns = tableModel.getPrimaryKeyColumns().stream()
+                .map(ColumnModel::getDbName)
+                .collect(Collectors.toList());
+        return IntStream.range(0, metaInfos.length)
+                .filter(i -> keyColumns.contains(metaInfos[i].getDbColumnName()))
+                .toArray();
+    }
+}
@@ -216,6 +216,45 @@ class AbstractRedGTest {
         Assertions.assertEquals(20, rs.getInt(1));
     }
 
+    @Test
+    void testFork() {
+        MockRedG mockRedG = new MockRedG();
+        PreparedStatementParameterSetter setter = (statement, parameterIndex, value, attributeMetaInfo, connection) -> { };
+        mockRedG.setPreparedStatementParameterSetter(setter);
+        MockEntity1 shared = new MockEntity1();
+        mockRedG.addEntity(shared);
+
+        MockRedG fork = mockRedG.fork();
+        MockEntity1 added = new MockEntity1();
+        fork.addEntity(added);
+
+        assertThat(fork.getEntities()).containsExactly(shared, added);
+        assertThat(mockRedG.getEntities()).containsExactly(shared);
+        Assertions.assertSame(setter, fork.getPreparedStatementParameterSetter());
+        // entities that are not shared can be changed directly
+        Assertions.assertSame(added, fork.edit(added));
+        Assertions.assertSame(shared, mockRedG.edit(shared));
+        // the mock entity does not implement copying
+        assertThatThrownBy(() -> fork.edit(shared))
+                .isInstanceOf(UnsupportedOperationException.class);
+        // the failed copy leaves the entity shared
+        assertThatThrownBy(() -> fork.edit(shared))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThat(fork.getEntities()).containsExactly(shared, added);
+    }
+
+    @Test
+    void testCloneSubgraph_NotCopyable() {
+        MockRedG mockRedG = new MockRedG();
+        MockEntity1 root = new MockEntity1();
+        mockRedG.addEntity(root);
+
+        assertThatThrownBy(() -> mockRedG.cloneSubgraph(root, 2))
+                .isInstanceOf(UnsupportedOperationException.class)
+                .hasMessageContaining("Re-run the code generation");
+        assertThat(mockRedG.getEntities()).containsExactly(root);
+    }
+
     private Connection getConnection(String suffix) throws ClassNotFoundException, SQLException {
         Class.forName("org.h2.Driver");
         return DriverManager.getConnection("jdbc:h2:mem:abstractredgtest-" + suffix, "", "");
@@ -0,0 +1,99 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime;
+
+import de.yamass.redg.runtime.mocks.MockEntity1;
+import de.yamass.redg.runtime.mocks.MockRedG;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+class DatasetScopeTest {
+
+    @Test
+    void testScopesAreRolledBack() throws Exception {
+        Connection connection = getConnection("rollback");
+        connection.createStatement().execute("CREATE TABLE TEST (CONTENT VARCHAR2(50 CHARACTERS))");
+
+        MockRedG redG = new MockRedG();
+        redG.addEntity(new MockEntity1());
+        redG.insertDataIntoDatabase(connection);
+
+        try (DatasetScope scope = redG.openScope(connection)) {
+            redG.addEntity(new MockEntity1());
+            redG.addEntity(new MockEntity1());
+            scope.insertDataIntoDatabase();
+            Assertions.assertEquals(2, scope.getEntities().size());
+            Assertions.assertEquals(3, countRows(connection));
+
+            try (DatasetScope nested = redG.openScope(connection)) {
+                redG.addEntity(new MockEntity1());
+                nested.insertDataIntoDatabase();
+                Assertions.assertEquals(4, countRows(connection));
+            }
+            Assertions.assertEquals(3, redG.getEntities().size());
+            Assertions.assertEquals(3, countRows(connection));
+
+            // entities added after the nested scope was closed still belong to the outer scope
+            redG.addEntity(new MockEntity1());
+            scope.insertDataIntoDatabase();
+            Assertions.assertEquals(4, countRows(connection));
+        }
+
+        Assertions.assertEquals(1, redG.getEntities().size());
+        Assertions.assertEquals(1, countRows(connection));
+        Assertions.assertTrue(connection.getAutoCommit());
+    }
+
+    @Test
+    void testNestedScopeHasToBeClosedFirst() throws Exception {
+        Connection connection = getConnection("nesting");
+
+        MockRedG redG = new MockRedG();
+        DatasetScope outer = redG.openScope(connection);
+        DatasetScope inner = redG.openScope(connection);
+
+        assertThatThrownBy(outer::close)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("nested dataset scope");
+
+        inner.close();
+        outer.close();
+        assertThatThrownBy(outer::insertDataIntoDatabase)
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private int countRows(final Connection connection) throws SQLException {
+        Statement stmt = connection.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM TEST");
+        rs.next();
+        return rs.getInt(1);
+    }
+
+    private Connection getConnection(final String suffix) throws ClassNotFoundException, SQLException {
+        Class.forName("org.h2.Driver");
+        return DriverManager.getConnection("jdbc:h2:mem:scope-" + suffix, "", "");
+    }
+}
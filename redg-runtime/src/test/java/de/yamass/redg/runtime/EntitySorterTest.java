@@ -57,6 +57,32 @@ class EntitySorterTest {
         ), sortedEntities);
     }
 
+    @Test
+    void entitiesAreGroupedByLevel() throws Exception {
+        Entity existingEntity = new ExistingEntity("existingEntity");
+        Entity leafEntity1 = new Entity("leafEntity1");
+        Entity leafEntity2 = new Entity("leafEntity2");
+        Entity nonLeaf1 = new Entity("nonLeaf1", leafEntity1, existingEntity);
+        Entity nonLeaf2 = new Entity("nonLeaf2", leafEntity2);
+        Entity nonLeaf3 = new Entity("nonLeaf3", nonLeaf1);
+
+        List<List<RedGEntity>> groups = EntitySorter.groupEntitiesForInsert(Arrays.asList(
+                nonLeaf3,
+                nonLeaf2,
+                leafEntity1,
+                nonLeaf1,
+                existingEntity,
+                leafEntity2
+        ));
+
+        Assertions.assertEquals(Arrays.asList(
+                Arrays.asList(existingEntity),
+                Arrays.asList(leafEntity1, leafEntity2),
+                Arrays.asList(nonLeaf2, nonLeaf1),
+                Arrays.asList(nonLeaf3)
+        ), groups);
+    }
+
     @Test
     void entitiesSelfReferenceTest() throws Exception {
         Entity root = new Entity("root");
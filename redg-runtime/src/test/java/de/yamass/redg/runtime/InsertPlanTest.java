@@ -0,0 +1,115 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime;
+
+import de.yamass.redg.runtime.mocks.ExistingMockEntity1;
+import de.yamass.redg.runtime.mocks.MockEntity1;
+import de.yamass.redg.runtime.mocks.MockEntity4;
+import de.yamass.redg.runtime.mocks.MockRedG;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+class InsertPlanTest {
+
+    @Test
+    void testCompile_GroupsByStatement() {
+        MockRedG mockRedG = new MockRedG();
+        IntStream.rangeClosed(1, 20).forEach(i -> mockRedG.addEntity(new MockEntity1()));
+        IntStream.rangeClosed(1, 5).forEach(i -> mockRedG.addEntity(new MockEntity4()));
+
+        InsertPlan plan = mockRedG.compile();
+
+        Assertions.assertEquals(25, plan.getEntityCount());
+        Assertions.assertEquals(2, plan.getStatementGroups().size());
+        InsertPlan.StatementGroup group = plan.getStatementGroups().get(0);
+        Assertions.assertEquals("INSERT INTO TEST VALUES (?)", group.getStatement());
+        Assertions.assertEquals(MockEntity1.class, group.getEntityType());
+        Assertions.assertEquals(20, group.getRowCount());
+        Assertions.assertEquals(1, group.getParameterCount());
+        Assertions.assertEquals("obj1", group.getValue(0, 0));
+        Assertions.assertFalse(group.isExistenceCheck());
+    }
+
+    @Test
+    void testCompile_IsNotAffectedByLaterChanges() {
+        MockRedG mockRedG = new MockRedG();
+        mockRedG.addEntity(new MockEntity1());
+
+        InsertPlan plan = mockRedG.compile();
+        mockRedG.addEntity(new MockEntity1());
+        plan.getStatementGroups().get(0).getValues(0)[0] = "changed";
+
+        Assertions.assertEquals(1, plan.getEntityCount());
+        Assertions.assertEquals("obj1", plan.getStatementGroups().get(0).getValue(0, 0));
+        assertThatThrownBy(() -> plan.getStatementGroups().clear())
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void testExecute_MultipleConnections() throws Exception {
+        MockRedG mockRedG = new MockRedG();
+        IntStream.rangeClosed(1, 20).forEach(i -> mockRedG.addEntity(new MockEntity1()));
+        InsertPlan plan = mockRedG.compile();
+
+        for (String suffix : new String[]{"multi1", "multi2"}) {
+            Connection connection = getConnection(suffix);
+            Statement stmt = connection.createStatement();
+            stmt.execute("CREATE TABLE TEST (CONTENT VARCHAR2(50 CHARACTERS))");
+
+            plan.execute(connection);
+            plan.execute(connection);
+
+            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM TEST");
+            rs.next();
+            Assertions.assertEquals(40, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void testExecute_ExistingEntity() throws Exception {
+        Connection connection = getConnection("existing");
+        Statement stmt = connection.createStatement();
+        stmt.execute("CREATE TABLE TEST (CONTENT VARCHAR2(50 CHARACTERS))");
+
+        MockRedG mockRedG = new MockRedG();
+        mockRedG.addEntity(new ExistingMockEntity1());
+        InsertPlan plan = mockRedG.compile();
+        Assertions.assertTrue(plan.getStatementGroups().get(0).isExistenceCheck());
+
+        assertThatThrownBy(() -> plan.execute(connection))
+                .isInstanceOf(ExistingEntryMissingException.class);
+
+        stmt.execute("INSERT INTO TEST VALUES ('obj1')");
+        plan.execute(connection);
+    }
+
+    private Connection getConnection(String suffix) throws ClassNotFoundException, SQLException {
+        Class.forName("org.h2.Driver");
+        return DriverManager.getConnection("jdbc:h2:mem:insertplantest-" + suffix, "", "");
+    }
+
+}
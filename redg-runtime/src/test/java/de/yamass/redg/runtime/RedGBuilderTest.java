@@ -90,6 +90,10 @@ class RedGBuilderTest {
 		Assertions.assertEquals(dummyFactory, redG.getDummyFactory());
 		Assertions.assertEquals(setter, redG.getPreparedStatementParameterSetter());
 		Assertions.assertEquals(formatter, redG.getSqlValuesFormatter());
+		// the custom dummy factory does not implement forking
+		assertThatThrownBy(() -> redG.fork())
+				.isInstanceOf(UnsupportedOperationException.class)
+				.hasMessageContaining("does not support forking");
 	}
 
 	@Test
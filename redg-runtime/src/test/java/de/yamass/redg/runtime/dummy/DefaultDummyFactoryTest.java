@@ -20,6 +20,11 @@ import de.yamass.redg.runtime.AbstractRedG;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.spy;
 
@@ -58,6 +63,46 @@ class DefaultDummyFactoryTest {
 		Assertions.assertEquals(entity1, entity2);
 	}
 
+	@Test
+	void testDiscardDummies() throws Exception {
+		AbstractRedG redG = spy(AbstractRedG.class);
+
+		DefaultDummyFactory factory = new DefaultDummyFactory();
+		TestRedGEntity1 entity1 = factory.getDummy(redG, TestRedGEntity1.class);
+
+		factory.discardDummies(Collections.singletonList(new TestRedGEntity1()));
+		Assertions.assertSame(entity1, factory.getDummy(redG, TestRedGEntity1.class));
+
+		factory.discardDummies(Collections.singletonList(entity1));
+		Assertions.assertFalse(factory.isDummy(entity1));
+		Assertions.assertNotSame(entity1, factory.getDummy(redG, TestRedGEntity1.class));
+	}
+
+	@Test
+	void testIsDummy_otherEntity() throws Exception {
+		AbstractRedG redG = spy(AbstractRedG.class);
+
+		DefaultDummyFactory factory = new DefaultDummyFactory();
+		factory.getDummy(redG, TestRedGEntity1.class);
+
+		Assertions.assertFalse(factory.isDummy(new TestRedGEntity1()));
+		Assertions.assertFalse(new DefaultDummyFactory().isDummy(redG.findSingleEntity(TestRedGEntity1.class, e -> true)));
+	}
+
+	@Test
+	void testGetDummy_concurrentAccess() throws Exception {
+		AbstractRedG redG = spy(AbstractRedG.class);
+
+		DefaultDummyFactory factory = new DefaultDummyFactory();
+
+		List<TestRedGEntity2> dummies = IntStream.range(0, 100).parallel()
+				.mapToObj(i -> factory.getDummy(redG, TestRedGEntity2.class))
+				.collect(Collectors.toList());
+
+		Assertions.assertTrue(dummies.stream().allMatch(d -> d == dummies.get(0)));
+		Assertions.assertEquals(2, redG.getEntities().size());
+	}
+
 	@Test
 	void testGetDummy_transitiveDependencies() throws Exception {
 		AbstractRedG redG = spy(AbstractRedG.class);
@@ -0,0 +1,123 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+class DatabaseSnapshotTest {
+
+	@Test
+	void testCaptureAndRestore() throws Exception {
+		Connection connection = getConnection("restore");
+		Statement stmt = connection.createStatement();
+		stmt.execute("CREATE TABLE PARENT (ID INT PRIMARY KEY, NAME VARCHAR(50), DATA BLOB)");
+		stmt.execute("CREATE TABLE CHILD (ID INT PRIMARY KEY, PARENT_ID INT NOT NULL REFERENCES PARENT(ID), NOTE CLOB)");
+		stmt.execute("CREATE TABLE OTHER (ID INT PRIMARY KEY)");
+		for (int i = 0; i < 1500; i++) {
+			stmt.execute("INSERT INTO PARENT VALUES (" + i + ", " + (i % 2 == 0 ? "'P" + i + "'" : "NULL") + ", X'0A0B')");
+			stmt.execute("INSERT INTO CHILD VALUES (" + i + ", " + i + ", 'note " + i + "')");
+		}
+		stmt.execute("INSERT INTO OTHER VALUES (1)");
+
+		DatabaseSnapshot snapshot = DatabaseSnapshot.capture(connection, Arrays.asList("PUBLIC.PARENT", "CHILD"));
+		Assertions.assertEquals(Arrays.asList("\"PUBLIC\".\"PARENT\"", "\"CHILD\""), snapshot.getTableNames());
+		Assertions.assertEquals(3000, snapshot.getRowCount());
+
+		stmt.execute("DELETE FROM CHILD WHERE ID > 10");
+		stmt.execute("UPDATE PARENT SET NAME = 'changed'");
+		stmt.execute("INSERT INTO PARENT VALUES (5000, 'new', NULL)");
+		stmt.execute("INSERT INTO OTHER VALUES (2)");
+
+		snapshot.restore(connection);
+
+		assertCount(stmt, "SELECT COUNT(*) FROM PARENT", 1500);
+		assertCount(stmt, "SELECT COUNT(*) FROM CHILD", 1500);
+		assertCount(stmt, "SELECT COUNT(*) FROM PARENT WHERE NAME = 'changed'", 0);
+		assertCount(stmt, "SELECT COUNT(*) FROM PARENT WHERE NAME IS NULL", 750);
+		assertCount(stmt, "SELECT COUNT(*) FROM CHILD WHERE NOTE = 'note 1499'", 1);
+		assertCount(stmt, "SELECT COUNT(*) FROM OTHER", 2);
+		ResultSet rs = stmt.executeQuery("SELECT DATA FROM PARENT WHERE ID = 7");
+		rs.next();
+		Assertions.assertArrayEquals(new byte[]{10, 11}, rs.getBytes(1));
+
+		// a snapshot can be restored any number of times
+		stmt.execute("DELETE FROM CHILD");
+		snapshot.restore(connection);
+		assertCount(stmt, "SELECT COUNT(*) FROM CHILD", 1500);
+	}
+
+	@Test
+	void testRestore_ResetsIdentityColumns() throws Exception {
+		Connection connection = getConnection("identity");
+		Statement stmt = connection.createStatement();
+		stmt.execute("CREATE TABLE ITEM (ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, NAME VARCHAR(50))");
+		stmt.execute("INSERT INTO ITEM (NAME) VALUES ('a')");
+		stmt.execute("INSERT INTO ITEM (NAME) VALUES ('b')");
+		stmt.execute("INSERT INTO ITEM (ID, NAME) VALUES (10, 'c')");
+
+		DatabaseSnapshot snapshot = DatabaseSnapshot.capture(connection, Arrays.asList("ITEM"));
+		stmt.execute("DELETE FROM ITEM");
+		stmt.execute("ALTER TABLE ITEM ALTER COLUMN ID RESTART WITH 1");
+
+		snapshot.restore(connection);
+
+		// new rows continue after the highest restored key instead of colliding with the restored rows
+		stmt.execute("INSERT INTO ITEM (NAME) VALUES ('d')");
+		assertCount(stmt, "SELECT COUNT(*) FROM ITEM", 4);
+		assertCount(stmt, "SELECT ID FROM ITEM WHERE NAME = 'd'", 11);
+	}
+
+	@Test
+	void testRestore_SelfReference() throws Exception {
+		Connection connection = getConnection("self-reference");
+		Statement stmt = connection.createStatement();
+		stmt.execute("CREATE TABLE EMPLOYEE (ID INT PRIMARY KEY, MANAGER_ID INT REFERENCES EMPLOYEE(ID))");
+		// the manager has a higher key than the employees reporting to them
+		stmt.execute("INSERT INTO EMPLOYEE VALUES (10, NULL)");
+		stmt.execute("INSERT INTO EMPLOYEE VALUES (1, 10)");
+		stmt.execute("INSERT INTO EMPLOYEE VALUES (2, 1)");
+
+		DatabaseSnapshot snapshot = DatabaseSnapshot.capture(connection, Arrays.asList("EMPLOYEE"));
+		stmt.execute("DELETE FROM EMPLOYEE WHERE ID = 2");
+
+		snapshot.restore(connection);
+
+		assertCount(stmt, "SELECT COUNT(*) FROM EMPLOYEE", 3);
+		assertCount(stmt, "SELECT MANAGER_ID FROM EMPLOYEE WHERE ID = 1", 10);
+		// the checks are enabled again afterwards
+		Assertions.assertThrows(SQLException.class, () -> stmt.execute("INSERT INTO EMPLOYEE VALUES (3, 99)"));
+	}
+
+	private void assertCount(final Statement stmt, final String query, final int expected) throws SQLException {
+		ResultSet rs = stmt.executeQuery(query);
+		rs.next();
+		Assertions.assertEquals(expected, rs.getInt(1));
+	}
+
+	private Connection getConnection(final String suffix) throws ClassNotFoundException, SQLException {
+		Class.forName("org.h2.Driver");
+		return DriverManager.getConnection("jdbc:h2:mem:snapshot-" + suffix, "", "");
+	}
+}
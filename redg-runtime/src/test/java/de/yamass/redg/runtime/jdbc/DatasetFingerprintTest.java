@@ -0,0 +1,86 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+import de.yamass.redg.runtime.mocks.MockEntity1;
+import de.yamass.redg.runtime.mocks.MockEntity4;
+import de.yamass.redg.runtime.mocks.MockRedG;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+
+class DatasetFingerprintTest {
+
+	@Test
+	void testCalculate_Stable() {
+		String fingerprint = DatasetFingerprint.calculate(Arrays.asList(new MockEntity1(), new MockEntity4()));
+
+		Assertions.assertEquals(64, fingerprint.length());
+		Assertions.assertEquals(fingerprint, DatasetFingerprint.calculate(Arrays.asList(new MockEntity1(), new MockEntity4())));
+		Assertions.assertNotEquals(fingerprint, DatasetFingerprint.calculate(Arrays.asList(new MockEntity4(), new MockEntity1())));
+		Assertions.assertNotEquals(fingerprint, DatasetFingerprint.calculate(Collections.singletonList(new MockEntity1())));
+	}
+
+	@Test
+	void testRecord() throws Exception {
+		Connection connection = getConnection("record");
+
+		Assertions.assertFalse(DatasetFingerprint.isRecorded(connection, "abc"));
+		DatasetFingerprint.record(connection, "abc");
+		Assertions.assertTrue(DatasetFingerprint.isRecorded(connection, "abc"));
+		Assertions.assertFalse(DatasetFingerprint.isRecorded(connection, "def"));
+		DatasetFingerprint.record(connection, "def");
+		Assertions.assertTrue(DatasetFingerprint.isRecorded(connection, "def"));
+		DatasetFingerprint.clear(connection);
+		Assertions.assertFalse(DatasetFingerprint.isRecorded(connection, "abc"));
+		Assertions.assertFalse(DatasetFingerprint.isRecorded(connection, "def"));
+	}
+
+	@Test
+	void testInsertDataIntoDatabaseIfChanged() throws Exception {
+		Connection connection = getConnection("ifchanged");
+		Statement stmt = connection.createStatement();
+		stmt.execute("CREATE TABLE TEST (CONTENT VARCHAR2(50 CHARACTERS))");
+
+		MockRedG redG = new MockRedG();
+		redG.addEntity(new MockEntity1());
+		Assertions.assertTrue(redG.insertDataIntoDatabaseIfChanged(connection));
+
+		MockRedG sameRedG = new MockRedG();
+		sameRedG.addEntity(new MockEntity1());
+		Assertions.assertFalse(sameRedG.insertDataIntoDatabaseIfChanged(connection));
+
+		sameRedG.addEntity(new MockEntity1());
+		Assertions.assertTrue(sameRedG.insertDataIntoDatabaseIfChanged(connection));
+
+		ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM TEST");
+		rs.next();
+		Assertions.assertEquals(3, rs.getInt(1));
+	}
+
+	private Connection getConnection(final String suffix) throws ClassNotFoundException, SQLException {
+		Class.forName("org.h2.Driver");
+		return DriverManager.getConnection("jdbc:h2:mem:fingerprint-" + suffix, "", "");
+	}
+}
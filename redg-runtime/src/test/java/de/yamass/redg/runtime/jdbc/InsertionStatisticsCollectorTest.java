@@ -0,0 +1,91 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+class InsertionStatisticsCollectorTest {
+
+	@Test
+	void testStatementExecuted() {
+		InsertionStatisticsCollector collector = new InsertionStatisticsCollector();
+		collector.statementExecuted(new StatementExecution("A", "INSERT A", false, 1000, 1000, Duration.ofMillis(2), Duration.ofMillis(5)));
+		collector.statementExecuted(new StatementExecution("A", "INSERT A", false, 10, -1, Duration.ofMillis(1), Duration.ofMillis(1)));
+		collector.statementExecuted(new StatementExecution("B", "SELECT B", true, 1, -1, Duration.ofMillis(1), Duration.ofMillis(3)));
+
+		List<InsertionStatisticsCollector.TableStatistics> statistics = collector.getTableStatistics();
+		Assertions.assertEquals(2, statistics.size());
+		InsertionStatisticsCollector.TableStatistics a = statistics.get(0);
+		Assertions.assertEquals("A", a.getTableName());
+		Assertions.assertEquals(1010, a.getRowCount());
+		Assertions.assertEquals(2, a.getBatchCount());
+		Assertions.assertEquals(1000, a.getMaxBatchSize());
+		Assertions.assertEquals(1000, a.getUpdateCount());
+		Assertions.assertEquals(Duration.ofMillis(3), a.getBindTime());
+		Assertions.assertEquals(Duration.ofMillis(6), a.getExecutionTime());
+		InsertionStatisticsCollector.TableStatistics b = statistics.get(1);
+		Assertions.assertEquals(0, b.getRowCount());
+		Assertions.assertEquals(1, b.getExistenceCheckCount());
+		Assertions.assertEquals(Duration.ofMillis(4), b.getExistenceCheckTime());
+
+		collector.tableInserted(new TableInsertionTiming("A", 1010, Duration.ofMillis(3), Duration.ofMillis(10)));
+		collector.tableInserted(new TableInsertionTiming("A", 5, Duration.ZERO, Duration.ofMillis(2)));
+		a = collector.getTableStatistics().get(0);
+		Assertions.assertEquals(1010, a.getRowCount());
+		Assertions.assertEquals(Duration.ofMillis(3), a.getExtractionTime());
+		Assertions.assertEquals(Duration.ofMillis(12), a.getInsertionTime());
+
+		collector.reset();
+		Assertions.assertTrue(collector.getTableStatistics().isEmpty());
+	}
+
+	@Test
+	void testGetSummary() {
+		InsertionStatisticsCollector collector = new InsertionStatisticsCollector();
+		collector.statementExecuted(new StatementExecution("FAST", "INSERT", false, 1, 1, Duration.ofMillis(1), Duration.ofMillis(1)));
+		collector.statementExecuted(new StatementExecution("SLOW_TABLE", "INSERT", false, 5, 5, Duration.ofMillis(1), Duration.ofMillis(40)));
+
+		String[] lines = collector.getSummary().split("\\R");
+		Assertions.assertEquals(3, lines.length);
+		Assertions.assertTrue(lines[0].startsWith("Table"));
+		Assertions.assertTrue(lines[0].contains("Updated"));
+		Assertions.assertTrue(lines[0].contains("Checks "));
+		Assertions.assertTrue(lines[0].contains("Extract ms"));
+		Assertions.assertTrue(lines[1].startsWith("SLOW_TABLE"));
+		Assertions.assertTrue(lines[1].contains("40.0"));
+		Assertions.assertTrue(lines[2].startsWith("FAST"));
+	}
+
+	@Test
+	void testToJson() throws Exception {
+		InsertionStatisticsCollector collector = new InsertionStatisticsCollector();
+		collector.statementExecuted(new StatementExecution("A", "INSERT A", false, 3, 3, Duration.ofNanos(10), Duration.ofNanos(20)));
+
+		JsonNode json = new ObjectMapper().readTree(collector.toJson());
+		Assertions.assertEquals(1, json.size());
+		Assertions.assertEquals("A", json.get(0).get("table").asText());
+		Assertions.assertEquals(3, json.get(0).get("rows").asInt());
+		Assertions.assertEquals(10, json.get(0).get("bindNanos").asLong());
+		Assertions.assertEquals(20, json.get(0).get("executionNanos").asLong());
+	}
+}
@@ -16,27 +16,49 @@
 
 package de.yamass.redg.runtime.jdbc;
 
+import de.yamass.redg.DatabaseType;
 import de.yamass.redg.runtime.ExistingEntryMissingException;
+import de.yamass.redg.runtime.InsertPlan;
 import de.yamass.redg.runtime.InsertionFailedException;
+import de.yamass.redg.runtime.RedGEntity;
 import de.yamass.redg.runtime.mocks.ExistingMockEntity1;
 import de.yamass.redg.runtime.mocks.MockEntity1;
 import de.yamass.redg.runtime.mocks.MockEntity3;
 import de.yamass.redg.runtime.mocks.MockEntity4;
+import de.yamass.redg.runtime.transformer.DefaultPreparedStatementParameterSetter;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.h2.jdbcx.JdbcDataSource;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import javax.sql.DataSource;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class RedGDatabaseUtilTest {
@@ -101,6 +123,19 @@ class RedGDatabaseUtilTest {
 				.hasMessageContaining("Could not get prepared statement for class");
 	}
 
+	@Test
+	void testUpsertDataIntoDatabase_UnknownTableModel() throws Exception {
+		Connection connection = getConnection("-upsert-unknown");
+		connection.createStatement().execute("CREATE TABLE TEST (CONTENT VARCHAR(50) NOT NULL)");
+
+		List<MockEntity1> gObjects = Collections.singletonList(new MockEntity1());
+
+		assertThatThrownBy(() -> RedGDatabaseUtil.upsertDataIntoDatabase(gObjects, connection, DatabaseType.H2,
+				new DefaultPreparedStatementParameterSetter()))
+				.isInstanceOf(InsertionFailedException.class)
+				.hasMessageContaining("Re-run the code generation");
+	}
+
 	@Test
 	void testInsertDataIntoDatabase_FailOnPreparedStatementSetValue() throws Exception {
 		Connection mockConnection = mock(Connection.class);
@@ -129,6 +164,112 @@ class RedGDatabaseUtilTest {
 				.hasMessageContaining("SQL execution failed");
 	}
 
+	@Test
+	void testInsertDataIntoDatabase_ClosesStatements() throws Exception {
+		Connection mockConnection = mock(Connection.class);
+		PreparedStatement preparedStatement = mock(PreparedStatement.class);
+		when(preparedStatement.getUpdateCount()).thenReturn(1);
+		when(mockConnection.prepareStatement(anyString())).thenReturn(preparedStatement);
+
+		List<MockEntity1> gObjects = IntStream.rangeClosed(1, 20).mapToObj(i -> new MockEntity1()).collect(Collectors.toList());
+		RedGDatabaseUtil.insertDataIntoDatabase(gObjects, mockConnection);
+
+		verify(mockConnection, times(1)).prepareStatement(anyString());
+		verify(preparedStatement, times(20)).execute();
+		verify(preparedStatement, times(1)).close();
+	}
+
+	@Test
+	void testInsertDataIntoDatabase_ReusesCachedStatements() throws Exception {
+		Connection mockConnection = mock(Connection.class);
+		PreparedStatement preparedStatement = mock(PreparedStatement.class);
+		when(preparedStatement.getUpdateCount()).thenReturn(1);
+		when(mockConnection.prepareStatement(anyString())).thenReturn(preparedStatement);
+
+		List<MockEntity1> gObjects = IntStream.rangeClosed(1, 20).mapToObj(i -> new MockEntity1()).collect(Collectors.toList());
+		try (PreparedStatementCache statementCache = new PreparedStatementCache(mockConnection)) {
+			RedGDatabaseUtil.insertDataIntoDatabase(gObjects, statementCache, new DefaultPreparedStatementParameterSetter());
+			RedGDatabaseUtil.insertDataIntoDatabase(gObjects, statementCache, new DefaultPreparedStatementParameterSetter());
+			verify(preparedStatement, never()).close();
+			Assertions.assertEquals(1, statementCache.size());
+		}
+
+		verify(mockConnection, times(1)).prepareStatement(anyString());
+		verify(preparedStatement, times(40)).execute();
+		verify(preparedStatement, times(1)).close();
+	}
+
+	@Test
+	void testInsertDataIntoDatabaseAsync() throws Exception {
+		Connection connection = getConnection("-async");
+		Statement stmt = connection.createStatement();
+		stmt.execute("CREATE TABLE TEST (CONTENT VARCHAR2(50 CHARACTERS))");
+
+		List<RedGEntity> gObjects = IntStream.rangeClosed(1, 2500).mapToObj(i -> new MockEntity1()).collect(Collectors.toList());
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<TableInsertionTiming> timings = RedGDatabaseUtil.insertDataIntoDatabaseAsync(gObjects, getDataSource("-async"), executor,
+					new DefaultPreparedStatementParameterSetter()).get(10, TimeUnit.SECONDS);
+
+			Assertions.assertEquals(1, timings.size());
+			Assertions.assertEquals("MockEntity1", timings.get(0).getTableName());
+			Assertions.assertEquals(2500, timings.get(0).getRowCount());
+		} finally {
+			executor.shutdown();
+		}
+
+		ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM TEST");
+		rs.next();
+		Assertions.assertEquals(2500, rs.getInt(1));
+	}
+
+	@Test
+	void testInsertDataIntoDatabaseAsync_FailureRollsBack() throws Exception {
+		Connection connection = getConnection("-asyncfail");
+		Statement stmt = connection.createStatement();
+		stmt.execute("CREATE TABLE TEST (CONTENT VARCHAR2(50 CHARACTERS))");
+
+		List<RedGEntity> gObjects = IntStream.rangeClosed(1, 20).mapToObj(i -> new MockEntity1()).collect(Collectors.toList());
+		gObjects.add(new ExistingMockEntity1());
+
+		CompletableFuture<List<TableInsertionTiming>> future = RedGDatabaseUtil.insertDataIntoDatabaseAsync(gObjects, getDataSource("-asyncfail"),
+				Runnable::run, new DefaultPreparedStatementParameterSetter());
+
+		assertThatThrownBy(future::join)
+				.hasCauseInstanceOf(ExistingEntryMissingException.class);
+		ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM TEST");
+		rs.next();
+		Assertions.assertEquals(0, rs.getInt(1));
+	}
+
+	@Test
+	void testInsertDataIntoDatabaseAsync_Cancel() throws Exception {
+		Connection connection = getConnection("-asynccancel");
+		Statement stmt = connection.createStatement();
+		stmt.execute("CREATE TABLE TEST (CONTENT VARCHAR2(50 CHARACTERS))");
+
+		List<RedGEntity> gObjects = IntStream.rangeClosed(1, 20).mapToObj(i -> new MockEntity1()).collect(Collectors.toList());
+		Queue<Runnable> tasks = new ArrayDeque<>();
+
+		CompletableFuture<List<TableInsertionTiming>> future = RedGDatabaseUtil.insertDataIntoDatabaseAsync(gObjects, getDataSource("-asynccancel"),
+				tasks::add, new DefaultPreparedStatementParameterSetter());
+		future.cancel(true);
+		while (!tasks.isEmpty()) {
+			tasks.poll().run();
+		}
+
+		Assertions.assertTrue(future.isCancelled());
+		ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM TEST");
+		rs.next();
+		Assertions.assertEquals(0, rs.getInt(1));
+	}
+
+	private DataSource getDataSource(final String suffix) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:test-" + suffix);
+		return dataSource;
+	}
+
 	private Connection getConnection(final String suffix) throws ClassNotFoundException, SQLException {
 		Class.forName("org.h2.Driver");
 		return DriverManager.getConnection("jdbc:h2:mem:test-" + suffix, "", "");
@@ -154,6 +295,93 @@ class RedGDatabaseUtilTest {
 				.isInstanceOf(ExistingEntryMissingException.class);
 	}
 
+	@Test
+	void testInsertDataIntoDatabase_InsertionListener() throws Exception {
+		Connection connection = getConnection("-ididil");
+		Statement stmt = connection.createStatement();
+		stmt.execute("CREATE TABLE TEST (CONTENT VARCHAR2(50 CHARACTERS))");
+		stmt.execute("INSERT INTO TEST VALUES ('obj1')");
+
+		List<RedGEntity> gObjects = IntStream.rangeClosed(1, 20).mapToObj(i -> new MockEntity1()).collect(Collectors.toList());
+		gObjects.add(0, new ExistingMockEntity1());
+		InsertionStatisticsCollector collector = new InsertionStatisticsCollector();
+		List<TableInsertionTiming> timings = new ArrayList<>();
+		InsertionListener listener = new InsertionListener() {
+			@Override
+			public void statementExecuted(StatementExecution execution) {
+				collector.statementExecuted(execution);
+			}
+
+			@Override
+			public void tableInserted(TableInsertionTiming timing) {
+				timings.add(timing);
+			}
+		};
+
+		RedGDatabaseUtil.insertDataIntoDatabase(gObjects, connection, new DefaultPreparedStatementParameterSetter(), listener);
+
+		Assertions.assertEquals(2, timings.size());
+		Assertions.assertEquals(1, timings.get(0).getRowCount());
+		Assertions.assertEquals(20, timings.get(1).getRowCount());
+		List<InsertionStatisticsCollector.TableStatistics> statistics = collector.getTableStatistics();
+		Assertions.assertEquals(2, statistics.size());
+		Assertions.assertEquals("ExistingMockEntity1", statistics.get(0).getTableName());
+		Assertions.assertEquals(1, statistics.get(0).getExistenceCheckCount());
+		Assertions.assertEquals(0, statistics.get(0).getRowCount());
+		Assertions.assertEquals("MockEntity1", statistics.get(1).getTableName());
+		Assertions.assertEquals(20, statistics.get(1).getRowCount());
+		Assertions.assertEquals(20, statistics.get(1).getBatchCount());
+		Assertions.assertEquals(1, statistics.get(1).getMaxBatchSize());
+		Assertions.assertEquals(20, statistics.get(1).getUpdateCount());
+	}
+
+	@Test
+	void testInsertPlan_InsertionListener() throws Exception {
+		Connection connection = getConnection("-ipil");
+		Statement stmt = connection.createStatement();
+		stmt.execute("CREATE TABLE TEST (CONTENT VARCHAR2(50 CHARACTERS))");
+
+		List<RedGEntity> gObjects = IntStream.rangeClosed(1, 1500).mapToObj(i -> new MockEntity1()).collect(Collectors.toList());
+		InsertionStatisticsCollector collector = new InsertionStatisticsCollector();
+		try (PreparedStatementCache statementCache = new PreparedStatementCache(connection, collector)) {
+			InsertPlan.compile(gObjects, new DefaultPreparedStatementParameterSetter()).execute(statementCache);
+		}
+
+		InsertionStatisticsCollector.TableStatistics statistics = collector.getTableStatistics().get(0);
+		Assertions.assertEquals(1500, statistics.getRowCount());
+		Assertions.assertEquals(2, statistics.getBatchCount());
+		Assertions.assertEquals(RedGDatabaseUtil.MAX_BATCH_SIZE, statistics.getMaxBatchSize());
+		Assertions.assertEquals(1500, statistics.getUpdateCount());
+		// the per-table timing reaches the collector, batched groups do not split out the extraction time
+		Assertions.assertTrue(statistics.getInsertionTime().compareTo(statistics.getExecutionTime()) >= 0);
+		Assertions.assertEquals(Duration.ZERO, statistics.getExtractionTime());
+	}
+
+	@Test
+	void testInsertPlan_FlightRecorderEvents() throws Exception {
+		Connection connection = getConnection("-ipfre");
+		Statement stmt = connection.createStatement();
+		stmt.execute("CREATE TABLE TEST (CONTENT VARCHAR2(50 CHARACTERS))");
+
+		List<RedGEntity> gObjects = IntStream.rangeClosed(1, 1500).mapToObj(i -> new MockEntity1()).collect(Collectors.toList());
+		Path recordingFile = Files.createTempFile("redg", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("de.yamass.redg.InsertBatch");
+			recording.start();
+			InsertPlan.compile(gObjects, new DefaultPreparedStatementParameterSetter()).execute(connection);
+			recording.stop();
+			recording.dump(recordingFile);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+		Files.delete(recordingFile);
+		Assertions.assertEquals(2, events.size());
+		Assertions.assertEquals("MockEntity1", events.get(0).getString("table"));
+		Assertions.assertEquals(RedGDatabaseUtil.MAX_BATCH_SIZE, events.get(0).getInt("rows"));
+		Assertions.assertEquals(500, events.get(1).getInt("rows"));
+		Assertions.assertFalse(events.get(1).getBoolean("existenceCheck"));
+	}
+
 	@Test
 	void testConstructor() throws Exception {
 		Constructor constructor = RedGDatabaseUtil.class.getDeclaredConstructor();
@@ -0,0 +1,37 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SqlIdentifiersTest {
+
+	@Test
+	void testQuoteQualifiedName() {
+		Assertions.assertEquals("\"PUBLIC\".\"TEST\"", SqlIdentifiers.quoteQualifiedName("PUBLIC.TEST", "\""));
+		Assertions.assertEquals("\"TEST\"", SqlIdentifiers.quoteQualifiedName("\"TEST\"", "\""));
+		Assertions.assertEquals("TEST", SqlIdentifiers.quoteQualifiedName("TEST", ""));
+	}
+
+	@Test
+	void testQuoteName() {
+		Assertions.assertEquals("\"A.B\"", SqlIdentifiers.quoteName("A.B", "\""));
+		Assertions.assertEquals("`TEST`", SqlIdentifiers.quoteName("TEST", "`"));
+		Assertions.assertEquals("TEST", SqlIdentifiers.quoteName("TEST", ""));
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.yamass.redg.runtime.jdbc;
+
+import de.yamass.redg.DatabaseType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+class UpsertInsertionTest {
+
+	@Test
+	void testGetUpsertStatement_H2() {
+		Assertions.assertEquals("MERGE INTO \"T\" (\"ID\", \"NAME\") KEY (\"ID\") VALUES (?, ?)",
+				UpsertInsertion.getUpsertStatement(DatabaseType.H2, "\"T\"", Arrays.asList("\"ID\"", "\"NAME\""), Collections.singletonList("\"ID\"")));
+	}
+
+	@Test
+	void testGetUpsertStatement_Postgres() {
+		Assertions.assertEquals("INSERT INTO \"T\" (\"A\", \"B\", \"NAME\", \"SIZE\") VALUES (?, ?, ?, ?) ON CONFLICT (\"A\", \"B\") "
+						+ "DO UPDATE SET \"NAME\" = EXCLUDED.\"NAME\", \"SIZE\" = EXCLUDED.\"SIZE\"",
+				UpsertInsertion.getUpsertStatement(DatabaseType.POSTGRES, "\"T\"", Arrays.asList("\"A\"", "\"B\"", "\"NAME\"", "\"SIZE\""),
+						Arrays.asList("\"A\"", "\"B\"")));
+	}
+
+	@Test
+	void testGetUpsertStatement_Postgres_OnlyKeyColumns() {
+		Assertions.assertEquals("INSERT INTO \"T\" (\"A\", \"B\") VALUES (?, ?) ON CONFLICT (\"A\", \"B\") DO NOTHING",
+				UpsertInsertion.getUpsertStatement(DatabaseType.POSTGRES, "\"T\"", Arrays.asList("\"A\"", "\"B\""), Arrays.asList("\"A\"", "\"B\"")));
+	}
+
+	@Test
+	void testGetUpsertStatement_MariaDB() {
+		Assertions.assertEquals("INSERT INTO `T` (`A`, `B`, `NAME`) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE `NAME` = VALUES(`NAME`)",
+				UpsertInsertion.getUpsertStatement(DatabaseType.MARIADB, "`T`", Arrays.asList("`A`", "`B`", "`NAME`"), Arrays.asList("`A`", "`B`")));
+	}
+
+	@Test
+	void testGetUpsertStatement_MariaDB_OnlyKeyColumns() {
+		Assertions.assertEquals("INSERT INTO `T` (`A`, `B`) VALUES (?, ?) ON DUPLICATE KEY UPDATE `A` = VALUES(`A`)",
+				UpsertInsertion.getUpsertStatement(DatabaseType.MARIADB, "`T`", Arrays.asList("`A`", "`B`"), Arrays.asList("`A`", "`B`")));
+	}
+}
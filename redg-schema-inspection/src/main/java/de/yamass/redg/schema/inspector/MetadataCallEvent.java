@@ -0,0 +1,44 @@
+package de.yamass.redg.schema.inspector;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for a single metadata call (e.g. {@code DatabaseMetaData.getColumns}) during schema inspection, including reading
+ * its result. Disabled by default.
+ */
+@Name("de.yamass.redg.MetadataCall")
+@Label("RedG Metadata Call")
+@Description("A database metadata call issued during schema inspection")
+@Category({"RedG", "Schema Inspection"})
+@Enabled(false)
+@StackTrace(false)
+final class MetadataCallEvent extends Event {
+
+	@Label("Call")
+	String call;
+
+	@Label("Schema")
+	String schema;
+
+	@Label("Table")
+	String table;
+
+	@Label("Rows")
+	int rows;
+
+	void finish(String call, String schema, String table, int rows) {
+		if (shouldCommit()) {
+			this.call = call;
+			this.schema = schema;
+			this.table = table;
+			this.rows = rows;
+			commit();
+		}
+	}
+}
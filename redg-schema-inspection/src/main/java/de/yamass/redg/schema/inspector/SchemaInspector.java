@@ -48,9 +48,12 @@ public class SchemaInspector {
 		String vendor = metadata.getDatabaseProductName() != null ? metadata.getDatabaseProductName() : "";
 
 		for (TableBuilder builder : tableBuilders.values()) {
+			TableInspectionEvent event = new TableInspectionEvent();
+			event.begin();
 			loadColumns(connection, metadata, builder, uniqueColumnNames.getOrDefault(builder.key(), Collections.emptySet()), schemaInfoRetriever, schema);
 			builder.setPrimaryKeyColumnNames(primaryKeyColumns.getOrDefault(builder.key(), Collections.emptyList()));
 			builder.initializeTable();
+			event.finish(builder.key(), builder.table().columns().size());
 		}
 
 		List<ForeignKeySpec> foreignKeySpecs = collectForeignKeySpecs(metadata, tableBuilders.keySet());
@@ -61,14 +64,22 @@ public class SchemaInspector {
 			tables.add(builder.table());
 		}
 
+		MetadataCallEvent constraintsEvent = new MetadataCallEvent();
+		constraintsEvent.begin();
 		List<Constraint> constraints = schemaInfoRetriever.getConstraints(connection, schema);
+		constraintsEvent.finish("getConstraints", schema, null, constraints.size());
+		MetadataCallEvent udtsEvent = new MetadataCallEvent();
+		udtsEvent.begin();
 		List<Udt> udts = schemaInfoRetriever.getUdts(connection, schema);
+		udtsEvent.finish("getUdts", schema, null, udts.size());
 
 		return new SchemaInspectionResult(tables, constraints, udts);
 	}
 
 	private static Map<QualifiedTableName, TableBuilder> discoverTables(DatabaseMetaData metadata, String schema) throws SQLException {
 		Map<QualifiedTableName, TableBuilder> tables = new LinkedHashMap<>();
+		MetadataCallEvent event = new MetadataCallEvent();
+		event.begin();
 		try (ResultSet rs = metadata.getTables(null, schema, "%", new String[]{"TABLE"})) {
 			while (rs.next()) {
 				String tableSchema = defaultIfBlank(rs.getString("TABLE_SCHEM"), schema);
@@ -80,6 +91,7 @@ public class SchemaInspector {
 				tables.put(key, new TableBuilder(key));
 			}
 		}
+		event.finish("getTables", schema, null, tables.size());
 		return tables;
 	}
 
@@ -88,6 +100,8 @@ public class SchemaInspector {
 		for (QualifiedTableName qTableName : qualifiedTableNames) {
 			List<String> pkColumns = new ArrayList<>();
 			Map<Short, String> orderedPkColumns = new LinkedHashMap<>();
+			MetadataCallEvent event = new MetadataCallEvent();
+			event.begin();
 			try (ResultSet pk = metadata.getPrimaryKeys(null, qTableName.schema(), qTableName.name())) {
 				while (pk.next()) {
 					Short keySeq = pk.getShort("KEY_SEQ");
@@ -97,6 +111,7 @@ public class SchemaInspector {
 					}
 				}
 			}
+			event.finish("getPrimaryKeys", qTableName.schema(), qTableName.name(), orderedPkColumns.size());
 			// Sort by KEY_SEQ to maintain the correct order
 			orderedPkColumns.entrySet().stream()
 					.sorted(Map.Entry.comparingByKey())
@@ -111,6 +126,8 @@ public class SchemaInspector {
 		for (QualifiedTableName qTableName : qualifiedTableNames) {
 			Set<String> columns = new LinkedHashSet<>();
 			List<String> primaryKeyColumns = new ArrayList<>();
+			MetadataCallEvent primaryKeyEvent = new MetadataCallEvent();
+			primaryKeyEvent.begin();
 			try (ResultSet pk = metadata.getPrimaryKeys(null, qTableName.schema(), qTableName.name())) {
 				while (pk.next()) {
 					String columnName = pk.getString("COLUMN_NAME");
@@ -119,13 +136,18 @@ public class SchemaInspector {
 					}
 				}
 			}
+			primaryKeyEvent.finish("getPrimaryKeys", qTableName.schema(), qTableName.name(), primaryKeyColumns.size());
 			if (primaryKeyColumns.size() == 1) {
 				columns.add(primaryKeyColumns.get(0));
 			}
 
 			Map<String, List<String>> indexColumns = new LinkedHashMap<>();
+			MetadataCallEvent indexEvent = new MetadataCallEvent();
+			indexEvent.begin();
+			int indexRows = 0;
 			try (ResultSet idx = metadata.getIndexInfo(null, qTableName.schema(), qTableName.name(), true, true)) {
 				while (idx.next()) {
+					indexRows++;
 					String columnName = idx.getString("COLUMN_NAME");
 					String indexName = idx.getString("INDEX_NAME");
 					if (columnName == null || indexName == null) {
@@ -134,6 +156,7 @@ public class SchemaInspector {
 					indexColumns.computeIfAbsent(indexName, ignored -> new ArrayList<>()).add(columnName);
 				}
 			}
+			indexEvent.finish("getIndexInfo", qTableName.schema(), qTableName.name(), indexRows);
 			for (List<String> indexColumnList : indexColumns.values()) {
 				if (indexColumnList.size() == 1) {
 					columns.add(indexColumnList.get(0));
@@ -145,18 +168,24 @@ public class SchemaInspector {
 	}
 
 	private static void loadColumns(Connection connection, DatabaseMetaData metadata, TableBuilder builder, Set<String> uniqueColumns, SchemaInfoRetriever schemaInfoRetriever, String schema) throws SQLException {
+		MetadataCallEvent event = new MetadataCallEvent();
+		event.begin();
+		int columnCount = 0;
 		try (ResultSet cols = metadata.getColumns(null, builder.key().schema(), builder.key().name(), "%")) {
 			while (cols.next()) {
 				String columnName = cols.getString("COLUMN_NAME");
 				if (columnName == null) {
 					continue;
 				}
+				columnCount++;
 				boolean nullable = "YES".equalsIgnoreCase(cols.getString("IS_NULLABLE"));
 				boolean unique = uniqueColumns.contains(columnName);
+				String defaultValue = cols.getString("COLUMN_DEF");
 				DataType dataType = buildDataType(connection, metadata, cols, schemaInfoRetriever, schema, builder.key().name(), columnName);
-				builder.addColumnMetadata(columnName, dataType, nullable, unique);
+				builder.addColumnMetadata(columnName, dataType, nullable, unique, defaultValue);
 			}
 		}
+		event.finish("getColumns", builder.key().schema(), builder.key().name(), columnCount);
 	}
 
 	private static DataType buildDataType(Connection connection, DatabaseMetaData metadata, ResultSet columnMetadata, SchemaInfoRetriever schemaInfoRetriever, String schema, String tableName, String columnName) throws SQLException {
@@ -294,8 +323,12 @@ public class SchemaInspector {
 		List<ForeignKeySpec> specs = new ArrayList<>();
 		for (QualifiedTableName key : qualifiedTableNames) {
 			Map<String, ForeignKeySpec> byName = new LinkedHashMap<>();
+			MetadataCallEvent event = new MetadataCallEvent();
+			event.begin();
+			int rows = 0;
 			try (ResultSet fk = metadata.getImportedKeys(null, key.schema(), key.name())) {
 				while (fk.next()) {
+					rows++;
 					String fkNameRaw = fk.getString("FK_NAME");
 					final String fkName = (fkNameRaw == null || fkNameRaw.isBlank()) 
 							? key.name() + "_fk_" + fk.getShort("KEY_SEQ")
@@ -308,6 +341,7 @@ public class SchemaInspector {
 					spec.addColumnPair(sequence, fk.getString("FKCOLUMN_NAME"), fk.getString("PKCOLUMN_NAME"));
 				}
 			}
+			event.finish("getImportedKeys", key.schema(), key.name(), rows);
 			specs.addAll(byName.values());
 		}
 		return specs;
@@ -20,8 +20,8 @@ final class TableBuilder {
 		return key;
 	}
 
-	void addColumnMetadata(String name, DataType type, boolean nullable, boolean unique) {
-		ColumnMetadata metadata = new ColumnMetadata(name, type, nullable, unique);
+	void addColumnMetadata(String name, DataType type, boolean nullable, boolean unique, String defaultValue) {
+		ColumnMetadata metadata = new ColumnMetadata(name, type, nullable, unique, defaultValue);
 		columnMetadataList.add(metadata);
 	}
 
@@ -36,7 +36,7 @@ final class TableBuilder {
 		
 		// Create Column records with table reference and add them to the table
 		for (ColumnMetadata metadata : columnMetadataList) {
-			Column column = new Column(metadata.name(), metadata.type(), metadata.nullable(), metadata.unique(), table);
+			Column column = new Column(metadata.name(), metadata.type(), metadata.nullable(), metadata.unique(), table, metadata.defaultValue());
 			table.addColumn(column);
 		}
 		
@@ -64,6 +64,6 @@ final class TableBuilder {
 	/**
 	 * Internal class to hold column metadata before the table is created.
 	 */
-	private record ColumnMetadata(String name, DataType type, boolean nullable, boolean unique) {
+	private record ColumnMetadata(String name, DataType type, boolean nullable, boolean unique, String defaultValue) {
 	}
 }
@@ -0,0 +1,39 @@
+package de.yamass.redg.schema.inspector;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for loading the columns of a single table. Disabled by default.
+ */
+@Name("de.yamass.redg.TableInspection")
+@Label("RedG Table Inspection")
+@Description("Loading the columns and data types of a table during schema inspection")
+@Category({"RedG", "Schema Inspection"})
+@Enabled(false)
+@StackTrace(false)
+final class TableInspectionEvent extends Event {
+
+	@Label("Schema")
+	String schema;
+
+	@Label("Table")
+	String table;
+
+	@Label("Columns")
+	int columns;
+
+	void finish(QualifiedTableName tableName, int columns) {
+		if (shouldCommit()) {
+			this.schema = tableName.schema();
+			this.table = tableName.name();
+			this.columns = columns;
+			commit();
+		}
+	}
+}
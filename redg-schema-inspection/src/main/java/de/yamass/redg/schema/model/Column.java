@@ -1,10 +1,21 @@
 package de.yamass.redg.schema.model;
 
+import org.jspecify.annotations.Nullable;
+
+/**
+ * @param defaultValue The default value expression of the column as reported by the database ({@code COLUMN_DEF}), {@code null} if the column has
+ *                     no default
+ */
 public record Column(
 	String name,
 	DataType type,
 	boolean nullable,
 	boolean unique,
-	Table table
+	Table table,
+	@Nullable String defaultValue
 ) {
+
+	public Column(String name, DataType type, boolean nullable, boolean unique, Table table) {
+		this(name, type, nullable, unique, table, null);
+	}
 }
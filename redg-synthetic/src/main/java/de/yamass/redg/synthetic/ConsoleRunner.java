@@ -0,0 +1,182 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.yamass.redg.synthetic;
+
+import ch.qos.logback.classic.Level;
+import org.apache.commons.cli.*;
+import org.h2.jdbcx.JdbcDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class ConsoleRunner {
+
+    private static Logger LOG = LoggerFactory.getLogger(ConsoleRunner.class);
+
+    public static void main(String[] args) {
+        final Options options = getOptions();
+
+        final CommandLineParser parser = new DefaultParser();
+        final HelpFormatter formatter = new HelpFormatter();
+
+        try {
+            final CommandLine cmd = parser.parse(options, args);
+
+            if (cmd.hasOption("verbose")) {
+                setLogLevel(Level.ALL);
+                LOG.info("Verbose logging activated");
+            } else {
+                setLogLevel(Level.ERROR);
+            }
+
+            if (cmd.hasOption("help")) {
+                formatter.printHelp("java -jar redg-synthetic.jar ", options);
+                return;
+            }
+            final Path directory = Paths.get(cmd.getOptionValue("directory"));
+            if (!Files.exists(directory) || !Files.isDirectory(directory)) {
+                LOG.error("Specified directory does not exist!");
+                System.exit(1);
+                return;
+            }
+
+            final SyntheticSchemaSpec.Builder spec = SyntheticSchemaSpec.builder();
+            if (cmd.hasOption("tables")) {
+                spec.tableCount(Integer.parseInt(cmd.getOptionValue("tables")));
+            }
+            if (cmd.hasOption("columns")) {
+                spec.columnsPerTable(Integer.parseInt(cmd.getOptionValue("columns")));
+            }
+            if (cmd.hasOption("columnTypes")) {
+                final List<SyntheticColumnType> columnTypes = new ArrayList<>();
+                for (final String columnType : cmd.getOptionValue("columnTypes").split(",")) {
+                    columnTypes.add(SyntheticColumnType.valueOf(columnType.trim().toUpperCase(Locale.ROOT)));
+                }
+                spec.columnTypes(columnTypes);
+            }
+            if (cmd.hasOption("foreignKeyDensity")) {
+                spec.foreignKeyDensity(Double.parseDouble(cmd.getOptionValue("foreignKeyDensity")));
+            }
+            if (cmd.hasOption("compositeKeys")) {
+                spec.compositeKeyRatio(Double.parseDouble(cmd.getOptionValue("compositeKeys")));
+            }
+            if (cmd.hasOption("selfReferences")) {
+                spec.selfReferenceRatio(Double.parseDouble(cmd.getOptionValue("selfReferences")));
+            }
+            if (cmd.hasOption("cycles")) {
+                spec.cycleCount(Integer.parseInt(cmd.getOptionValue("cycles")));
+            }
+            if (cmd.hasOption("joinTables")) {
+                spec.joinTableCount(Integer.parseInt(cmd.getOptionValue("joinTables")));
+            }
+            if (cmd.hasOption("seed")) {
+                spec.seed(Long.parseLong(cmd.getOptionValue("seed")));
+            }
+            final long rows = cmd.hasOption("rows") ? Long.parseLong(cmd.getOptionValue("rows")) : 1000;
+
+            final SyntheticSchema schema = SyntheticSchema.generate(spec.build());
+            final SyntheticDataset dataset = new SyntheticDataset(schema, rows);
+            LOG.debug("Writing schema with {} tables...", schema.getTables().size());
+            Files.write(directory.resolve("schema.sql"), schema.toDdl().getBytes(StandardCharsets.UTF_8));
+
+            if (cmd.hasOption("redg")) {
+                final String codePackage = cmd.hasOption("package") ? cmd.getOptionValue("package") : "de.yamass.redg.generated";
+                final String className = cmd.hasOption("className") ? cmd.getOptionValue("className") : SyntheticRedGProgram.DEFAULT_CLASS_NAME;
+                LOG.debug("Generating RedG program for {} rows...", dataset.getRowCount());
+                final JdbcDataSource dataSource = new JdbcDataSource();
+                dataSource.setURL("jdbc:h2:mem:redg-synthetic;DB_CLOSE_DELAY=-1");
+                schema.load(dataSource);
+                final Path program = new SyntheticRedGProgram(dataset, codePackage, className).generate(dataSource, "PUBLIC", directory);
+                LOG.debug("Program written to {}", program);
+            } else {
+                LOG.debug("Writing {} rows...", dataset.getRowCount());
+                try (Writer writer = Files.newBufferedWriter(directory.resolve("data.sql"), StandardCharsets.UTF_8)) {
+                    dataset.writeSql(writer);
+                }
+            }
+            LOG.debug("Generation finished.");
+
+        } catch (ParseException e) {
+            LOG.error("Could not parse parameters: {}", e.getMessage());
+
+            formatter.printHelp("java -jar redg-synthetic.jar ", options);
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            LOG.error("Invalid parameter: {}", e.getMessage());
+            System.exit(1);
+        } catch (IOException e) {
+            LOG.error("An error occurred while performing an I/O operation", e);
+            System.exit(1);
+        } catch (SQLException e) {
+            LOG.error("Failed to run database operation.", e);
+            System.exit(1);
+        }
+    }
+
+    private static Options getOptions() {
+        final Options options = new Options();
+
+        final Option directory = new Option("d", "directory", true,
+                "The directory to write the files to. The schema gets written to schema.sql, the data either to data.sql or, if the -r flag is set, " +
+                        "as RedG program to the package folders.");
+        directory.setRequired(true);
+        options.addOption(directory);
+
+        options.addOption(new Option("t", "tables", true, "The number of tables, not counting join tables. Defaults to 10."));
+        options.addOption(new Option("c", "columns", true, "The number of value columns per table. Defaults to 5."));
+        options.addOption(new Option("columnTypes", true,
+                "Comma separated list of the column types to pick from, e.g. \"varchar,varchar,integer\". A type listed more than once gets picked " +
+                        "more often. Defaults to all types: varchar, integer, bigint, decimal, date, timestamp, boolean."));
+        options.addOption(new Option("foreignKeyDensity", true, "The average number of foreign keys per table. Defaults to 1."));
+        options.addOption(new Option("compositeKeys", true, "The share of tables with a composite primary key, between 0 and 1. Defaults to 0."));
+        options.addOption(new Option("selfReferences", true, "The share of tables referencing themselves, between 0 and 1. Defaults to 0."));
+        options.addOption(new Option("cycles", true, "The number of foreign keys closing a cycle between two tables. Defaults to 0."));
+        options.addOption(new Option("joinTables", true, "The number of join tables. Defaults to 0."));
+        options.addOption(new Option("seed", true, "The seed of the random generator. Defaults to 42."));
+        options.addOption(new Option("n", "rows", true, "The total number of rows, spread evenly over all tables. Defaults to 1000."));
+
+        options.addOption(new Option("r", "redg", false, "If set, a RedG program (including the RedG entity classes) gets written instead of SQL"));
+        options.addOption(new Option("p", "package", true,
+                "The package name of the generated RedG code. Defaults to \"de.yamass.redg.generated\" if not specified"));
+        options.addOption(new Option("className", true,
+                "The class name of the generated RedG program. Defaults to \"" + SyntheticRedGProgram.DEFAULT_CLASS_NAME + "\"."));
+
+        final Option helpFlag = new Option("h", "help", false, "Prints this help message");
+        helpFlag.setRequired(false);
+        options.addOption(helpFlag);
+
+        final Option verbose = new Option("v", "verbose", false, "Activates detailed log messages");
+        verbose.setRequired(false);
+        options.addOption(verbose);
+
+        return options;
+    }
+
+    private static void setLogLevel(Level level) {
+        ch.qos.logback.classic.Logger root = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(ch.qos.logback.classic.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(level);
+    }
+}
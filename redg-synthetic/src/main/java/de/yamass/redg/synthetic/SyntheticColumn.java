@@ -0,0 +1,51 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.yamass.redg.synthetic;
+
+/**
+ * A column of a {@link SyntheticTable}.
+ */
+public final class SyntheticColumn {
+
+    private final String name;
+
+    private final SyntheticColumnType type;
+
+    private final boolean notNull;
+
+    SyntheticColumn(final String name, final SyntheticColumnType type, final boolean notNull) {
+        this.name = name;
+        this.type = type;
+        this.notNull = notNull;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SyntheticColumnType getType() {
+        return type;
+    }
+
+    public boolean isNotNull() {
+        return notNull;
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + type.getSqlType() + (notNull ? " not null" : "");
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.yamass.redg.synthetic;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Locale;
+
+/**
+ * The column types a synthetic schema can be made of.
+ */
+public enum SyntheticColumnType {
+
+    VARCHAR("varchar(50)"),
+    INTEGER("integer"),
+    BIGINT("bigint"),
+    DECIMAL("decimal(12, 2)"),
+    DATE("date"),
+    TIMESTAMP("timestamp"),
+    BOOLEAN("boolean");
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(2020, 1, 1);
+
+    private final String sqlType;
+
+    SyntheticColumnType(final String sqlType) {
+        this.sqlType = sqlType;
+    }
+
+    public String getSqlType() {
+        return sqlType;
+    }
+
+    /**
+     * Returns a SQL literal of this type for a row. Different rows (mostly) get different values.
+     *
+     * @param row The row number (starting at 0)
+     * @return The SQL literal
+     */
+    public String getSqlLiteral(final long row) {
+        switch (this) {
+            case VARCHAR:
+                return "'" + getString(row) + "'";
+            case DATE:
+                return "DATE '" + getDate(row) + "'";
+            case TIMESTAMP:
+                return "TIMESTAMP '" + getTimestamp(row) + "'";
+            case BOOLEAN:
+                return getBoolean(row) ? "TRUE" : "FALSE";
+            default:
+                return getNumber(row);
+        }
+    }
+
+    /**
+     * Returns a Java expression for the same value as {@link #getSqlLiteral(long)}, matching the type the RedG generator uses for the column by
+     * default.
+     *
+     * @param row The row number (starting at 0)
+     * @return The Java expression
+     */
+    public String getJavaLiteral(final long row) {
+        switch (this) {
+            case VARCHAR:
+                return "\"" + getString(row) + "\"";
+            case BIGINT:
+                return getNumber(row) + "L";
+            case DECIMAL:
+                return "new java.math.BigDecimal(\"" + getNumber(row) + "\")";
+            case DATE:
+                return "java.sql.Date.valueOf(\"" + getDate(row) + "\")";
+            case TIMESTAMP:
+                return "java.sql.Timestamp.valueOf(\"" + getTimestamp(row) + "\")";
+            case BOOLEAN:
+                return Boolean.toString(getBoolean(row));
+            default:
+                return getNumber(row);
+        }
+    }
+
+    private static String getString(final long row) {
+        return "value " + row;
+    }
+
+    private String getNumber(final long row) {
+        switch (this) {
+            case INTEGER:
+                return Long.toString(row % Integer.MAX_VALUE);
+            case DECIMAL:
+                return String.format(Locale.ROOT, "%d.%02d", row % 1_000_000_000L, row % 100);
+            default:
+                return Long.toString(row);
+        }
+    }
+
+    private static LocalDate getDate(final long row) {
+        return FIRST_DATE.plusDays(row % 3650);
+    }
+
+    private static String getTimestamp(final long row) {
+        return getDate(row) + " " + LocalTime.of((int) (row % 24), 0) + ":00";
+    }
+
+    private static boolean getBoolean(final long row) {
+        return row % 2 == 0;
+    }
+}
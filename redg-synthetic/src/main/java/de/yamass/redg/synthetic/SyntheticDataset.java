@@ -0,0 +1,246 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.yamass.redg.synthetic;
+
+import de.yamass.redg.util.ScriptRunner;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The rows of a {@link SyntheticSchema}. The rows are not stored but computed from the row number, so datasets of any size can be written.
+ * <p>
+ * Every table gets the same number of rows, so that each table contains row {@code n} of every other table. Row {@code n} has the ID {@code n}
+ * (and the SUB_ID {@code n % 3}). Not null foreign keys always get a value, nullable ones only in every second row. Self references form a
+ * binary tree, so the chains stay short. The foreign keys closing a cycle are set after all rows are inserted and reference the row with the
+ * same ID.
+ */
+public final class SyntheticDataset {
+
+    private static final int ROWS_PER_STATEMENT = 100;
+
+    private final SyntheticSchema schema;
+
+    private final long rowsPerTable;
+
+    /**
+     * @param schema         The schema
+     * @param targetRowCount The total number of rows. Gets distributed evenly over all tables, every table has at least one row.
+     */
+    public SyntheticDataset(final SyntheticSchema schema, final long targetRowCount) {
+        if (targetRowCount < 0) {
+            throw new IllegalArgumentException("The row count must not be negative");
+        }
+        this.schema = schema;
+        this.rowsPerTable = Math.max(1, targetRowCount / schema.getTables().size());
+    }
+
+    public SyntheticSchema getSchema() {
+        return schema;
+    }
+
+    public long getRowsPerTable() {
+        return rowsPerTable;
+    }
+
+    /**
+     * @return The total number of rows
+     */
+    public long getRowCount() {
+        return rowsPerTable * schema.getTables().size();
+    }
+
+    /**
+     * @param table The table
+     * @param row   The row number
+     * @return The primary key values of the row, in the order of {@link SyntheticTable#getPrimaryKeyColumns()}
+     */
+    static long[] getPrimaryKey(final SyntheticTable table, final long row) {
+        final long[] values = new long[table.getPrimaryKeyColumns().size()];
+        for (int column = 0; column < values.length; column++) {
+            values[column] = column == 0 ? row : row % 3;
+        }
+        return values;
+    }
+
+    /**
+     * @param table  The table
+     * @param column The index of the value column
+     * @param row    The row number
+     * @return The SQL literal of the column value
+     */
+    String getSqlValue(final SyntheticTable table, final int column, final long row) {
+        final SyntheticColumn valueColumn = table.getValueColumns().get(column);
+        return isNull(valueColumn, column, row) ? "NULL" : valueColumn.getType().getSqlLiteral(row);
+    }
+
+    /**
+     * @param table  The table
+     * @param column The index of the value column
+     * @param row    The row number
+     * @return The Java expression for the column value, {@code null} if the column has no value
+     */
+    String getJavaValue(final SyntheticTable table, final int column, final long row) {
+        final SyntheticColumn valueColumn = table.getValueColumns().get(column);
+        return isNull(valueColumn, column, row) ? null : valueColumn.getType().getJavaLiteral(row);
+    }
+
+    private static boolean isNull(final SyntheticColumn column, final int index, final long row) {
+        return !column.isNotNull() && (row + index) % 5 == 4;
+    }
+
+    /**
+     * Returns the row a foreign key of a row references. Foreign keys closing a cycle are included, see {@link SyntheticForeignKey#isCyclic()}.
+     *
+     * @param table      The table
+     * @param foreignKey The index of the foreign key
+     * @param row        The row number
+     * @return The referenced row, {@code -1} if the foreign key has no value
+     */
+    long getReference(final SyntheticTable table, final int foreignKey, final long row) {
+        final SyntheticForeignKey key = table.getForeignKeys().get(foreignKey);
+        if (key.getTarget() == table) {
+            return row == 0 ? -1 : (row - 1) / 2;
+        }
+        if (key.isCyclic()) {
+            return row % 2 == 0 ? row : -1;
+        }
+        if (table.isJoinTable()) {
+            return foreignKey == 0 ? row : (row * 7 + 1) % rowsPerTable;
+        }
+        if (!key.isNotNull() && row % 2 == 1) {
+            return -1;
+        }
+        return (row * 7 + foreignKey) % rowsPerTable;
+    }
+
+    /**
+     * Writes the SQL statements inserting all rows. The rows get inserted table by table, followed by the updates for the foreign keys closing a
+     * cycle.
+     *
+     * @param writer The writer
+     * @throws IOException If writing fails
+     */
+    public void writeSql(final Writer writer) throws IOException {
+        for (final SyntheticTable table : schema.getTables()) {
+            final String insert = "insert into " + table.getName() + " (" + String.join(", ", getInsertColumns(table)) + ") values\n";
+            for (long row = 0; row < rowsPerTable; row++) {
+                writer.write(row % ROWS_PER_STATEMENT == 0 ? insert : ",\n");
+                writeSqlRow(writer, table, row);
+                if (row % ROWS_PER_STATEMENT == ROWS_PER_STATEMENT - 1 || row == rowsPerTable - 1) {
+                    writer.write(";\n");
+                }
+            }
+            writer.write('\n');
+        }
+        for (final SyntheticTable table : schema.getTables()) {
+            for (final SyntheticForeignKey foreignKey : table.getForeignKeys()) {
+                if (foreignKey.isCyclic()) {
+                    final List<String> assignments = new ArrayList<>();
+                    for (int column = 0; column < foreignKey.getColumns().size(); column++) {
+                        assignments.add(foreignKey.getColumns().get(column).getName() + " = " + (column == 0 ? "ID" : "MOD(ID, 3)"));
+                    }
+                    writer.write("update " + table.getName() + " set " + String.join(", ", assignments) + " where MOD(ID, 2) = 0;\n");
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The SQL statements inserting all rows, see {@link #writeSql(Writer)}
+     */
+    public String toSql() {
+        final StringWriter writer = new StringWriter();
+        try {
+            writeSql(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Inserts all rows into a database that already contains the schema (see {@link SyntheticSchema#load(DataSource)}). The script is written to a
+     * temporary file and read from there while it gets executed, so large datasets are never held in memory as a whole.
+     *
+     * @param dataSource The data source of the database
+     * @throws IOException  If the script cannot be written or read
+     * @throws SQLException If the statements cannot be executed
+     */
+    public void load(final DataSource dataSource) throws IOException, SQLException {
+        final Path script = Files.createTempFile("redg-synthetic-", ".sql");
+        try {
+            try (Writer writer = Files.newBufferedWriter(script, StandardCharsets.UTF_8)) {
+                writeSql(writer);
+            }
+            ScriptRunner.executeScript(dataSource, () -> {
+                try {
+                    return Files.newBufferedReader(script, StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+
+    private static List<String> getInsertColumns(final SyntheticTable table) {
+        final List<String> columns = new ArrayList<>();
+        table.getPrimaryKeyColumns().forEach(column -> columns.add(column.getName()));
+        table.getValueColumns().forEach(column -> columns.add(column.getName()));
+        for (final SyntheticForeignKey foreignKey : table.getForeignKeys()) {
+            if (!foreignKey.isCyclic()) {
+                foreignKey.getColumns().forEach(column -> columns.add(column.getName()));
+            }
+        }
+        return columns;
+    }
+
+    private void writeSqlRow(final Writer writer, final SyntheticTable table, final long row) throws IOException {
+        final List<String> values = new ArrayList<>();
+        for (final long key : getPrimaryKey(table, row)) {
+            values.add(Long.toString(key));
+        }
+        for (int column = 0; column < table.getValueColumns().size(); column++) {
+            values.add(getSqlValue(table, column, row));
+        }
+        for (int foreignKey = 0; foreignKey < table.getForeignKeys().size(); foreignKey++) {
+            final SyntheticForeignKey key = table.getForeignKeys().get(foreignKey);
+            if (key.isCyclic()) {
+                continue;
+            }
+            final long reference = getReference(table, foreignKey, row);
+            if (reference < 0) {
+                key.getColumns().forEach(column -> values.add("NULL"));
+            } else {
+                for (final long value : getPrimaryKey(key.getTarget(), reference)) {
+                    values.add(Long.toString(value));
+                }
+            }
+        }
+        writer.write("(" + String.join(", ", values) + ")");
+    }
+}
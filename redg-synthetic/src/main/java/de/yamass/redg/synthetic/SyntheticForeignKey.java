@@ -0,0 +1,64 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.yamass.redg.synthetic;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A foreign key of a {@link SyntheticTable}. The columns reference the primary key columns of the target table in the same order.
+ */
+public final class SyntheticForeignKey {
+
+    private final String name;
+
+    private final List<SyntheticColumn> columns;
+
+    private final SyntheticTable target;
+
+    private final boolean cyclic;
+
+    SyntheticForeignKey(final String name, final List<SyntheticColumn> columns, final SyntheticTable target, final boolean cyclic) {
+        this.name = name;
+        this.columns = Collections.unmodifiableList(columns);
+        this.target = target;
+        this.cyclic = cyclic;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<SyntheticColumn> getColumns() {
+        return columns;
+    }
+
+    public SyntheticTable getTarget() {
+        return target;
+    }
+
+    public boolean isNotNull() {
+        return columns.get(0).isNotNull();
+    }
+
+    /**
+     * @return {@code true} if the foreign key references a table that comes later in the schema and closes a cycle. These foreign keys are always
+     * nullable, their values are set with updates after all rows are inserted.
+     */
+    public boolean isCyclic() {
+        return cyclic;
+    }
+}
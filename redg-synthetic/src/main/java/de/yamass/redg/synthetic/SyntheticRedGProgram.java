@@ -0,0 +1,281 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.yamass.redg.synthetic;
+
+import de.yamass.redg.generator.CodeGenerator;
+import de.yamass.redg.generator.Constants;
+import de.yamass.redg.generator.RedGGenerator;
+import de.yamass.redg.generator.extractor.conveniencesetterprovider.ConvenienceSetterProvider;
+import de.yamass.redg.generator.extractor.datatypeprovider.DefaultDataTypeProvider;
+import de.yamass.redg.generator.extractor.explicitattributedecider.DefaultExplicitAttributeDecider;
+import de.yamass.redg.generator.extractor.nameprovider.DefaultNameProvider;
+import de.yamass.redg.models.ColumnModel;
+import de.yamass.redg.models.ForeignKeyModel;
+import de.yamass.redg.models.TableModel;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Writes a RedG program that creates the rows of a {@link SyntheticDataset} through the generated RedG API.
+ * <p>
+ * The RedG entity classes get generated from a database containing the schema, using the default providers. The program consists of a main class
+ * with a {@code createDataSet()} method and part classes with the actual calls, so that neither a method nor the constant pool of a class grows
+ * beyond the limits of the JVM, whatever the size of the dataset. The foreign keys closing a cycle get set after all entities are added, so datasets
+ * with cycles or self references have to be inserted with {@code insertDataIntoDatabaseDeferringForeignKeys(Connection)}.
+ */
+public final class SyntheticRedGProgram {
+
+    public static final String DEFAULT_CLASS_NAME = "SyntheticData";
+
+    private static final int ROWS_PER_METHOD = 100;
+
+    private static final int METHODS_PER_PART = 10;
+
+    private final SyntheticDataset dataset;
+
+    private final String targetPackage;
+
+    private final String className;
+
+    /**
+     * @param dataset       The dataset
+     * @param targetPackage The package of the generated code
+     * @param className     The name of the program class. The part classes get this name with the suffix {@code Part<n>}.
+     */
+    public SyntheticRedGProgram(final SyntheticDataset dataset, final String targetPackage, final String className) {
+        if (dataset.getRowsPerTable() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A RedG program can contain at most " + Integer.MAX_VALUE + " rows per table");
+        }
+        this.dataset = dataset;
+        this.targetPackage = targetPackage;
+        this.className = className;
+    }
+
+    /**
+     * Generates the RedG entity classes and the program.
+     *
+     * @param dataSource      A database containing the schema, see {@link SyntheticSchema#load(DataSource)}
+     * @param schemaName      The name of the database schema containing the tables
+     * @param targetDirectory The source root to write the code to. The package folders get created.
+     * @return The file containing the program class
+     * @throws IOException If writing the code fails
+     */
+    public Path generate(final DataSource dataSource, final String schemaName, final Path targetDirectory) throws IOException {
+        final List<TableModel> tableModels = RedGGenerator.transformSchemaModel(RedGGenerator.inspectSchemas(dataSource, List.of(schemaName)),
+                Constants.DEFAULT_CLASS_PREFIX, targetPackage, new DefaultDataTypeProvider(), new DefaultNameProvider(),
+                new DefaultExplicitAttributeDecider(), ConvenienceSetterProvider.NONE);
+        final Path packageDirectory = RedGGenerator.createPackageFolderStructure(targetDirectory, targetPackage);
+        new CodeGenerator().generate(tableModels, packageDirectory, false);
+        return write(tableModels, packageDirectory);
+    }
+
+    /**
+     * Writes the program for existing RedG entity classes.
+     *
+     * @param tableModels      The table models the entity classes were generated from
+     * @param packageDirectory The directory of the target package
+     * @return The file containing the program class
+     * @throws IOException If writing the code fails
+     */
+    public Path write(final List<TableModel> tableModels, final Path packageDirectory) throws IOException {
+        final Map<String, TableModel> modelsByTable = tableModels.stream()
+                .collect(Collectors.toMap(TableModel::getSqlName, model -> model));
+        final List<Method> methods = new ArrayList<>();
+        final List<Method> cyclicMethods = new ArrayList<>();
+        for (final SyntheticTable table : dataset.getSchema().getTables()) {
+            final TableModel model = modelsByTable.get(table.getName());
+            if (model == null) {
+                throw new IllegalArgumentException("No table model for table " + table.getName());
+            }
+            final Map<ForeignKeyModel, Integer> foreignKeys = mapForeignKeys(table, model);
+            final boolean cyclic = table.getForeignKeys().stream().anyMatch(SyntheticForeignKey::isCyclic);
+            for (long row = 0; row < dataset.getRowsPerTable(); row += ROWS_PER_METHOD) {
+                final long lastRow = Math.min(row + ROWS_PER_METHOD, dataset.getRowsPerTable());
+                methods.add(new Method(table, model, foreignKeys, row, lastRow, false));
+                if (cyclic) {
+                    cyclicMethods.add(new Method(table, model, foreignKeys, row, lastRow, true));
+                }
+            }
+        }
+        methods.addAll(cyclicMethods);
+
+        final int partCount = (methods.size() + METHODS_PER_PART - 1) / METHODS_PER_PART;
+        for (int part = 0; part < partCount; part++) {
+            final List<Method> partMethods = methods.subList(part * METHODS_PER_PART, Math.min((part + 1) * METHODS_PER_PART, methods.size()));
+            try (Writer writer = Files.newBufferedWriter(packageDirectory.resolve(className + "Part" + part + ".java"), StandardCharsets.UTF_8)) {
+                writePart(writer, part, partMethods);
+            }
+        }
+        final Path programFile = packageDirectory.resolve(className + ".java");
+        try (Writer writer = Files.newBufferedWriter(programFile, StandardCharsets.UTF_8)) {
+            writeMainClass(writer, modelsByTable, partCount);
+        }
+        return programFile;
+    }
+
+    private void writeMainClass(final Writer writer, final Map<String, TableModel> modelsByTable, final int partCount) throws IOException {
+        writer.write("package " + targetPackage + ";\n\n");
+        writer.write("/**\n * Creates a synthetic dataset with " + dataset.getRowCount() + " rows.\n */\n");
+        writer.write("public class " + className + " {\n\n");
+        writer.write("    final RedG redG;\n\n");
+        for (final SyntheticTable table : dataset.getSchema().getTables()) {
+            final String entityClass = modelsByTable.get(table.getName()).getClassName();
+            writer.write("    final " + entityClass + "[] " + getFieldName(table) + " = new " + entityClass + "[" + dataset.getRowsPerTable() + "];\n\n");
+        }
+        writer.write("    public " + className + "(final RedG redG) {\n        this.redG = redG;\n    }\n\n");
+        writer.write("    public static RedG createDataSet() {\n        final RedG redG = new RedG();\n        new " + className
+                + "(redG).addEntities();\n        return redG;\n    }\n\n");
+        writer.write("    public void addEntities() {\n");
+        for (int part = 0; part < partCount; part++) {
+            writer.write("        " + className + "Part" + part + ".addEntities(this);\n");
+        }
+        writer.write("    }\n}\n");
+    }
+
+    private void writePart(final Writer writer, final int part, final List<Method> methods) throws IOException {
+        final String partClass = className + "Part" + part;
+        writer.write("package " + targetPackage + ";\n\n");
+        writer.write("final class " + partClass + " {\n\n");
+        writer.write("    private " + partClass + "() {\n    }\n\n");
+        writer.write("    static void addEntities(final " + className + " data) {\n");
+        for (final Method method : methods) {
+            writer.write("        " + method.getName() + "(data);\n");
+        }
+        writer.write("    }\n");
+        for (final Method method : methods) {
+            writer.write("\n    private static void " + method.getName() + "(final " + className + " data) {\n");
+            for (long row = method.firstRow; row < method.lastRow; row++) {
+                if (method.cyclic) {
+                    writeCyclicReferences(writer, method, row);
+                } else {
+                    writeEntity(writer, method, row);
+                }
+            }
+            writer.write("    }\n");
+        }
+        writer.write("}\n");
+    }
+
+    private void writeEntity(final Writer writer, final Method method, final long row) throws IOException {
+        final SyntheticTable table = method.table;
+        final TableModel model = method.model;
+        final Map<ForeignKeyModel, Integer> foreignKeys = method.foreignKeys;
+        final List<String> requiredReferences = new ArrayList<>();
+        for (final ForeignKeyModel foreignKeyModel : model.getNotNullForeignKeys()) {
+            requiredReferences.add(getReference(table, foreignKeys.get(foreignKeyModel), row));
+        }
+        writer.write("        data." + getFieldName(table) + "[" + row + "] = data.redG.add" + model.getName() + "("
+                + String.join(", ", requiredReferences) + ")");
+        final long[] primaryKey = SyntheticDataset.getPrimaryKey(table, row);
+        for (int column = 0; column < primaryKey.length; column++) {
+            writeSetter(writer, model.getColumnBySQLName(table.getPrimaryKeyColumns().get(column).getName()), primaryKey[column] + "L");
+        }
+        for (int column = 0; column < table.getValueColumns().size(); column++) {
+            final String value = dataset.getJavaValue(table, column, row);
+            if (value != null) {
+                writeSetter(writer, model.getColumnBySQLName(table.getValueColumns().get(column).getName()), value);
+            }
+        }
+        for (final ForeignKeyModel foreignKeyModel : model.getNullableForeignKeys()) {
+            final int foreignKey = foreignKeys.get(foreignKeyModel);
+            if (!table.getForeignKeys().get(foreignKey).isCyclic() && dataset.getReference(table, foreignKey, row) >= 0) {
+                writer.write("\n                ." + foreignKeyModel.getJavaPropertyName() + "(" + getReference(table, foreignKey, row) + ")");
+            }
+        }
+        writer.write(";\n");
+    }
+
+    private void writeCyclicReferences(final Writer writer, final Method method, final long row) throws IOException {
+        final SyntheticTable table = method.table;
+        for (final Map.Entry<ForeignKeyModel, Integer> foreignKey : method.foreignKeys.entrySet()) {
+            if (table.getForeignKeys().get(foreignKey.getValue()).isCyclic() && dataset.getReference(table, foreignKey.getValue(), row) >= 0) {
+                writer.write("        data." + getFieldName(table) + "[" + row + "]." + foreignKey.getKey().getJavaPropertyName() + "("
+                        + getReference(table, foreignKey.getValue(), row) + ");\n");
+            }
+        }
+    }
+
+    private static void writeSetter(final Writer writer, final ColumnModel column, final String value) throws IOException {
+        writer.write("\n                ." + column.getJavaPropertyName() + "(" + value + ")");
+    }
+
+    private String getReference(final SyntheticTable table, final int foreignKey, final long row) {
+        final SyntheticTable target = table.getForeignKeys().get(foreignKey).getTarget();
+        return "data." + getFieldName(target) + "[" + dataset.getReference(table, foreignKey, row) + "]";
+    }
+
+    private static String getFieldName(final SyntheticTable table) {
+        return table.getName().toLowerCase();
+    }
+
+    /**
+     * Maps the foreign key models of a table to the indices of the synthetic foreign keys, by their columns.
+     */
+    private static Map<ForeignKeyModel, Integer> mapForeignKeys(final SyntheticTable table, final TableModel model) {
+        final Map<ForeignKeyModel, Integer> foreignKeys = new LinkedHashMap<>();
+        for (final ForeignKeyModel foreignKeyModel : model.getForeignKeys()) {
+            for (int foreignKey = 0; foreignKey < table.getForeignKeys().size(); foreignKey++) {
+                final Set<String> columns = new HashSet<>();
+                table.getForeignKeys().get(foreignKey).getColumns().forEach(column -> columns.add(column.getName()));
+                if (columns.equals(foreignKeyModel.getReferences().keySet())) {
+                    foreignKeys.put(foreignKeyModel, foreignKey);
+                }
+            }
+        }
+        return foreignKeys;
+    }
+
+    private static final class Method {
+
+        private final SyntheticTable table;
+
+        private final TableModel model;
+
+        private final Map<ForeignKeyModel, Integer> foreignKeys;
+
+        private final long firstRow;
+
+        private final long lastRow;
+
+        private final boolean cyclic;
+
+        private Method(final SyntheticTable table, final TableModel model, final Map<ForeignKeyModel, Integer> foreignKeys, final long firstRow,
+                       final long lastRow, final boolean cyclic) {
+            this.table = table;
+            this.model = model;
+            this.foreignKeys = foreignKeys;
+            this.firstRow = firstRow;
+            this.lastRow = lastRow;
+            this.cyclic = cyclic;
+        }
+
+        private String getName() {
+            return (cyclic ? "setCyclicReferences" : "add") + model.getName() + "Rows" + firstRow;
+        }
+    }
+}
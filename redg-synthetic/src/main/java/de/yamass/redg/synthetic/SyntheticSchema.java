@@ -0,0 +1,132 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.yamass.redg.synthetic;
+
+import de.yamass.redg.util.ScriptRunner;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A randomly generated database schema with a configurable size and shape, used to test and benchmark RedG on schemas of any size.
+ * <p>
+ * Table {@code T<n>} has an {@code ID} primary key (plus a {@code SUB_ID} column for composite keys), value columns {@code C<n>} and foreign keys
+ * to randomly picked tables with a lower number. On top of that, a table may reference itself, a cycle adds a nullable foreign key from a table to
+ * a later table that already references it, and join table {@code J<n>} has a primary key made of its foreign keys to two of the other tables.
+ * The random generator is seeded from the spec, so the same spec always results in the same schema.
+ */
+public final class SyntheticSchema {
+
+    private final SyntheticSchemaSpec spec;
+
+    private final List<SyntheticTable> tables;
+
+    private SyntheticSchema(final SyntheticSchemaSpec spec, final List<SyntheticTable> tables) {
+        this.spec = spec;
+        this.tables = Collections.unmodifiableList(tables);
+    }
+
+    /**
+     * Generates a new schema.
+     *
+     * @param spec The parameters of the schema
+     * @return The schema
+     */
+    public static SyntheticSchema generate(final SyntheticSchemaSpec spec) {
+        final Random random = new Random(spec.getSeed());
+        final List<SyntheticTable> tables = new ArrayList<>();
+        for (int index = 0; index < spec.getTableCount(); index++) {
+            final SyntheticTable table = new SyntheticTable("T" + index, false);
+            table.addPrimaryKeyColumn(new SyntheticColumn("ID", SyntheticColumnType.BIGINT, true));
+            if (random.nextDouble() < spec.getCompositeKeyRatio()) {
+                table.addPrimaryKeyColumn(new SyntheticColumn("SUB_ID", SyntheticColumnType.BIGINT, true));
+            }
+            for (int column = 0; column < spec.getColumnsPerTable(); column++) {
+                final SyntheticColumnType type = spec.getColumnTypes().get(random.nextInt(spec.getColumnTypes().size()));
+                table.addValueColumn(new SyntheticColumn("C" + column, type, column % 3 == 0));
+            }
+            final double density = spec.getForeignKeyDensity();
+            final int foreignKeys = index == 0 ? 0 : (int) density + (random.nextDouble() < density % 1 ? 1 : 0);
+            for (int foreignKey = 0; foreignKey < foreignKeys; foreignKey++) {
+                table.addForeignKey(tables.get(random.nextInt(index)), foreignKey == 0, false);
+            }
+            if (random.nextDouble() < spec.getSelfReferenceRatio()) {
+                table.addForeignKey(table, false, false);
+            }
+            tables.add(table);
+        }
+        for (int cycle = 0; cycle < spec.getCycleCount(); cycle++) {
+            final int second = 1 + random.nextInt(tables.size() - 1);
+            final SyntheticTable first = tables.get(random.nextInt(second));
+            final SyntheticTable last = tables.get(second);
+            if (last.getForeignKeys().stream().noneMatch(foreignKey -> foreignKey.getTarget() == first)) {
+                last.addForeignKey(first, false, false);
+            }
+            first.addForeignKey(last, false, true);
+        }
+        for (int index = 0; index < spec.getJoinTableCount(); index++) {
+            final SyntheticTable joinTable = new SyntheticTable("J" + index, true);
+            final int second = 1 + random.nextInt(spec.getTableCount() - 1);
+            joinTable.addForeignKey(tables.get(random.nextInt(second)), true, false);
+            joinTable.addForeignKey(tables.get(second), true, false);
+            tables.add(joinTable);
+        }
+        return new SyntheticSchema(spec, tables);
+    }
+
+    public SyntheticSchemaSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * @return All tables, the join tables last
+     */
+    public List<SyntheticTable> getTables() {
+        return tables;
+    }
+
+    /**
+     * @return The DDL of the schema. All tables get created first, the foreign keys get added afterwards.
+     */
+    public String toDdl() {
+        final StringBuilder ddl = new StringBuilder();
+        for (final SyntheticTable table : tables) {
+            ddl.append(table.toDdl()).append('\n');
+        }
+        for (final SyntheticTable table : tables) {
+            ddl.append(table.toForeignKeyDdl());
+        }
+        return ddl.toString();
+    }
+
+    /**
+     * Creates the schema in a database.
+     *
+     * @param dataSource The data source of the database
+     * @throws IOException  If the script cannot be read
+     * @throws SQLException If the DDL cannot be executed
+     */
+    public void load(final DataSource dataSource) throws IOException, SQLException {
+        final String ddl = toDdl();
+        ScriptRunner.executeScript(dataSource, () -> new StringReader(ddl));
+    }
+}
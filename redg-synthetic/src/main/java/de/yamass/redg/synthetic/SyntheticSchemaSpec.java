@@ -0,0 +1,229 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.yamass.redg.synthetic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The parameters of a synthetic schema, see {@link SyntheticSchema#generate(SyntheticSchemaSpec)}. Create instances with {@link #builder()}.
+ */
+public final class SyntheticSchemaSpec {
+
+    private final int tableCount;
+
+    private final int columnsPerTable;
+
+    private final List<SyntheticColumnType> columnTypes;
+
+    private final double foreignKeyDensity;
+
+    private final double compositeKeyRatio;
+
+    private final double selfReferenceRatio;
+
+    private final int cycleCount;
+
+    private final int joinTableCount;
+
+    private final long seed;
+
+    private SyntheticSchemaSpec(final Builder builder) {
+        this.tableCount = builder.tableCount;
+        this.columnsPerTable = builder.columnsPerTable;
+        this.columnTypes = Collections.unmodifiableList(new ArrayList<>(builder.columnTypes));
+        this.foreignKeyDensity = builder.foreignKeyDensity;
+        this.compositeKeyRatio = builder.compositeKeyRatio;
+        this.selfReferenceRatio = builder.selfReferenceRatio;
+        this.cycleCount = builder.cycleCount;
+        this.joinTableCount = builder.joinTableCount;
+        this.seed = builder.seed;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The number of tables, not counting the join tables
+     */
+    public int getTableCount() {
+        return tableCount;
+    }
+
+    /**
+     * @return The number of value columns of every table, not counting the key and foreign key columns
+     */
+    public int getColumnsPerTable() {
+        return columnsPerTable;
+    }
+
+    /**
+     * @return The types the value columns are randomly picked from. A type listed more than once is picked more often.
+     */
+    public List<SyntheticColumnType> getColumnTypes() {
+        return columnTypes;
+    }
+
+    /**
+     * @return The average number of foreign keys per table (the first table never has one)
+     */
+    public double getForeignKeyDensity() {
+        return foreignKeyDensity;
+    }
+
+    /**
+     * @return The share of tables with a primary key of two columns
+     */
+    public double getCompositeKeyRatio() {
+        return compositeKeyRatio;
+    }
+
+    /**
+     * @return The share of tables with a nullable foreign key to themselves
+     */
+    public double getSelfReferenceRatio() {
+        return selfReferenceRatio;
+    }
+
+    /**
+     * @return The number of foreign keys that close a cycle between two tables
+     */
+    public int getCycleCount() {
+        return cycleCount;
+    }
+
+    /**
+     * @return The number of join tables, each with a foreign key to two of the other tables
+     */
+    public int getJoinTableCount() {
+        return joinTableCount;
+    }
+
+    /**
+     * @return The seed of the random generator. The same spec always results in the same schema.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    public static final class Builder {
+
+        private int tableCount = 10;
+
+        private int columnsPerTable = 5;
+
+        private List<SyntheticColumnType> columnTypes = Arrays.asList(SyntheticColumnType.values());
+
+        private double foreignKeyDensity = 1.0;
+
+        private double compositeKeyRatio;
+
+        private double selfReferenceRatio;
+
+        private int cycleCount;
+
+        private int joinTableCount;
+
+        private long seed = 42;
+
+        private Builder() {
+        }
+
+        public Builder tableCount(final int tableCount) {
+            this.tableCount = tableCount;
+            return this;
+        }
+
+        public Builder columnsPerTable(final int columnsPerTable) {
+            this.columnsPerTable = columnsPerTable;
+            return this;
+        }
+
+        public Builder columnTypes(final List<SyntheticColumnType> columnTypes) {
+            this.columnTypes = columnTypes;
+            return this;
+        }
+
+        public Builder columnTypes(final SyntheticColumnType... columnTypes) {
+            return columnTypes(Arrays.asList(columnTypes));
+        }
+
+        public Builder foreignKeyDensity(final double foreignKeyDensity) {
+            this.foreignKeyDensity = foreignKeyDensity;
+            return this;
+        }
+
+        public Builder compositeKeyRatio(final double compositeKeyRatio) {
+            this.compositeKeyRatio = compositeKeyRatio;
+            return this;
+        }
+
+        public Builder selfReferenceRatio(final double selfReferenceRatio) {
+            this.selfReferenceRatio = selfReferenceRatio;
+            return this;
+        }
+
+        public Builder cycleCount(final int cycleCount) {
+            this.cycleCount = cycleCount;
+            return this;
+        }
+
+        public Builder joinTableCount(final int joinTableCount) {
+            this.joinTableCount = joinTableCount;
+            return this;
+        }
+
+        public Builder seed(final long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * @return The spec
+         * @throws IllegalArgumentException If a parameter is out of range
+         */
+        public SyntheticSchemaSpec build() {
+            if (tableCount < 1) {
+                throw new IllegalArgumentException("The table count has to be at least 1");
+            }
+            if (columnsPerTable < 0) {
+                throw new IllegalArgumentException("The column count must not be negative");
+            }
+            if (columnsPerTable > 0 && (columnTypes == null || columnTypes.isEmpty())) {
+                throw new IllegalArgumentException("At least one column type is needed");
+            }
+            if (foreignKeyDensity < 0) {
+                throw new IllegalArgumentException("The foreign key density must not be negative");
+            }
+            if (compositeKeyRatio < 0 || compositeKeyRatio > 1) {
+                throw new IllegalArgumentException("The composite key ratio has to be between 0 and 1");
+            }
+            if (selfReferenceRatio < 0 || selfReferenceRatio > 1) {
+                throw new IllegalArgumentException("The self reference ratio has to be between 0 and 1");
+            }
+            if (cycleCount < 0 || (cycleCount > 0 && tableCount < 2)) {
+                throw new IllegalArgumentException("Cycles need at least 2 tables and the cycle count must not be negative");
+            }
+            if (joinTableCount < 0 || (joinTableCount > 0 && tableCount < 2)) {
+                throw new IllegalArgumentException("Join tables need at least 2 tables and the join table count must not be negative");
+            }
+            return new SyntheticSchemaSpec(this);
+        }
+    }
+}
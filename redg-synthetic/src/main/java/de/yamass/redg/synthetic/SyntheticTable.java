@@ -0,0 +1,130 @@
+/*
+ * Copyright Yann Massard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.yamass.redg.synthetic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A table of a {@link SyntheticSchema}.
+ */
+public final class SyntheticTable {
+
+    private final String name;
+
+    private final boolean joinTable;
+
+    private final List<SyntheticColumn> primaryKeyColumns = new ArrayList<>();
+
+    private final List<SyntheticColumn> valueColumns = new ArrayList<>();
+
+    private final List<SyntheticForeignKey> foreignKeys = new ArrayList<>();
+
+    SyntheticTable(final String name, final boolean joinTable) {
+        this.name = name;
+        this.joinTable = joinTable;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return {@code true} for join tables, whose primary key consists of the columns of their two foreign keys
+     */
+    public boolean isJoinTable() {
+        return joinTable;
+    }
+
+    /**
+     * @return The primary key columns. Empty for join tables, see {@link #isJoinTable()}
+     */
+    public List<SyntheticColumn> getPrimaryKeyColumns() {
+        return Collections.unmodifiableList(primaryKeyColumns);
+    }
+
+    public List<SyntheticColumn> getValueColumns() {
+        return Collections.unmodifiableList(valueColumns);
+    }
+
+    public List<SyntheticForeignKey> getForeignKeys() {
+        return Collections.unmodifiableList(foreignKeys);
+    }
+
+    void addPrimaryKeyColumn(final SyntheticColumn column) {
+        primaryKeyColumns.add(column);
+    }
+
+    void addValueColumn(final SyntheticColumn column) {
+        valueColumns.add(column);
+    }
+
+    SyntheticForeignKey addForeignKey(final SyntheticTable target, final boolean notNull, final boolean cyclic) {
+        final int index = foreignKeys.size();
+        final List<SyntheticColumn> columns = new ArrayList<>();
+        for (final SyntheticColumn targetColumn : target.getPrimaryKeyColumns()) {
+            columns.add(new SyntheticColumn("FK" + index + "_" + target.getName() + "_" + targetColumn.getName(), SyntheticColumnType.BIGINT, notNull));
+        }
+        final SyntheticForeignKey foreignKey = new SyntheticForeignKey("FK_" + name + "_" + index, columns, target, cyclic);
+        foreignKeys.add(foreignKey);
+        return foreignKey;
+    }
+
+    String toDdl() {
+        final StringBuilder ddl = new StringBuilder("create table ").append(name).append(" (");
+        final List<String> definitions = new ArrayList<>();
+        for (final SyntheticColumn column : primaryKeyColumns) {
+            definitions.add(column.toString());
+        }
+        for (final SyntheticColumn column : valueColumns) {
+            definitions.add(column.toString());
+        }
+        for (final SyntheticForeignKey foreignKey : foreignKeys) {
+            for (final SyntheticColumn column : foreignKey.getColumns()) {
+                definitions.add(column.toString());
+            }
+        }
+        final List<String> keyColumns = new ArrayList<>();
+        if (joinTable) {
+            for (final SyntheticForeignKey foreignKey : foreignKeys) {
+                foreignKey.getColumns().forEach(column -> keyColumns.add(column.getName()));
+            }
+        } else {
+            primaryKeyColumns.forEach(column -> keyColumns.add(column.getName()));
+        }
+        definitions.add("primary key (" + String.join(", ", keyColumns) + ")");
+        for (final String definition : definitions) {
+            ddl.append("\n  ").append(definition).append(',');
+        }
+        ddl.setLength(ddl.length() - 1);
+        return ddl.append("\n);\n").toString();
+    }
+
+    String toForeignKeyDdl() {
+        final StringBuilder ddl = new StringBuilder();
+        for (final SyntheticForeignKey foreignKey : foreignKeys) {
+            final List<String> sourceColumns = new ArrayList<>();
+            foreignKey.getColumns().forEach(column -> sourceColumns.add(column.getName()));
+            final List<String> targetColumns = new ArrayList<>();
+            foreignKey.getTarget().getPrimaryKeyColumns().forEach(column -> targetColumns.add(column.getName()));
+            ddl.append("alter table ").append(name).append(" add constraint ").append(foreignKey.getName())
+                    .append(" foreign key (").append(String.join(", ", sourceColumns)).append(") references ")
+                    .append(foreignKey.getTarget().getName()).append(" (").append(String.join(", ", targetColumns)).append(");\n");
+        }
+        return ddl.toString();
+    }
+}
@@ -0,0 +1,61 @@
+package de.yamass.redg.synthetic;
+
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static de.yamass.redg.synthetic.SyntheticSchemaTest.count;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyntheticDatasetTest {
+
+    static final SyntheticSchemaSpec SPEC = SyntheticSchemaSpec.builder()
+            .tableCount(12)
+            .columnsPerTable(7)
+            .foreignKeyDensity(1.5)
+            .compositeKeyRatio(0.4)
+            .selfReferenceRatio(0.4)
+            .cycleCount(2)
+            .joinTableCount(2)
+            .build();
+
+    @Test
+    void testLoad() throws Exception {
+        final SyntheticSchema schema = SyntheticSchema.generate(SPEC);
+        final SyntheticDataset dataset = new SyntheticDataset(schema, 3500);
+        final DataSource dataSource = JdbcConnectionPool.create("jdbc:h2:mem:redg-synthetic-dataset", "", "");
+
+        schema.load(dataSource);
+        dataset.load(dataSource);
+
+        assertThat(dataset.getRowsPerTable()).isEqualTo(250);
+        assertThat(dataset.getRowCount()).isEqualTo(3500);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (final SyntheticTable table : schema.getTables()) {
+                assertThat(count(statement, "select count(*) from " + table.getName())).isEqualTo(250);
+                for (final SyntheticForeignKey foreignKey : table.getForeignKeys()) {
+                    final long references = count(statement, "select count(" + foreignKey.getColumns().get(0).getName() + ") from "
+                            + table.getName());
+                    if (foreignKey.isNotNull()) {
+                        assertThat(references).isEqualTo(250);
+                    } else if (foreignKey.getTarget() == table) {
+                        assertThat(references).isEqualTo(249);
+                    } else {
+                        assertThat(references).isEqualTo(125);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRowCount_AtLeastOneRowPerTable() {
+        final SyntheticDataset dataset = new SyntheticDataset(SyntheticSchema.generate(SPEC), 5);
+
+        assertThat(dataset.getRowsPerTable()).isEqualTo(1);
+        assertThat(dataset.toSql()).contains("insert into J1");
+    }
+}
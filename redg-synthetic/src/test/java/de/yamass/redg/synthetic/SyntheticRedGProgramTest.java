@@ -0,0 +1,73 @@
+package de.yamass.redg.synthetic;
+
+import de.yamass.redg.runtime.AbstractRedG;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sql.DataSource;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static de.yamass.redg.synthetic.SyntheticSchemaTest.count;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyntheticRedGProgramTest {
+
+    @Test
+    void testGenerate(@TempDir final Path tempDir) throws Exception {
+        final SyntheticSchema schema = SyntheticSchema.generate(SyntheticDatasetTest.SPEC);
+        final SyntheticDataset dataset = new SyntheticDataset(schema, 3500);
+        final DataSource sourceDataSource = JdbcConnectionPool.create("jdbc:h2:mem:redg-synthetic-program-source", "", "");
+        schema.load(sourceDataSource);
+        final Path sourceDirectory = tempDir.resolve("src");
+        final Path classDirectory = Files.createDirectories(tempDir.resolve("classes"));
+
+        final Path program = new SyntheticRedGProgram(dataset, "de.yamass.redg.generated.synthetic", "SyntheticData")
+                .generate(sourceDataSource, "PUBLIC", sourceDirectory);
+
+        assertThat(program).hasFileName("SyntheticData.java");
+        final List<String> arguments = new ArrayList<>(List.of("-d", classDirectory.toString(), "-cp", System.getProperty("java.class.path")));
+        try (Stream<Path> files = Files.list(program.getParent())) {
+            arguments.addAll(files.map(Path::toString).collect(Collectors.toList()));
+        }
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertThat(compiler.run(null, null, null, arguments.toArray(new String[0]))).isZero();
+
+        final DataSource targetDataSource = JdbcConnectionPool.create("jdbc:h2:mem:redg-synthetic-program-target", "", "");
+        schema.load(targetDataSource);
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classDirectory.toUri().toURL()}, getClass().getClassLoader());
+             Connection connection = targetDataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            final AbstractRedG redG = (AbstractRedG) classLoader.loadClass("de.yamass.redg.generated.synthetic.SyntheticData")
+                    .getMethod("createDataSet").invoke(null);
+            redG.insertDataIntoDatabaseDeferringForeignKeys(connection);
+
+            final DataSource expectedDataSource = JdbcConnectionPool.create("jdbc:h2:mem:redg-synthetic-program-expected", "", "");
+            schema.load(expectedDataSource);
+            dataset.load(expectedDataSource);
+            try (Connection expectedConnection = expectedDataSource.getConnection();
+                 Statement expectedStatement = expectedConnection.createStatement()) {
+                for (final SyntheticTable table : schema.getTables()) {
+                    final String query = "select count(*) from " + table.getName();
+                    assertThat(count(statement, query)).isEqualTo(250);
+                    for (final SyntheticForeignKey foreignKey : table.getForeignKeys()) {
+                        final String referenceQuery = "select count(" + foreignKey.getColumns().get(0).getName() + "), sum("
+                                + foreignKey.getColumns().get(0).getName() + ") from " + table.getName();
+                        assertThat(count(statement, referenceQuery)).isEqualTo(count(expectedStatement, referenceQuery));
+                    }
+                }
+            }
+        }
+    }
+}
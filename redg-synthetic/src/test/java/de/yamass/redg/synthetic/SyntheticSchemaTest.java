@@ -0,0 +1,91 @@
+package de.yamass.redg.synthetic;
+
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SyntheticSchemaTest {
+
+    @Test
+    void testGenerate() {
+        final SyntheticSchema schema = SyntheticSchema.generate(SyntheticSchemaSpec.builder()
+                .tableCount(20)
+                .columnsPerTable(4)
+                .columnTypes(SyntheticColumnType.VARCHAR, SyntheticColumnType.DATE)
+                .foreignKeyDensity(1.5)
+                .compositeKeyRatio(0.5)
+                .selfReferenceRatio(0.5)
+                .cycleCount(3)
+                .joinTableCount(2)
+                .build());
+
+        assertThat(schema.getTables()).hasSize(22);
+        assertThat(schema.getTables().subList(20, 22)).allMatch(SyntheticTable::isJoinTable);
+        assertThat(schema.getTables().get(0).getForeignKeys()).allMatch(foreignKey -> foreignKey.getTarget() == schema.getTables().get(0)
+                || foreignKey.isCyclic());
+        assertThat(schema.getTables().stream().anyMatch(table -> table.getPrimaryKeyColumns().size() == 2)).isTrue();
+        assertThat(schema.getTables().stream().anyMatch(table -> table.getForeignKeys().stream().anyMatch(foreignKey -> foreignKey.getTarget() == table)))
+                .isTrue();
+        assertThat(schema.getTables().stream().flatMap(table -> table.getForeignKeys().stream()).filter(SyntheticForeignKey::isCyclic)).hasSize(3);
+        for (final SyntheticTable table : schema.getTables()) {
+            assertThat(table.getValueColumns()).allMatch(column -> column.getType() == SyntheticColumnType.VARCHAR
+                    || column.getType() == SyntheticColumnType.DATE);
+            for (final SyntheticForeignKey foreignKey : table.getForeignKeys()) {
+                assertThat(foreignKey.getColumns()).hasSameSizeAs(foreignKey.getTarget().getPrimaryKeyColumns());
+            }
+        }
+    }
+
+    @Test
+    void testGenerate_SameSpecSameSchema() {
+        final SyntheticSchemaSpec spec = SyntheticSchemaSpec.builder().tableCount(50).foreignKeyDensity(2.3).cycleCount(2).build();
+
+        assertThat(SyntheticSchema.generate(spec).toDdl()).isEqualTo(SyntheticSchema.generate(spec).toDdl());
+        assertThat(SyntheticSchema.generate(SyntheticSchemaSpec.builder().tableCount(50).foreignKeyDensity(2.3).cycleCount(2).seed(7).build())
+                .toDdl()).isNotEqualTo(SyntheticSchema.generate(spec).toDdl());
+    }
+
+    @Test
+    void testLoad() throws Exception {
+        final SyntheticSchema schema = SyntheticSchema.generate(SyntheticSchemaSpec.builder()
+                .tableCount(30)
+                .compositeKeyRatio(0.3)
+                .selfReferenceRatio(0.3)
+                .cycleCount(2)
+                .joinTableCount(3)
+                .build());
+        final DataSource dataSource = JdbcConnectionPool.create("jdbc:h2:mem:redg-synthetic-schema", "", "");
+
+        schema.load(dataSource);
+
+        final long foreignKeyCount = schema.getTables().stream().mapToLong(table -> table.getForeignKeys().size()).sum();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            assertThat(count(statement, "select count(*) from INFORMATION_SCHEMA.TABLES where TABLE_SCHEMA = 'PUBLIC'")).isEqualTo(33);
+            assertThat(count(statement, "select count(*) from INFORMATION_SCHEMA.TABLE_CONSTRAINTS where TABLE_SCHEMA = 'PUBLIC' " +
+                    "and CONSTRAINT_TYPE = 'FOREIGN KEY'")).isEqualTo(foreignKeyCount);
+        }
+    }
+
+    @Test
+    void testBuild_InvalidSpec() {
+        assertThatThrownBy(() -> SyntheticSchemaSpec.builder().tableCount(0).build()).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SyntheticSchemaSpec.builder().columnTypes().build()).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SyntheticSchemaSpec.builder().compositeKeyRatio(1.5).build()).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SyntheticSchemaSpec.builder().tableCount(1).cycleCount(1).build()).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SyntheticSchemaSpec.builder().tableCount(1).joinTableCount(1).build()).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    static long count(final Statement statement, final String query) throws Exception {
+        try (ResultSet resultSet = statement.executeQuery(query)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
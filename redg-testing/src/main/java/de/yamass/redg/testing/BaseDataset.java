@@ -0,0 +1,20 @@
+package de.yamass.redg.testing;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method of a {@link RollbackAfterEach} test class that inserts the data shared by all tests of the class. It is called once per database,
+ * after the class level {@link Scripts} were executed. It may declare parameters of the types {@link java.sql.Connection},
+ * {@link javax.sql.DataSource} and {@link de.yamass.redg.DatabaseType}. Everything done on the passed connection is committed.
+ * <p>
+ * The method is called on the test instance of the first test, so objects that the tests need later (e.g. the RedG instance holding the base
+ * entities) have to be kept in static fields.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface BaseDataset {
+
+}
@@ -0,0 +1,29 @@
+package de.yamass.redg.testing;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sets up every database only once for the whole test class, like {@link RollbackAfterEach}, but resets it with a
+ * {@link de.yamass.redg.runtime.jdbc.DatabaseSnapshot} instead of a rollback. After the class level {@link Scripts} were executed and the
+ * {@link BaseDataset} methods were called, the contents of the dataset tables are captured, and they are restored before every test. Tests get
+ * their own {@link java.sql.Connection} (injected via {@link DbContext} or as parameter) in auto-commit mode, so they can commit and use several
+ * connections.
+ * <p>
+ * The captured tables are the tables of all {@link de.yamass.redg.runtime.AbstractRedG} instances returned by the {@link BaseDataset} methods,
+ * followed by the tables listed in {@link #value()}. Tables that are not captured are not reset. Method level {@link Scripts} are not supported.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith({SharedDatabasesInvocationProvider.class})
+public @interface RestoreSnapshotBeforeEach {
+
+	/**
+	 * @return Additional (optionally schema qualified) tables to capture, ordered so that referenced tables come first
+	 */
+	String[] value() default {};
+}
@@ -0,0 +1,22 @@
+package de.yamass.redg.testing;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sets up every database only once for the whole test class instead of before every test: the database is reset, the class level {@link Scripts}
+ * are executed and the {@link BaseDataset} methods are called before the first test. Every test then gets its own {@link java.sql.Connection}
+ * (injected via {@link DbContext} or as parameter) with auto-commit disabled, and everything done on it is rolled back after the test.
+ * <p>
+ * Method level {@link Scripts} are not supported, as they would be committed.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith({SharedDatabasesInvocationProvider.class})
+public @interface RollbackAfterEach {
+
+}
@@ -1,11 +1,16 @@
 package de.yamass.redg.testing;
 
 import de.yamass.redg.DatabaseType;
+import de.yamass.redg.runtime.AbstractRedG;
+import de.yamass.redg.runtime.jdbc.DatabaseSnapshot;
 import org.assertj.core.util.Files;
 import org.h2.jdbcx.JdbcConnectionPool;
 import org.junit.jupiter.api.extension.*;
 
 import javax.sql.DataSource;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.Connection;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -14,6 +19,8 @@ public class SharedDatabasesInvocationProvider implements TestTemplateInvocation
 
 	private static final Set<DatabaseType> globallyEnabledDatabases = parseEnabledDatabases(System.getProperty("test.databases", "postgres,mariadb,h2"));
 
+	private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(SharedDatabasesInvocationProvider.class);
+
 	@Override
 	public boolean supportsTestTemplate(ExtensionContext context) {
 		return true;
@@ -33,15 +40,30 @@ public class SharedDatabasesInvocationProvider implements TestTemplateInvocation
 				.filter(globallyEnabledDatabases::contains)
 				.collect(Collectors.toList());
 
-		return enabledDatabases.stream().map(this::toInvocation);
+		return enabledDatabases.stream().map(type -> toInvocation(type, context));
 	}
 
-	private TestTemplateInvocationContext toInvocation(DatabaseType type) {
-		return containerBasedInvocation(type);
+	private TestTemplateInvocationContext toInvocation(DatabaseType type, ExtensionContext context) {
+		boolean rollbackAfterEach = context.getTestClass()
+				.map(c -> c.isAnnotationPresent(RollbackAfterEach.class))
+				.orElse(false);
+		boolean restoreSnapshot = context.getTestClass()
+				.map(c -> c.isAnnotationPresent(RestoreSnapshotBeforeEach.class))
+				.orElse(false);
+		if (rollbackAfterEach && restoreSnapshot) {
+			throw new ExtensionConfigurationException("@RollbackAfterEach and @RestoreSnapshotBeforeEach cannot be combined");
+		}
+		if (rollbackAfterEach || restoreSnapshot) {
+			// all tests of the class have to share the database, so the data source is created once per class
+			ExtensionContext.Store classStore = getClassStore(context);
+			DataSource dataSource = classStore.getOrComputeIfAbsent(type, SharedDatabasesInvocationProvider::createDataSource, DataSource.class);
+			return containerBasedInvocation(type, dataSource, rollbackAfterEach ? DatabaseReset.ROLLBACK : DatabaseReset.SNAPSHOT);
+		}
+		return containerBasedInvocation(type, createDataSource(type), DatabaseReset.NONE);
 	}
 
-	private TestTemplateInvocationContext containerBasedInvocation(DatabaseType databaseType) {
-		DataSource dataSource = switch (databaseType) {
+	private static DataSource createDataSource(DatabaseType databaseType) {
+		return switch (databaseType) {
 			case POSTGRES -> DataSourceFactory.create(TestDatabaseContainers.postgres());
 			case MARIADB -> DataSourceFactory.create(TestDatabaseContainers.mariadb());
 			case H2 -> {
@@ -49,7 +71,9 @@ public class SharedDatabasesInvocationProvider implements TestTemplateInvocation
 			}
 			default -> throw new IllegalArgumentException(databaseType + " database type is not supported yet!");
 		};
+	}
 
+	private TestTemplateInvocationContext containerBasedInvocation(DatabaseType databaseType, DataSource dataSource, DatabaseReset reset) {
 		return new TestTemplateInvocationContext() {
 			@Override
 			public String getDisplayName(int invocationIndex) {
@@ -64,6 +88,7 @@ public class SharedDatabasesInvocationProvider implements TestTemplateInvocation
 							public void postProcessTestInstance(Object testInstance, ExtensionContext context) throws Exception {
 								Arrays.stream(testInstance.getClass().getDeclaredFields())
 										.filter(f -> f.isAnnotationPresent(DbContext.class))
+										.filter(f -> f.getType() != Connection.class)
 										.forEach(f -> {
 											f.setAccessible(true);
 											try {
@@ -77,6 +102,10 @@ public class SharedDatabasesInvocationProvider implements TestTemplateInvocation
 						new BeforeEachCallback() {
 							@Override
 							public void beforeEach(ExtensionContext context) throws Exception {
+								if (reset != DatabaseReset.NONE) {
+									beginSharedDatabaseTest(context);
+									return;
+								}
 								ArrayList<String> allScripts = new ArrayList<>();
 
 								allScripts.add("de/yamass/redg/testing/sql/drop-db.sql");
@@ -97,17 +126,114 @@ public class SharedDatabasesInvocationProvider implements TestTemplateInvocation
 							@Override
 							public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
 								var type = parameterContext.getParameter().getType();
-								return DataSource.class.isAssignableFrom(type);
+								return DataSource.class.isAssignableFrom(type) || (reset != DatabaseReset.NONE && type == Connection.class);
 							}
 
 							@Override
 							public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+								if (parameterContext.getParameter().getType() == Connection.class) {
+									return extensionContext.getStore(NAMESPACE).get(Connection.class, Connection.class);
+								}
 								return getObjectToInject(parameterContext.getParameter().getType());
 							}
+						},
+						new AfterEachCallback() {
+							@Override
+							public void afterEach(ExtensionContext context) throws Exception {
+								Connection connection = context.getStore(NAMESPACE).remove(Connection.class, Connection.class);
+								if (connection != null) {
+									try (connection) {
+										if (!connection.getAutoCommit()) {
+											connection.rollback();
+											connection.setAutoCommit(true);
+										}
+									}
+								}
+							}
 						}
 				);
 			}
 
+			/**
+			 * Sets up the database on the first test of the class and opens the connection of the test. In rollback mode, the connection gets
+			 * rolled back after the test. In snapshot mode, the captured tables are restored before the test.
+			 */
+			private void beginSharedDatabaseTest(ExtensionContext context) throws Exception {
+				if (context.getTestMethod().map(m -> m.isAnnotationPresent(Scripts.class)).orElse(false)) {
+					throw new ExtensionConfigurationException("Method level @Scripts are not supported in @RollbackAfterEach and "
+							+ "@RestoreSnapshotBeforeEach test classes");
+				}
+				Optional<?> snapshot = getClassStore(context).getOrComputeIfAbsent("initialized-" + databaseType, k -> {
+					try {
+						return initializeSharedDatabase(context);
+					} catch (Exception e) {
+						throw new ExtensionConfigurationException("Could not set up the " + databaseType + " database", e);
+					}
+				}, Optional.class);
+
+				Connection connection = dataSource.getConnection();
+				context.getStore(NAMESPACE).put(Connection.class, connection);
+				if (reset == DatabaseReset.ROLLBACK) {
+					connection.setAutoCommit(false);
+				} else {
+					((DatabaseSnapshot) snapshot.orElseThrow()).restore(connection);
+				}
+				Object testInstance = context.getRequiredTestInstance();
+				for (Field field : testInstance.getClass().getDeclaredFields()) {
+					if (field.isAnnotationPresent(DbContext.class) && field.getType() == Connection.class) {
+						field.setAccessible(true);
+						field.set(testInstance, connection);
+					}
+				}
+			}
+
+			/**
+			 * @return The snapshot of the dataset tables in snapshot mode, an empty optional in rollback mode
+			 */
+			private Optional<DatabaseSnapshot> initializeSharedDatabase(ExtensionContext context) throws Exception {
+				ArrayList<String> allScripts = new ArrayList<>();
+				allScripts.add("de/yamass/redg/testing/sql/drop-db.sql");
+				context.getTestClass()
+						.flatMap(c -> Optional.ofNullable(c.getAnnotation(Scripts.class)))
+						.map(a -> List.copyOf(Arrays.asList(a.value())))
+						.ifPresent(allScripts::addAll);
+				SqlScripts.executeScripts(dataSource, databaseType, allScripts);
+
+				Set<String> snapshotTables = new LinkedHashSet<>();
+				Object testInstance = context.getRequiredTestInstance();
+				for (Method method : testInstance.getClass().getDeclaredMethods()) {
+					if (!method.isAnnotationPresent(BaseDataset.class)) {
+						continue;
+					}
+					try (Connection connection = dataSource.getConnection()) {
+						Object[] arguments = Arrays.stream(method.getParameterTypes())
+								.map(type -> type == Connection.class ? connection : getObjectToInject(type))
+								.toArray();
+						method.setAccessible(true);
+						Object result = method.invoke(testInstance, arguments);
+						if (result instanceof AbstractRedG) {
+							snapshotTables.addAll(DatabaseSnapshot.getTouchedTables(((AbstractRedG) result).getEntitiesSortedForInsert()));
+						}
+						if (!connection.getAutoCommit()) {
+							connection.commit();
+						}
+					}
+				}
+				if (reset != DatabaseReset.SNAPSHOT) {
+					return Optional.empty();
+				}
+				context.getTestClass()
+						.map(c -> c.getAnnotation(RestoreSnapshotBeforeEach.class))
+						.ifPresent(a -> snapshotTables.addAll(Arrays.asList(a.value())));
+				if (snapshotTables.isEmpty()) {
+					throw new ExtensionConfigurationException("No tables to capture: return the RedG instance from the @BaseDataset method or "
+							+ "list the tables in @RestoreSnapshotBeforeEach");
+				}
+				try (Connection connection = dataSource.getConnection()) {
+					return Optional.of(DatabaseSnapshot.capture(connection, new ArrayList<>(snapshotTables)));
+				}
+			}
+
 			private Object getObjectToInject(Class<?> type) {
 				if (DataSource.class.isAssignableFrom(type)) {
 					return dataSource;
@@ -120,6 +246,32 @@ public class SharedDatabasesInvocationProvider implements TestTemplateInvocation
 		};
 	}
 
+	/**
+	 * How the database is reset between the tests of a class
+	 */
+	private enum DatabaseReset {
+		/**
+		 * The database is set up again before every test
+		 */
+		NONE,
+		/**
+		 * The database is set up once, the connection of every test gets rolled back
+		 */
+		ROLLBACK,
+		/**
+		 * The database is set up once, the dataset tables are restored from a snapshot before every test
+		 */
+		SNAPSHOT
+	}
+
+	private static ExtensionContext.Store getClassStore(ExtensionContext context) {
+		ExtensionContext classContext = context;
+		while (classContext.getTestMethod().isPresent() && classContext.getParent().isPresent()) {
+			classContext = classContext.getParent().get();
+		}
+		return classContext.getStore(NAMESPACE);
+	}
+
 	private static Set<DatabaseType> parseEnabledDatabases(String csv) {
 		return Arrays.stream(csv.split(","))
 				.map(String::trim)
@@ -0,0 +1,75 @@
+package de.yamass.redg.testing;
+
+import de.yamass.redg.DatabaseType;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.TestTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DbTest
+@RestoreSnapshotBeforeEach("SNAPSHOT_TEST")
+@Databases(DatabaseType.H2)
+@Scripts("de/yamass/redg/testing/snapshot-schema.sql")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class RestoreSnapshotBeforeEachTest {
+
+	private static final AtomicInteger baseDatasetInsertions = new AtomicInteger();
+
+	@DbContext
+	private Connection connection;
+
+	@BaseDataset
+	void insertBaseDataset(Connection connection) throws SQLException {
+		baseDatasetInsertions.incrementAndGet();
+		try (Statement statement = connection.createStatement()) {
+			statement.executeUpdate("insert into SNAPSHOT_TEST (NAME) values ('base')");
+		}
+	}
+
+	@TestTemplate
+	@Order(1)
+	void committedChangesAreVisibleInsideTheTest() throws SQLException {
+		assertThat(connection.getAutoCommit()).isTrue();
+		try (Statement statement = connection.createStatement()) {
+			statement.executeUpdate("insert into SNAPSHOT_TEST (NAME) values ('overlay')");
+			statement.executeUpdate("update SNAPSHOT_TEST set NAME = 'changed' where ID = 1");
+		}
+		assertThat(countRows(connection)).isEqualTo(2);
+	}
+
+	@TestTemplate
+	@Order(2)
+	void committedChangesOfPreviousTestAreReverted(Connection parameterConnection) throws SQLException {
+		assertThat(parameterConnection).isSameAs(connection);
+		assertThat(countRows(connection)).isEqualTo(1);
+		assertThat(baseDatasetInsertions.get()).isEqualTo(1);
+		try (Statement statement = connection.createStatement()) {
+			try (ResultSet rs = statement.executeQuery("select NAME from SNAPSHOT_TEST where ID = 1")) {
+				assertThat(rs.next()).isTrue();
+				assertThat(rs.getString(1)).isEqualTo("base");
+			}
+			// the identity continues after the restored rows
+			statement.executeUpdate("insert into SNAPSHOT_TEST (NAME) values ('next')");
+			try (ResultSet rs = statement.executeQuery("select max(ID) from SNAPSHOT_TEST")) {
+				rs.next();
+				assertThat(rs.getInt(1)).isEqualTo(2);
+			}
+		}
+	}
+
+	private static int countRows(Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement();
+		     ResultSet rs = statement.executeQuery("select count(*) from SNAPSHOT_TEST")) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+}
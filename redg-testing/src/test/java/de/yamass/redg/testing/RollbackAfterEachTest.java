@@ -0,0 +1,61 @@
+package de.yamass.redg.testing;
+
+import de.yamass.redg.DatabaseType;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.TestTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DbTest
+@RollbackAfterEach
+@Databases(DatabaseType.H2)
+@Scripts("de/yamass/redg/testing/rollback-schema.sql")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class RollbackAfterEachTest {
+
+	private static final AtomicInteger baseDatasetInsertions = new AtomicInteger();
+
+	@DbContext
+	private Connection connection;
+
+	@BaseDataset
+	void insertBaseDataset(Connection connection) throws SQLException {
+		baseDatasetInsertions.incrementAndGet();
+		try (Statement statement = connection.createStatement()) {
+			statement.executeUpdate("insert into ROLLBACK_TEST values (1, 'base')");
+		}
+	}
+
+	@TestTemplate
+	@Order(1)
+	void overlayIsVisibleInsideTheTest() throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.executeUpdate("insert into ROLLBACK_TEST values (2, 'overlay')");
+		}
+		assertThat(countRows(connection)).isEqualTo(2);
+	}
+
+	@TestTemplate
+	@Order(2)
+	void overlayOfPreviousTestIsRolledBack(Connection parameterConnection) throws SQLException {
+		assertThat(parameterConnection).isSameAs(connection);
+		assertThat(countRows(connection)).isEqualTo(1);
+		assertThat(baseDatasetInsertions.get()).isEqualTo(1);
+	}
+
+	private static int countRows(Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement();
+		     ResultSet rs = statement.executeQuery("select count(*) from ROLLBACK_TEST")) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+}
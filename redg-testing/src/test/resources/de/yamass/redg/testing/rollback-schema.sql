@@ -0,0 +1,4 @@
+create table ROLLBACK_TEST (
+  ID int not null primary key,
+  NAME varchar(50) not null
+);
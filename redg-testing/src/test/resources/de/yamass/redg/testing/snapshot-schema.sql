@@ -0,0 +1,4 @@
+create table SNAPSHOT_TEST (
+  ID int generated by default as identity primary key,
+  NAME varchar(50) not null
+);
@@ -0,0 +1,134 @@
+package de.yamass.redg.tests.cyclic;
+
+import de.yamass.redg.DatabaseType;
+import de.yamass.redg.generated.cyclic.GDepartment;
+import de.yamass.redg.generated.cyclic.GEmployee;
+import de.yamass.redg.generated.cyclic.RedG;
+import de.yamass.redg.runtime.InsertionFailedException;
+import de.yamass.redg.tests.Helpers;
+import de.yamass.redg.util.ScriptRunner;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+class CyclicTest {
+
+    @BeforeEach
+    public void initializeDatabase() throws Exception {
+        Class.forName("org.h2.Driver");
+        final DataSource dataSource = JdbcConnectionPool.create("jdbc:h2:mem:redg-cyclic", "", "");
+        Assertions.assertNotNull(dataSource);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        final File sqlFile = Helpers.getResourceAsFile("cyclic-schema.sql");
+        ScriptRunner.executeScripts(dataSource, new File[]{sqlFile});
+    }
+
+    @Test
+    void testInsertDataIntoDatabaseDeferringForeignKeys() throws Exception {
+        final Connection connection = JdbcConnectionPool.create("jdbc:h2:mem:redg-cyclic", "", "")
+                .getConnection();
+
+        final RedG redG = new RedG();
+        prepareTestData(redG);
+
+        redG.insertDataIntoDatabaseDeferringForeignKeys(connection);
+
+        checkData(connection);
+    }
+
+    @Test
+    void testInsertDataIntoDatabaseWithoutConstraintChecks() throws Exception {
+        final Connection connection = JdbcConnectionPool.create("jdbc:h2:mem:redg-cyclic", "", "")
+                .getConnection();
+
+        final RedG redG = new RedG();
+        prepareTestData(redG);
+
+        redG.insertDataIntoDatabaseWithoutConstraintChecks(connection, DatabaseType.H2);
+
+        checkData(connection);
+        assertReferentialIntegrityEnabled(connection);
+    }
+
+    @Test
+    void testInsertDataIntoDatabaseWithoutConstraintChecks_Invalid() throws Exception {
+        final Connection connection = JdbcConnectionPool.create("jdbc:h2:mem:redg-cyclic", "", "")
+                .getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            statement.execute("insert into EMPLOYEE (ID, NAME, DEPARTMENT) values (-1, 'Ghost', -1)");
+            statement.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+
+        final RedG redG = new RedG();
+        prepareTestData(redG);
+
+        final InsertionFailedException e = Assertions.assertThrows(InsertionFailedException.class,
+                () -> redG.insertDataIntoDatabaseWithoutConstraintChecks(connection, DatabaseType.H2));
+        Assertions.assertTrue(e.getMessage().contains("FK_EMPLOYEE_DEPARTMENT"));
+        assertReferentialIntegrityEnabled(connection);
+        Assertions.assertTrue(connection.getAutoCommit());
+
+        // the inserted rows are rolled back
+        final Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery("select count(*) from EMPLOYEE");
+        rs.next();
+        Helpers.assertResultSet(rs, 1);
+        rs = statement.executeQuery("select count(*) from DEPARTMENT");
+        rs.next();
+        Helpers.assertResultSet(rs, 0);
+
+        // without validation, the dangling row is not noticed
+        redG.insertDataIntoDatabaseWithoutConstraintChecks(connection, DatabaseType.H2, false);
+        rs = statement.executeQuery("select count(*) from EMPLOYEE");
+        rs.next();
+        Helpers.assertResultSet(rs, 4);
+    }
+
+    private void assertReferentialIntegrityEnabled(Connection connection) {
+        Assertions.assertThrows(SQLException.class, () -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("insert into EMPLOYEE (ID, NAME, MANAGER) values (-2, 'Nobody', -3)");
+            }
+        });
+    }
+
+    private void checkData(Connection connection) throws Exception {
+        final Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery("select E.NAME, M.NAME, D.NAME from EMPLOYEE E "
+                + "left join EMPLOYEE M on E.MANAGER = M.ID left join DEPARTMENT D on E.DEPARTMENT = D.ID order by E.NAME");
+        rs.next();
+        Helpers.assertResultSet(rs, "Alice", "Bob", "Sales");
+        rs.next();
+        Helpers.assertResultSet(rs, "Bob", "Alice", "Sales");
+        rs.next();
+        Helpers.assertResultSet(rs, "Carol", null, null);
+        Assertions.assertFalse(rs.next());
+
+        rs = statement.executeQuery("select D.NAME, E.NAME from DEPARTMENT D join EMPLOYEE E on D.HEAD = E.ID");
+        rs.next();
+        Helpers.assertResultSet(rs, "Sales", "Alice");
+        Assertions.assertFalse(rs.next());
+    }
+
+    private void prepareTestData(final RedG redg) {
+        // Alice and Bob manage each other, Alice heads the department both of them work in
+        final GEmployee alice = redg.addEmployee().name("Alice");
+        final GEmployee bob = redg.addEmployee().name("Bob").managerEmployee(alice);
+        alice.managerEmployee(bob);
+        final GDepartment sales = redg.addDepartment(alice).name("Sales");
+        alice.departmentDepartment(sales);
+        bob.departmentDepartment(sales);
+        redg.addEmployee().name("Carol");
+    }
+}
@@ -0,0 +1,148 @@
+package de.yamass.redg.tests.defaults;
+
+import de.yamass.redg.generated.defaults.GCustomer;
+import de.yamass.redg.generated.defaults.RedG;
+import de.yamass.redg.tests.Helpers;
+import de.yamass.redg.util.ScriptRunner;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+class DefaultsTest {
+
+    @BeforeEach
+    public void initializeDatabase() throws Exception {
+        Class.forName("org.h2.Driver");
+        final DataSource dataSource = JdbcConnectionPool.create("jdbc:h2:mem:redg-defaults", "", "");
+        Assertions.assertNotNull(dataSource);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        final File sqlFile = Helpers.getResourceAsFile("defaults-schema.sql");
+        ScriptRunner.executeScripts(dataSource, new File[]{sqlFile});
+    }
+
+    @Test
+    void testInsertDataIntoDatabase() throws Exception {
+        final Connection connection = JdbcConnectionPool.create("jdbc:h2:mem:redg-defaults", "", "")
+                .getConnection();
+
+        final RedG redG = new RedG();
+        final GCustomer[] customers = prepareTestData(redG);
+
+        redG.insertDataIntoDatabase(connection);
+
+        checkData(connection, customers);
+    }
+
+    @Test
+    void testInsertDataIntoDatabaseDeferringForeignKeys() throws Exception {
+        final Connection connection = JdbcConnectionPool.create("jdbc:h2:mem:redg-defaults", "", "")
+                .getConnection();
+
+        final RedG redG = new RedG();
+        final GCustomer[] customers = prepareTestData(redG);
+
+        redG.insertDataIntoDatabaseDeferringForeignKeys(connection);
+
+        checkData(connection, customers);
+    }
+
+    @Test
+    void testInsertDataIntoDatabaseAsync() throws Exception {
+        final DataSource dataSource = JdbcConnectionPool.create("jdbc:h2:mem:redg-defaults", "", "");
+
+        final RedG redG = new RedG();
+        final GCustomer[] customers = prepareTestData(redG);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            redG.insertDataIntoDatabaseAsync(dataSource, executor).get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            checkData(connection, customers);
+        }
+    }
+
+    @Test
+    void testSynchronizeDataWithDatabase() throws Exception {
+        final Connection connection = JdbcConnectionPool.create("jdbc:h2:mem:redg-defaults", "", "")
+                .getConnection();
+
+        final RedG redG = new RedG();
+        prepareTestData(redG);
+        redG.insertDataIntoDatabase(connection);
+
+        // the rows with generated keys cannot be matched, so they are deleted before they get inserted again with the same unique names
+        final RedG again = new RedG();
+        final GCustomer[] customers = prepareTestData(again);
+        again.synchronizeDataWithDatabase(connection);
+
+        checkData(connection, customers);
+        final Statement statement = connection.createStatement();
+        final ResultSet rs = statement.executeQuery("select count(*) from CUSTOMER");
+        rs.next();
+        Helpers.assertResultSet(rs, 3);
+    }
+
+    private void checkData(Connection connection, GCustomer[] customers) throws Exception {
+        // the generated keys are read back into the entities
+        Assertions.assertNotNull(customers[0].id());
+        Assertions.assertNotNull(customers[1].id());
+        Assertions.assertNotEquals(customers[0].id(), customers[1].id());
+        Assertions.assertEquals(42L, customers[2].id());
+
+        final Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery("select C.NAME, C.STATUS, P.ITEM from PURCHASE P "
+                + "join CUSTOMER C on P.CUSTOMER = C.ID order by P.ITEM");
+        rs.next();
+        Helpers.assertResultSet(rs, "Alice", "ACTIVE", "Book");
+        rs.next();
+        Helpers.assertResultSet(rs, "Alice", "ACTIVE", "Pen");
+        rs.next();
+        Helpers.assertResultSet(rs, "Bob", "ACTIVE", "Tea");
+        rs.next();
+        Helpers.assertResultSet(rs, "Carol", "BLOCKED", "Toy");
+        Assertions.assertFalse(rs.next());
+
+        rs = statement.executeQuery("select count(*) from CUSTOMER where CREATED_AT is null");
+        rs.next();
+        Assertions.assertEquals(0, rs.getInt(1));
+
+        // the key filled by the sequence default is read back as well, so the redemptions reference the right vouchers
+        rs = statement.executeQuery("select V.VALUE_CENTS from REDEMPTION R join VOUCHER V on R.VOUCHER = V.CODE order by V.VALUE_CENTS");
+        rs.next();
+        Helpers.assertResultSet(rs, 500);
+        rs.next();
+        Helpers.assertResultSet(rs, 1000);
+        Assertions.assertFalse(rs.next());
+    }
+
+    private GCustomer[] prepareTestData(final RedG redg) {
+        // neither the keys nor the status are set, so the database generates them
+        final GCustomer alice = redg.addCustomer().name("Alice");
+        final GCustomer bob = redg.addCustomer().name("Bob");
+        // explicitly set values are still inserted
+        final GCustomer carol = redg.addCustomer().name("Carol").id(42L).status("BLOCKED");
+        redg.addPurchase(alice).item("Book");
+        redg.addPurchase(alice).item("Pen");
+        redg.addPurchase(bob).item("Tea");
+        redg.addPurchase(carol).item("Toy");
+        redg.addRedemption(redg.addVoucher().valueCents(500));
+        redg.addRedemption(redg.addVoucher().valueCents(1000));
+        return new GCustomer[]{alice, bob, carol};
+    }
+}
@@ -22,6 +22,9 @@ class RecurseTest {
         Class.forName("org.h2.Driver");
         final DataSource dataSource = JdbcConnectionPool.create("jdbc:h2:mem:redg-recurse", "", "");
         Assertions.assertNotNull(dataSource);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
         final File sqlFile = Helpers.getResourceAsFile("recurse-schema.sql");
         ScriptRunner.executeScripts(dataSource, new File[]{sqlFile});
     }
@@ -39,6 +42,20 @@ class RecurseTest {
         checkData(connection);
     }
 
+    @Test
+    void testInsertDataIntoDatabaseDeferringForeignKeys() throws Exception {
+        final Connection connection = JdbcConnectionPool.create("jdbc:h2:mem:redg-recurse", "", "")
+                .getConnection();
+
+        final RedG redG = new RedG();
+        prepareTestData(redG);
+
+        // the not nullable self reference cannot be deferred, the rows get leveled instead
+        redG.insertDataIntoDatabaseDeferringForeignKeys(connection);
+
+        checkData(connection);
+    }
+
     private void checkData(Connection connection) throws Exception {
         final Statement statement = connection.createStatement();
         ResultSet rs = statement.executeQuery("select * from TREE_ELEMENT");
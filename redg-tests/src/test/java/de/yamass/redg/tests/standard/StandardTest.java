@@ -1,8 +1,12 @@
 package de.yamass.redg.tests.standard;
 
+import de.yamass.redg.DatabaseType;
 import de.yamass.redg.generated.standard.GReservation;
 import de.yamass.redg.generated.standard.GRestaurant;
 import de.yamass.redg.generated.standard.RedG;
+import de.yamass.redg.runtime.jdbc.DatabaseSnapshot;
+import de.yamass.redg.runtime.jdbc.DatasetFingerprint;
+import de.yamass.redg.runtime.jdbc.TableDifference;
 import de.yamass.redg.tests.Helpers;
 import de.yamass.redg.util.ScriptRunner;
 import org.h2.jdbcx.JdbcConnectionPool;
@@ -12,10 +16,14 @@ import org.junit.jupiter.api.Test;
 
 import javax.sql.DataSource;
 import java.io.File;
+import java.math.BigDecimal;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.Savepoint;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.util.List;
 
 class StandardTest {
 
@@ -24,6 +32,9 @@ class StandardTest {
         Class.forName("org.h2.Driver");
         DataSource dataSource = JdbcConnectionPool.create("jdbc:h2:mem:redg-standard", "", "");
         Assertions.assertNotNull(dataSource);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
         final File sqlFile = Helpers.getResourceAsFile("standard-schema.sql");
         ScriptRunner.executeScripts(dataSource, new File[]{sqlFile});
     }
@@ -41,6 +52,313 @@ class StandardTest {
         checkData(connection);
     }
 
+    @Test
+    void testSnapshotRestore() throws Exception {
+        final Connection connection = JdbcConnectionPool.create("jdbc:h2:mem:redg-standard", "", "")
+                .getConnection();
+
+        final RedG redG = new RedG();
+        prepareTestData(redG);
+        redG.insertDataIntoDatabase(connection);
+
+        final DatabaseSnapshot snapshot = redG.captureSnapshot(connection);
+        Assertions.assertEquals(5, snapshot.getTableNames().size());
+
+        final Statement statement = connection.createStatement();
+        statement.executeUpdate("delete from WAITER_RESERVATION");
+        statement.executeUpdate("update RESTAURANT set NAME = 'Bob''s Burgers'");
+
+        snapshot.restore(connection);
+
+        checkData(connection);
+    }
+
+    @Test
+    void testDeleteDataFromDatabase() throws Exception {
+        final Connection connection = JdbcConnectionPool.create("jdbc:h2:mem:redg-standard", "", "")
+                .getConnection();
+        final Statement statement = connection.createStatement();
+        statement.executeUpdate("insert into RESTAURANT values (100, 'Other')");
+        statement.executeUpdate("insert into WAITER values (100, 'Other', 100)");
+
+        final RedG redG = new RedG();
+        prepareTestData(redG);
+        redG.insertDataIntoDatabase(connection);
+        redG.deleteDataFromDatabase(connection);
+
+        for (String table : new String[]{"GUEST", "RESERVATION", "WAITER_RESERVATION"}) {
+            ResultSet rs = statement.executeQuery("select count(*) from " + table);
+            rs.next();
+            Helpers.assertResultSet(rs, 0);
+        }
+        ResultSet rs = statement.executeQuery("select * from RESTAURANT");
+        rs.next();
+        Helpers.assertResultSet(rs, 100, "Other");
+        Assertions.assertFalse(rs.next());
+        rs = statement.executeQuery("select * from WAITER");
+        rs.next();
+        Helpers.assertResultSet(rs, 100, "Other", 100);
+        Assertions.assertFalse(rs.next());
+
+        // the data can be inserted again after deleting it
+        redG.insertDataIntoDatabase(connection);
+        statement.executeUpdate("delete from WAITER where ID = 100");
+        statement.executeUpdate("delete from RESTAURANT where ID = 100");
+        checkData(connection);
+    }
+
+    @Test
+    void testDeleteDataFromDatabase_InsideSavepoint() throws Exception {
+        final Connection connection = JdbcConnectionPool.create("jdbc:h2:mem:redg-standard", "", "")
+                .getConnection();
+        connection.setAutoCommit(false);
+        try {
+            final RedG redG = new RedG();
+            prepareTestData(redG);
+            redG.insertDataIntoDatabase(connection);
+
+            // asking for truncation is ignored inside a transaction, TRUNCATE would commit it and invalidate the savepoint
+            final Savepoint savepoint = connection.setSavepoint();
+            redG.deleteDataFromDatabase(connection, true);
+            final ResultSet rs = connection.createStatement().executeQuery("select count(*) from WAITER_RESERVATION");
+            rs.next();
+            Helpers.assertResultSet(rs, 0);
+
+            connection.rollback(savepoint);
+            checkData(connection);
+        } finally {
+            connection.rollback();
+            connection.setAutoCommit(true);
+        }
+    }
+
+    @Test
+    void testDeleteDataFromDatabase_KeepsForeignRowsOfUnreferencedTables() throws Exception {
+        final Connection connection = JdbcConnectionPool.create("jdbc:h2:mem:redg-standard", "", "")
+                .getConnection();
+
+        final RedG redG = new RedG();
+        prepareTestData(redG);
+        redG.insertDataIntoDatabase(connection);
+
+        // replace one of the inserted rows, the row count of WAITER_RESERVATION stays the same
+        final Statement statement = connection.createStatement();
+        statement.executeUpdate("insert into RESTAURANT values (100, 'Other')");
+        statement.executeUpdate("insert into GUEST values (100, null, 'Other')");
+        statement.executeUpdate("insert into RESERVATION values (100, 100, timestamp '2000-01-01 00:00:00')");
+        statement.executeUpdate("insert into WAITER values (100, 'Other', 100)");
+        statement.executeUpdate("delete from WAITER_RESERVATION where WAITER = 1");
+        statement.executeUpdate("insert into WAITER_RESERVATION values (100, 100, 100, timestamp '2000-01-01 00:00:00')");
+
+        redG.deleteDataFromDatabase(connection);
+
+        final ResultSet rs = statement.executeQuery("select WAITER from WAITER_RESERVATION");
+        rs.next();
+        Helpers.assertResultSet(rs, 100);
+        Assertions.assertFalse(rs.next());
+    }
+
+    @Test
+    void testDeleteDataFromDatabase_TruncateOwnedTables() throws Exception {
+        final Connection connection = JdbcConnectionPool.create("jdbc:h2:mem:redg-standard", "", "")
+                .getConnection();
+
+        final RedG redG = new RedG();
+        prepareTestData(redG);
+        redG.insertDataIntoDatabase(connection);
+        redG.deleteDataFromDatabase(connection, true);
+
+        final Statement statement = connection.createStatement();
+        for (String table : new String[]{"RESTAURANT", "GUEST", "WAITER", "RESERVATION", "WAITER_RESERVATION"}) {
+            ResultSet rs = statement.executeQuery("select count(*) from " + table);
+            rs.next();
+            Helpers.assertResultSet(rs, 0);
+        }
+        redG.insertDataIntoDatabase(connection);
+        checkData(connection);
+    }
+
+    @Test
+    void testDeleteDataFromDatabase_ThenInsertIfChanged() throws Exception {
+        final Connection connection = JdbcConnectionPool.create("jdbc:h2:mem:redg-standard", "", "")
+                .getConnection();
+
+        final RedG redG = new RedG();
+        prepareTestData(redG);
+        Assertions.assertTrue(redG.insertDataIntoDatabaseIfChanged(connection));
+        Assertions.assertFalse(redG.insertDataIntoDatabaseIfChanged(connection));
+
+        // the deleted dataset is no longer in the database, so it has to be inserted again
+        redG.deleteDataFromDatabase(connection);
+        Assertions.assertTrue(redG.insertDataIntoDatabaseIfChanged(connection));
+        checkData(connection);
+
+        // restoring a snapshot and synchronizing the data rewrite the rows as well
+        final DatabaseSnapshot snapshot = redG.captureSnapshot(connection);
+        snapshot.restore(connection);
+        Assertions.assertFalse(DatasetFingerprint.isRecorded(connection, redG.getFingerprint()));
+        DatasetFingerprint.record(connection, redG.getFingerprint());
+        redG.synchronizeDataWithDatabase(connection);
+        Assertions.assertFalse(DatasetFingerprint.isRecorded(connection, redG.getFingerprint()));
+    }
+
+    @Test
+    void testFork() throws Exception {
+        final Connection connection = JdbcConnectionPool.create("jdbc:h2:mem:redg-standard", "", "")
+                .getConnection();
+
+        final RedG redG = new RedG();
+        prepareTestData(redG);
+
+        final RedG fork = redG.fork();
+        final GRestaurant restaurant = redG.findSingleEntity(GRestaurant.class, r -> true);
+        final GRestaurant forkedRestaurant = fork.edit(restaurant);
+        forkedRestaurant.name("Bob's Burgers");
+        fork.addWaiter().name("Bob").restaurantRestaurant(forkedRestaurant);
+
+        Assertions.assertNotSame(restaurant, forkedRestaurant);
+        Assertions.assertSame(forkedRestaurant, fork.edit(restaurant));
+        Assertions.assertEquals("Susan's Steakhouse", restaurant.name());
+        Assertions.assertEquals(redG.getEntities().size() + 1, fork.getEntities().size());
+
+        fork.insertDataIntoDatabase(connection);
+        final Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery("select NAME from RESTAURANT");
+        rs.next();
+        Helpers.assertResultSet(rs, "Bob's Burgers");
+        rs = statement.executeQuery("select count(*) from WAITER");
+        rs.next();
+        Helpers.assertResultSet(rs, 3);
+
+        fork.deleteDataFromDatabase(connection);
+        redG.insertDataIntoDatabase(connection);
+        checkData(connection);
+    }
+
+    @Test
+    void testUpsertDataIntoDatabase() throws Exception {
+        final Connection connection = JdbcConnectionPool.create("jdbc:h2:mem:redg-standard", "", "")
+                .getConnection();
+
+        final RedG redG = new RedG();
+        prepareTestData(redG);
+
+        redG.upsertDataIntoDatabase(connection, DatabaseType.H2);
+        checkData(connection);
+        redG.upsertDataIntoDatabase(connection, DatabaseType.H2);
+        checkData(connection);
+
+        final GRestaurant restaurant = redG.findSingleEntity(GRestaurant.class, r -> true);
+        restaurant.name("Bob's Burgers");
+        redG.upsertDataIntoDatabase(connection, DatabaseType.H2);
+        final Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery("select * from RESTAURANT");
+        rs.next();
+        Helpers.assertResultSet(rs, 0, "Bob's Burgers");
+        Assertions.assertFalse(rs.next());
+
+        restaurant.name("Susan's Steakhouse");
+        redG.upsertDataIntoDatabase(connection, DatabaseType.H2);
+        checkData(connection);
+    }
+
+    @Test
+    void testSynchronizeDataWithDatabase() throws Exception {
+        final Connection connection = JdbcConnectionPool.create("jdbc:h2:mem:redg-standard", "", "")
+                .getConnection();
+
+        final RedG redG = new RedG();
+        prepareTestData(redG);
+
+        List<TableDifference> differences = redG.synchronizeDataWithDatabase(connection);
+        checkData(connection);
+        Assertions.assertEquals(5, differences.size());
+        Assertions.assertEquals(8, differences.stream().mapToInt(TableDifference::getInsertedRows).sum());
+
+        differences = redG.synchronizeDataWithDatabase(connection);
+        checkData(connection);
+        Assertions.assertTrue(differences.stream().allMatch(TableDifference::isUnchanged));
+
+        final RedG changed = new RedG();
+        prepareTestData(changed);
+        changed.findSingleEntity(GRestaurant.class, r -> true).name("Bob's Burgers");
+        changed.addWaiter().name("Bob");
+        differences = changed.synchronizeDataWithDatabase(connection);
+        final Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery("select NAME from RESTAURANT");
+        rs.next();
+        Helpers.assertResultSet(rs, "Bob's Burgers");
+        rs = statement.executeQuery("select count(*) from WAITER");
+        rs.next();
+        Helpers.assertResultSet(rs, 3);
+        Assertions.assertEquals(1, differences.stream().mapToInt(TableDifference::getUpdatedRows).sum());
+        Assertions.assertEquals(1, differences.stream().mapToInt(TableDifference::getInsertedRows).sum());
+
+        differences = redG.synchronizeDataWithDatabase(connection);
+        checkData(connection);
+        Assertions.assertEquals(1, differences.stream().mapToInt(TableDifference::getUpdatedRows).sum());
+        Assertions.assertEquals(1, differences.stream().mapToInt(TableDifference::getDeletedRows).sum());
+    }
+
+    @Test
+    void testSynchronizeDataWithDatabase_MovedForeignKey() throws Exception {
+        final Connection connection = JdbcConnectionPool.create("jdbc:h2:mem:redg-standard", "", "")
+                .getConnection();
+
+        final RedG redG = new RedG();
+        redG.addWaiter().name("Sally").restaurantRestaurant(redG.addRestaurant().name("Susan's Steakhouse"));
+        redG.synchronizeDataWithDatabase(connection);
+
+        // the waiter moves to a new restaurant while the old one is dropped
+        final RedG changed = new RedG();
+        changed.addWaiter().name("Sally").restaurantRestaurant(changed.addRestaurant().id(BigDecimal.ONE).name("Bob's Burgers"));
+        final List<TableDifference> differences = changed.synchronizeDataWithDatabase(connection);
+        Assertions.assertEquals(1, differences.stream().mapToInt(TableDifference::getInsertedRows).sum());
+        Assertions.assertEquals(1, differences.stream().mapToInt(TableDifference::getUpdatedRows).sum());
+        Assertions.assertEquals(1, differences.stream().mapToInt(TableDifference::getDeletedRows).sum());
+
+        final Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery("select * from RESTAURANT");
+        rs.next();
+        Helpers.assertResultSet(rs, 1, "Bob's Burgers");
+        Assertions.assertFalse(rs.next());
+        rs = statement.executeQuery("select * from WAITER");
+        rs.next();
+        Helpers.assertResultSet(rs, 0, "Sally", 1);
+        Assertions.assertFalse(rs.next());
+    }
+
+    @Test
+    void testSynchronizeDataWithDatabase_MultiplePages() throws Exception {
+        final Connection connection = JdbcConnectionPool.create("jdbc:h2:mem:redg-standard", "", "")
+                .getConnection();
+
+        final RedG redG = new RedG();
+        final GRestaurant restaurant = redG.addRestaurant().name("Susan's Steakhouse");
+        for (int i = 0; i < 2500; i++) {
+            redG.addReservation(restaurant, redG.dummyGuest()).time(new Timestamp(i * 1000L));
+            redG.addWaiter().name("Waiter " + i);
+        }
+        redG.insertDataIntoDatabase(connection);
+
+        List<TableDifference> differences = redG.synchronizeDataWithDatabase(connection);
+        Assertions.assertTrue(differences.stream().allMatch(TableDifference::isUnchanged));
+
+        final Statement statement = connection.createStatement();
+        statement.executeUpdate("update WAITER set NAME = 'Changed' where ID in (5, 1500, 2499)");
+        try (PreparedStatement delete = connection.prepareStatement("delete from RESERVATION where TIME = ?")) {
+            delete.setTimestamp(1, new Timestamp(1000 * 1000L));
+            Assertions.assertEquals(1, delete.executeUpdate());
+        }
+        differences = redG.synchronizeDataWithDatabase(connection);
+        Assertions.assertEquals(3, differences.stream().mapToInt(TableDifference::getUpdatedRows).sum());
+        Assertions.assertEquals(1, differences.stream().mapToInt(TableDifference::getInsertedRows).sum());
+        Assertions.assertEquals(0, differences.stream().mapToInt(TableDifference::getDeletedRows).sum());
+        final ResultSet rs = statement.executeQuery("select count(*) from WAITER where NAME = 'Changed'");
+        rs.next();
+        Helpers.assertResultSet(rs, 0);
+    }
+
     private void checkData(Connection connection) throws Exception {
         final Statement statement = connection.createStatement();
         ResultSet rs = statement.executeQuery("select * from RESTAURANT");
@@ -75,6 +393,42 @@ class StandardTest {
         Assertions.assertFalse(rs.next());
     }
 
+    @Test
+    void testCloneSubgraph() throws Exception {
+        final Connection connection = JdbcConnectionPool.create("jdbc:h2:mem:redg-standard", "", "")
+                .getConnection();
+
+        final RedG redG = new RedG();
+        prepareTestData(redG);
+        final GRestaurant restaurant = redG.findSingleEntity(GRestaurant.class, r -> true);
+
+        final List<GRestaurant> copies = redG.cloneSubgraph(restaurant, 3);
+
+        Assertions.assertEquals(3, copies.size());
+        Assertions.assertEquals("Susan's Steakhouse", copies.get(0).name());
+        Assertions.assertNotEquals(restaurant.id(), copies.get(0).id());
+        final GReservation copiedReservation = redG.findSingleEntity(GReservation.class, r -> r.restaurantIdRestaurant() == copies.get(2));
+        Assertions.assertNotNull(copiedReservation);
+        // the hand-written part of the reservation key is kept, the replaced restaurant makes the key unique
+        Assertions.assertEquals(4, redG.findEntities(GReservation.class, r -> new Timestamp(1234567890L).equals(r.time())).size());
+
+        redG.insertDataIntoDatabase(connection);
+        final Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery("select count(*) from RESTAURANT");
+        rs.next();
+        Helpers.assertResultSet(rs, 4);
+        rs = statement.executeQuery("select count(*) from RESERVATION");
+        rs.next();
+        Helpers.assertResultSet(rs, 8);
+        rs = statement.executeQuery("select count(*) from WAITER_RESERVATION");
+        rs.next();
+        Helpers.assertResultSet(rs, 8);
+        // the waiters do not reference the restaurant, so they are shared by all copies
+        rs = statement.executeQuery("select count(*) from WAITER");
+        rs.next();
+        Helpers.assertResultSet(rs, 2);
+    }
+
     private void prepareTestData(final RedG redg) {
         GReservation reservation = redg.addReservation(
                 redg.addRestaurant().name("Susan's Steakhouse"),
@@ -0,0 +1,19 @@
+-- employees reference their manager and department, departments reference their head, so the foreign keys form cycles
+
+create table DEPARTMENT (
+  ID number(19) not null primary key,
+  NAME varchar2(50 CHARACTERS) not null,
+  HEAD number(19) not null
+);
+
+create table EMPLOYEE (
+  ID number(19) not null primary key,
+  NAME varchar2(50 CHARACTERS) not null,
+  MANAGER number(19),
+  DEPARTMENT number(19),
+
+  constraint FK_EMPLOYEE_MANAGER foreign key (MANAGER) references EMPLOYEE(ID),
+  constraint FK_EMPLOYEE_DEPARTMENT foreign key (DEPARTMENT) references DEPARTMENT(ID)
+);
+
+alter table DEPARTMENT add constraint FK_DEPARTMENT_HEAD foreign key (HEAD) references EMPLOYEE(ID);
@@ -0,0 +1,31 @@
+-- keys are generated by identity columns, the status and creation time are filled by column defaults
+
+create table CUSTOMER (
+  ID bigint generated by default as identity primary key,
+  NAME varchar2(50 CHARACTERS) not null unique,
+  STATUS varchar2(10 CHARACTERS) default 'ACTIVE' not null,
+  CREATED_AT timestamp default CURRENT_TIMESTAMP not null
+);
+
+create table PURCHASE (
+  ID bigint generated by default as identity primary key,
+  CUSTOMER bigint not null,
+  ITEM varchar2(50 CHARACTERS) not null,
+
+  constraint FK_PURCHASE_CUSTOMER foreign key (CUSTOMER) references CUSTOMER(ID)
+);
+
+-- the voucher key is filled by a sequence default instead of an identity column
+create sequence VOUCHER_SEQ start with 100;
+
+create table VOUCHER (
+  CODE bigint default next value for VOUCHER_SEQ primary key,
+  VALUE_CENTS int not null
+);
+
+create table REDEMPTION (
+  ID bigint generated by default as identity primary key,
+  VOUCHER bigint not null,
+
+  constraint FK_REDEMPTION_VOUCHER foreign key (VOUCHER) references VOUCHER(CODE)
+);